@@ -1,6 +1,9 @@
 package io.dropwizard.assets;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.base.Charsets;
+import com.google.common.cache.CacheBuilderSpec;
 import io.dropwizard.Bundle;
 import io.dropwizard.servlets.assets.AssetServlet;
 import io.dropwizard.setup.Bootstrap;
@@ -8,6 +11,7 @@ import io.dropwizard.setup.Environment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static com.codahale.metrics.MetricRegistry.name;
 import static com.google.common.base.Preconditions.checkArgument;
 
 /**
@@ -24,6 +28,9 @@ public class AssetsBundle implements Bundle {
     private final String uriPath;
     private final String indexFile;
     private final String assetsName;
+    private final CacheBuilderSpec cacheSpec;
+    private final boolean revalidate;
+    private final boolean mapFiles;
 
     /**
      * Creates a new AssetsBundle which serves up static assets from
@@ -90,12 +97,55 @@ public class AssetsBundle implements Bundle {
      * @param assetsName          the name of servlet mapping used for this assets bundle
      */
     public AssetsBundle(String resourcePath, String uriPath, String indexFile, String assetsName) {
+        this(resourcePath, uriPath, indexFile, assetsName, AssetServlet.DEFAULT_CACHE_SPEC, true);
+    }
+
+    /**
+     * Creates a new AssetsBundle which will configure the application to serve the static files
+     * located in {@code src/main/resources/${resourcePath}} as {@code /${uriPath}}, keeping loaded
+     * assets in an in-memory cache built from {@code cacheSpec}. A {@code maximumWeight} in the
+     * specification limits the total number of cached bytes. If {@code revalidate} is true, cached
+     * assets are reloaded when the last modified time of the underlying resource changes, which is
+     * checked at most once a second per asset.
+     *
+     * @param resourcePath        the resource path (in the classpath) of the static asset files
+     * @param uriPath             the uri path for the static asset files
+     * @param indexFile           the name of the index file to use
+     * @param assetsName          the name of servlet mapping used for this assets bundle
+     * @param cacheSpec           a {@link CacheBuilderSpec} for the asset cache
+     * @param revalidate          whether cached assets are checked for modifications
+     */
+    public AssetsBundle(String resourcePath, String uriPath, String indexFile, String assetsName,
+                        CacheBuilderSpec cacheSpec, boolean revalidate) {
+        this(resourcePath, uriPath, indexFile, assetsName, cacheSpec, revalidate, false);
+    }
+
+    /**
+     * Creates a new AssetsBundle which will configure the application to serve the static files
+     * located in {@code src/main/resources/${resourcePath}} as {@code /${uriPath}}. If
+     * {@code mapFiles} is true, assets of 64 KiB or more which live on the filesystem (rather than
+     * in a jar) are read from the file for each response instead of being copied onto the heap,
+     * and memory-mapped if the container can write them without copying.
+     *
+     * @param resourcePath        the resource path (in the classpath) of the static asset files
+     * @param uriPath             the uri path for the static asset files
+     * @param indexFile           the name of the index file to use
+     * @param assetsName          the name of servlet mapping used for this assets bundle
+     * @param cacheSpec           a {@link CacheBuilderSpec} for the asset cache
+     * @param revalidate          whether cached assets are checked for modifications
+     * @param mapFiles            whether assets on the filesystem are memory-mapped
+     */
+    public AssetsBundle(String resourcePath, String uriPath, String indexFile, String assetsName,
+                        CacheBuilderSpec cacheSpec, boolean revalidate, boolean mapFiles) {
         checkArgument(resourcePath.startsWith("/"), "%s is not an absolute path", resourcePath);
         checkArgument(!"/".equals(resourcePath), "%s is the classpath root", resourcePath);
         this.resourcePath = resourcePath.endsWith("/") ? resourcePath : (resourcePath + '/');
         this.uriPath = uriPath.endsWith("/") ? uriPath : (uriPath + '/');
         this.indexFile = indexFile;
         this.assetsName = assetsName;
+        this.cacheSpec = cacheSpec;
+        this.revalidate = revalidate;
+        this.mapFiles = mapFiles;
     }
 
     @Override
@@ -106,10 +156,39 @@ public class AssetsBundle implements Bundle {
     @Override
     public void run(Environment environment) {
         LOGGER.info("Registering AssetBundle with name: {} for path {}", assetsName, uriPath + '*');
-        environment.servlets().addServlet(assetsName, createServlet()).addMapping(uriPath + '*');
+        final AssetServlet servlet = createServlet();
+        registerCacheMetrics(environment.metrics(), servlet);
+        environment.servlets().addServlet(assetsName, servlet).addMapping(uriPath + '*');
     }
 
     private AssetServlet createServlet() {
-        return new AssetServlet(resourcePath, uriPath, indexFile, Charsets.UTF_8);
+        return new AssetServlet(resourcePath, uriPath, indexFile, Charsets.UTF_8, cacheSpec, revalidate, mapFiles);
+    }
+
+    private void registerCacheMetrics(MetricRegistry metrics, final AssetServlet servlet) {
+        metrics.register(name(AssetServlet.class, assetsName, "cache", "hits"), new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return servlet.getCacheStats().hitCount();
+            }
+        });
+        metrics.register(name(AssetServlet.class, assetsName, "cache", "misses"), new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return servlet.getCacheStats().missCount();
+            }
+        });
+        metrics.register(name(AssetServlet.class, assetsName, "cache", "evictions"), new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return servlet.getCacheStats().evictionCount();
+            }
+        });
+        metrics.register(name(AssetServlet.class, assetsName, "cache", "size"), new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return servlet.getCacheSize();
+            }
+        });
     }
 }
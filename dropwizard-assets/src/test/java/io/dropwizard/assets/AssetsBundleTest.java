@@ -1,5 +1,7 @@
 package io.dropwizard.assets;
 
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.CacheBuilderSpec;
 import com.google.common.io.Resources;
 import io.dropwizard.jetty.setup.ServletEnvironment;
 import io.dropwizard.servlets.assets.AssetServlet;
@@ -18,6 +20,7 @@ import static org.mockito.Mockito.*;
 public class AssetsBundleTest {
     private final ServletEnvironment servletEnvironment = mock(ServletEnvironment.class);
     private final Environment environment = mock(Environment.class);
+    private final MetricRegistry metricRegistry = new MetricRegistry();
 
     private AssetServlet servlet;
     private String servletPath;
@@ -25,6 +28,7 @@ public class AssetsBundleTest {
     @Before
     public void setUp() throws Exception {
         when(environment.servlets()).thenReturn(servletEnvironment);
+        when(environment.metrics()).thenReturn(metricRegistry);
     }
 
     @Test
@@ -125,6 +129,21 @@ public class AssetsBundleTest {
                 .isEqualTo("/what");
     }
 
+    @Test
+    public void registersAssetCacheMetrics() throws Exception {
+        runBundle(new AssetsBundle("/json", "/what", "index.txt", "customAsset",
+                CacheBuilderSpec.parse("maximumWeight=1024"), false), "customAsset");
+
+        assertThat(metricRegistry.getGauges().keySet())
+                .contains("io.dropwizard.servlets.assets.AssetServlet.customAsset.cache.hits",
+                        "io.dropwizard.servlets.assets.AssetServlet.customAsset.cache.misses",
+                        "io.dropwizard.servlets.assets.AssetServlet.customAsset.cache.evictions",
+                        "io.dropwizard.servlets.assets.AssetServlet.customAsset.cache.size");
+
+        assertThat(servlet.getCacheSize())
+                .isZero();
+    }
+
     private URL normalize(String path) {
         return ResourceURL.appendTrailingSlash(Resources.getResource(path));
     }
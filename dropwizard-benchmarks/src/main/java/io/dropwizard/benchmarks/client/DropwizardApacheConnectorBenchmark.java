@@ -0,0 +1,238 @@
+package io.dropwizard.benchmarks.client;
+
+import com.google.common.collect.Lists;
+import io.dropwizard.client.DropwizardApacheConnector;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.client.spi.ConnectorProvider;
+import org.glassfish.jersey.message.internal.Statuses;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Configuration;
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-call overhead of translating requests and responses between Jersey and
+ * Apache HttpClient in {@link DropwizardApacheConnector}. The Apache client is a stub which
+ * returns a canned response, so no I/O is involved. The {@code baseline} connector translates
+ * requests and responses the way the connector did before request configs were cached, copying
+ * the default request config and looking each header up again on every call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class DropwizardApacheConnectorBenchmark {
+
+    @Param({"baseline", "dropwizard"})
+    public String connector;
+
+    private Client client;
+    private WebTarget target;
+
+    @Setup
+    public void setUp() {
+        final CloseableHttpClient httpClient = new StubHttpClient();
+        client = ClientBuilder.newClient(new ClientConfig().connectorProvider(new ConnectorProvider() {
+            @Override
+            public Connector getConnector(Client client, Configuration runtimeConfig) {
+                if ("baseline".equals(connector)) {
+                    return new BaselineApacheConnector(httpClient, RequestConfig.DEFAULT);
+                }
+                return new DropwizardApacheConnector(httpClient, RequestConfig.DEFAULT, false);
+            }
+        }));
+        target = client.target("http://localhost:8080/players/21");
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+    }
+
+    @Benchmark
+    public int getWithDefaultRequestConfig() {
+        final Response response = target.request()
+                .header("Accept", "application/json")
+                .header("X-Request-Id", "a23f78bc31cc5de821ad9412e")
+                .get();
+        response.close();
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int getWithOverriddenRequestConfig() {
+        final Response response = target.request()
+                .header("Accept", "application/json")
+                .header("X-Request-Id", "a23f78bc31cc5de821ad9412e")
+                .property(ClientProperties.READ_TIMEOUT, 1000)
+                .property(ClientProperties.FOLLOW_REDIRECTS, false)
+                .get();
+        response.close();
+        return response.getStatus();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(DropwizardApacheConnectorBenchmark.class.getSimpleName())
+                .forks(1)
+                .warmupIterations(10)
+                .measurementIterations(5)
+                .addProfiler("gc")
+                .build())
+                .run();
+    }
+
+    private static class StubResponse extends BasicHttpResponse implements CloseableHttpResponse {
+        private StubResponse() {
+            super(HttpVersion.HTTP_1_1, 200, "OK");
+            addHeader("Content-Type", "application/json");
+            addHeader("Cache-Control", "no-cache");
+            addHeader("Vary", "Accept");
+            addHeader("Vary", "Accept-Encoding");
+            addHeader("Date", "Thu, 15 Oct 2026 12:00:00 GMT");
+            setEntity(new ByteArrayEntity("{\"name\":\"John Doe\"}".getBytes(StandardCharsets.UTF_8)));
+        }
+
+        @Override
+        public void close() throws IOException {
+            // nothing to release
+        }
+    }
+
+    private static class StubHttpClient extends CloseableHttpClient {
+        private final CloseableHttpResponse response = new StubResponse();
+
+        @Override
+        protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context)
+                throws IOException, ClientProtocolException {
+            return response;
+        }
+
+        @Override
+        public void close() throws IOException {
+            // nothing to release
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public HttpParams getParams() {
+            return new BasicHttpParams();
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public ClientConnectionManager getConnectionManager() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * The uncached translation, for comparison.
+     */
+    private static class BaselineApacheConnector implements Connector {
+        private final CloseableHttpClient client;
+        private final RequestConfig defaultRequestConfig;
+
+        private BaselineApacheConnector(CloseableHttpClient client, RequestConfig defaultRequestConfig) {
+            this.client = client;
+            this.defaultRequestConfig = defaultRequestConfig;
+        }
+
+        @Override
+        public ClientResponse apply(ClientRequest jerseyRequest) {
+            try {
+                final RequestBuilder builder = RequestBuilder.create(jerseyRequest.getMethod())
+                        .setUri(jerseyRequest.getUri());
+                for (String headerName : jerseyRequest.getHeaders().keySet()) {
+                    if (!headerName.equalsIgnoreCase("User-Agent")) {
+                        builder.addHeader(headerName, jerseyRequest.getHeaderString(headerName));
+                    }
+                }
+                final Configuration configuration = jerseyRequest.getConfiguration();
+                final Integer timeout = (Integer) configuration.getProperty(ClientProperties.READ_TIMEOUT);
+                final Integer connectTimeout = (Integer) configuration.getProperty(ClientProperties.CONNECT_TIMEOUT);
+                final Boolean followRedirects = (Boolean) configuration.getProperty(ClientProperties.FOLLOW_REDIRECTS);
+                if (timeout != null || connectTimeout != null || followRedirects != null) {
+                    final RequestConfig.Builder requestConfig = RequestConfig.copy(defaultRequestConfig);
+                    if (timeout != null) {
+                        requestConfig.setSocketTimeout(timeout);
+                    }
+                    if (connectTimeout != null) {
+                        requestConfig.setConnectTimeout(connectTimeout);
+                    }
+                    if (followRedirects != null) {
+                        requestConfig.setRedirectsEnabled(followRedirects);
+                    }
+                    builder.setConfig(requestConfig.build());
+                }
+
+                final CloseableHttpResponse apacheResponse = client.execute(builder.build());
+                final ClientResponse jerseyResponse = new ClientResponse(
+                        Statuses.from(apacheResponse.getStatusLine().getStatusCode(),
+                                      apacheResponse.getStatusLine().getReasonPhrase()),
+                        jerseyRequest);
+                for (Header header : apacheResponse.getAllHeaders()) {
+                    final List<String> headerValues = jerseyResponse.getHeaders().get(header.getName());
+                    if (headerValues == null) {
+                        jerseyResponse.getHeaders().put(header.getName(), Lists.newArrayList(header.getValue()));
+                    } else {
+                        headerValues.add(header.getValue());
+                    }
+                }
+                final HttpEntity entity = apacheResponse.getEntity();
+                jerseyResponse.setEntityStream(entity != null ? entity.getContent() :
+                        new ByteArrayInputStream(new byte[0]));
+                return jerseyResponse;
+            } catch (Exception e) {
+                throw new ProcessingException(e);
+            }
+        }
+
+        @Override
+        public Future<?> apply(ClientRequest request, AsyncConnectorCallback callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getName() {
+            return "baseline";
+        }
+
+        @Override
+        public void close() {
+            // the stub client has nothing to release
+        }
+    }
+}
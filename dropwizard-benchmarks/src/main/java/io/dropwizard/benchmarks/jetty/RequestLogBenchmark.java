@@ -0,0 +1,128 @@
+package io.dropwizard.benchmarks.jetty;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.LayoutBase;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.LayoutWrappingEncoder;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import com.google.common.io.ByteStreams;
+import io.dropwizard.jetty.NCSARequestLogFormatter;
+import io.dropwizard.jetty.RequestLogBuffer;
+import io.dropwizard.jetty.Slf4jRequestLog;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of logging one request through {@link Slf4jRequestLog}, which builds a
+ * string and wraps it in a Logback event, with formatting it into a reusable byte buffer the way
+ * {@link io.dropwizard.jetty.DirectRequestLog} does. Both write to a buffered stream which
+ * discards its output, so no I/O is involved.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class RequestLogBenchmark {
+    private static final byte[] LINE_SEPARATOR = CoreConstants.LINE_SEPARATOR.getBytes();
+
+    /**
+     * Don't trust the IDE, these are advisedly non-final to avoid constant folding
+     */
+    private String address = "10.0.0.1";
+    private String method = "GET";
+    private String uri = "/players/21?include=teams";
+    private String protocol = "HTTP/1.1";
+    private int status = 200;
+    private long length = 8290;
+    private String referer = "http://example.com/players";
+    private String userAgent = "Mozilla/5.0 (X11; Linux x86_64) Gecko/20100101 Firefox/38.0";
+    private long timestamp = System.currentTimeMillis();
+    private long latency = 12;
+
+    private String date;
+    private Slf4jRequestLog slf4jRequestLog;
+    private NCSARequestLogFormatter formatter;
+    private RequestLogBuffer buffer;
+    private OutputStream directOutput;
+
+    @Setup
+    public void setUp() {
+        final TimeZone utc = TimeZone.getTimeZone("UTC");
+        final SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MMM/yyyy:HH:mm:ss Z", Locale.US);
+        dateFormat.setTimeZone(utc);
+        date = dateFormat.format(new Date(timestamp));
+
+        final LoggerContext context = new LoggerContext();
+        final LayoutBase<ILoggingEvent> layout = new LayoutBase<ILoggingEvent>() {
+            @Override
+            public String doLayout(ILoggingEvent event) {
+                // the same as RequestLogFactory's layout
+                return event.getFormattedMessage() + CoreConstants.LINE_SEPARATOR;
+            }
+        };
+        layout.setContext(context);
+        layout.start();
+        final LayoutWrappingEncoder<ILoggingEvent> encoder = new LayoutWrappingEncoder<>();
+        encoder.setContext(context);
+        encoder.setLayout(layout);
+        final OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(new BufferedOutputStream(ByteStreams.nullOutputStream(), 64 * 1024));
+        appender.start();
+        final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+        appenders.addAppender(appender);
+        slf4jRequestLog = new Slf4jRequestLog(appenders, utc);
+
+        formatter = new NCSARequestLogFormatter(utc, Locale.US);
+        buffer = new RequestLogBuffer(256, 16 * 1024);
+        directOutput = new BufferedOutputStream(ByteStreams.nullOutputStream(), 64 * 1024);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        slf4jRequestLog.stop();
+    }
+
+    @Benchmark
+    public void slf4jRequestLog() throws IOException {
+        // the same string AbstractNCSARequestLog builds before it calls write()
+        final StringBuilder builder = new StringBuilder(256);
+        builder.append(address).append(" - - [").append(date).append("] \"")
+               .append(method).append(' ').append(uri).append(' ').append(protocol).append("\" ")
+               .append(status).append(' ').append(length).append(' ')
+               .append('"').append(referer).append("\" \"").append(userAgent).append('"')
+               .append(' ').append(latency);
+        slf4jRequestLog.write(builder.toString());
+    }
+
+    @Benchmark
+    public void directRequestLog() throws IOException {
+        buffer.reset();
+        formatter.format(buffer, address, null, timestamp, method, uri, protocol, status, length,
+                         referer, userAgent, latency);
+        buffer.append(LINE_SEPARATOR);
+        buffer.writeTo(directOutput);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(RequestLogBenchmark.class.getSimpleName())
+                .forks(1)
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,168 @@
+package io.dropwizard.benchmarks.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+import io.dropwizard.logging.AbstractAppenderFactory;
+import io.dropwizard.logging.BatchedFileAppenderFactory;
+import io.dropwizard.logging.ConsoleAppenderFactory;
+import io.dropwizard.logging.FileAppenderFactory;
+import io.dropwizard.logging.SyslogAppenderFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.DatagramSocket;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of logging through each {@link io.dropwizard.logging.AppenderFactory},
+ * and the latency it adds to the calling thread, with different queue sizes and discarding
+ * thresholds of the asynchronous wrapper.
+ * <p/>
+ * The console appender writes to a stream which discards its output, the file appenders write to
+ * a temporary directory, and the syslog appenders send to local sockets which discard what they
+ * receive. Run with several threads, e.g. {@code -t 4}, to see the effect of contention.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class AppenderFactoryBenchmark {
+    @Param({"console", "file", "batched-file", "syslog-udp", "syslog-tcp"})
+    private String appender;
+
+    @Param({"256", "8192"})
+    private int queueSize;
+
+    @Param({"-1", "0"})
+    private int discardingThreshold;
+
+    /**
+     * Don't trust the IDE, these are advisedly non-final to avoid constant folding
+     */
+    private String user = "jdoe";
+    private long orderId = 4711L;
+
+    private PrintStream stdout;
+    private File directory;
+    private DatagramSocket udpServer;
+    private ServerSocket tcpServer;
+    private LoggerContext context;
+    private Logger logger;
+
+    @Setup
+    public void setUp() throws Exception {
+        stdout = System.out;
+        System.setOut(new PrintStream(ByteStreams.nullOutputStream()));
+        directory = Files.createTempDir();
+
+        final AbstractAppenderFactory factory = buildFactory();
+        factory.setQueueSize(queueSize);
+        factory.setDiscardingThreshold(discardingThreshold);
+
+        context = new LoggerContext();
+        final Appender<ILoggingEvent> built = factory.build(context, "benchmark", null);
+        logger = context.getLogger("benchmark");
+        logger.setAdditive(false);
+        logger.addAppender(built);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        context.stop();
+        System.setOut(stdout);
+        if (udpServer != null) {
+            udpServer.close();
+        }
+        if (tcpServer != null) {
+            tcpServer.close();
+        }
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (!file.delete()) {
+                    file.deleteOnExit();
+                }
+            }
+        }
+        directory.delete();
+    }
+
+    @Benchmark
+    public void log() {
+        logger.info("Order {} placed by {}", orderId, user);
+    }
+
+    private AbstractAppenderFactory buildFactory() throws IOException {
+        switch (appender) {
+            case "console":
+                return new ConsoleAppenderFactory();
+            case "file":
+                return fileAppenderFactory(new FileAppenderFactory());
+            case "batched-file":
+                return fileAppenderFactory(new BatchedFileAppenderFactory());
+            case "syslog-udp":
+                udpServer = new DatagramSocket(0);
+                return syslogAppenderFactory(SyslogAppenderFactory.Transport.UDP, udpServer.getLocalPort());
+            case "syslog-tcp":
+                tcpServer = new ServerSocket(0);
+                startDiscarding(tcpServer);
+                return syslogAppenderFactory(SyslogAppenderFactory.Transport.TCP, tcpServer.getLocalPort());
+            default:
+                throw new IllegalArgumentException("Unknown appender: " + appender);
+        }
+    }
+
+    private FileAppenderFactory fileAppenderFactory(FileAppenderFactory factory) {
+        factory.setCurrentLogFilename(new File(directory, "benchmark.log").getAbsolutePath());
+        factory.setArchive(false);
+        return factory;
+    }
+
+    private SyslogAppenderFactory syslogAppenderFactory(SyslogAppenderFactory.Transport transport, int port) {
+        final SyslogAppenderFactory factory = new SyslogAppenderFactory();
+        factory.setHost("127.0.0.1");
+        factory.setPort(port);
+        factory.setTransport(transport);
+        return factory;
+    }
+
+    private static void startDiscarding(final ServerSocket server) {
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                final byte[] buffer = new byte[64 * 1024];
+                while (!server.isClosed()) {
+                    try (Socket client = server.accept(); InputStream input = client.getInputStream()) {
+                        while (input.read(buffer) >= 0) {
+                            // discard
+                        }
+                    } catch (IOException ignored) {
+                        // the server has been closed, or the client went away
+                    }
+                }
+            }
+        }, "syslog-discarder");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(AppenderFactoryBenchmark.class.getSimpleName())
+                .forks(1)
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,104 @@
+package io.dropwizard.benchmarks.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import io.dropwizard.logging.DeferredFormattingAsyncAppender;
+import io.dropwizard.logging.RingBufferAsyncAppender;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.MDC;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what logging one event through an asynchronous appender costs the logging thread,
+ * with messages formatted on the logging thread ({@code eager}) or by the worker
+ * ({@code deferred}). The worker formats each message and discards it, so no I/O is involved.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class AsyncAppenderBenchmark {
+    private static final int QUEUE_SIZE = 64 * 1024;
+
+    @Param({"eager", "deferred"})
+    private String formatting;
+
+    @Param({"blocking", "ring-buffer"})
+    private String queueType;
+
+    /**
+     * Don't trust the IDE, these are advisedly non-final to avoid constant folding
+     */
+    private String user = "jdoe";
+    private long orderId = 4711L;
+
+    private LoggerContext context;
+    private Logger logger;
+
+    @Setup
+    public void setUp() {
+        context = new LoggerContext();
+        final Appender<ILoggingEvent> delegate = new UnsynchronizedAppenderBase<ILoggingEvent>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                event.getFormattedMessage();
+            }
+        };
+        delegate.setContext(context);
+        delegate.start();
+
+        final boolean deferred = "deferred".equals(formatting);
+        final Appender<ILoggingEvent> appender;
+        if ("ring-buffer".equals(queueType)) {
+            final RingBufferAsyncAppender ringBuffer = new RingBufferAsyncAppender();
+            ringBuffer.setQueueSize(QUEUE_SIZE);
+            ringBuffer.setDiscardingThreshold(0);
+            ringBuffer.setDeferFormatting(deferred);
+            ringBuffer.addAppender(delegate);
+            appender = ringBuffer;
+        } else {
+            final AsyncAppender async = deferred ? new DeferredFormattingAsyncAppender() : new AsyncAppender();
+            async.setQueueSize(QUEUE_SIZE);
+            async.setDiscardingThreshold(0);
+            async.addAppender(delegate);
+            appender = async;
+        }
+        appender.setContext(context);
+        appender.setName("async-benchmark");
+        appender.start();
+
+        logger = context.getLogger("benchmark");
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+
+        MDC.put("requestId", "5a8a1c1e-4cc3-4f51-8c8e-5b0b4c1a2f7d");
+        MDC.put("tenant", "example");
+    }
+
+    @TearDown
+    public void tearDown() {
+        MDC.clear();
+        context.stop();
+    }
+
+    @Benchmark
+    public void log() {
+        logger.info("User {} placed order {}", user, orderId);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(AsyncAppenderBenchmark.class.getSimpleName())
+                .forks(1)
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .build())
+                .run();
+    }
+}
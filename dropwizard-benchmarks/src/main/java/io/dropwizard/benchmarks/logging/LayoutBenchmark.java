@@ -0,0 +1,75 @@
+package io.dropwizard.benchmarks.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.spi.ThrowableProxy;
+import ch.qos.logback.core.Layout;
+import com.google.common.collect.ImmutableMap;
+import io.dropwizard.logging.DropwizardLayout;
+import io.dropwizard.logging.JsonLayoutFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of formatting one event with {@link DropwizardLayout}'s default pattern and
+ * with the JSON layout, with and without a stack trace.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class LayoutBenchmark {
+    @Param({"pattern", "json"})
+    private String layoutType;
+
+    @Param({"false", "true"})
+    private boolean withException;
+
+    private Layout<ILoggingEvent> layout;
+    private LoggingEvent event;
+
+    @Setup
+    public void setUp() {
+        final LoggerContext context = new LoggerContext();
+        final TimeZone utc = TimeZone.getTimeZone("UTC");
+        if ("json".equals(layoutType)) {
+            layout = new JsonLayoutFactory().build(context, utc);
+        } else {
+            final DropwizardLayout pattern = new DropwizardLayout(context, utc);
+            pattern.start();
+            layout = pattern;
+        }
+
+        event = new LoggingEvent();
+        event.setTimeStamp(System.currentTimeMillis());
+        event.setLevel(Level.INFO);
+        event.setThreadName("dw-42 - GET /orders/4711");
+        event.setLoggerName("com.example.orders.OrderResource");
+        event.setMessage("Order {} placed by {}");
+        event.setArgumentArray(new Object[]{4711L, "jdoe"});
+        event.setMDCPropertyMap(ImmutableMap.of("requestId", "5a8a1c1e-4cc3-4f51-8c8e-5b0b4c1a2f7d"));
+        if (withException) {
+            event.setThrowableProxy(new ThrowableProxy(new IllegalStateException("Out of stock")));
+        }
+    }
+
+    @Benchmark
+    public String doLayout() {
+        return layout.doLayout(event);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(LayoutBenchmark.class.getSimpleName())
+                .forks(1)
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .build())
+                .run();
+    }
+}
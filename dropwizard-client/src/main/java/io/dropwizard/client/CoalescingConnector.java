@@ -0,0 +1,293 @@
+package io.dropwizard.client;
+
+import com.codahale.metrics.Meter;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.Configuration;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * A {@link Connector} which coalesces identical concurrent requests.
+ * <p>
+ * While a {@code GET} or {@code HEAD} request is in flight, requests with the same method, URI,
+ * headers and timeout and redirect properties don't reach the underlying connector. They wait for
+ * the first request instead, and each of them gets a copy of its response.
+ * </p>
+ * <p>
+ * A response is only buffered in memory if other requests are waiting for it, and only up to a
+ * maximum size. Otherwise it's streamed to the first request as it is, and the waiting requests
+ * are sent on their own.
+ * </p>
+ */
+class CoalescingConnector implements Connector {
+
+    private final Connector connector;
+    private final Meter coalescedRequests;
+    private final long maxBufferedSize;
+    private final ConcurrentMap<Key, Flight> inFlight = new ConcurrentHashMap<>();
+
+    CoalescingConnector(Connector connector, Meter coalescedRequests, long maxBufferedSize) {
+        this.connector = connector;
+        this.coalescedRequests = coalescedRequests;
+        this.maxBufferedSize = maxBufferedSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ClientResponse apply(ClientRequest request) {
+        if (request.hasEntity() || !(HttpMethod.GET.equals(request.getMethod())
+                || HttpMethod.HEAD.equals(request.getMethod()))) {
+            return connector.apply(request);
+        }
+
+        final Key key = new Key(request);
+        final Flight flight = new Flight();
+        final Flight existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            if (existing.join()) {
+                coalescedRequests.mark();
+                final BufferedResponse response = await(existing.response);
+                if (response != null) {
+                    return response.toJerseyResponse(request);
+                }
+            }
+            // the first request's response is already on its way, or too large to share
+            return connector.apply(request);
+        }
+
+        final ClientResponse response;
+        try {
+            response = connector.apply(request);
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            flight.land();
+            flight.response.setException(e);
+            throw e;
+        }
+        inFlight.remove(key, flight);
+        if (!flight.land()) {
+            // nobody waits for the response, so there's no need to buffer it
+            return response;
+        }
+        return share(response, flight);
+    }
+
+    /**
+     * Buffers a response for the requests waiting for it, unless it's larger than
+     * {@link #maxBufferedSize}. Then they get {@code null} and send their own requests.
+     */
+    private ClientResponse share(ClientResponse response, Flight flight) {
+        final InputStream entityStream = response.getEntityStream();
+        if (entityStream == null || response.getLength() > maxBufferedSize) {
+            flight.response.set(entityStream == null ? new BufferedResponse(response, new byte[0]) : null);
+            return response;
+        }
+
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try {
+            ByteStreams.copy(ByteStreams.limit(entityStream, maxBufferedSize + 1), buffer);
+        } catch (IOException e) {
+            closeQuietly(entityStream);
+            flight.response.setException(e);
+            throw new ProcessingException(e);
+        } catch (RuntimeException | Error e) {
+            closeQuietly(entityStream);
+            flight.response.setException(e);
+            throw e;
+        }
+
+        final byte[] entity = buffer.toByteArray();
+        if (entity.length > maxBufferedSize) {
+            flight.response.set(null);
+            // hand over what has been read so far, followed by the rest of the stream
+            response.setEntityStream(new SequenceInputStream(new ByteArrayInputStream(entity), entityStream));
+            return response;
+        }
+
+        closeQuietly(entityStream);
+        flight.response.set(new BufferedResponse(response, entity));
+        response.setEntityStream(new ByteArrayInputStream(entity));
+        return response;
+    }
+
+    private static BufferedResponse await(Future<BufferedResponse> flight) {
+        try {
+            return Uninterruptibles.getUninterruptibly(flight);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof ProcessingException) {
+                throw new ProcessingException(cause.getMessage(), cause.getCause());
+            }
+            throw new ProcessingException(cause);
+        }
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+            // the entity has been read, or the response is failed anyway
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<?> apply(final ClientRequest request, final AsyncConnectorCallback callback) {
+        // Simulate an asynchronous execution, like DropwizardApacheConnector does
+        return MoreExecutors.newDirectExecutorService().submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    callback.response(apply(request));
+                } catch (Exception e) {
+                    callback.failure(e);
+                }
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return connector.getName();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        connector.close();
+    }
+
+    /**
+     * A request in flight, which other requests can join until its response has arrived.
+     */
+    private static class Flight {
+        private final SettableFuture<BufferedResponse> response = SettableFuture.create();
+        private int followers;
+        private boolean landed;
+
+        /**
+         * @return whether the joining request can wait for the response, which is {@code null} if
+         * it's too large to share
+         */
+        private synchronized boolean join() {
+            if (landed) {
+                return false;
+            }
+            followers++;
+            return true;
+        }
+
+        /**
+         * @return whether any requests are waiting for the response
+         */
+        private synchronized boolean land() {
+            landed = true;
+            return followers > 0;
+        }
+    }
+
+    /**
+     * A response which has been read into memory, so it can be handed to several requests.
+     */
+    private static class BufferedResponse {
+        private final Response.StatusType status;
+        private final Map<String, List<String>> headers;
+        private final byte[] entity;
+
+        private BufferedResponse(ClientResponse response, byte[] entity) {
+            this.status = response.getStatusInfo();
+            this.headers = new HashMap<>();
+            for (Map.Entry<String, List<String>> header : response.getHeaders().entrySet()) {
+                headers.put(header.getKey(), new ArrayList<>(header.getValue()));
+            }
+            this.entity = entity;
+        }
+
+        private ClientResponse toJerseyResponse(ClientRequest request) {
+            final ClientResponse response = new ClientResponse(status, request);
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                response.getHeaders().put(header.getKey(), new ArrayList<>(header.getValue()));
+            }
+            response.setEntityStream(new ByteArrayInputStream(entity));
+            return response;
+        }
+    }
+
+    private static final class Key {
+        private final String method;
+        private final URI uri;
+        private final Map<String, List<String>> headers;
+        // the properties DropwizardApacheConnector derives the request config from
+        private final Object readTimeout;
+        private final Object connectTimeout;
+        private final Object followRedirects;
+
+        private Key(ClientRequest request) {
+            final MultivaluedMap<String, String> headers = request.getStringHeaders();
+            final Configuration configuration = request.getConfiguration();
+            this.method = request.getMethod();
+            this.uri = request.getUri();
+            this.headers = new HashMap<>(headers);
+            this.readTimeout = configuration.getProperty(ClientProperties.READ_TIMEOUT);
+            this.connectTimeout = configuration.getProperty(ClientProperties.CONNECT_TIMEOUT);
+            this.followRedirects = configuration.getProperty(ClientProperties.FOLLOW_REDIRECTS);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return Objects.equals(method, other.method) &&
+                    Objects.equals(uri, other.uri) &&
+                    Objects.equals(headers, other.headers) &&
+                    Objects.equals(readTimeout, other.readTimeout) &&
+                    Objects.equals(connectTimeout, other.connectTimeout) &&
+                    Objects.equals(followRedirects, other.followRedirects);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(method, uri, headers, readTimeout, connectTimeout, followRedirects);
+        }
+    }
+}
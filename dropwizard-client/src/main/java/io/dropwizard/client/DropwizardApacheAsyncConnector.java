@@ -0,0 +1,198 @@
+package io.dropwizard.client;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Futures;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.nio.entity.NByteArrayEntity;
+import org.apache.http.util.VersionInfo;
+import org.glassfish.jersey.apache.connector.LocalizationMessages;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.message.internal.OutboundMessageContext;
+
+import javax.ws.rs.ProcessingException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Dropwizard Apache Async Connector.
+ * <p>
+ * A non-blocking version of {@link DropwizardApacheConnector}
+ * that uses Apache's {@link org.apache.http.nio.client.HttpAsyncClient}
+ * as an HTTP transport implementation.
+ * </p>
+ * <p>
+ * Asynchronous requests don't hold a thread while they are in flight:
+ * the request is sent and the response is read by the client's I/O reactor,
+ * and the Jersey callback is invoked once the whole response has arrived.
+ * Request entities are always buffered, and response entities are buffered
+ * in memory before they are handed over to Jersey.
+ * </p>
+ */
+public class DropwizardApacheAsyncConnector implements Connector {
+
+    private static final String APACHE_HTTP_ASYNC_CLIENT_VERSION = VersionInfo.loadVersionInfo
+            ("org.apache.http.nio.client", DropwizardApacheAsyncConnector.class.getClassLoader())
+            .getRelease();
+
+    private static final int BUFFER_INITIAL_SIZE = 512;
+
+    /**
+     * Actual HTTP client
+     */
+    private final CloseableHttpAsyncClient client;
+    /**
+     * Default HttpUriRequestConfig and the configs derived from it
+     */
+    private final RequestConfigCache requestConfigs;
+
+    public DropwizardApacheAsyncConnector(CloseableHttpAsyncClient client, RequestConfig defaultRequestConfig) {
+        this.client = client;
+        this.requestConfigs = new RequestConfigCache(defaultRequestConfig);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ClientResponse apply(ClientRequest jerseyRequest) throws ProcessingException {
+        try {
+            return DropwizardApacheConnector.buildJerseyResponse(jerseyRequest, execute(jerseyRequest, null).get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException(e);
+        } catch (ExecutionException e) {
+            Throwables.propagateIfInstanceOf(e.getCause(), ProcessingException.class);
+            throw new ProcessingException(e.getCause());
+        } catch (Exception e) {
+            Throwables.propagateIfInstanceOf(e, ProcessingException.class);
+            throw new ProcessingException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<?> apply(final ClientRequest jerseyRequest, final AsyncConnectorCallback callback) {
+        try {
+            return execute(jerseyRequest, new FutureCallback<HttpResponse>() {
+                @Override
+                public void completed(HttpResponse apacheResponse) {
+                    final ClientResponse jerseyResponse;
+                    try {
+                        jerseyResponse = DropwizardApacheConnector.buildJerseyResponse(jerseyRequest, apacheResponse);
+                    } catch (Exception e) {
+                        callback.failure(new ProcessingException(e));
+                        return;
+                    }
+                    callback.response(jerseyResponse);
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    callback.failure(new ProcessingException(e));
+                }
+
+                @Override
+                public void cancelled() {
+                    callback.failure(new ProcessingException("Request to " + jerseyRequest.getUri() + " was cancelled"));
+                }
+            });
+        } catch (Exception e) {
+            callback.failure(e);
+            return Futures.immediateFailedFuture(e);
+        }
+    }
+
+    private Future<HttpResponse> execute(ClientRequest jerseyRequest, final FutureCallback<HttpResponse> callback) {
+        final HttpClientContext context = HttpClientContext.create();
+        return client.execute(DropwizardApacheConnector.buildApacheRequest(jerseyRequest,
+                getHttpEntity(jerseyRequest), requestConfigs), context, new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(HttpResponse apacheResponse) {
+                if (callback != null) {
+                    callback.completed(apacheResponse);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                // there's no response to stop the request's timer
+                HttpClientBuilder.stopTimer(context);
+                if (callback != null) {
+                    callback.failed(e);
+                }
+            }
+
+            @Override
+            public void cancelled() {
+                HttpClientBuilder.stopTimer(context);
+                if (callback != null) {
+                    callback.cancelled();
+                }
+            }
+        });
+    }
+
+    /**
+     * Get an Apache's {@link org.apache.http.HttpEntity} which can be produced
+     * by the non-blocking client from Jersey's {@link org.glassfish.jersey.client.ClientRequest}
+     * <p>
+     * The entity is written into a buffer upfront, because the I/O reactor can't wait
+     * for Jersey to serialize it.
+     * </p>
+     *
+     * @param jerseyRequest representation of an HTTP request in Jersey
+     * @return a buffered {@link org.apache.http.HttpEntity}
+     */
+    private HttpEntity getHttpEntity(ClientRequest jerseyRequest) {
+        if (jerseyRequest.getEntity() == null) {
+            return null;
+        }
+
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream(BUFFER_INITIAL_SIZE);
+        jerseyRequest.setStreamProvider(new OutboundMessageContext.StreamProvider() {
+            @Override
+            public OutputStream getOutputStream(int contentLength) throws IOException {
+                return stream;
+            }
+        });
+        try {
+            jerseyRequest.writeEntity();
+        } catch (IOException e) {
+            throw new ProcessingException(LocalizationMessages.ERROR_BUFFERING_ENTITY(), e);
+        }
+        return new NByteArrayEntity(stream.toByteArray());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return "Apache-HttpAsyncClient/" + APACHE_HTTP_ASYNC_CLIENT_VERSION;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        try {
+            client.close();
+        } catch (IOException e) {
+            throw new ProcessingException(LocalizationMessages.FAILED_TO_STOP_CLIENT(), e);
+        }
+    }
+}
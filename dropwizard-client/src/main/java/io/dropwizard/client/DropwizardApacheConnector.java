@@ -1,11 +1,12 @@
 package io.dropwizard.client;
 
 import com.google.common.base.Optional;
-import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.MoreExecutors;
 import org.apache.http.Header;
+import org.apache.http.HeaderIterator;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
 import org.apache.http.StatusLine;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
@@ -15,23 +16,26 @@ import org.apache.http.entity.AbstractHttpEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.util.VersionInfo;
 import org.glassfish.jersey.apache.connector.LocalizationMessages;
-import org.glassfish.jersey.client.ClientProperties;
 import org.glassfish.jersey.client.ClientRequest;
 import org.glassfish.jersey.client.ClientResponse;
 import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
 import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.message.internal.HeaderUtils;
 import org.glassfish.jersey.message.internal.OutboundMessageContext;
 import org.glassfish.jersey.message.internal.Statuses;
 
 import javax.ws.rs.ProcessingException;
-import javax.ws.rs.core.Configuration;
+import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.RuntimeDelegate;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Future;
 
 import static com.google.common.base.MoreObjects.firstNonNull;
@@ -64,9 +68,9 @@ public class DropwizardApacheConnector implements Connector {
      */
     private final CloseableHttpClient client;
     /**
-     * Default HttpUriRequestConfig
+     * Default HttpUriRequestConfig and the configs derived from it
      */
-    private final RequestConfig defaultRequestConfig;
+    private final RequestConfigCache requestConfigs;
 
     /**
      * Should a chunked encoding be used in POST requests
@@ -75,7 +79,7 @@ public class DropwizardApacheConnector implements Connector {
 
     public DropwizardApacheConnector(CloseableHttpClient client, RequestConfig defaultRequestConfig, boolean chunkedEncodingEnabled) {
         this.client = client;
-        this.defaultRequestConfig = defaultRequestConfig;
+        this.requestConfigs = new RequestConfigCache(defaultRequestConfig);
         this.chunkedEncodingEnabled = chunkedEncodingEnabled;
     }
 
@@ -87,29 +91,51 @@ public class DropwizardApacheConnector implements Connector {
         try {
             final HttpUriRequest apacheRequest = buildApacheRequest(jerseyRequest);
             final CloseableHttpResponse apacheResponse = client.execute(apacheRequest);
+            return buildJerseyResponse(jerseyRequest, apacheResponse);
+        } catch (Exception e) {
+            throw new ProcessingException(e);
+        }
+    }
 
-            final StatusLine statusLine = apacheResponse.getStatusLine();
-            final Response.StatusType status = Statuses.from(statusLine.getStatusCode(),
-                    firstNonNull(statusLine.getReasonPhrase(), ""));
-
-            final ClientResponse jerseyResponse = new ClientResponse(status, jerseyRequest);
-            for (Header header : apacheResponse.getAllHeaders()) {
-                final List<String> headerValues = jerseyResponse.getHeaders().get(header.getName());
-                if (headerValues == null) {
-                    jerseyResponse.getHeaders().put(header.getName(), Lists.newArrayList(header.getValue()));
-                } else {
-                    headerValues.add(header.getValue());
-                }
+    /**
+     * Build a new Jersey's {@link org.glassfish.jersey.client.ClientResponse}
+     * from Apache's {@link org.apache.http.HttpResponse}
+     * <p>
+     * Convert a status, headers and an entity stream
+     * </p>
+     *
+     * @param jerseyRequest  the Jersey request the response belongs to
+     * @param apacheResponse representation of an HTTP response in Apache HttpClient
+     * @return a new {@link org.glassfish.jersey.client.ClientResponse}
+     */
+    static ClientResponse buildJerseyResponse(ClientRequest jerseyRequest, HttpResponse apacheResponse)
+            throws IOException {
+        final StatusLine statusLine = apacheResponse.getStatusLine();
+        final Response.StatusType status = Statuses.from(statusLine.getStatusCode(),
+                firstNonNull(statusLine.getReasonPhrase(), ""));
+
+        final ClientResponse jerseyResponse = new ClientResponse(status, jerseyRequest);
+        final MultivaluedMap<String, String> headers = jerseyResponse.getHeaders();
+        // iterate rather than copy the headers into an array, and size value lists for the
+        // common case of a header which occurs only once
+        final HeaderIterator headerIterator = apacheResponse.headerIterator();
+        while (headerIterator.hasNext()) {
+            final Header header = headerIterator.nextHeader();
+            final List<String> headerValues = headers.get(header.getName());
+            if (headerValues == null) {
+                final List<String> values = new ArrayList<>(1);
+                values.add(header.getValue());
+                headers.put(header.getName(), values);
+            } else {
+                headerValues.add(header.getValue());
             }
+        }
 
-            final HttpEntity httpEntity = apacheResponse.getEntity();
-            jerseyResponse.setEntityStream(httpEntity != null ? httpEntity.getContent() :
-                    new ByteArrayInputStream(new byte[0]));
+        final HttpEntity httpEntity = apacheResponse.getEntity();
+        jerseyResponse.setEntityStream(httpEntity != null ? httpEntity.getContent() :
+                new ByteArrayInputStream(new byte[0]));
 
-            return jerseyResponse;
-        } catch (Exception e) {
-            throw new ProcessingException(e);
-        }
+        return jerseyResponse;
     }
 
     /**
@@ -123,19 +149,35 @@ public class DropwizardApacheConnector implements Connector {
      * @return a new {@link org.apache.http.client.methods.HttpUriRequest}
      */
     private HttpUriRequest buildApacheRequest(ClientRequest jerseyRequest) {
+        return buildApacheRequest(jerseyRequest, getHttpEntity(jerseyRequest), requestConfigs);
+    }
+
+    /**
+     * Build a new Apache's {@link org.apache.http.client.methods.HttpUriRequest}
+     * from Jersey's {@link org.glassfish.jersey.client.ClientRequest} with the given entity
+     *
+     * @param jerseyRequest  representation of an HTTP request in Jersey
+     * @param entity         the request entity, or {@code null}
+     * @param requestConfigs the client's default request configuration and the ones derived from it
+     * @return a new {@link org.apache.http.client.methods.HttpUriRequest}
+     */
+    static HttpUriRequest buildApacheRequest(ClientRequest jerseyRequest, HttpEntity entity,
+                                             RequestConfigCache requestConfigs) {
         RequestBuilder builder = RequestBuilder
                 .create(jerseyRequest.getMethod())
                 .setUri(jerseyRequest.getUri())
-                .setEntity(getHttpEntity(jerseyRequest));
-        for (String headerName : jerseyRequest.getHeaders().keySet()) {
+                .setEntity(entity);
+        final RuntimeDelegate runtimeDelegate = RuntimeDelegate.getInstance();
+        for (Map.Entry<String, List<Object>> header : jerseyRequest.getHeaders().entrySet()) {
             // Ignore user-agent because it's already configured in the Apache HTTP client
-            if (headerName.equalsIgnoreCase(HttpHeaders.USER_AGENT)) {
+            if (header.getKey().equalsIgnoreCase(HttpHeaders.USER_AGENT)) {
                 continue;
             }
-            builder.addHeader(headerName, jerseyRequest.getHeaderString(headerName));
+            // the same conversion as ClientRequest#getHeaderString, without looking the header up again
+            builder.addHeader(header.getKey(), HeaderUtils.asHeaderString(header.getValue(), runtimeDelegate));
         }
 
-        Optional<RequestConfig> requestConfig = addJerseyRequestConfig(jerseyRequest.getConfiguration());
+        Optional<RequestConfig> requestConfig = requestConfigs.get(jerseyRequest.getConfiguration());
         if (requestConfig.isPresent()) {
             builder.setConfig(requestConfig.get());
         }
@@ -143,32 +185,6 @@ public class DropwizardApacheConnector implements Connector {
         return builder.build();
     }
 
-    private Optional<RequestConfig> addJerseyRequestConfig(Configuration configuration) {
-        final Integer timeout = (Integer) configuration.getProperty(ClientProperties.READ_TIMEOUT);
-        final Integer connectTimeout = (Integer) configuration.getProperty(ClientProperties.CONNECT_TIMEOUT);
-        final Boolean followRedirects = (Boolean) configuration.getProperty(ClientProperties.FOLLOW_REDIRECTS);
-
-        if (timeout != null || connectTimeout != null || followRedirects != null) {
-            RequestConfig.Builder requestConfig = RequestConfig.copy(defaultRequestConfig);
-
-            if (timeout != null) {
-                requestConfig.setSocketTimeout(timeout);
-            }
-
-            if (connectTimeout != null) {
-                requestConfig.setConnectTimeout(connectTimeout);
-            }
-
-            if (followRedirects != null) {
-                requestConfig.setRedirectsEnabled(followRedirects);
-            }
-
-            return Optional.of(requestConfig.build());
-        }
-
-        return Optional.absent();
-    }
-
     /**
      * Get an Apache's {@link org.apache.http.HttpEntity}
      * from Jersey's {@link org.glassfish.jersey.client.ClientRequest}
@@ -1,29 +1,40 @@
 package io.dropwizard.client;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.codahale.metrics.httpclient.HttpClientMetricNameStrategies;
 import com.codahale.metrics.httpclient.HttpClientMetricNameStrategy;
 import com.codahale.metrics.httpclient.InstrumentedHttpClientConnectionManager;
 import com.codahale.metrics.httpclient.InstrumentedHttpRequestExecutor;
 import com.google.common.annotations.VisibleForTesting;
+import io.dropwizard.client.cache.CacheConfiguration;
 import io.dropwizard.client.proxy.AuthConfiguration;
 import io.dropwizard.client.proxy.NonProxyListProxyRoutePlanner;
 import io.dropwizard.client.proxy.ProxyConfiguration;
 import io.dropwizard.setup.Environment;
 import io.dropwizard.util.Duration;
 import org.apache.http.ConnectionReuseStrategy;
+import org.apache.http.HttpException;
 import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
 import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.HttpRequestRetryHandler;
+import org.apache.http.client.cache.CacheResponseStatus;
+import org.apache.http.client.cache.HttpCacheContext;
 import org.apache.http.client.config.CookieSpecs;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
 import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
 import org.apache.http.conn.DnsResolver;
 import org.apache.http.conn.routing.HttpRoutePlanner;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
@@ -35,7 +46,19 @@ import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
+import org.apache.http.impl.client.cache.CacheConfig;
+import org.apache.http.impl.client.cache.CachingHttpClientBuilder;
 import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NHttpClientConnectionManager;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
 import org.apache.http.protocol.HttpContext;
 
 import java.io.IOException;
@@ -50,6 +73,14 @@ import java.io.IOException;
  * <li>Disables cookie management by default</li>
  * </ul>
  * </p>
+ * <p>
+ * Besides blocking {@link HttpClient} instances, it can build non-blocking
+ * {@link CloseableHttpAsyncClient} instances with the same configuration and instrumentation.
+ * </p>
+ * <p>
+ * If a {@link CacheConfiguration} is given, blocking clients cache responses according to their
+ * caching headers, and record cache hits, misses and validations as meters.
+ * </p>
  */
 public class HttpClientBuilder {
     private static final HttpRequestRetryHandler NO_RETRIES = new HttpRequestRetryHandler() {
@@ -59,6 +90,8 @@ public class HttpClientBuilder {
         }
     };
 
+    private static final String TIMER_CONTEXT_ATTRIBUTE = HttpClientBuilder.class.getName() + ".timerContext";
+
     private final MetricRegistry metricRegistry;
     private String environmentName;
     private HttpClientConfiguration configuration = new HttpClientConfiguration();
@@ -187,7 +220,31 @@ public class HttpClientBuilder {
      */
     ConfiguredCloseableHttpClient buildWithDefaultRequestConfiguration(String name) {
         final InstrumentedHttpClientConnectionManager manager = createConnectionManager(registry, name);
-        return createClient(org.apache.http.impl.client.HttpClientBuilder.create(), manager, name);
+        final CacheConfiguration cache = configuration.getCacheConfiguration();
+        final org.apache.http.impl.client.HttpClientBuilder builder = cache == null
+                ? org.apache.http.impl.client.HttpClientBuilder.create()
+                : createCachingBuilder(cache, name);
+        return createClient(builder, manager, name);
+    }
+
+    /**
+     * Builds a non-blocking {@link CloseableHttpAsyncClient}. The client is already started.
+     *
+     * @param name
+     * @return a started {@link CloseableHttpAsyncClient}
+     */
+    public CloseableHttpAsyncClient buildAsync(String name) {
+        return buildAsyncWithDefaultRequestConfiguration(name).getClient();
+    }
+
+    /**
+     * For internal use only, used in {@link io.dropwizard.client.JerseyClientBuilder} to create an instance of {@link io.dropwizard.client.DropwizardApacheAsyncConnector}
+     * @param name
+     * @return an {@link io.dropwizard.client.ConfiguredCloseableHttpAsyncClient}
+     */
+    ConfiguredCloseableHttpAsyncClient buildAsyncWithDefaultRequestConfiguration(String name) {
+        final PoolingNHttpClientConnectionManager manager = createAsyncConnectionManager(name);
+        return createAsyncClient(HttpAsyncClientBuilder.create(), manager, name);
     }
 
     /**
@@ -204,26 +261,13 @@ public class HttpClientBuilder {
             final org.apache.http.impl.client.HttpClientBuilder builder,
             final InstrumentedHttpClientConnectionManager manager,
             final String name) {
-        final String cookiePolicy = configuration.isCookiesEnabled() ? CookieSpecs.BEST_MATCH : CookieSpecs.IGNORE_COOKIES;
         final Integer timeout = (int) configuration.getTimeout().toMilliseconds();
-        final Integer connectionTimeout = (int) configuration.getConnectionTimeout().toMilliseconds();
-        final Integer connectionRequestTimeout = (int) configuration.getConnectionRequestTimeout().toMilliseconds();
-        final long keepAlive = configuration.getKeepAlive().toMilliseconds();
-        final ConnectionReuseStrategy reuseStrategy = keepAlive == 0
-                ? new NoConnectionReuseStrategy()
-                : new DefaultConnectionReuseStrategy();
         final HttpRequestRetryHandler retryHandler = configuration.getRetries() == 0
                 ? NO_RETRIES
                 : (httpRequestRetryHandler == null ? new DefaultHttpRequestRetryHandler(configuration.getRetries(),
                 false) : httpRequestRetryHandler);
 
-        final RequestConfig requestConfig
-                = RequestConfig.custom().setCookieSpec(cookiePolicy)
-                .setSocketTimeout(timeout)
-                .setConnectTimeout(connectionTimeout)
-                .setConnectionRequestTimeout(connectionRequestTimeout)
-                .setStaleConnectionCheckEnabled(false)
-                .build();
+        final RequestConfig requestConfig = createRequestConfig();
         final SocketConfig socketConfig = SocketConfig.custom()
                 .setTcpNoDelay(true)
                 .setSoTimeout(timeout)
@@ -233,36 +277,120 @@ public class HttpClientBuilder {
                 .setConnectionManager(manager)
                 .setDefaultRequestConfig(requestConfig)
                 .setDefaultSocketConfig(socketConfig)
-                .setConnectionReuseStrategy(reuseStrategy)
+                .setConnectionReuseStrategy(createReuseStrategy())
                 .setRetryHandler(retryHandler)
                 .setUserAgent(createUserAgent(name));
 
-        if (keepAlive != 0) {
-            // either keep alive based on response header Keep-Alive,
-            // or if the server can keep a persistent connection (-1), then override based on client's configuration
-            builder.setKeepAliveStrategy(new DefaultConnectionKeepAliveStrategy() {
-                @Override
-                public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
-                    final long duration = super.getKeepAliveDuration(response, context);
-                    return (duration == -1) ? keepAlive : duration;
-                }
-            });
+        final ConnectionKeepAliveStrategy keepAliveStrategy = createKeepAliveStrategy();
+        if (keepAliveStrategy != null) {
+            builder.setKeepAliveStrategy(keepAliveStrategy);
         }
 
-        // create a tunnel through a proxy host if it's specified in the config
-        ProxyConfiguration proxy = configuration.getProxyConfiguration();
-        if (proxy != null) {
-            HttpHost httpHost = new HttpHost(proxy.getHost(), proxy.getPort(), proxy.getScheme());
-            builder.setRoutePlanner(new NonProxyListProxyRoutePlanner(httpHost, proxy.getNonProxyHosts()));
-            // if the proxy host requires authentication then add the host credentials to the credentials provider
-            AuthConfiguration auth = proxy.getAuth();
-            if (auth != null) {
-                if (credentialsProvider == null) {
-                    credentialsProvider = new BasicCredentialsProvider();
+        final HttpRoutePlanner proxyRoutePlanner = createProxyRoutePlanner();
+        if (proxyRoutePlanner != null) {
+            builder.setRoutePlanner(proxyRoutePlanner);
+        }
+
+        if (credentialsProvider != null) {
+            builder.setDefaultCredentialsProvider(credentialsProvider);
+        }
+
+        if (routePlanner != null) {
+            builder.setRoutePlanner(routePlanner);
+        }
+
+        return new ConfiguredCloseableHttpClient(builder.build(), requestConfig);
+    }
+
+    /**
+     * Create a {@link CachingHttpClientBuilder} based on the {@link CacheConfiguration}. Responses
+     * served by the cache are recorded in the {@code hits}, {@code misses} and {@code validations}
+     * meters of the client.
+     *
+     * @param cache
+     * @param name
+     * @return a CachingHttpClientBuilder instance
+     */
+    @VisibleForTesting
+    protected CachingHttpClientBuilder createCachingBuilder(CacheConfiguration cache, String name) {
+        final CachingHttpClientBuilder builder = CachingHttpClientBuilder.create();
+        builder.setCacheConfig(CacheConfig.custom()
+                .setMaxCacheEntries(cache.getMaxEntries())
+                .setMaxObjectSize(cache.getMaxObjectSize().toBytes())
+                .setSharedCache(cache.isShared())
+                .setHeuristicCachingEnabled(cache.isHeuristicCachingEnabled())
+                .setAsynchronousWorkersMax(cache.getAsynchronousWorkers())
+                .build());
+        if (cache.getDirectory() != null) {
+            builder.setCacheDir(cache.getDirectory());
+        }
+
+        final Meter hits = metricRegistry.meter(MetricRegistry.name(HttpClient.class, name, "cache", "hits"));
+        final Meter misses = metricRegistry.meter(MetricRegistry.name(HttpClient.class, name, "cache", "misses"));
+        final Meter validations = metricRegistry.meter(
+                MetricRegistry.name(HttpClient.class, name, "cache", "validations"));
+        builder.addInterceptorLast(new HttpResponseInterceptor() {
+            @Override
+            public void process(HttpResponse response, HttpContext context) throws HttpException, IOException {
+                final CacheResponseStatus status = HttpCacheContext.adapt(context).getCacheResponseStatus();
+                if (status == CacheResponseStatus.CACHE_HIT) {
+                    hits.mark();
+                } else if (status == CacheResponseStatus.VALIDATED) {
+                    validations.mark();
+                } else if (status == CacheResponseStatus.CACHE_MISS) {
+                    misses.mark();
                 }
-                credentialsProvider.setCredentials(new AuthScope(httpHost),
-                        new UsernamePasswordCredentials(auth.getUsername(), auth.getPassword()));
             }
+        });
+        return builder;
+    }
+
+    /**
+     * Map the parameters in {@link HttpClientConfiguration} to configuration on a
+     * {@link HttpAsyncClientBuilder} instance. Requests are timed with the configured
+     * {@link HttpClientMetricNameStrategy}, just like the requests of blocking clients.
+     * <p/>
+     * Retries and custom {@link ConnectionSocketFactory} registries are not supported
+     * by non-blocking clients.
+     *
+     * @param builder
+     * @param manager
+     * @param name
+     * @return the configured and started {@link CloseableHttpAsyncClient}
+     */
+    @VisibleForTesting
+    protected ConfiguredCloseableHttpAsyncClient createAsyncClient(
+            final HttpAsyncClientBuilder builder,
+            final PoolingNHttpClientConnectionManager manager,
+            final String name) {
+        final RequestConfig requestConfig = createRequestConfig();
+
+        builder.setConnectionManager(manager)
+                .setDefaultRequestConfig(requestConfig)
+                .setConnectionReuseStrategy(createReuseStrategy())
+                .setUserAgent(createUserAgent(name))
+                .addInterceptorFirst(new HttpRequestInterceptor() {
+                    @Override
+                    public void process(HttpRequest request, HttpContext context) throws HttpException, IOException {
+                        final Timer timer = metricRegistry.timer(metricNameStrategy.getNameFor(name, request));
+                        context.setAttribute(TIMER_CONTEXT_ATTRIBUTE, timer.time());
+                    }
+                })
+                .addInterceptorLast(new HttpResponseInterceptor() {
+                    @Override
+                    public void process(HttpResponse response, HttpContext context) throws HttpException, IOException {
+                        stopTimer(context);
+                    }
+                });
+
+        final ConnectionKeepAliveStrategy keepAliveStrategy = createKeepAliveStrategy();
+        if (keepAliveStrategy != null) {
+            builder.setKeepAliveStrategy(keepAliveStrategy);
+        }
+
+        final HttpRoutePlanner proxyRoutePlanner = createProxyRoutePlanner();
+        if (proxyRoutePlanner != null) {
+            builder.setRoutePlanner(proxyRoutePlanner);
         }
 
         if (credentialsProvider != null) {
@@ -273,7 +401,79 @@ public class HttpClientBuilder {
             builder.setRoutePlanner(routePlanner);
         }
 
-        return new ConfiguredCloseableHttpClient(builder.build(), requestConfig);
+        final CloseableHttpAsyncClient client = builder.build();
+        client.start();
+        return new ConfiguredCloseableHttpAsyncClient(client, requestConfig);
+    }
+
+    /**
+     * Stops the timer of a non-blocking request, if it was started and hasn't been stopped yet.
+     * Requests which fail or are cancelled never get a response, so their connector stops the
+     * timer instead of the response interceptor.
+     *
+     * @param context the context of the request
+     */
+    static void stopTimer(HttpContext context) {
+        final Object timerContext = context.removeAttribute(TIMER_CONTEXT_ATTRIBUTE);
+        if (timerContext instanceof Timer.Context) {
+            ((Timer.Context) timerContext).stop();
+        }
+    }
+
+    private RequestConfig createRequestConfig() {
+        final String cookiePolicy = configuration.isCookiesEnabled() ? CookieSpecs.BEST_MATCH : CookieSpecs.IGNORE_COOKIES;
+        final Integer timeout = (int) configuration.getTimeout().toMilliseconds();
+        final Integer connectionTimeout = (int) configuration.getConnectionTimeout().toMilliseconds();
+        final Integer connectionRequestTimeout = (int) configuration.getConnectionRequestTimeout().toMilliseconds();
+        return RequestConfig.custom().setCookieSpec(cookiePolicy)
+                .setSocketTimeout(timeout)
+                .setConnectTimeout(connectionTimeout)
+                .setConnectionRequestTimeout(connectionRequestTimeout)
+                .setStaleConnectionCheckEnabled(false)
+                .build();
+    }
+
+    private ConnectionReuseStrategy createReuseStrategy() {
+        return configuration.getKeepAlive().toMilliseconds() == 0
+                ? new NoConnectionReuseStrategy()
+                : new DefaultConnectionReuseStrategy();
+    }
+
+    private ConnectionKeepAliveStrategy createKeepAliveStrategy() {
+        final long keepAlive = configuration.getKeepAlive().toMilliseconds();
+        if (keepAlive == 0) {
+            return null;
+        }
+
+        // either keep alive based on response header Keep-Alive,
+        // or if the server can keep a persistent connection (-1), then override based on client's configuration
+        return new DefaultConnectionKeepAliveStrategy() {
+            @Override
+            public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+                final long duration = super.getKeepAliveDuration(response, context);
+                return (duration == -1) ? keepAlive : duration;
+            }
+        };
+    }
+
+    private HttpRoutePlanner createProxyRoutePlanner() {
+        // create a tunnel through a proxy host if it's specified in the config
+        ProxyConfiguration proxy = configuration.getProxyConfiguration();
+        if (proxy == null) {
+            return null;
+        }
+
+        HttpHost httpHost = new HttpHost(proxy.getHost(), proxy.getPort(), proxy.getScheme());
+        // if the proxy host requires authentication then add the host credentials to the credentials provider
+        AuthConfiguration auth = proxy.getAuth();
+        if (auth != null) {
+            if (credentialsProvider == null) {
+                credentialsProvider = new BasicCredentialsProvider();
+            }
+            credentialsProvider.setCredentials(new AuthScope(httpHost),
+                    new UsernamePasswordCredentials(auth.getUsername(), auth.getPassword()));
+        }
+        return new NonProxyListProxyRoutePlanner(httpHost, proxy.getNonProxyHosts());
     }
 
     /**
@@ -312,6 +512,74 @@ public class HttpClientBuilder {
         return configureConnectionManager(manager);
     }
 
+    /**
+     * Create a non-blocking {@link PoolingNHttpClientConnectionManager} based on the
+     * HttpClientConfiguration, and register the same connection pool gauges as
+     * {@link InstrumentedHttpClientConnectionManager} does for blocking clients.
+     *
+     * @param name
+     * @return a PoolingNHttpClientConnectionManager instance
+     */
+    protected PoolingNHttpClientConnectionManager createAsyncConnectionManager(String name) {
+        final Duration ttl = configuration.getTimeToLive();
+        final int timeout = (int) configuration.getTimeout().toMilliseconds();
+        final IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                .setTcpNoDelay(true)
+                .setSoTimeout(timeout)
+                .setConnectTimeout((int) configuration.getConnectionTimeout().toMilliseconds())
+                .build();
+        final Registry<SchemeIOSessionStrategy> strategies = RegistryBuilder.<SchemeIOSessionStrategy>create()
+                .register("http", NoopIOSessionStrategy.INSTANCE)
+                .register("https", SSLIOSessionStrategy.getDefaultStrategy())
+                .build();
+
+        final PoolingNHttpClientConnectionManager manager;
+        try {
+            manager = new PoolingNHttpClientConnectionManager(
+                    new DefaultConnectingIOReactor(ioReactorConfig),
+                    null,
+                    strategies,
+                    null,
+                    resolver,
+                    ttl.getQuantity(),
+                    ttl.getUnit());
+        } catch (IOReactorException e) {
+            throw new IllegalStateException("Unable to create an I/O reactor for " + name, e);
+        }
+        manager.setDefaultMaxPerRoute(configuration.getMaxConnectionsPerRoute());
+        manager.setMaxTotal(configuration.getMaxConnections());
+
+        metricRegistry.register(MetricRegistry.name(NHttpClientConnectionManager.class, name, "available-connections"),
+                new Gauge<Integer>() {
+                    @Override
+                    public Integer getValue() {
+                        return manager.getTotalStats().getAvailable();
+                    }
+                });
+        metricRegistry.register(MetricRegistry.name(NHttpClientConnectionManager.class, name, "leased-connections"),
+                new Gauge<Integer>() {
+                    @Override
+                    public Integer getValue() {
+                        return manager.getTotalStats().getLeased();
+                    }
+                });
+        metricRegistry.register(MetricRegistry.name(NHttpClientConnectionManager.class, name, "max-connections"),
+                new Gauge<Integer>() {
+                    @Override
+                    public Integer getValue() {
+                        return manager.getTotalStats().getMax();
+                    }
+                });
+        metricRegistry.register(MetricRegistry.name(NHttpClientConnectionManager.class, name, "pending-connections"),
+                new Gauge<Integer>() {
+                    @Override
+                    public Integer getValue() {
+                        return manager.getTotalStats().getPending();
+                    }
+                });
+        return manager;
+    }
+
     @VisibleForTesting
     protected InstrumentedHttpClientConnectionManager configureConnectionManager(
             InstrumentedHttpClientConnectionManager connectionManager) {
@@ -2,6 +2,7 @@ package io.dropwizard.client;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Optional;
+import io.dropwizard.client.cache.CacheConfiguration;
 import io.dropwizard.client.proxy.ProxyConfiguration;
 import io.dropwizard.util.Duration;
 
@@ -53,6 +54,10 @@ public class HttpClientConfiguration {
     @Nullable
     private ProxyConfiguration proxyConfiguration;
 
+    @Valid
+    @Nullable
+    private CacheConfiguration cacheConfiguration;
+
     @JsonProperty
     public Duration getKeepAlive() {
         return keepAlive;
@@ -162,4 +167,14 @@ public class HttpClientConfiguration {
     public void setProxyConfiguration(ProxyConfiguration proxyConfiguration) {
         this.proxyConfiguration = proxyConfiguration;
     }
+
+    @JsonProperty("cache")
+    public CacheConfiguration getCacheConfiguration() {
+        return cacheConfiguration;
+    }
+
+    @JsonProperty("cache")
+    public void setCacheConfiguration(CacheConfiguration cacheConfiguration) {
+        this.cacheConfiguration = cacheConfiguration;
+    }
 }
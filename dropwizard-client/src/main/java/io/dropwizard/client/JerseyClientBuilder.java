@@ -1,5 +1,6 @@
 package io.dropwizard.client;
 
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.httpclient.HttpClientMetricNameStrategy;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -38,12 +39,13 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * <p>
  * Among other things,
  * <ul>
- * <li>Backed by Apache HttpClient</li>
+ * <li>Backed by Apache HttpClient, or by Apache HttpAsyncClient if non-blocking requests are enabled</li>
  * <li>Disables stale connection checks</li>
  * <li>Disables Nagle's algorithm</li>
  * <li>Disables cookie management by default</li>
  * <li>Compress requests and decompress responses using GZIP</li>
  * <li>Supports parsing and generating JSON data using Jackson</li>
+ * <li>Optionally coalesces identical concurrent {@code GET} and {@code HEAD} requests</li>
  * </ul>
  * </p>
  *
@@ -56,6 +58,7 @@ public class JerseyClientBuilder {
     private final Map<String, Object> properties = Maps.newLinkedHashMap();
     private JerseyClientConfiguration configuration = new JerseyClientConfiguration();
 
+    private final MetricRegistry metricRegistry;
     private HttpClientBuilder apacheHttpClientBuilder;
     private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
     private Environment environment;
@@ -65,11 +68,13 @@ public class JerseyClientBuilder {
 
     public JerseyClientBuilder(Environment environment) {
         this.apacheHttpClientBuilder = new HttpClientBuilder(environment);
+        this.metricRegistry = environment.metrics();
         this.environment = environment;
     }
 
     public JerseyClientBuilder(MetricRegistry metricRegistry) {
         this.apacheHttpClientBuilder = new HttpClientBuilder(metricRegistry);
+        this.metricRegistry = metricRegistry;
     }
 
     @VisibleForTesting
@@ -343,20 +348,44 @@ public class JerseyClientBuilder {
 
         config.register(new DropwizardExecutorProvider(threadPool));
         if (connectorProvider == null) {
-            final ConfiguredCloseableHttpClient apacheHttpClient =
-                    apacheHttpClientBuilder.buildWithDefaultRequestConfiguration(name);
-            connectorProvider = new ConnectorProvider() {
-                @Override
-                public Connector getConnector(Client client, Configuration runtimeConfig) {
-                    return new DropwizardApacheConnector(
-                            apacheHttpClient.getClient(),
-                            apacheHttpClient.getDefaultRequestConfig(),
-                            configuration.isChunkedEncodingEnabled());
-                }
-            };
+            connectorProvider = configuration.isNonBlockingEnabled()
+                    ? buildAsyncConnectorProvider(name)
+                    : buildConnectorProvider(name);
         }
         config.connectorProvider(connectorProvider);
 
         return config;
     }
+
+    private ConnectorProvider buildConnectorProvider(String name) {
+        final ConfiguredCloseableHttpClient apacheHttpClient =
+                apacheHttpClientBuilder.buildWithDefaultRequestConfiguration(name);
+        final Meter coalescedRequests = configuration.isRequestCoalescingEnabled()
+                ? metricRegistry.meter(MetricRegistry.name(Client.class, name, "coalesced-requests"))
+                : null;
+        return new ConnectorProvider() {
+            @Override
+            public Connector getConnector(Client client, Configuration runtimeConfig) {
+                final Connector connector = new DropwizardApacheConnector(
+                        apacheHttpClient.getClient(),
+                        apacheHttpClient.getDefaultRequestConfig(),
+                        configuration.isChunkedEncodingEnabled());
+                return coalescedRequests == null ? connector : new CoalescingConnector(connector, coalescedRequests,
+                        configuration.getMaxCoalescedResponseSize().toBytes());
+            }
+        };
+    }
+
+    private ConnectorProvider buildAsyncConnectorProvider(String name) {
+        final ConfiguredCloseableHttpAsyncClient apacheHttpAsyncClient =
+                apacheHttpClientBuilder.buildAsyncWithDefaultRequestConfiguration(name);
+        return new ConnectorProvider() {
+            @Override
+            public Connector getConnector(Client client, Configuration runtimeConfig) {
+                return new DropwizardApacheAsyncConnector(
+                        apacheHttpAsyncClient.getClient(),
+                        apacheHttpAsyncClient.getDefaultRequestConfig());
+            }
+        };
+    }
 }
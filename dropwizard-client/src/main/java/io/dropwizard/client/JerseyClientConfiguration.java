@@ -2,10 +2,12 @@ package io.dropwizard.client;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Size;
 import io.dropwizard.validation.ValidationMethod;
 
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
 
 /**
  * The configuration class used by {@link JerseyClientBuilder}. Extends
@@ -33,6 +35,13 @@ public class JerseyClientConfiguration extends HttpClientConfiguration {
 
     private boolean chunkedEncodingEnabled = true;
 
+    private boolean nonBlockingEnabled = false;
+
+    private boolean requestCoalescingEnabled = false;
+
+    @NotNull
+    private Size maxCoalescedResponseSize = Size.megabytes(1);
+
     @JsonProperty
     public int getMinThreads() {
         return minThreads;
@@ -83,6 +92,36 @@ public class JerseyClientConfiguration extends HttpClientConfiguration {
         this.chunkedEncodingEnabled = chunkedEncodingEnabled;
     }
 
+    @JsonProperty
+    public boolean isNonBlockingEnabled() {
+        return nonBlockingEnabled;
+    }
+
+    @JsonProperty
+    public void setNonBlockingEnabled(boolean nonBlockingEnabled) {
+        this.nonBlockingEnabled = nonBlockingEnabled;
+    }
+
+    @JsonProperty
+    public boolean isRequestCoalescingEnabled() {
+        return requestCoalescingEnabled;
+    }
+
+    @JsonProperty
+    public void setRequestCoalescingEnabled(boolean requestCoalescingEnabled) {
+        this.requestCoalescingEnabled = requestCoalescingEnabled;
+    }
+
+    @JsonProperty
+    public Size getMaxCoalescedResponseSize() {
+        return maxCoalescedResponseSize;
+    }
+
+    @JsonProperty
+    public void setMaxCoalescedResponseSize(Size maxCoalescedResponseSize) {
+        this.maxCoalescedResponseSize = maxCoalescedResponseSize;
+    }
+
     @JsonProperty
     public int getWorkQueueSize() {
         return workQueueSize;
@@ -104,4 +143,16 @@ public class JerseyClientConfiguration extends HttpClientConfiguration {
     public boolean isCompressionConfigurationValid() {
         return !gzipEnabledForRequests || gzipEnabled;
     }
+
+    @JsonIgnore
+    @ValidationMethod(message = ".cache is not supported when nonBlockingEnabled is true")
+    public boolean isCacheConfigurationValid() {
+        return !nonBlockingEnabled || getCacheConfiguration() == null;
+    }
+
+    @JsonIgnore
+    @ValidationMethod(message = ".requestCoalescingEnabled is not supported when nonBlockingEnabled is true")
+    public boolean isCoalescingConfigurationValid() {
+        return !nonBlockingEnabled || !requestCoalescingEnabled;
+    }
 }
@@ -0,0 +1,121 @@
+package io.dropwizard.client;
+
+import com.google.common.base.Optional;
+import org.apache.http.client.config.RequestConfig;
+import org.glassfish.jersey.client.ClientProperties;
+
+import javax.ws.rs.core.Configuration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Derives the {@link RequestConfig} of a request from the client's default configuration and the
+ * Jersey properties which override it ({@link ClientProperties#READ_TIMEOUT},
+ * {@link ClientProperties#CONNECT_TIMEOUT} and {@link ClientProperties#FOLLOW_REDIRECTS}).
+ * <p>
+ * Derived configurations are cached by their overrides, so requests with the same overrides share
+ * a single instance instead of copying the default configuration every time.
+ * </p>
+ */
+/* package */ class RequestConfigCache {
+    /**
+     * Applications normally use a handful of distinct overrides; past this many we stop caching
+     * rather than grow without bound.
+     */
+    private static final int MAX_SIZE = 64;
+
+    private final RequestConfig defaultRequestConfig;
+    private final ConcurrentMap<Key, RequestConfig> requestConfigs = new ConcurrentHashMap<>();
+
+    /* package */ RequestConfigCache(RequestConfig defaultRequestConfig) {
+        this.defaultRequestConfig = defaultRequestConfig;
+    }
+
+    public RequestConfig getDefaultRequestConfig() {
+        return defaultRequestConfig;
+    }
+
+    /**
+     * Returns the request configuration for the given Jersey configuration.
+     *
+     * @param configuration the Jersey configuration of a request
+     * @return the request configuration, or absent if the defaults aren't overridden
+     */
+    public Optional<RequestConfig> get(Configuration configuration) {
+        final Integer timeout = (Integer) configuration.getProperty(ClientProperties.READ_TIMEOUT);
+        final Integer connectTimeout = (Integer) configuration.getProperty(ClientProperties.CONNECT_TIMEOUT);
+        final Boolean followRedirects = (Boolean) configuration.getProperty(ClientProperties.FOLLOW_REDIRECTS);
+
+        if (timeout == null && connectTimeout == null && followRedirects == null) {
+            return Optional.absent();
+        }
+
+        final Key key = new Key(timeout, connectTimeout, followRedirects);
+        RequestConfig requestConfig = requestConfigs.get(key);
+        if (requestConfig == null) {
+            requestConfig = build(timeout, connectTimeout, followRedirects);
+            if (requestConfigs.size() < MAX_SIZE) {
+                requestConfigs.putIfAbsent(key, requestConfig);
+            }
+        }
+        return Optional.of(requestConfig);
+    }
+
+    /* package */ int size() {
+        return requestConfigs.size();
+    }
+
+    private RequestConfig build(Integer timeout, Integer connectTimeout, Boolean followRedirects) {
+        final RequestConfig.Builder requestConfig = RequestConfig.copy(defaultRequestConfig);
+
+        if (timeout != null) {
+            requestConfig.setSocketTimeout(timeout);
+        }
+
+        if (connectTimeout != null) {
+            requestConfig.setConnectTimeout(connectTimeout);
+        }
+
+        if (followRedirects != null) {
+            requestConfig.setRedirectsEnabled(followRedirects);
+        }
+
+        return requestConfig.build();
+    }
+
+    private static final class Key {
+        private final Integer timeout;
+        private final Integer connectTimeout;
+        private final Boolean followRedirects;
+
+        private Key(Integer timeout, Integer connectTimeout, Boolean followRedirects) {
+            this.timeout = timeout;
+            this.connectTimeout = connectTimeout;
+            this.followRedirects = followRedirects;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return Objects.equals(timeout, other.timeout)
+                    && Objects.equals(connectTimeout, other.connectTimeout)
+                    && Objects.equals(followRedirects, other.followRedirects);
+        }
+
+        @Override
+        public int hashCode() {
+            // spelled out rather than Objects.hash() to avoid allocating a varargs array per lookup
+            int result = Objects.hashCode(timeout);
+            result = 31 * result + Objects.hashCode(connectTimeout);
+            result = 31 * result + Objects.hashCode(followRedirects);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package io.dropwizard.client.cache;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Size;
+
+import javax.annotation.Nullable;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.io.File;
+
+/**
+ * Configuration of an HTTP response cache in front of a client
+ * <p/>
+ * Cached responses are served without contacting the remote host while they are fresh according to
+ * their {@code Cache-Control} and {@code Expires} headers. Stale responses with an {@code ETag} or a
+ * {@code Last-Modified} header are revalidated with a conditional request.
+ * <p/>
+ * <b>Configuration Parameters:</b>
+ * <table>
+ *     <tr>
+ *         <td>Name</td>
+ *         <td>Default</td>
+ *         <td>Description</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code maxEntries}</td>
+ *         <td>1000</td>
+ *         <td>The maximum number of responses in the cache.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code maxObjectSize}</td>
+ *         <td>8KiB</td>
+ *         <td>The maximum size of a response body which will be cached.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code directory}</td>
+ *         <td>(none)</td>
+ *         <td>
+ *             If set, response bodies are stored in files in this directory. Otherwise they are
+ *             stored on the heap.
+ *         </td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code shared}</td>
+ *         <td>true</td>
+ *         <td>
+ *             Whether the cache behaves as a shared cache, and therefore doesn't store responses
+ *             marked as {@code private} or responses to requests with an {@code Authorization} header.
+ *         </td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code heuristicCachingEnabled}</td>
+ *         <td>false</td>
+ *         <td>
+ *             Whether responses without explicit freshness information are cached for a heuristic
+ *             period based on their {@code Last-Modified} header.
+ *         </td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code asynchronousWorkers}</td>
+ *         <td>1</td>
+ *         <td>
+ *             The number of threads which revalidate responses served with
+ *             {@code stale-while-revalidate} in the background. {@code 0} revalidates them synchronously.
+ *         </td>
+ *     </tr>
+ * </table>
+ */
+public class CacheConfiguration {
+
+    @Min(1)
+    @Max(Integer.MAX_VALUE)
+    private int maxEntries = 1000;
+
+    @NotNull
+    private Size maxObjectSize = Size.kilobytes(8);
+
+    @Nullable
+    private File directory;
+
+    private boolean shared = true;
+
+    private boolean heuristicCachingEnabled = false;
+
+    @Min(0)
+    @Max(1024)
+    private int asynchronousWorkers = 1;
+
+    @JsonProperty
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    @JsonProperty
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    @JsonProperty
+    public Size getMaxObjectSize() {
+        return maxObjectSize;
+    }
+
+    @JsonProperty
+    public void setMaxObjectSize(Size maxObjectSize) {
+        this.maxObjectSize = maxObjectSize;
+    }
+
+    @JsonProperty
+    public File getDirectory() {
+        return directory;
+    }
+
+    @JsonProperty
+    public void setDirectory(File directory) {
+        this.directory = directory;
+    }
+
+    @JsonProperty
+    public boolean isShared() {
+        return shared;
+    }
+
+    @JsonProperty
+    public void setShared(boolean shared) {
+        this.shared = shared;
+    }
+
+    @JsonProperty
+    public boolean isHeuristicCachingEnabled() {
+        return heuristicCachingEnabled;
+    }
+
+    @JsonProperty
+    public void setHeuristicCachingEnabled(boolean heuristicCachingEnabled) {
+        this.heuristicCachingEnabled = heuristicCachingEnabled;
+    }
+
+    @JsonProperty
+    public int getAsynchronousWorkers() {
+        return asynchronousWorkers;
+    }
+
+    @JsonProperty
+    public void setAsynchronousWorkers(int asynchronousWorkers) {
+        this.asynchronousWorkers = asynchronousWorkers;
+    }
+}
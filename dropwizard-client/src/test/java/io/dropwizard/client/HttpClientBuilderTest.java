@@ -6,6 +6,7 @@ import com.codahale.metrics.httpclient.InstrumentedHttpClientConnectionManager;
 import com.codahale.metrics.httpclient.InstrumentedHttpRequestExecutor;
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
+import io.dropwizard.client.cache.CacheConfiguration;
 import io.dropwizard.client.proxy.AuthConfiguration;
 import io.dropwizard.client.proxy.ProxyConfiguration;
 import io.dropwizard.util.Duration;
@@ -32,6 +33,7 @@ import org.apache.http.impl.DefaultConnectionReuseStrategy;
 import org.apache.http.impl.NoConnectionReuseStrategy;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.cache.CachingHttpClientBuilder;
 import org.apache.http.impl.conn.DefaultRoutePlanner;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.impl.conn.SystemDefaultDnsResolver;
@@ -64,6 +66,7 @@ public class HttpClientBuilderTest {
             .register("http", PlainConnectionSocketFactory.getSocketFactory())
             .register("https", SSLConnectionSocketFactory.getSocketFactory())
             .build();
+    private MetricRegistry metricRegistry;
     private HttpClientConfiguration configuration;
     private HttpClientBuilder builder;
     private InstrumentedHttpClientConnectionManager connectionManager;
@@ -76,7 +79,7 @@ public class HttpClientBuilderTest {
 
     @Before
     public void setUp() {
-        final MetricRegistry metricRegistry = new MetricRegistry();
+        metricRegistry = new MetricRegistry();
         configuration = new HttpClientConfiguration();
         builder = new HttpClientBuilder(metricRegistry);
         connectionManager = spy(new InstrumentedHttpClientConnectionManager(metricRegistry, registry));
@@ -428,6 +431,21 @@ public class HttpClientBuilderTest {
         assertThat(spyHttpClientField("defaultConfig", client.getClient())).isEqualTo(client.getDefaultRequestConfig());
     }
 
+    @Test
+    public void usesACachingBuilderWithCacheMetersWhenCachingIsEnabled() throws Exception {
+        final CacheConfiguration cache = new CacheConfiguration();
+        cache.setMaxEntries(12);
+        configuration.setCacheConfiguration(cache);
+
+        final CachingHttpClientBuilder cachingBuilder = builder.using(configuration).createCachingBuilder(cache, "test");
+        assertThat(builder.createClient(cachingBuilder, connectionManager, "test")).isNotNull();
+
+        assertThat(metricRegistry.getMeters().keySet()).contains(
+                "org.apache.http.client.HttpClient.test.cache.hits",
+                "org.apache.http.client.HttpClient.test.cache.misses",
+                "org.apache.http.client.HttpClient.test.cache.validations");
+    }
+
     private Object spyHttpClientBuilderField(final String fieldName, final Object obj) throws Exception {
         final Field field = FieldUtils.getField(httpClientBuilderClass, fieldName, true);
         return field.get(obj);
@@ -1,6 +1,8 @@
 package io.dropwizard.client;
 
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Charsets;
@@ -10,12 +12,16 @@ import com.sun.net.httpserver.Headers;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
+import io.dropwizard.client.cache.CacheConfiguration;
 import io.dropwizard.jackson.Jackson;
+import io.dropwizard.util.Size;
+import org.glassfish.jersey.client.ClientProperties;
 import org.glassfish.jersey.filter.LoggingFilter;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
@@ -25,14 +31,20 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import static javax.ws.rs.core.MediaType.TEXT_PLAIN;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 
 /**
  * Integration test of {@link org.glassfish.jersey.client.JerseyClient}
@@ -221,6 +233,184 @@ public class JerseyClientIntegrationTest {
         jersey.close();
     }
 
+    @Test
+    public void testCachedGet() {
+        final AtomicInteger requests = new AtomicInteger();
+        httpServer.createContext("/player", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange httpExchange) throws IOException {
+                try {
+                    requests.incrementAndGet();
+                    final byte[] body = "John Doe".getBytes(Charsets.UTF_8);
+                    httpExchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, TEXT_PLAIN);
+                    httpExchange.getResponseHeaders().add(HttpHeaders.CACHE_CONTROL, "max-age=60");
+                    httpExchange.sendResponseHeaders(200, body.length);
+                    httpExchange.getResponseBody().write(body);
+                } finally {
+                    httpExchange.close();
+                }
+            }
+        });
+        httpServer.start();
+
+        JerseyClientConfiguration configuration = new JerseyClientConfiguration();
+        configuration.setCacheConfiguration(new CacheConfiguration());
+
+        MetricRegistry metricRegistry = new MetricRegistry();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Client jersey = new JerseyClientBuilder(metricRegistry)
+                .using(executor, JSON_MAPPER)
+                .using(configuration)
+                .build("jersey-test");
+        WebTarget target = jersey.target("http://127.0.0.1:" + httpServer.getAddress().getPort() + "/player");
+
+        assertThat(target.request().get(String.class)).isEqualTo("John Doe");
+        assertThat(target.request().get(String.class)).isEqualTo("John Doe");
+
+        assertThat(requests.get()).isEqualTo(1);
+        assertThat(metricRegistry.meter("org.apache.http.client.HttpClient.jersey-test.cache.misses").getCount())
+                .isEqualTo(1);
+        assertThat(metricRegistry.meter("org.apache.http.client.HttpClient.jersey-test.cache.hits").getCount())
+                .isEqualTo(1);
+
+        executor.shutdown();
+        jersey.close();
+    }
+
+    @Test
+    public void testCoalescedGet() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        createSlowPlayerContext(requests, latch);
+        httpServer.start();
+
+        JerseyClientConfiguration configuration = new JerseyClientConfiguration();
+        configuration.setRequestCoalescingEnabled(true);
+
+        MetricRegistry metricRegistry = new MetricRegistry();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Client jersey = new JerseyClientBuilder(metricRegistry)
+                .using(executor, JSON_MAPPER)
+                .using(configuration)
+                .build("jersey-test");
+        WebTarget target = jersey.target("http://127.0.0.1:" + httpServer.getAddress().getPort() + "/player");
+
+        Future<String> first = target.request().async().get(String.class);
+        Future<String> second = target.request().async().get(String.class);
+
+        Meter coalescedRequests = metricRegistry.meter("javax.ws.rs.client.Client.jersey-test.coalesced-requests");
+        for (int i = 0; i < 500 && coalescedRequests.getCount() == 0; i++) {
+            Thread.sleep(10);
+        }
+        latch.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("John Doe");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("John Doe");
+        assertThat(requests.get()).isEqualTo(1);
+        assertThat(coalescedRequests.getCount()).isEqualTo(1);
+
+        executor.shutdown();
+        jersey.close();
+    }
+
+    @Test
+    public void testCoalescedGetTooLargeToShare() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        createSlowPlayerContext(requests, latch);
+        httpServer.start();
+
+        JerseyClientConfiguration configuration = new JerseyClientConfiguration();
+        configuration.setRequestCoalescingEnabled(true);
+        configuration.setMaxCoalescedResponseSize(Size.bytes(4));
+
+        MetricRegistry metricRegistry = new MetricRegistry();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Client jersey = new JerseyClientBuilder(metricRegistry)
+                .using(executor, JSON_MAPPER)
+                .using(configuration)
+                .build("jersey-test");
+        WebTarget target = jersey.target("http://127.0.0.1:" + httpServer.getAddress().getPort() + "/player");
+
+        Future<String> first = target.request().async().get(String.class);
+        Future<String> second = target.request().async().get(String.class);
+
+        Meter coalescedRequests = metricRegistry.meter("javax.ws.rs.client.Client.jersey-test.coalesced-requests");
+        for (int i = 0; i < 500 && coalescedRequests.getCount() == 0; i++) {
+            Thread.sleep(10);
+        }
+        latch.countDown();
+
+        // the waiting request is sent on its own once the response turns out to be too large
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("John Doe");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("John Doe");
+        assertThat(requests.get()).isEqualTo(2);
+
+        executor.shutdown();
+        jersey.close();
+    }
+
+    @Test
+    public void testGetsWithDifferentTimeoutsAreNotCoalesced() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        createSlowPlayerContext(requests, latch);
+        // both requests have to reach the server at once
+        ExecutorService serverExecutor = Executors.newFixedThreadPool(2);
+        httpServer.setExecutor(serverExecutor);
+        httpServer.start();
+
+        JerseyClientConfiguration configuration = new JerseyClientConfiguration();
+        configuration.setRequestCoalescingEnabled(true);
+
+        MetricRegistry metricRegistry = new MetricRegistry();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Client jersey = new JerseyClientBuilder(metricRegistry)
+                .using(executor, JSON_MAPPER)
+                .using(configuration)
+                .build("jersey-test");
+        WebTarget target = jersey.target("http://127.0.0.1:" + httpServer.getAddress().getPort() + "/player");
+
+        Future<String> first = target.request().async().get(String.class);
+        // the connector reads the timeout from the configuration, which request properties aren't part of
+        Future<String> second = target.property(ClientProperties.READ_TIMEOUT, 5000)
+                                      .request().async().get(String.class);
+
+        for (int i = 0; i < 500 && requests.get() < 2; i++) {
+            Thread.sleep(10);
+        }
+        latch.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("John Doe");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("John Doe");
+        assertThat(requests.get()).isEqualTo(2);
+        assertThat(metricRegistry.meter("javax.ws.rs.client.Client.jersey-test.coalesced-requests").getCount())
+                .isEqualTo(0);
+
+        executor.shutdown();
+        serverExecutor.shutdown();
+        jersey.close();
+    }
+
+    private void createSlowPlayerContext(final AtomicInteger requests, final CountDownLatch latch) {
+        httpServer.createContext("/player", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange httpExchange) throws IOException {
+                try {
+                    requests.incrementAndGet();
+                    latch.await(5, TimeUnit.SECONDS);
+                    httpExchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, TEXT_PLAIN);
+                    httpExchange.sendResponseHeaders(200, 0);
+                    httpExchange.getResponseBody().write("John Doe".getBytes(Charsets.UTF_8));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    httpExchange.close();
+                }
+            }
+        });
+    }
+
     @Test
     public void testSetUserAgent() {
         httpServer.createContext("/test", new HttpHandler() {
@@ -301,6 +491,115 @@ public class JerseyClientIntegrationTest {
         jersey.close();
     }
 
+    @Test
+    public void testNonBlockingAsyncGet() throws Exception {
+        httpServer.createContext("/player", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange httpExchange) throws IOException {
+                try {
+                    assertThat(httpExchange.getRequestURI().getQuery()).isEqualTo("id=21");
+
+                    httpExchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, APPLICATION_JSON);
+                    httpExchange.sendResponseHeaders(200, 0);
+                    httpExchange.getResponseBody().write(JSON_MAPPER.createObjectNode()
+                            .put("email", "john@doe.me")
+                            .put("name", "John Doe")
+                            .toString().getBytes(Charsets.UTF_8));
+                } finally {
+                    httpExchange.close();
+                }
+            }
+        });
+        httpServer.start();
+
+        JerseyClientConfiguration configuration = new JerseyClientConfiguration();
+        configuration.setNonBlockingEnabled(true);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Client jersey = new JerseyClientBuilder(new MetricRegistry())
+                .using(executor, JSON_MAPPER)
+                .using(configuration)
+                .build("jersey-test");
+        Future<Person> future = jersey.target("http://127.0.0.1:" + httpServer.getAddress().getPort() + "/player?id=21")
+                .request()
+                .async()
+                .get(Person.class);
+
+        Person person = future.get(5, TimeUnit.SECONDS);
+        assertThat(person.email).isEqualTo("john@doe.me");
+        assertThat(person.name).isEqualTo("John Doe");
+
+        executor.shutdown();
+        jersey.close();
+    }
+
+    @Test
+    public void testNonBlockingPost() {
+        httpServer.createContext("/register", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange httpExchange) throws IOException {
+                try {
+                    Headers requestHeaders = httpExchange.getRequestHeaders();
+                    assertThat(requestHeaders.get(HttpHeaders.CONTENT_LENGTH)).containsExactly("58");
+                    assertThat(requestHeaders.get(TRANSFER_ENCODING)).isNull();
+                    assertThat(requestHeaders.get(HttpHeaders.CONTENT_ENCODING)).containsExactly(GZIP);
+
+                    checkBody(httpExchange, true);
+                    postResponse(httpExchange);
+                } finally {
+                    httpExchange.close();
+                }
+            }
+        });
+        httpServer.start();
+
+        JerseyClientConfiguration configuration = new JerseyClientConfiguration();
+        configuration.setNonBlockingEnabled(true);
+        postRequest(configuration);
+    }
+
+    @Test
+    public void testNonBlockingFailuresAreTimed() throws Exception {
+        httpServer.createContext("/player", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange httpExchange) throws IOException {
+                // hang up without a response
+                httpExchange.close();
+            }
+        });
+        httpServer.start();
+
+        JerseyClientConfiguration configuration = new JerseyClientConfiguration();
+        configuration.setNonBlockingEnabled(true);
+
+        MetricRegistry metricRegistry = new MetricRegistry();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Client jersey = new JerseyClientBuilder(metricRegistry)
+                .using(executor, JSON_MAPPER)
+                .using(configuration)
+                .build("jersey-test");
+        Future<Response> future = jersey.target("http://127.0.0.1:" + httpServer.getAddress().getPort() + "/player")
+                .request()
+                .async()
+                .get();
+
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            failBecauseExceptionWasNotThrown(ExecutionException.class);
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(ProcessingException.class);
+        }
+
+        long timed = 0;
+        for (Timer timer : metricRegistry.getTimers().values()) {
+            timed += timer.getCount();
+        }
+        assertThat(timed).isEqualTo(1);
+
+        executor.shutdown();
+        jersey.close();
+    }
+
     static class Person {
 
         @JsonProperty("email")
@@ -0,0 +1,60 @@
+package io.dropwizard.client;
+
+import com.google.common.base.Optional;
+import org.apache.http.client.config.RequestConfig;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RequestConfigCacheTest {
+    private final RequestConfig defaultRequestConfig = RequestConfig.custom()
+            .setSocketTimeout(500)
+            .setConnectTimeout(200)
+            .setConnectionRequestTimeout(300)
+            .build();
+    private final RequestConfigCache requestConfigs = new RequestConfigCache(defaultRequestConfig);
+
+    @Test
+    public void usesTheDefaultConfigurationWithoutOverrides() throws Exception {
+        assertThat(requestConfigs.get(new ClientConfig()).isPresent())
+                .isFalse();
+        assertThat(requestConfigs.size())
+                .isZero();
+    }
+
+    @Test
+    public void appliesOverridesToTheDefaultConfiguration() throws Exception {
+        final Optional<RequestConfig> requestConfig = requestConfigs.get(new ClientConfig()
+                .property(ClientProperties.READ_TIMEOUT, 1000)
+                .property(ClientProperties.CONNECT_TIMEOUT, 100)
+                .property(ClientProperties.FOLLOW_REDIRECTS, false));
+
+        assertThat(requestConfig.get().getSocketTimeout())
+                .isEqualTo(1000);
+        assertThat(requestConfig.get().getConnectTimeout())
+                .isEqualTo(100);
+        assertThat(requestConfig.get().isRedirectsEnabled())
+                .isFalse();
+        assertThat(requestConfig.get().getConnectionRequestTimeout())
+                .isEqualTo(300);
+    }
+
+    @Test
+    public void reusesConfigurationsWithTheSameOverrides() throws Exception {
+        final RequestConfig first = requestConfigs.get(new ClientConfig()
+                .property(ClientProperties.READ_TIMEOUT, 1000)).get();
+        final RequestConfig second = requestConfigs.get(new ClientConfig()
+                .property(ClientProperties.READ_TIMEOUT, 1000)).get();
+        final RequestConfig third = requestConfigs.get(new ClientConfig()
+                .property(ClientProperties.READ_TIMEOUT, 2000)).get();
+
+        assertThat(second)
+                .isSameAs(first);
+        assertThat(third)
+                .isNotSameAs(first);
+        assertThat(requestConfigs.size())
+                .isEqualTo(2);
+    }
+}
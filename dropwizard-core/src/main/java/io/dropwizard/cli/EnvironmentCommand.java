@@ -2,8 +2,10 @@ package io.dropwizard.cli;
 
 import io.dropwizard.Application;
 import io.dropwizard.Configuration;
+import io.dropwizard.lifecycle.ExecutorServiceManager;
 import io.dropwizard.setup.Bootstrap;
 import io.dropwizard.setup.Environment;
+import io.dropwizard.util.Duration;
 import net.sourceforge.argparse4j.inf.Namespace;
 
 import javax.validation.Validation;
@@ -15,6 +17,8 @@ import javax.validation.Validation;
  * @see Configuration
  */
 public abstract class EnvironmentCommand<T extends Configuration> extends ConfiguredCommand<T> {
+    private static final Duration ARCHIVER_SHUTDOWN_PERIOD = Duration.seconds(30);
+
     private final Application<T> application;
 
     /**
@@ -38,6 +42,10 @@ public abstract class EnvironmentCommand<T extends Configuration> extends Config
                                                         bootstrap.getClassLoader());
         configuration.getMetricsFactory().configure(environment.lifecycle(),
                                                     bootstrap.getMetricRegistry());
+        // archives are compressed in the background until the application stops
+        environment.lifecycle().manage(new ExecutorServiceManager(
+                configuration.getLoggingFactory().getLogArchiver().getExecutorService(),
+                ARCHIVER_SHUTDOWN_PERIOD, "log-archiver"));
         bootstrap.run(configuration, environment);
         application.run(configuration, environment);
         run(environment, namespace, configuration);
@@ -21,16 +21,21 @@ import io.dropwizard.jersey.validation.ConstraintViolationExceptionMapper;
 import org.glassfish.jersey.servlet.ServletContainer;
 import io.dropwizard.jersey.jackson.JacksonMessageBodyProvider;
 import io.dropwizard.jersey.setup.JerseyEnvironment;
+import io.dropwizard.jetty.ConcurrencyLimitFactory;
+import io.dropwizard.jetty.ConcurrencyLimitHandler;
 import io.dropwizard.jetty.GzipFilterFactory;
 import io.dropwizard.jetty.MutableServletContextHandler;
 import io.dropwizard.jetty.NonblockingServletHolder;
 import io.dropwizard.jetty.RequestLogFactory;
+import io.dropwizard.jetty.VirtualThreadPool;
 import io.dropwizard.lifecycle.setup.LifecycleEnvironment;
 import io.dropwizard.servlets.ThreadNameFilter;
 import io.dropwizard.util.Duration;
+import io.dropwizard.util.VirtualThreads;
 import io.dropwizard.validation.MinDuration;
 import io.dropwizard.validation.ValidationMethod;
 import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.RequestLog;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.handler.ErrorHandler;
 import org.eclipse.jetty.server.handler.RequestLogHandler;
@@ -80,6 +85,14 @@ import java.util.regex.Pattern;
  *         <td>The {@link GzipFilterFactory GZIP} configuration.</td>
  *     </tr>
  *     <tr>
+ *         <td>{@code concurrencyLimit}</td>
+ *         <td></td>
+ *         <td>
+ *             The {@link ConcurrencyLimitFactory adaptive concurrency limit} of the application
+ *             handler. Disabled by default.
+ *         </td>
+ *     </tr>
+ *     <tr>
  *         <td>{@code maxThreads}</td>
  *         <td>1024</td>
  *         <td>The maximum number of threads to use for requests.</td>
@@ -100,6 +113,15 @@ import java.util.regex.Pattern;
  *         <td>The amount of time a worker thread can be idle before being stopped.</td>
  *     </tr>
  *     <tr>
+ *         <td>{@code useVirtualThreads}</td>
+ *         <td>false</td>
+ *         <td>
+ *             Whether to handle requests on virtual threads, if the JVM supports them (Java 21 or
+ *             later). Each job gets a new virtual thread, and {@code maxThreads} limits how many
+ *             run at once. Executors built by the {@link LifecycleEnvironment} opt in separately.
+ *         </td>
+ *     </tr>
+ *     <tr>
  *         <td>{@code nofileSoftLimit}</td>
  *         <td>(none)</td>
  *         <td>
@@ -211,6 +233,10 @@ public abstract class AbstractServerFactory implements ServerFactory {
     @NotNull
     private GzipFilterFactory gzip = new GzipFilterFactory();
 
+    @Valid
+    @NotNull
+    private ConcurrencyLimitFactory concurrencyLimit = new ConcurrencyLimitFactory();
+
     @Min(2)
     private int maxThreads = 1024;
 
@@ -222,6 +248,8 @@ public abstract class AbstractServerFactory implements ServerFactory {
     @MinDuration(1)
     private Duration idleThreadTimeout = Duration.minutes(1);
 
+    private boolean useVirtualThreads = false;
+
     @Min(1)
     private Integer nofileSoftLimit;
 
@@ -276,6 +304,16 @@ public abstract class AbstractServerFactory implements ServerFactory {
         this.gzip = gzip;
     }
 
+    @JsonProperty("concurrencyLimit")
+    public ConcurrencyLimitFactory getConcurrencyLimitFactory() {
+        return concurrencyLimit;
+    }
+
+    @JsonProperty("concurrencyLimit")
+    public void setConcurrencyLimitFactory(ConcurrencyLimitFactory concurrencyLimit) {
+        this.concurrencyLimit = concurrencyLimit;
+    }
+
     @JsonProperty
     public int getMaxThreads() {
         return maxThreads;
@@ -316,6 +354,16 @@ public abstract class AbstractServerFactory implements ServerFactory {
         this.idleThreadTimeout = idleThreadTimeout;
     }
 
+    @JsonProperty
+    public boolean isUseVirtualThreads() {
+        return useVirtualThreads;
+    }
+
+    @JsonProperty
+    public void setUseVirtualThreads(boolean useVirtualThreads) {
+        this.useVirtualThreads = useVirtualThreads;
+    }
+
     @JsonProperty
     public Integer getNofileSoftLimit() {
         return nofileSoftLimit;
@@ -494,12 +542,26 @@ public abstract class AbstractServerFactory implements ServerFactory {
         }
         final InstrumentedHandler instrumented = new InstrumentedHandler(metricRegistry);
         instrumented.setServer(server);
-        instrumented.setHandler(handler);
+        if (concurrencyLimit.isEnabled()) {
+            final ConcurrencyLimitHandler limited = concurrencyLimit.build(metricRegistry);
+            limited.setHandler(handler);
+            instrumented.setHandler(limited);
+        } else {
+            instrumented.setHandler(handler);
+        }
         return instrumented;
     }
 
     protected ThreadPool createThreadPool(MetricRegistry metricRegistry) {
         final BlockingQueue<Runnable> queue = new BlockingArrayQueue<>(minThreads, maxThreads, maxQueuedRequests);
+        if (useVirtualThreads && VirtualThreads.isSupported()) {
+            final VirtualThreadPool threadPool = new VirtualThreadPool(metricRegistry, maxThreads, queue);
+            threadPool.setName("dw");
+            return threadPool;
+        }
+        if (useVirtualThreads) {
+            LOGGER.warn("Virtual threads are not supported by this JVM, using platform threads for requests");
+        }
         final InstrumentedQueuedThreadPool threadPool =
                 new InstrumentedQueuedThreadPool(metricRegistry, maxThreads, minThreads,
                                                  (int) idleThreadTimeout.toMilliseconds(), queue);
@@ -564,20 +626,36 @@ public abstract class AbstractServerFactory implements ServerFactory {
         return listener;
     }
 
+    /**
+     * @deprecated use {@link #addRequestLog(Server, Handler, String, MetricRegistry)}, which
+     * registers the metrics of the request log
+     */
+    @Deprecated
     protected Handler addRequestLog(Server server, Handler handler, String name) {
         if (requestLog.isEnabled()) {
-            final RequestLogHandler requestLogHandler = new RequestLogHandler();
-            requestLogHandler.setRequestLog(requestLog.build(name));
-            // server should own the request log's lifecycle since it's already started,
-            // the handler might not become managed in case of an error which would leave
-            // the request log stranded
-            server.addBean(requestLogHandler.getRequestLog(), true);
-            requestLogHandler.setHandler(handler);
-            return requestLogHandler;
+            return addRequestLogHandler(server, handler, requestLog.build(name));
+        }
+        return handler;
+    }
+
+    protected Handler addRequestLog(Server server, Handler handler, String name, MetricRegistry metricRegistry) {
+        if (requestLog.isEnabled()) {
+            return addRequestLogHandler(server, handler, requestLog.build(name, metricRegistry));
         }
         return handler;
     }
 
+    private Handler addRequestLogHandler(Server server, Handler handler, RequestLog log) {
+        final RequestLogHandler requestLogHandler = new RequestLogHandler();
+        requestLogHandler.setRequestLog(log);
+        // server should own the request log's lifecycle since it's already started,
+        // the handler might not become managed in case of an error which would leave
+        // the request log stranded
+        server.addBean(requestLogHandler.getRequestLog(), true);
+        requestLogHandler.setHandler(handler);
+        return requestLogHandler;
+    }
+
     protected Handler addStatsHandler(Handler handler) {
         // Graceful shutdown is implemented via the statistics handler,
         // see https://bugs.eclipse.org/bugs/show_bug.cgi?id=420142
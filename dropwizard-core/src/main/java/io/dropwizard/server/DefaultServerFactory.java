@@ -177,7 +177,8 @@ public class DefaultServerFactory extends AbstractServerFactory {
                                                                   server,
                                                                   applicationHandler,
                                                                   adminHandler);
-        server.setHandler(addStatsHandler(addRequestLog(server, routingHandler, environment.getName())));
+        server.setHandler(addStatsHandler(addRequestLog(server, routingHandler,
+                                                        environment.getName(), environment.metrics())));
         return server;
     }
 
@@ -124,7 +124,8 @@ public class SimpleServerFactory extends AbstractServerFactory {
                 applicationContextPath, applicationHandler,
                 adminContextPath, adminHandler
         ));
-        server.setHandler(addStatsHandler(addRequestLog(server, routingHandler, environment.getName())));
+        server.setHandler(addStatsHandler(addRequestLog(server, routingHandler,
+                                                        environment.getName(), environment.metrics())));
 
         return server;
     }
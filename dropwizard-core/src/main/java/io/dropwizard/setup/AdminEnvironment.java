@@ -40,6 +40,7 @@ public class AdminEnvironment extends ServletEnvironment {
         this.tasks = new TaskServlet(metricRegistry);
         tasks.add(new GarbageCollectionTask());
         tasks.add(new LogConfigurationTask());
+        tasks.add(new LogLevelsTask());
         addServlet("tasks", tasks).addMapping("/tasks/*");
         handler.addLifeCycleListener(new AbstractLifeCycle.AbstractLifeCycleListener() {
             @Override
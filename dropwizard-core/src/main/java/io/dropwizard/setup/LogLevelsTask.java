@@ -0,0 +1,127 @@
+package io.dropwizard.setup;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMultimap;
+import io.dropwizard.logging.LogLevelOverrides;
+import io.dropwizard.servlets.tasks.Task;
+import io.dropwizard.util.Duration;
+import org.slf4j.LoggerFactory;
+
+import java.io.PrintWriter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sets the logging levels of a number of loggers at once, optionally for a limited time, without
+ * reconfiguring any appenders.
+ * <p>
+ * <b>Parameters:</b>
+ * <table>
+ * <tr>
+ * <td>Name</td>
+ * <td>Description</td>
+ * </tr>
+ * <tr>
+ * <td>logger</td>
+ * <td>
+ * One or more loggers and their levels, as {@code name=LEVEL}, e.g. {@code com.example=DEBUG}.
+ * Without a level, the logger inherits the level of its parent.
+ * </td>
+ * </tr>
+ * <tr>
+ * <td>ttl</td>
+ * <td>
+ * An optional {@link Duration}, e.g. {@code 5 minutes}, after which the loggers get back their
+ * previous levels.
+ * </td>
+ * </tr>
+ * <tr>
+ * <td>revert</td>
+ * <td>If present, reverts all pending temporary changes before applying any others.</td>
+ * </tr>
+ * </table>
+ * </p>
+ * All levels are validated before any of them is applied.
+ *
+ * @see LogLevelOverrides
+ */
+public class LogLevelsTask extends Task {
+
+    private final LogLevelOverrides overrides;
+
+    /**
+     * Creates a new LogLevelsTask.
+     */
+    public LogLevelsTask() {
+        this((LoggerContext) LoggerFactory.getILoggerFactory());
+    }
+
+    /**
+     * Creates a new LogLevelsTask with the given {@link LoggerContext} instance.
+     *
+     * @param loggerContext a {@link LoggerContext} instance
+     */
+    public LogLevelsTask(LoggerContext loggerContext) {
+        this(new LogLevelOverrides(loggerContext));
+    }
+
+    /**
+     * Creates a new LogLevelsTask which applies its changes with the given overrides.
+     *
+     * @param overrides the overrides of logging levels
+     */
+    public LogLevelsTask(LogLevelOverrides overrides) {
+        super("log-levels");
+        this.overrides = overrides;
+    }
+
+    @Override
+    public void execute(ImmutableMultimap<String, String> parameters, PrintWriter output) throws Exception {
+        final Map<String, Level> levels = getLoggerLevels(parameters);
+        final Optional<Duration> ttl = getTtl(parameters);
+
+        if (parameters.containsKey("revert")) {
+            overrides.revertAll();
+            output.println("Reverted all temporary logging levels");
+        }
+
+        overrides.apply(levels, ttl);
+        for (Map.Entry<String, Level> entry : levels.entrySet()) {
+            if (ttl.isPresent()) {
+                output.println(String.format("Configured logging level for %s to %s for %s",
+                                             entry.getKey(), entry.getValue(), ttl.get()));
+            } else {
+                output.println(String.format("Configured logging level for %s to %s",
+                                             entry.getKey(), entry.getValue()));
+            }
+        }
+        output.flush();
+    }
+
+    private Map<String, Level> getLoggerLevels(ImmutableMultimap<String, String> parameters) {
+        final Map<String, Level> levels = new LinkedHashMap<>();
+        for (String logger : parameters.get("logger")) {
+            final int separator = logger.indexOf('=');
+            if (separator < 0) {
+                levels.put(logger.trim(), null);
+                continue;
+            }
+            final String name = logger.substring(0, separator).trim();
+            final String value = logger.substring(separator + 1).trim();
+            final Level level = value.isEmpty() ? null : Level.toLevel(value, null);
+            if (!value.isEmpty() && level == null) {
+                throw new IllegalArgumentException("Invalid logging level for " + name + ": " + value);
+            }
+            levels.put(name, level);
+        }
+        return levels;
+    }
+
+    private Optional<Duration> getTtl(ImmutableMultimap<String, String> parameters) {
+        final List<String> ttls = parameters.get("ttl").asList();
+        return ttls.isEmpty() ? Optional.<Duration>absent() : Optional.of(Duration.parse(ttls.get(0)));
+    }
+}
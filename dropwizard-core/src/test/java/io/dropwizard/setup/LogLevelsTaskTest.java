@@ -0,0 +1,109 @@
+package io.dropwizard.setup;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultimap;
+import io.dropwizard.logging.LogLevelOverrides;
+import io.dropwizard.util.Duration;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import static org.mockito.Mockito.mock;
+
+public class LogLevelsTaskTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+    private final Logger logger1 = loggerContext.getLogger("logger.one");
+    private final Logger logger2 = loggerContext.getLogger("logger.two");
+
+    private final StringWriter stringWriter = new StringWriter();
+    private final PrintWriter output = new PrintWriter(stringWriter);
+
+    private final LogLevelOverrides overrides =
+            new LogLevelOverrides(loggerContext, mock(ScheduledExecutorService.class));
+    private final LogLevelsTask task = new LogLevelsTask(overrides);
+
+    @Before
+    public void setUp() throws Exception {
+        logger1.setLevel(Level.INFO);
+        logger2.setLevel(Level.INFO);
+    }
+
+    @Test
+    public void configuresTheLevelsOfSeveralLoggers() throws Exception {
+        // given
+        ImmutableMultimap<String, String> parameters = ImmutableMultimap.of(
+                "logger", "logger.one=debug",
+                "logger", "logger.two");
+
+        // when
+        task.execute(parameters, output);
+
+        // then
+        assertThat(logger1.getLevel()).isEqualTo(Level.DEBUG);
+        assertThat(logger2.getLevel()).isNull();
+
+        assertThat(stringWriter.toString()).isEqualTo(String.format(
+                "Configured logging level for logger.one to DEBUG%nConfigured logging level for logger.two to null%n"));
+    }
+
+    @Test
+    public void configuresTemporaryLevels() throws Exception {
+        // given
+        ImmutableMultimap<String, String> parameters = ImmutableMultimap.of(
+                "logger", "logger.one=TRACE",
+                "ttl", "5 minutes");
+
+        // when
+        task.execute(parameters, output);
+
+        // then
+        assertThat(logger1.getLevel()).isEqualTo(Level.TRACE);
+        assertThat(overrides.getPending()).containsEntry("logger.one", Level.INFO);
+
+        assertThat(stringWriter.toString())
+                .isEqualTo(String.format("Configured logging level for logger.one to TRACE for 5 minutes%n"));
+    }
+
+    @Test
+    public void revertsTemporaryLevels() throws Exception {
+        // given
+        overrides.apply(ImmutableMap.of("logger.one", Level.DEBUG), Optional.of(Duration.minutes(5)));
+
+        // when
+        task.execute(ImmutableMultimap.of("revert", ""), output);
+
+        // then
+        assertThat(logger1.getLevel()).isEqualTo(Level.INFO);
+        assertThat(stringWriter.toString()).isEqualTo(String.format("Reverted all temporary logging levels%n"));
+    }
+
+    @Test
+    public void appliesNothingIfAnyLevelIsInvalid() throws Exception {
+        // given
+        ImmutableMultimap<String, String> parameters = ImmutableMultimap.of(
+                "logger", "logger.one=DEBUG",
+                "logger", "logger.two=LOUD");
+
+        // when
+        try {
+            task.execute(parameters, output);
+            failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+        } catch (IllegalArgumentException e) {
+            // then
+            assertThat(e.getMessage()).isEqualTo("Invalid logging level for logger.two: LOUD");
+        }
+
+        assertThat(logger1.getLevel()).isEqualTo(Level.INFO);
+        assertThat(logger2.getLevel()).isEqualTo(Level.INFO);
+    }
+}
@@ -0,0 +1,140 @@
+package io.dropwizard.db;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A lock-free collection of pooled connections.
+ * <p/>
+ * A connection is borrowed by atomically changing its state, so borrowers never queue up on a
+ * lock. Each thread first tries the connections it returned most recently, then scans all of
+ * them. Connections returned while other threads are waiting are handed straight to a waiter.
+ */
+class ConnectionBag {
+    private static final int MAX_RECENT = 16;
+    private static final long WAIT_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final CopyOnWriteArrayList<PooledConnection> connections = new CopyOnWriteArrayList<>();
+    private final SynchronousQueue<PooledConnection> handoff = new SynchronousQueue<>(true);
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final ThreadLocal<List<WeakReference<PooledConnection>>> recent =
+            new ThreadLocal<List<WeakReference<PooledConnection>>>() {
+                @Override
+                protected List<WeakReference<PooledConnection>> initialValue() {
+                    return new ArrayList<>(MAX_RECENT);
+                }
+            };
+
+    /**
+     * Borrows an idle connection, without waiting.
+     *
+     * @return an idle connection, now in use, or {@code null} if there is none
+     */
+    PooledConnection borrow() {
+        final List<WeakReference<PooledConnection>> mine = recent.get();
+        for (int i = mine.size() - 1; i >= 0; i--) {
+            final PooledConnection connection = mine.remove(i).get();
+            if (connection != null && connection.compareAndSetState(PooledConnection.NOT_IN_USE, PooledConnection.IN_USE)) {
+                return connection;
+            }
+        }
+        for (PooledConnection connection : connections) {
+            if (connection.compareAndSetState(PooledConnection.NOT_IN_USE, PooledConnection.IN_USE)) {
+                return connection;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Waits for a connection to be returned.
+     *
+     * @param timeoutNanos how long to wait at most
+     * @return a connection, now in use, or {@code null} if none was returned in time
+     * @throws InterruptedException if the thread was interrupted while waiting
+     */
+    PooledConnection await(long timeoutNanos) throws InterruptedException {
+        final long deadline = System.nanoTime() + timeoutNanos;
+        waiting.incrementAndGet();
+        try {
+            long remaining = timeoutNanos;
+            while (remaining > 0) {
+                final PooledConnection handed = handoff.poll(Math.min(remaining, WAIT_SLICE_NANOS), TimeUnit.NANOSECONDS);
+                if (handed != null && handed.compareAndSetState(PooledConnection.NOT_IN_USE, PooledConnection.IN_USE)) {
+                    return handed;
+                }
+                // a connection may have been returned before anyone was waiting for it
+                final PooledConnection idle = borrow();
+                if (idle != null) {
+                    return idle;
+                }
+                remaining = deadline - System.nanoTime();
+            }
+            return null;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Adds a new connection, which is in use by the calling thread.
+     */
+    void add(PooledConnection connection) {
+        connections.add(connection);
+    }
+
+    /**
+     * Returns a borrowed connection to the bag.
+     */
+    void requite(PooledConnection connection) {
+        connection.setState(PooledConnection.NOT_IN_USE);
+        while (waiting.get() > 0) {
+            if (connection.getState() != PooledConnection.NOT_IN_USE || handoff.offer(connection)) {
+                return;
+            }
+            Thread.yield();
+        }
+        final List<WeakReference<PooledConnection>> mine = recent.get();
+        if (mine.size() < MAX_RECENT) {
+            mine.add(new WeakReference<>(connection));
+        }
+    }
+
+    /**
+     * Removes a connection, which must be in use or reserved, from the bag.
+     */
+    void remove(PooledConnection connection) {
+        connection.setState(PooledConnection.REMOVED);
+        connections.remove(connection);
+    }
+
+    /**
+     * @return all connections, whatever their state
+     */
+    List<PooledConnection> getConnections() {
+        return connections;
+    }
+
+    int size() {
+        return connections.size();
+    }
+
+    int count(int state) {
+        int count = 0;
+        for (PooledConnection connection : connections) {
+            if (connection.getState() == state) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    int getWaiting() {
+        return waiting.get();
+    }
+}
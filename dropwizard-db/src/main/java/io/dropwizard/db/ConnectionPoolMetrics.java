@@ -0,0 +1,87 @@
+package io.dropwizard.db;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.TimeUnit;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * The metrics of the connections of a pool:
+ * <ul>
+ *     <li>{@code borrow-wait}: how long {@code getConnection} took, including timeouts</li>
+ *     <li>{@code hold}: how long borrowers held on to their connections</li>
+ *     <li>{@code timeouts}: how many borrowers gave up waiting for a connection</li>
+ *     <li>{@code validation}: how long validating connections took</li>
+ * </ul>
+ */
+public class ConnectionPoolMetrics {
+    private static final Class<?>[] INTERFACES = {Connection.class};
+
+    private final Timer borrowWait;
+    private final Timer hold;
+    private final Meter timeouts;
+    private final Timer validation;
+
+    /**
+     * Creates the metrics of a pool.
+     *
+     * @param metricRegistry the registry to register the metrics with
+     * @param prefix         the prefix of the names of the metrics
+     */
+    public ConnectionPoolMetrics(MetricRegistry metricRegistry, String prefix) {
+        this.borrowWait = metricRegistry.timer(name(prefix, "borrow-wait"));
+        this.hold = metricRegistry.timer(name(prefix, "hold"));
+        this.timeouts = metricRegistry.meter(name(prefix, "timeouts"));
+        this.validation = metricRegistry.timer(name(prefix, "validation"));
+    }
+
+    public Timer getBorrowWait() {
+        return borrowWait;
+    }
+
+    public Timer getHold() {
+        return hold;
+    }
+
+    public Meter getTimeouts() {
+        return timeouts;
+    }
+
+    public Timer getValidation() {
+        return validation;
+    }
+
+    /**
+     * Wraps a borrowed connection, so that closing it records how long it was held.
+     *
+     * @param connection the borrowed connection
+     * @return the wrapped connection
+     */
+    public Connection instrument(final Connection connection) {
+        final long borrowedAt = System.nanoTime();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), INTERFACES, new InvocationHandler() {
+            private boolean closed;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("close".equals(method.getName()) && !closed) {
+                    closed = true;
+                    hold.update(System.nanoTime() - borrowedAt, TimeUnit.NANOSECONDS);
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        });
+    }
+}
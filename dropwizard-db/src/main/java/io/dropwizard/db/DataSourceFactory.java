@@ -4,16 +4,20 @@ import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import io.dropwizard.util.Duration;
 import io.dropwizard.validation.MinDuration;
 import io.dropwizard.validation.ValidationMethod;
 import org.apache.tomcat.jdbc.pool.PoolProperties;
 
+import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import java.sql.Connection;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.TimeUnit;
@@ -106,6 +110,17 @@ import java.util.concurrent.TimeUnit;
  *         </td>
  *     </tr>
  *     <tr>
+ *         <td>{@code poolImplementation}</td>
+ *         <td>{@code tomcat}</td>
+ *         <td>
+ *             The connection pool. {@code tomcat} is Tomcat's JDBC pool. {@code lock-free} is a
+ *             pool whose borrowers never queue up on a lock, for applications which borrow and
+ *             return connections at a high rate. It ignores {@code useFairQueue},
+ *             {@code abandonWhenPercentageFull}, {@code logAbandonedConnections} and
+ *             {@code alternateUsernamesAllowed}.
+ *         </td>
+ *     </tr>
+ *     <tr>
  *         <td>{@code useFairQueue}</td>
  *         <td>{@code true}</td>
  *         <td>
@@ -234,6 +249,24 @@ import java.util.concurrent.TimeUnit;
  *         </td>
  *     </tr>
  *     <tr>
+ *         <td>{@code rewrittenSqlCacheSize}</td>
+ *         <td>0</td>
+ *         <td>
+ *             The maximum number of statements whose parsed SQL and parameter names JDBI
+ *             caches, so that it doesn't parse the SQL of every execution. {@code 0} disables
+ *             the cache.
+ *         </td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code preparedStatementCacheSize}</td>
+ *         <td>0</td>
+ *         <td>
+ *             The maximum number of prepared statements JDBI keeps open per pooled connection, so
+ *             that later handles can execute them again without preparing them. {@code 0}
+ *             disables the cache.
+ *         </td>
+ *     </tr>
+ *     <tr>
  *         <td>{@code evictionInterval}</td>
  *         <td>5 seconds</td>
  *         <td>
@@ -248,6 +281,39 @@ import java.util.concurrent.TimeUnit;
  *             To avoid excess validation, only run validation once every interval.
  *         </td>
  *     </tr>
+ *     <tr>
+ *         <td>{@code connectionMetricsEnabled}</td>
+ *         <td>{@code false}</td>
+ *         <td>
+ *             Whether to record how long borrowers wait for connections ({@code borrow-wait}) and
+ *             hold on to them ({@code hold}), how many give up waiting ({@code timeouts}), and how
+ *             long validating connections takes ({@code validation}).
+ *         </td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code connectionMetricsPrefix}</td>
+ *         <td>the name of the data source class and the pool</td>
+ *         <td>
+ *             The prefix of the names of the connection metrics.
+ *         </td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code replicas}</td>
+ *         <td>(none)</td>
+ *         <td>
+ *             The read replicas of the database, each configured like the primary. If any are
+ *             configured, a {@link RoutingDataSource} sends read-only work to the healthy replica
+ *             with the fewest connections in use.
+ *         </td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code replicaCheckInterval}</td>
+ *         <td>5 seconds</td>
+ *         <td>
+ *             How often to check the replicas with the validation query. Replicas which fail are
+ *             ejected until they pass again.
+ *         </td>
+ *     </tr>
  * </table>
  */
 public class DataSourceFactory {
@@ -271,6 +337,11 @@ public class DataSourceFactory {
         }
     }
 
+    public enum PoolImplementation {
+        TOMCAT,
+        LOCK_FREE
+    }
+
     @NotNull
     private String driverClass = null;
 
@@ -302,6 +373,9 @@ public class DataSourceFactory {
     @NotNull
     private TransactionIsolation defaultTransactionIsolation = TransactionIsolation.DEFAULT;
 
+    @NotNull
+    private PoolImplementation poolImplementation = PoolImplementation.TOMCAT;
+
     private boolean useFairQueue = true;
 
     @Min(1)
@@ -346,6 +420,12 @@ public class DataSourceFactory {
 
     private boolean autoCommentsEnabled = true;
 
+    @Min(0)
+    private int rewrittenSqlCacheSize = 0;
+
+    @Min(0)
+    private int preparedStatementCacheSize = 0;
+
     @NotNull
     @MinDuration(1)
     private Duration evictionInterval = Duration.seconds(5);
@@ -354,6 +434,18 @@ public class DataSourceFactory {
     @MinDuration(1)
     private Duration validationInterval = Duration.seconds(30);
 
+    private boolean connectionMetricsEnabled = false;
+
+    private String connectionMetricsPrefix;
+
+    @Valid
+    @NotNull
+    private List<DataSourceFactory> replicas = ImmutableList.of();
+
+    @NotNull
+    @MinDuration(1)
+    private Duration replicaCheckInterval = Duration.seconds(5);
+
     @JsonProperty
     public boolean isAutoCommentsEnabled() {
         return autoCommentsEnabled;
@@ -364,6 +456,26 @@ public class DataSourceFactory {
         this.autoCommentsEnabled = autoCommentsEnabled;
     }
 
+    @JsonProperty
+    public int getRewrittenSqlCacheSize() {
+        return rewrittenSqlCacheSize;
+    }
+
+    @JsonProperty
+    public void setRewrittenSqlCacheSize(int rewrittenSqlCacheSize) {
+        this.rewrittenSqlCacheSize = rewrittenSqlCacheSize;
+    }
+
+    @JsonProperty
+    public int getPreparedStatementCacheSize() {
+        return preparedStatementCacheSize;
+    }
+
+    @JsonProperty
+    public void setPreparedStatementCacheSize(int preparedStatementCacheSize) {
+        this.preparedStatementCacheSize = preparedStatementCacheSize;
+    }
+
     @JsonProperty
     public String getDriverClass() {
         return driverClass;
@@ -494,6 +606,17 @@ public class DataSourceFactory {
         return minSize <= initialSize;
     }
 
+    @JsonIgnore
+    @ValidationMethod(message = ".replicas can't have replicas of their own")
+    public boolean isOnlyOneLevelOfReplicas() {
+        for (DataSourceFactory replica : replicas) {
+            if (!replica.getReplicas().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @JsonProperty
     public int getAbandonWhenPercentageFull() {
         return abandonWhenPercentageFull;
@@ -564,6 +687,16 @@ public class DataSourceFactory {
         this.defaultTransactionIsolation = isolation;
     }
 
+    @JsonProperty
+    public PoolImplementation getPoolImplementation() {
+        return poolImplementation;
+    }
+
+    @JsonProperty
+    public void setPoolImplementation(PoolImplementation poolImplementation) {
+        this.poolImplementation = poolImplementation;
+    }
+
     @JsonProperty
     public boolean getUseFairQueue() {
         return useFairQueue;
@@ -694,7 +827,65 @@ public class DataSourceFactory {
         this.validationQueryTimeout = validationQueryTimeout;
     }
 
+    @JsonProperty
+    public boolean isConnectionMetricsEnabled() {
+        return connectionMetricsEnabled;
+    }
+
+    @JsonProperty
+    public void setConnectionMetricsEnabled(boolean connectionMetricsEnabled) {
+        this.connectionMetricsEnabled = connectionMetricsEnabled;
+    }
+
+    @JsonProperty
+    public Optional<String> getConnectionMetricsPrefix() {
+        return Optional.fromNullable(connectionMetricsPrefix);
+    }
+
+    @JsonProperty
+    public void setConnectionMetricsPrefix(String connectionMetricsPrefix) {
+        this.connectionMetricsPrefix = connectionMetricsPrefix;
+    }
+
+    @JsonProperty
+    public List<DataSourceFactory> getReplicas() {
+        return replicas;
+    }
+
+    @JsonProperty
+    public void setReplicas(List<DataSourceFactory> replicas) {
+        this.replicas = replicas;
+    }
+
+    @JsonProperty
+    public Duration getReplicaCheckInterval() {
+        return replicaCheckInterval;
+    }
+
+    @JsonProperty
+    public void setReplicaCheckInterval(Duration replicaCheckInterval) {
+        this.replicaCheckInterval = replicaCheckInterval;
+    }
+
     public ManagedDataSource build(MetricRegistry metricRegistry, String name) {
+        if (replicas.isEmpty()) {
+            return buildPool(metricRegistry, name);
+        }
+        final ImmutableMap.Builder<String, ManagedDataSource> replicaPools = ImmutableMap.builder();
+        for (int i = 0; i < replicas.size(); i++) {
+            final String replicaName = "replica-" + i;
+            replicaPools.put(replicaName, replicas.get(i).buildPool(metricRegistry, name + "-" + replicaName));
+        }
+        return new RoutingDataSource(name,
+                                     buildPool(metricRegistry, name),
+                                     replicaPools.build(),
+                                     metricRegistry,
+                                     replicaCheckInterval,
+                                     validationQuery,
+                                     getValidationQueryTimeout().or(Duration.seconds(5)));
+    }
+
+    private ManagedDataSource buildPool(MetricRegistry metricRegistry, String name) {
         final Properties properties = new Properties();
         for (Map.Entry<String, String> property : this.properties.entrySet()) {
             properties.setProperty(property.getKey(), property.getValue());
@@ -741,6 +932,22 @@ public class DataSourceFactory {
             poolConfig.setValidationQueryTimeout((int) validationQueryTimeout.toSeconds());
         }
 
-        return new ManagedPooledDataSource(poolConfig, metricRegistry);
+        if (poolImplementation == PoolImplementation.LOCK_FREE) {
+            return new LockFreePooledDataSource(poolConfig, metricRegistry,
+                    buildConnectionMetrics(metricRegistry, LockFreePooledDataSource.class, name));
+        }
+        return new ManagedPooledDataSource(poolConfig, metricRegistry,
+                buildConnectionMetrics(metricRegistry, ManagedPooledDataSource.class, name));
+    }
+
+    private ConnectionPoolMetrics buildConnectionMetrics(MetricRegistry metricRegistry,
+                                                         Class<? extends ManagedDataSource> klass,
+                                                         String name) {
+        if (!connectionMetricsEnabled) {
+            return null;
+        }
+        final String prefix = connectionMetricsPrefix == null ?
+                MetricRegistry.name(klass, name) : MetricRegistry.name(connectionMetricsPrefix, name);
+        return new ConnectionPoolMetrics(metricRegistry, prefix);
     }
 }
@@ -0,0 +1,455 @@
+package io.dropwizard.db;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.tomcat.jdbc.pool.PoolConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * A {@link ManagedDataSource} which is backed by a lock-free {@link ConnectionBag}, as an
+ * alternative to Tomcat's pool, whose fair queue becomes a contention point when connections are
+ * borrowed and returned at a high rate.
+ * <p/>
+ * It takes the same {@link PoolConfiguration} as {@link ManagedPooledDataSource}, and honours
+ * the sizes, the maximum wait, validation, the maximum age and idle eviction, the connection
+ * defaults, the initialization query and {@code commitOnReturn}. Like Tomcat's pool, it connects
+ * on demand before it has been started; starting it fills it to its initial size and starts
+ * the background eviction.
+ */
+public class LockFreePooledDataSource implements ManagedDataSource {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LockFreePooledDataSource.class);
+
+    private final PoolConfiguration config;
+    private final MetricRegistry metricRegistry;
+    private final ConnectionPoolMetrics connectionMetrics;
+    private final ConnectionBag bag = new ConnectionBag();
+    private final AtomicInteger total = new AtomicInteger();
+    private volatile Driver driver;
+    private volatile boolean closed;
+    private ScheduledExecutorService housekeeper;
+    private PrintWriter logWriter;
+    private int loginTimeout;
+
+    /**
+     * Create a new data source with the given connection pool configuration.
+     *
+     * @param config the connection pool configuration
+     */
+    public LockFreePooledDataSource(PoolConfiguration config, MetricRegistry metricRegistry) {
+        this(config, metricRegistry, null);
+    }
+
+    /**
+     * Create a new data source with the given connection pool configuration, which records the
+     * metrics of its connections.
+     *
+     * @param config            the connection pool configuration
+     * @param connectionMetrics the metrics of the connections, or {@code null}
+     */
+    public LockFreePooledDataSource(PoolConfiguration config, MetricRegistry metricRegistry,
+                                    ConnectionPoolMetrics connectionMetrics) {
+        this.config = config;
+        this.metricRegistry = metricRegistry;
+        this.connectionMetrics = connectionMetrics;
+    }
+
+    @Override
+    public void start() throws Exception {
+        for (int i = bag.size(); i < config.getInitialSize(); i++) {
+            final PooledConnection connection = create();
+            if (connection == null) {
+                break;
+            }
+            bag.requite(connection);
+        }
+
+        final String poolName = config.getName();
+        metricRegistry.register(name(getClass(), poolName, "active"),
+                new Gauge<Integer>() {
+                    @Override
+                    public Integer getValue() {
+                        return bag.count(PooledConnection.IN_USE);
+                    }
+                });
+
+        metricRegistry.register(name(getClass(), poolName, "idle"),
+                new Gauge<Integer>() {
+                    @Override
+                    public Integer getValue() {
+                        return bag.count(PooledConnection.NOT_IN_USE);
+                    }
+                });
+
+        metricRegistry.register(name(getClass(), poolName, "waiting"),
+                new Gauge<Integer>() {
+                    @Override
+                    public Integer getValue() {
+                        return bag.getWaiting();
+                    }
+                });
+
+        metricRegistry.register(name(getClass(), poolName, "size"),
+                new Gauge<Integer>() {
+                    @Override
+                    public Integer getValue() {
+                        return bag.size();
+                    }
+                });
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat(poolName + "-housekeeper-%d")
+                .setDaemon(true)
+                .build());
+        final long interval = Math.max(config.getTimeBetweenEvictionRunsMillis(), 1);
+        housekeeper.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    evict();
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Unable to evict connections from {}", config.getName(), e);
+                }
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() throws Exception {
+        closed = true;
+        if (housekeeper != null) {
+            housekeeper.shutdownNow();
+        }
+        for (PooledConnection connection : bag.getConnections()) {
+            if (connection.compareAndSetState(PooledConnection.NOT_IN_USE, PooledConnection.RESERVED)) {
+                discard(connection);
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (connectionMetrics == null) {
+            return borrow();
+        }
+        final Timer.Context context = connectionMetrics.getBorrowWait().time();
+        try {
+            return borrow();
+        } catch (SQLTimeoutException e) {
+            connectionMetrics.getTimeouts().mark();
+            throw e;
+        } finally {
+            context.stop();
+        }
+    }
+
+    private Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Data source " + config.getName() + " has been closed");
+        }
+        // like Tomcat's pool, wait indefinitely unless the maximum wait is positive; the deadline
+        // may overflow, but is only ever compared by subtraction
+        final long timeoutNanos = config.getMaxWait() > 0 ?
+                TimeUnit.MILLISECONDS.toNanos(config.getMaxWait()) : Long.MAX_VALUE;
+        final long deadline = System.nanoTime() + timeoutNanos;
+        while (true) {
+            PooledConnection connection = bag.borrow();
+            if (connection == null) {
+                connection = create();
+            }
+            if (connection == null) {
+                try {
+                    connection = bag.await(deadline - System.nanoTime());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for a connection", e);
+                }
+            }
+            if (connection == null) {
+                throw new SQLTimeoutException("Timeout: Pool empty. Unable to fetch a connection in " +
+                        (timeoutNanos / 1000000000) + " seconds, none available[size:" + bag.size() +
+                        "; busy:" + bag.count(PooledConnection.IN_USE) + "; idle:" +
+                        bag.count(PooledConnection.NOT_IN_USE) + "]");
+            }
+            if (isUsable(connection, config.isTestOnBorrow())) {
+                return connection.createHandle(this);
+            }
+            discard(connection);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Alternate usernames are not supported");
+    }
+
+    /**
+     * Returns a connection closed by its borrower to the pool.
+     *
+     * @param connection the connection
+     * @param heldNanos  how long the borrower held on to the connection
+     */
+    void requite(PooledConnection connection, long heldNanos) {
+        if (connectionMetrics != null) {
+            connectionMetrics.getHold().update(heldNanos, TimeUnit.NANOSECONDS);
+        }
+        if (closed || !reset(connection) || isExpired(connection, System.currentTimeMillis()) ||
+                (config.isTestOnReturn() && !validate(connection))) {
+            discard(connection);
+            return;
+        }
+        connection.setLastReturnedAt(System.currentTimeMillis());
+        bag.requite(connection);
+    }
+
+    private PooledConnection create() throws SQLException {
+        // reserve a slot, so that concurrent borrowers never exceed the maximum size
+        while (true) {
+            final int current = total.get();
+            if (current >= config.getMaxActive()) {
+                return null;
+            }
+            if (total.compareAndSet(current, current + 1)) {
+                break;
+            }
+        }
+
+        Connection raw = null;
+        try {
+            raw = connect();
+            applyDefaults(raw);
+            if (!Strings.isNullOrEmpty(config.getInitSQL())) {
+                try (Statement statement = raw.createStatement()) {
+                    statement.execute(config.getInitSQL());
+                }
+            }
+            final PooledConnection connection = new PooledConnection(raw, System.currentTimeMillis());
+            if (config.isTestOnConnect() && !validate(connection)) {
+                throw new SQLException("Unable to validate a new connection to " + config.getUrl());
+            }
+            bag.add(connection);
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            total.decrementAndGet();
+            if (raw != null) {
+                raw.close();
+            }
+            throw e;
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Driver current = driver;
+        if (current == null) {
+            try {
+                final Class<?> driverClass = Class.forName(config.getDriverClassName(), true,
+                                                           LockFreePooledDataSource.class.getClassLoader());
+                current = (Driver) driverClass.newInstance();
+            } catch (Exception e) {
+                throw new SQLException("Unable to load the JDBC driver " + config.getDriverClassName(), e);
+            }
+            driver = current;
+        }
+
+        final Properties properties = new Properties();
+        if (config.getDbProperties() != null) {
+            properties.putAll(config.getDbProperties());
+        }
+        if (config.getUsername() != null) {
+            properties.setProperty("user", config.getUsername());
+        }
+        if (config.getPassword() != null) {
+            properties.setProperty("password", config.getPassword());
+        }
+        final Connection connection = current.connect(config.getUrl(), properties);
+        if (connection == null) {
+            throw new SQLException("The JDBC driver " + config.getDriverClassName() +
+                                   " doesn't accept the URL " + config.getUrl());
+        }
+        return connection;
+    }
+
+    private void applyDefaults(Connection connection) throws SQLException {
+        if (config.getDefaultAutoCommit() != null &&
+                connection.getAutoCommit() != config.getDefaultAutoCommit()) {
+            connection.setAutoCommit(config.getDefaultAutoCommit());
+        }
+        if (config.getDefaultReadOnly() != null &&
+                connection.isReadOnly() != config.getDefaultReadOnly()) {
+            connection.setReadOnly(config.getDefaultReadOnly());
+        }
+        if (config.getDefaultTransactionIsolation() !=
+                org.apache.tomcat.jdbc.pool.DataSourceFactory.UNKNOWN_TRANSACTIONISOLATION &&
+                connection.getTransactionIsolation() != config.getDefaultTransactionIsolation()) {
+            connection.setTransactionIsolation(config.getDefaultTransactionIsolation());
+        }
+        if (config.getDefaultCatalog() != null && !config.getDefaultCatalog().equals(connection.getCatalog())) {
+            connection.setCatalog(config.getDefaultCatalog());
+        }
+    }
+
+    /**
+     * Ends any transaction the borrower left open and restores the defaults.
+     *
+     * @return whether the connection can be reused
+     */
+    private boolean reset(PooledConnection pooled) {
+        final Connection connection = pooled.getConnection();
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                if (config.getCommitOnReturn()) {
+                    connection.commit();
+                } else {
+                    connection.rollback();
+                }
+            }
+            connection.clearWarnings();
+            applyDefaults(connection);
+            return true;
+        } catch (SQLException e) {
+            LOGGER.debug("Unable to reset a connection of {}", config.getName(), e);
+            return false;
+        }
+    }
+
+    private boolean isUsable(PooledConnection connection, boolean test) {
+        final long now = System.currentTimeMillis();
+        if (isExpired(connection, now)) {
+            return false;
+        }
+        return !test || now - connection.getLastValidatedAt() < config.getValidationInterval() || validate(connection);
+    }
+
+    private boolean isExpired(PooledConnection connection, long now) {
+        return config.getMaxAge() > 0 && now - connection.getCreatedAt() > config.getMaxAge();
+    }
+
+    private boolean validate(PooledConnection pooled) {
+        final Connection connection = pooled.getConnection();
+        final Timer.Context context = connectionMetrics == null ? null : connectionMetrics.getValidation().time();
+        try {
+            if (Strings.isNullOrEmpty(config.getValidationQuery())) {
+                if (!connection.isValid(Math.max(config.getValidationQueryTimeout(), 0))) {
+                    return false;
+                }
+            } else {
+                try (Statement statement = connection.createStatement()) {
+                    if (config.getValidationQueryTimeout() > 0) {
+                        statement.setQueryTimeout(config.getValidationQueryTimeout());
+                    }
+                    statement.execute(config.getValidationQuery());
+                }
+            }
+            pooled.setLastValidatedAt(System.currentTimeMillis());
+            return true;
+        } catch (SQLException e) {
+            if (config.getLogValidationErrors()) {
+                LOGGER.error("Unable to validate a connection of {}", config.getName(), e);
+            }
+            return false;
+        } finally {
+            if (context != null) {
+                context.stop();
+            }
+        }
+    }
+
+    private void discard(PooledConnection connection) {
+        bag.remove(connection);
+        total.decrementAndGet();
+        connection.closeQuietly();
+    }
+
+    /**
+     * Closes expired, invalid and surplus idle connections, then tops the pool up to its minimum
+     * size.
+     */
+    void evict() {
+        final long now = System.currentTimeMillis();
+        for (PooledConnection connection : bag.getConnections()) {
+            if (!connection.compareAndSetState(PooledConnection.NOT_IN_USE, PooledConnection.RESERVED)) {
+                continue;
+            }
+            final boolean surplus = bag.size() > config.getMinIdle() &&
+                    now - connection.getLastReturnedAt() > config.getMinEvictableIdleTimeMillis();
+            if (surplus || !isUsable(connection, config.isTestWhileIdle())) {
+                discard(connection);
+            } else {
+                connection.setState(PooledConnection.NOT_IN_USE);
+            }
+        }
+
+        try {
+            while (!closed && bag.size() < config.getMinIdle()) {
+                final PooledConnection connection = create();
+                if (connection == null) {
+                    break;
+                }
+                connection.setLastReturnedAt(now);
+                bag.requite(connection);
+            }
+        } catch (SQLException e) {
+            LOGGER.warn("Unable to top up {}", config.getName(), e);
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return logWriter;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        this.logWriter = out;
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        this.loginTimeout = seconds;
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return loginTimeout;
+    }
+
+    // JDK6 has JDBC 4.0 which doesn't have this -- don't add @Override
+    @SuppressWarnings("override")
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException("Doesn't use java.util.logging");
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException(getClass().getName() + " is not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this);
+    }
+}
@@ -2,10 +2,14 @@ package io.dropwizard.db;
 
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import org.apache.tomcat.jdbc.pool.ConnectionPool;
 import org.apache.tomcat.jdbc.pool.DataSourceProxy;
 import org.apache.tomcat.jdbc.pool.PoolConfiguration;
+import org.apache.tomcat.jdbc.pool.PoolExhaustedException;
 
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.util.logging.Logger;
 
@@ -16,6 +20,7 @@ import static com.codahale.metrics.MetricRegistry.name;
  */
 public class ManagedPooledDataSource extends DataSourceProxy implements ManagedDataSource {
     private final MetricRegistry metricRegistry;
+    private final ConnectionPoolMetrics connectionMetrics;
 
     /**
      * Create a new data source with the given connection pool configuration.
@@ -23,8 +28,40 @@ public class ManagedPooledDataSource extends DataSourceProxy implements ManagedD
      * @param config the connection pool configuration
      */
     public ManagedPooledDataSource(PoolConfiguration config, MetricRegistry metricRegistry) {
+        this(config, metricRegistry, null);
+    }
+
+    /**
+     * Create a new data source with the given connection pool configuration, which records the
+     * metrics of its connections.
+     *
+     * @param config            the connection pool configuration
+     * @param connectionMetrics the metrics of the connections, or {@code null}
+     */
+    public ManagedPooledDataSource(PoolConfiguration config, MetricRegistry metricRegistry,
+                                   ConnectionPoolMetrics connectionMetrics) {
         super(config);
         this.metricRegistry = metricRegistry;
+        this.connectionMetrics = connectionMetrics;
+        if (connectionMetrics != null && config.getValidator() == null) {
+            config.setValidator(new TimedValidator(config, connectionMetrics.getValidation()));
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (connectionMetrics == null) {
+            return super.getConnection();
+        }
+        final Timer.Context context = connectionMetrics.getBorrowWait().time();
+        try {
+            return connectionMetrics.instrument(super.getConnection());
+        } catch (PoolExhaustedException e) {
+            connectionMetrics.getTimeouts().mark();
+            throw e;
+        } finally {
+            context.stop();
+        }
     }
 
     // JDK6 has JDBC 4.0 which doesn't have this -- don't add @Override
@@ -0,0 +1,130 @@
+package io.dropwizard.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A physical connection in a {@link ConnectionBag}, and its state. Borrowers get a proxy which
+ * hands the connection back to the pool when it is closed.
+ */
+class PooledConnection {
+    static final int NOT_IN_USE = 0;
+    static final int IN_USE = 1;
+    static final int RESERVED = 2;
+    static final int REMOVED = -1;
+
+    private static final Class<?>[] INTERFACES = {Connection.class};
+
+    private final Connection connection;
+    private final AtomicInteger state = new AtomicInteger(IN_USE);
+    private final long createdAt;
+    private volatile long lastReturnedAt;
+    private volatile long lastValidatedAt;
+
+    PooledConnection(Connection connection, long now) {
+        this.connection = connection;
+        this.createdAt = now;
+        this.lastReturnedAt = now;
+        this.lastValidatedAt = now;
+    }
+
+    Connection getConnection() {
+        return connection;
+    }
+
+    int getState() {
+        return state.get();
+    }
+
+    boolean compareAndSetState(int expected, int update) {
+        return state.compareAndSet(expected, update);
+    }
+
+    void setState(int update) {
+        state.set(update);
+    }
+
+    long getCreatedAt() {
+        return createdAt;
+    }
+
+    long getLastReturnedAt() {
+        return lastReturnedAt;
+    }
+
+    void setLastReturnedAt(long lastReturnedAt) {
+        this.lastReturnedAt = lastReturnedAt;
+    }
+
+    long getLastValidatedAt() {
+        return lastValidatedAt;
+    }
+
+    void setLastValidatedAt(long lastValidatedAt) {
+        this.lastValidatedAt = lastValidatedAt;
+    }
+
+    void closeQuietly() {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // the connection is discarded anyway
+        }
+    }
+
+    /**
+     * Creates a handle for one borrower, which returns this connection to {@code pool} when it is
+     * closed and can't be used afterwards.
+     */
+    Connection createHandle(LockFreePooledDataSource pool) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), INTERFACES,
+                                                   new Handle(this, pool));
+    }
+
+    private static class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final LockFreePooledDataSource pool;
+        private final long borrowedAt = System.nanoTime();
+        private boolean closed;
+
+        private Handle(PooledConnection pooled, LockFreePooledDataSource pool) {
+            this.pooled = pooled;
+            this.pool = pool;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            final String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        pool.requite(pooled, System.nanoTime() - borrowedAt);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || pooled.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled " + pooled.connection;
+                default:
+                    if (closed) {
+                        throw new SQLException("Connection has already been closed");
+                    }
+            }
+            try {
+                return method.invoke(pooled.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
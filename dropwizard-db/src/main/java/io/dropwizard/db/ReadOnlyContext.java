@@ -0,0 +1,49 @@
+package io.dropwizard.db;
+
+/**
+ * Marks the database work of the current thread as read-only, so that a
+ * {@link RoutingDataSource} hands out connections to replicas rather than to the primary.
+ * <p/>
+ * Only connections which are borrowed while the mark is set are routed to replicas:
+ * <pre>{@code
+ * final boolean previous = ReadOnlyContext.setReadOnly(true);
+ * try {
+ *     // borrow and use connections
+ * } finally {
+ *     ReadOnlyContext.setReadOnly(previous);
+ * }
+ * }</pre>
+ */
+public final class ReadOnlyContext {
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<Boolean>() {
+        @Override
+        protected Boolean initialValue() {
+            return Boolean.FALSE;
+        }
+    };
+
+    private ReadOnlyContext() { /* singleton */ }
+
+    /**
+     * @return whether the work of the current thread is read-only
+     */
+    public static boolean isReadOnly() {
+        return READ_ONLY.get();
+    }
+
+    /**
+     * Marks the work of the current thread as read-only, or not.
+     *
+     * @param readOnly whether the work of the current thread is read-only
+     * @return whether it was read-only before, to be restored afterwards
+     */
+    public static boolean setReadOnly(boolean readOnly) {
+        final boolean previous = READ_ONLY.get();
+        if (readOnly) {
+            READ_ONLY.set(Boolean.TRUE);
+        } else {
+            READ_ONLY.remove();
+        }
+        return previous;
+    }
+}
@@ -0,0 +1,442 @@
+package io.dropwizard.db;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheck;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.util.Duration;
+import org.apache.tomcat.jdbc.pool.PoolExhaustedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * A {@link ManagedDataSource} which wraps the pool of a primary database and the pools of its
+ * read replicas, and sends read-only work to the replicas.
+ * <p/>
+ * A connection is read-only if it is borrowed while {@link ReadOnlyContext} marks the work of
+ * the thread as read-only, or if {@link Connection#setReadOnly(boolean) setReadOnly(true)} is
+ * called on it before it is otherwise used. Every other connection comes from the primary. A
+ * connection which is read-only when it is closed is reset before it goes back to its pool.
+ * <p/>
+ * Read-only connections come from the healthy replica with the fewest connections in use. A
+ * replica which fails to hand out a connection, or fails the periodic check, is ejected until it
+ * passes the check again. While no replica is healthy, read-only work falls back to the primary.
+ */
+public class RoutingDataSource implements ManagedDataSource {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RoutingDataSource.class);
+    private static final Class<?>[] INTERFACES = {Connection.class};
+
+    private final String name;
+    private final Member primary;
+    private final ImmutableList<Member> replicas;
+    private final MetricRegistry metricRegistry;
+    private final Duration checkInterval;
+    private final String validationQuery;
+    private final Duration validationQueryTimeout;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Meter fallbacks;
+    private ScheduledExecutorService checker;
+
+    /**
+     * Creates a new routing data source.
+     *
+     * @param name                   the name of the data source
+     * @param primary                the pool of the primary database
+     * @param replicas               the pools of the replicas, by the name of the replica
+     * @param metricRegistry         the registry of the metrics of the members
+     * @param checkInterval          how often to check the replicas
+     * @param validationQuery        the query to check the replicas with, or {@code null} to ask
+     *                               the driver whether their connections are valid
+     * @param validationQueryTimeout how long a check may take
+     */
+    public RoutingDataSource(String name,
+                             ManagedDataSource primary,
+                             Map<String, ManagedDataSource> replicas,
+                             MetricRegistry metricRegistry,
+                             Duration checkInterval,
+                             String validationQuery,
+                             Duration validationQueryTimeout) {
+        this.name = name;
+        this.primary = new Member("primary", primary, null);
+        final ImmutableList.Builder<Member> members = ImmutableList.builder();
+        for (Map.Entry<String, ManagedDataSource> replica : replicas.entrySet()) {
+            members.add(new Member(replica.getKey(), replica.getValue(),
+                    metricRegistry.meter(name(getClass(), name, replica.getKey(), "ejections"))));
+        }
+        this.replicas = members.build();
+        this.metricRegistry = metricRegistry;
+        this.checkInterval = checkInterval;
+        this.validationQuery = validationQuery;
+        this.validationQueryTimeout = validationQueryTimeout;
+        this.fallbacks = metricRegistry.meter(name(getClass(), name, "fallbacks"));
+    }
+
+    /**
+     * @return the pool of the primary database
+     */
+    public ManagedDataSource getPrimary() {
+        return primary.dataSource;
+    }
+
+    /**
+     * @return the pools of the replicas, by name
+     */
+    public ImmutableMap<String, ManagedDataSource> getReplicas() {
+        final ImmutableMap.Builder<String, ManagedDataSource> builder = ImmutableMap.builder();
+        for (Member replica : replicas) {
+            builder.put(replica.name, replica.dataSource);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return a health check for each replica, by the name of the data source and the replica,
+     * which is unhealthy while the replica is ejected
+     */
+    public ImmutableMap<String, HealthCheck> getHealthChecks() {
+        final ImmutableMap.Builder<String, HealthCheck> builder = ImmutableMap.builder();
+        for (final Member replica : replicas) {
+            builder.put(name + "-" + replica.name, new HealthCheck() {
+                @Override
+                protected Result check() throws Exception {
+                    return replica.healthy ? Result.healthy() : Result.unhealthy(replica.lastError);
+                }
+            });
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void start() throws Exception {
+        primary.dataSource.start();
+        registerMetrics(primary);
+        for (final Member replica : replicas) {
+            try {
+                replica.dataSource.start();
+            } catch (Exception e) {
+                eject(replica, e);
+            }
+            registerMetrics(replica);
+            metricRegistry.register(name(getClass(), name, replica.name, "healthy"),
+                    new Gauge<Boolean>() {
+                        @Override
+                        public Boolean getValue() {
+                            return replica.healthy;
+                        }
+                    });
+        }
+
+        checker = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat(name + "-replica-checker-%d")
+                .setDaemon(true)
+                .build());
+        final long interval = checkInterval.toMilliseconds();
+        checker.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                checkReplicas();
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void registerMetrics(final Member member) {
+        metricRegistry.register(name(getClass(), name, member.name, "active"),
+                new Gauge<Integer>() {
+                    @Override
+                    public Integer getValue() {
+                        return member.active.get();
+                    }
+                });
+    }
+
+    @Override
+    public void stop() throws Exception {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+        for (Member replica : replicas) {
+            try {
+                replica.dataSource.stop();
+            } catch (Exception e) {
+                LOGGER.warn("Unable to stop replica {} of {}", replica.name, name, e);
+            }
+        }
+        primary.dataSource.stop();
+    }
+
+    /**
+     * Checks the replicas, ejecting those which fail and readmitting those which pass.
+     */
+    void checkReplicas() {
+        for (Member replica : replicas) {
+            try {
+                check(replica);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Unable to check replica {} of {}", replica.name, name, e);
+            }
+        }
+    }
+
+    private void check(Member replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            final int timeout = (int) validationQueryTimeout.toSeconds();
+            if (Strings.isNullOrEmpty(validationQuery)) {
+                if (!connection.isValid(timeout)) {
+                    throw new SQLException("Connection is not valid");
+                }
+            } else {
+                try (Statement statement = connection.createStatement()) {
+                    statement.setQueryTimeout(timeout);
+                    statement.execute(validationQuery);
+                }
+            }
+        } catch (SQLTimeoutException | PoolExhaustedException e) {
+            // the replica is busy, not broken
+            LOGGER.debug("Unable to check busy replica {} of {}", replica.name, name, e);
+            return;
+        } catch (SQLException e) {
+            eject(replica, e);
+            return;
+        }
+        if (!replica.healthy) {
+            LOGGER.info("Readmitting replica {} of {}", replica.name, name);
+            replica.lastError = null;
+            replica.healthy = true;
+        }
+    }
+
+    private void eject(Member replica, Exception cause) {
+        replica.lastError = String.valueOf(cause.getMessage());
+        if (replica.healthy) {
+            replica.healthy = false;
+            replica.ejections.mark();
+            LOGGER.warn("Ejecting replica {} of {}", replica.name, name, cause);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        final RoutedConnection routed = new RoutedConnection();
+        if (ReadOnlyContext.isReadOnly()) {
+            routed.borrow(true);
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), INTERFACES, routed);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Alternate usernames are not supported");
+    }
+
+    private Member leastActiveReplica() {
+        final int size = replicas.size();
+        final int start = (next.getAndIncrement() & Integer.MAX_VALUE) % size;
+        Member best = null;
+        for (int i = 0; i < size; i++) {
+            final Member replica = replicas.get((start + i) % size);
+            if (replica.healthy && (best == null || replica.active.get() < best.active.get())) {
+                best = replica;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return primary.dataSource.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        primary.dataSource.setLogWriter(out);
+        for (Member replica : replicas) {
+            replica.dataSource.setLogWriter(out);
+        }
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        primary.dataSource.setLoginTimeout(seconds);
+        for (Member replica : replicas) {
+            replica.dataSource.setLoginTimeout(seconds);
+        }
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return primary.dataSource.getLoginTimeout();
+    }
+
+    // JDK6 has JDBC 4.0 which doesn't have this -- don't add @Override
+    @SuppressWarnings("override")
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException("Doesn't use java.util.logging");
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return primary.dataSource.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.dataSource.isWrapperFor(iface);
+    }
+
+    /**
+     * The primary or a replica, with the number of connections in use.
+     */
+    static class Member {
+        private final String name;
+        private final ManagedDataSource dataSource;
+        private final AtomicInteger active = new AtomicInteger();
+        private final Meter ejections;
+        private volatile boolean healthy = true;
+        private volatile String lastError;
+
+        private Member(String name, ManagedDataSource dataSource, Meter ejections) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.ejections = ejections;
+        }
+
+        private Connection borrow() throws SQLException {
+            active.incrementAndGet();
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException | RuntimeException e) {
+                active.decrementAndGet();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * A connection which is only borrowed from a member once it is used, so that it can be marked
+     * as read-only first.
+     */
+    private class RoutedConnection implements InvocationHandler {
+        private Member member;
+        private Connection connection;
+        private boolean readOnly;
+        private boolean closed;
+
+        private void borrow(boolean readOnly) throws SQLException {
+            if (readOnly) {
+                for (int attempt = 0; attempt < replicas.size(); attempt++) {
+                    final Member replica = leastActiveReplica();
+                    if (replica == null) {
+                        break;
+                    }
+                    try {
+                        this.connection = replica.borrow();
+                        this.member = replica;
+                        return;
+                    } catch (SQLTimeoutException | PoolExhaustedException e) {
+                        // the replica is busy, not broken
+                        throw e;
+                    } catch (SQLException e) {
+                        eject(replica, e);
+                    }
+                }
+                fallbacks.mark();
+            }
+            this.connection = primary.borrow();
+            this.member = primary;
+        }
+
+        private void release() throws SQLException {
+            try {
+                // don't hand a read-only connection to the next borrower
+                if (readOnly) {
+                    connection.setReadOnly(false);
+                }
+            } finally {
+                try {
+                    connection.close();
+                } finally {
+                    member.active.decrementAndGet();
+                }
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "setReadOnly":
+                    if (connection == null && !closed) {
+                        readOnly = (Boolean) args[0];
+                        return null;
+                    }
+                    break;
+                case "isReadOnly":
+                    if (connection == null && !closed) {
+                        return readOnly;
+                    }
+                    break;
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        if (connection != null) {
+                            release();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || (connection != null && connection.isClosed());
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Routed " + (connection == null ? "connection of " + name : connection);
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection has already been closed");
+            }
+            if (connection == null) {
+                borrow(readOnly);
+                if (readOnly) {
+                    connection.setReadOnly(true);
+                }
+            }
+            try {
+                final Object result = method.invoke(connection, args);
+                if ("setReadOnly".equals(method.getName())) {
+                    // track the flag however late it is set, so it is reset on release
+                    readOnly = (Boolean) args[0];
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.dropwizard.db;
+
+import com.codahale.metrics.Timer;
+import com.google.common.base.Strings;
+import org.apache.tomcat.jdbc.pool.PoolConfiguration;
+import org.apache.tomcat.jdbc.pool.PooledConnection;
+import org.apache.tomcat.jdbc.pool.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * A {@link Validator} for Tomcat's pool which validates connections the way the pool itself
+ * does, and records how long it takes.
+ */
+public class TimedValidator implements Validator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimedValidator.class);
+
+    private final PoolConfiguration config;
+    private final Timer timer;
+
+    /**
+     * Creates a new validator.
+     *
+     * @param config the configuration of the pool, with the validation and initialization queries
+     * @param timer  the timer of validations
+     */
+    public TimedValidator(PoolConfiguration config, Timer timer) {
+        this.config = config;
+        this.timer = timer;
+    }
+
+    @Override
+    public boolean validate(Connection connection, int validateAction) {
+        // the pool runs the initialization query as the validation of new connections
+        final String query = validateAction == PooledConnection.VALIDATE_INIT && config.getInitSQL() != null ?
+                config.getInitSQL() : config.getValidationQuery();
+
+        final Timer.Context context = timer.time();
+        try {
+            if (Strings.isNullOrEmpty(query)) {
+                return connection.isValid(Math.max(config.getValidationQueryTimeout(), 0));
+            }
+            try (Statement statement = connection.createStatement()) {
+                if (config.getValidationQueryTimeout() > 0) {
+                    statement.setQueryTimeout(config.getValidationQueryTimeout());
+                }
+                statement.execute(query);
+            }
+            return true;
+        } catch (SQLException e) {
+            if (config.getLogValidationErrors()) {
+                LOGGER.error("Unable to validate a connection of {}", config.getName(), e);
+            }
+            return false;
+        } finally {
+            context.stop();
+        }
+    }
+}
@@ -88,6 +88,21 @@ public class DataSourceConfigurationTest {
         assertThat(ds.getCheckConnectionOnConnect()).isEqualTo(true);
         assertThat(ds.getCheckConnectionOnReturn()).isEqualTo(false);
         assertThat(ds.getValidationQueryTimeout()).isEqualTo(Optional.absent());
+        assertThat(ds.getReplicas()).isEmpty();
+        assertThat(ds.getReplicaCheckInterval()).isEqualTo(Duration.seconds(5));
+    }
+
+    @Test
+    public void testReplicaConfiguration() throws Exception {
+        DataSourceFactory ds = getDataSourceFactory("yaml/replicas_db_pool.yml");
+
+        assertThat(ds.getUrl()).isEqualTo("jdbc:postgresql://db-primary.example.com/db-prod");
+        assertThat(ds.getReplicaCheckInterval()).isEqualTo(Duration.seconds(10));
+        assertThat(ds.getReplicas()).hasSize(2);
+        assertThat(ds.getReplicas().get(0).getUrl()).isEqualTo("jdbc:postgresql://db-replica-1.example.com/db-prod");
+        assertThat(ds.getReplicas().get(0).getMaxSize()).isEqualTo(100);
+        assertThat(ds.getReplicas().get(1).getUrl()).isEqualTo("jdbc:postgresql://db-replica-2.example.com/db-prod");
+        assertThat(ds.getReplicas().get(1).getMaxSize()).isEqualTo(16);
     }
 
     private DataSourceFactory getDataSourceFactory(String resourceName) throws Exception {
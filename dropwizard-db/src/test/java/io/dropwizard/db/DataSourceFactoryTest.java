@@ -81,4 +81,32 @@ public class DataSourceFactoryTest {
 
         factory.build(metricRegistry, "test").getConnection();
     }
+
+    @Test
+    public void recordsConnectionMetrics() throws Exception {
+        factory.setConnectionMetricsEnabled(true);
+        factory.setCheckConnectionOnBorrow(true);
+        factory.setValidationInterval(Duration.milliseconds(1));
+
+        try (Connection connection = dataSource().getConnection()) {
+            Thread.sleep(5);
+            assertThat(connection.isValid(1)).isTrue();
+        }
+
+        final String prefix = MetricRegistry.name(ManagedPooledDataSource.class, "test");
+        assertThat(metricRegistry.timer(MetricRegistry.name(prefix, "borrow-wait")).getCount()).isEqualTo(1);
+        assertThat(metricRegistry.timer(MetricRegistry.name(prefix, "hold")).getCount()).isEqualTo(1);
+        assertThat(metricRegistry.timer(MetricRegistry.name(prefix, "validation")).getCount()).isGreaterThan(0);
+        assertThat(metricRegistry.meter(MetricRegistry.name(prefix, "timeouts")).getCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void namesConnectionMetricsWithThePrefix() throws Exception {
+        factory.setConnectionMetricsEnabled(true);
+        factory.setConnectionMetricsPrefix("db.primary");
+
+        dataSource().getConnection().close();
+
+        assertThat(metricRegistry.getTimers()).containsKey("db.primary.test.borrow-wait");
+    }
 }
@@ -0,0 +1,254 @@
+package io.dropwizard.db;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.util.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+
+public class LockFreePooledDataSourceTest {
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final DataSourceFactory factory = new DataSourceFactory();
+    private ManagedDataSource dataSource;
+
+    @Before
+    public void setUp() throws Exception {
+        factory.setUrl("jdbc:h2:mem:LockFreeTest-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        factory.setUser("sa");
+        factory.setDriverClass("org.h2.Driver");
+        factory.setValidationQuery("SELECT 1");
+        factory.setPoolImplementation(DataSourceFactory.PoolImplementation.LOCK_FREE);
+        factory.setInitialSize(2);
+        factory.setMinSize(2);
+        factory.setMaxSize(4);
+        factory.setMaxWaitForConnection(Duration.seconds(1));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (dataSource != null) {
+            dataSource.stop();
+        }
+    }
+
+    private ManagedDataSource dataSource() throws Exception {
+        dataSource = factory.build(metricRegistry, "test");
+        dataSource.start();
+        return dataSource;
+    }
+
+    @Test
+    public void isBuiltForTheLockFreeImplementation() throws Exception {
+        assertThat(dataSource()).isInstanceOf(LockFreePooledDataSource.class);
+    }
+
+    @Test
+    public void connectsToTheDatabase() throws Exception {
+        try (Connection connection = dataSource().getConnection();
+             PreparedStatement statement = connection.prepareStatement("select 1");
+             ResultSet set = statement.executeQuery()) {
+            assertThat(set.next()).isTrue();
+            assertThat(set.getInt(1)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void registersTheSameGaugesAsTheTomcatPool() throws Exception {
+        dataSource();
+        final Connection connection = dataSource.getConnection();
+        try {
+            assertThat(gauge("active")).isEqualTo(1);
+            assertThat(gauge("idle")).isEqualTo(1);
+            assertThat(gauge("waiting")).isEqualTo(0);
+            assertThat(gauge("size")).isEqualTo(2);
+        } finally {
+            connection.close();
+        }
+        assertThat(gauge("active")).isEqualTo(0);
+    }
+
+    @Test
+    public void reusesReturnedConnections() throws Exception {
+        dataSource();
+        for (int i = 0; i < 10; i++) {
+            dataSource.getConnection().close();
+        }
+        assertThat(gauge("size")).isEqualTo(2);
+    }
+
+    @Test
+    public void closedHandlesCannotBeUsed() throws Exception {
+        final Connection connection = dataSource().getConnection();
+        connection.close();
+
+        assertThat(connection.isClosed()).isTrue();
+        try {
+            connection.createStatement();
+            failBecauseExceptionWasNotThrown(SQLException.class);
+        } catch (SQLException e) {
+            assertThat(e.getMessage()).isEqualTo("Connection has already been closed");
+        }
+    }
+
+    @Test
+    public void timesOutWhenThePoolIsExhausted() throws Exception {
+        dataSource();
+        final List<Connection> borrowed = new ArrayList<>();
+        try {
+            for (int i = 0; i < 4; i++) {
+                borrowed.add(dataSource.getConnection());
+            }
+            try {
+                dataSource.getConnection();
+                failBecauseExceptionWasNotThrown(SQLTimeoutException.class);
+            } catch (SQLTimeoutException e) {
+                assertThat(e.getMessage()).contains("Pool empty");
+            }
+        } finally {
+            for (Connection connection : borrowed) {
+                connection.close();
+            }
+        }
+    }
+
+    @Test
+    public void waitsIndefinitelyWithoutAPositiveMaximumWait() throws Exception {
+        factory.setMaxSize(2);
+        factory.setMaxWaitForConnection(Duration.milliseconds(0));
+        dataSource();
+        final Connection first = dataSource.getConnection();
+        final Connection second = dataSource.getConnection();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Boolean> waiting = executor.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                    try (Connection connection = dataSource.getConnection()) {
+                        return connection.isValid(1);
+                    }
+                }
+            });
+            Thread.sleep(100);
+            assertThat(waiting.isDone()).isFalse();
+
+            first.close();
+            assertThat(waiting.get(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+            second.close();
+        }
+    }
+
+    @Test
+    public void handsReturnedConnectionsToWaitingThreads() throws Exception {
+        factory.setMaxSize(2);
+        dataSource();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                results.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        try (Connection connection = dataSource.getConnection();
+                             PreparedStatement statement = connection.prepareStatement("select 1");
+                             ResultSet set = statement.executeQuery()) {
+                            set.next();
+                            return set.getInt(1);
+                        }
+                    }
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(gauge("size")).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    public void rollsBackTransactionsLeftOpen() throws Exception {
+        dataSource();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("create table things (id int)");
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.createStatement().execute("insert into things values (1)");
+        }
+        try (Connection connection = dataSource.getConnection();
+             ResultSet set = connection.createStatement().executeQuery("select count(*) from things")) {
+            set.next();
+            assertThat(set.getInt(1)).isEqualTo(0);
+        }
+    }
+
+    @Test
+    public void commitsTransactionsLeftOpenIfConfigured() throws Exception {
+        factory.setCommitOnReturn(true);
+        dataSource();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("create table things (id int)");
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.createStatement().execute("insert into things values (1)");
+        }
+        try (Connection connection = dataSource.getConnection();
+             ResultSet set = connection.createStatement().executeQuery("select count(*) from things")) {
+            set.next();
+            assertThat(set.getInt(1)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void recordsConnectionMetrics() throws Exception {
+        factory.setConnectionMetricsEnabled(true);
+        factory.setMaxSize(2);
+        dataSource();
+
+        final Connection first = dataSource.getConnection();
+        final Connection second = dataSource.getConnection();
+        try {
+            dataSource.getConnection();
+            failBecauseExceptionWasNotThrown(SQLTimeoutException.class);
+        } catch (SQLTimeoutException e) {
+            // expected
+        }
+        first.close();
+        second.close();
+
+        final String prefix = MetricRegistry.name(LockFreePooledDataSource.class, "test");
+        assertThat(metricRegistry.timer(MetricRegistry.name(prefix, "borrow-wait")).getCount()).isEqualTo(3);
+        assertThat(metricRegistry.timer(MetricRegistry.name(prefix, "hold")).getCount()).isEqualTo(2);
+        assertThat(metricRegistry.meter(MetricRegistry.name(prefix, "timeouts")).getCount()).isEqualTo(1);
+        // new connections are validated
+        assertThat(metricRegistry.timer(MetricRegistry.name(prefix, "validation")).getCount()).isEqualTo(2);
+    }
+
+    @SuppressWarnings("unchecked")
+    private int gauge(String name) {
+        final Gauge<Integer> gauge = (Gauge<Integer>) metricRegistry.getGauges()
+                .get(MetricRegistry.name(LockFreePooledDataSource.class, "test", name));
+        return gauge.getValue();
+    }
+}
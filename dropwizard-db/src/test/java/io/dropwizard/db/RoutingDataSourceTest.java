@@ -0,0 +1,197 @@
+package io.dropwizard.db;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheck;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.dropwizard.util.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RoutingDataSourceTest {
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final String prefix = "jdbc:h2:mem:RoutingTest-" + System.nanoTime() + "-";
+    private final DataSourceFactory factory = factory("primary");
+    private RoutingDataSource dataSource;
+
+    @Before
+    public void setUp() throws Exception {
+        for (String name : ImmutableList.of("primary", "replica-0", "replica-1")) {
+            createSource(name);
+        }
+        factory.setReplicas(ImmutableList.of(factory("replica-0"), factory("replica-1")));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (dataSource != null) {
+            dataSource.stop();
+        }
+    }
+
+    private DataSourceFactory factory(String name) {
+        final DataSourceFactory factory = new DataSourceFactory();
+        factory.setUrl(prefix + name + ";DB_CLOSE_DELAY=-1");
+        factory.setUser("sa");
+        factory.setDriverClass("org.h2.Driver");
+        factory.setValidationQuery("SELECT COUNT(*) FROM source");
+        factory.setInitialSize(1);
+        factory.setMinSize(1);
+        factory.setMaxSize(4);
+        return factory;
+    }
+
+    private void createSource(String name) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(prefix + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE source (name varchar(20))");
+            statement.execute("INSERT INTO source VALUES ('" + name + "')");
+        }
+    }
+
+    private RoutingDataSource dataSource() throws Exception {
+        dataSource = (RoutingDataSource) factory.build(metricRegistry, "test");
+        dataSource.start();
+        return dataSource;
+    }
+
+    private static String source(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet set = statement.executeQuery("SELECT name FROM source")) {
+            assertThat(set.next()).isTrue();
+            return set.getString(1);
+        }
+    }
+
+    private String readOnlySource() throws SQLException {
+        final boolean previous = ReadOnlyContext.setReadOnly(true);
+        try (Connection connection = dataSource.getConnection()) {
+            return source(connection);
+        } finally {
+            ReadOnlyContext.setReadOnly(previous);
+        }
+    }
+
+    @Test
+    public void isOnlyBuiltWhenReplicasAreConfigured() throws Exception {
+        assertThat(dataSource().getReplicas()).containsOnlyKeys("replica-0", "replica-1");
+
+        factory.setReplicas(ImmutableList.<DataSourceFactory>of());
+        assertThat(factory.build(new MetricRegistry(), "test")).isInstanceOf(ManagedPooledDataSource.class);
+    }
+
+    @Test
+    public void sendsWorkToThePrimary() throws Exception {
+        try (Connection connection = dataSource().getConnection()) {
+            assertThat(source(connection)).isEqualTo("primary");
+        }
+    }
+
+    @Test
+    public void sendsReadOnlyWorkToAReplica() throws Exception {
+        dataSource();
+
+        assertThat(readOnlySource()).startsWith("replica-");
+        assertThat(ReadOnlyContext.isReadOnly()).isFalse();
+    }
+
+    @Test
+    public void sendsConnectionsMarkedReadOnlyToAReplica() throws Exception {
+        try (Connection connection = dataSource().getConnection()) {
+            connection.setReadOnly(true);
+            assertThat(connection.isReadOnly()).isTrue();
+            assertThat(source(connection)).startsWith("replica-");
+        }
+
+        for (ManagedDataSource replica : dataSource.getReplicas().values()) {
+            try (Connection connection = replica.getConnection()) {
+                assertThat(connection.isReadOnly()).isFalse();
+            }
+        }
+    }
+
+    @Test
+    public void resetsConnectionsMarkedReadOnlyAfterTheyWereBorrowed() throws Exception {
+        // H2 ignores the read-only hint, so watch the pooled connection instead
+        final ManagedDataSource primary = mock(ManagedDataSource.class);
+        final Connection pooled = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(pooled);
+        final RoutingDataSource routing = new RoutingDataSource("mocked", primary,
+                ImmutableMap.<String, ManagedDataSource>of(), metricRegistry, Duration.seconds(5), null,
+                Duration.seconds(1));
+
+        try (Connection connection = routing.getConnection()) {
+            connection.getAutoCommit();
+            connection.setReadOnly(true);
+        }
+
+        final InOrder inOrder = inOrder(pooled);
+        inOrder.verify(pooled).setReadOnly(true);
+        inOrder.verify(pooled).setReadOnly(false);
+        inOrder.verify(pooled).close();
+    }
+
+    @Test
+    public void sendsReadOnlyWorkToTheLeastActiveReplica() throws Exception {
+        dataSource();
+
+        final boolean previous = ReadOnlyContext.setReadOnly(true);
+        try (Connection first = dataSource.getConnection();
+             Connection second = dataSource.getConnection()) {
+            assertThat(source(first)).isNotEqualTo(source(second));
+        } finally {
+            ReadOnlyContext.setReadOnly(previous);
+        }
+
+        assertThat(metricRegistry.getGauges().get(
+                MetricRegistry.name(RoutingDataSource.class, "test", "replica-0", "active")).getValue())
+                .isEqualTo(0);
+    }
+
+    @Test
+    public void ejectsUnhealthyReplicasUntilTheyRecover() throws Exception {
+        factory.setReplicas(ImmutableList.of(factory("replica-2")));
+        final HealthCheck healthCheck = dataSource().getHealthChecks().get("test-replica-0");
+
+        assertThat(readOnlySource()).isEqualTo("primary");
+        assertThat(healthCheck.execute().isHealthy()).isFalse();
+        assertThat(metricRegistry.meter(MetricRegistry.name(RoutingDataSource.class, "test", "fallbacks"))
+                                 .getCount()).isEqualTo(1);
+
+        createSource("replica-2");
+        dataSource.checkReplicas();
+
+        assertThat(healthCheck.execute().isHealthy()).isTrue();
+        assertThat(readOnlySource()).isEqualTo("replica-2");
+    }
+
+    @Test
+    public void doesNotEjectBusyReplicas() throws Exception {
+        final DataSourceFactory replica = factory("replica-0");
+        replica.setMaxSize(1);
+        replica.setMaxWaitForConnection(Duration.milliseconds(10));
+        factory.setReplicas(ImmutableList.of(replica));
+        final HealthCheck healthCheck = dataSource().getHealthChecks().get("test-replica-0");
+
+        try (Connection busy = dataSource.getReplicas().get("replica-0").getConnection()) {
+            dataSource.checkReplicas();
+        }
+
+        assertThat(healthCheck.execute().isHealthy()).isTrue();
+        assertThat(metricRegistry.meter(MetricRegistry.name(RoutingDataSource.class, "test", "replica-0", "ejections"))
+                                 .getCount()).isEqualTo(0);
+    }
+}
@@ -1,8 +1,10 @@
 package io.dropwizard.hibernate;
 
+import com.codahale.metrics.health.HealthCheck;
 import com.google.common.collect.Sets;
 import io.dropwizard.db.DataSourceFactory;
 import io.dropwizard.db.ManagedDataSource;
+import io.dropwizard.db.RoutingDataSource;
 import io.dropwizard.setup.Environment;
 import org.hibernate.SessionFactory;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
@@ -53,6 +55,12 @@ public class SessionFactoryFactory {
                                                            entities);
         final SessionFactoryManager managedFactory = new SessionFactoryManager(factory, dataSource);
         environment.lifecycle().manage(managedFactory);
+        if (dataSource instanceof RoutingDataSource) {
+            for (Map.Entry<String, HealthCheck> healthCheck :
+                    ((RoutingDataSource) dataSource).getHealthChecks().entrySet()) {
+                environment.healthChecks().register(healthCheck.getKey(), healthCheck.getValue());
+            }
+        }
         return factory;
     }
 
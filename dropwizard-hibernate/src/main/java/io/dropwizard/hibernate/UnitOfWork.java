@@ -20,9 +20,11 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
 @Documented
 public @interface UnitOfWork {
     /**
-     * If {@code true}, the Hibernate session will default to loading read-only entities.
+     * If {@code true}, the Hibernate session will default to loading read-only entities, and its
+     * connections will come from the replicas of the database if it is configured with any.
      *
      * @see org.hibernate.Session#setDefaultReadOnly(boolean)
+     * @see io.dropwizard.db.ReadOnlyContext
      */
     boolean readOnly() default false;
 
@@ -6,6 +6,7 @@ import java.util.Map;
 
 import javax.ws.rs.ext.Provider;
 
+import io.dropwizard.db.ReadOnlyContext;
 import org.glassfish.jersey.server.internal.process.MappableException;
 import org.glassfish.jersey.server.model.Resource;
 import org.glassfish.jersey.server.model.ResourceMethod;
@@ -52,6 +53,7 @@ public class UnitOfWorkApplicationListener implements ApplicationEventListener {
         private final SessionFactory sessionFactory;
         private UnitOfWork unitOfWork;
         private Session session;
+        private boolean previouslyReadOnly;
 
 
         public UnitOfWorkEventListener (Map<Method,UnitOfWork> methodMap,
@@ -68,13 +70,13 @@ public class UnitOfWorkApplicationListener implements ApplicationEventListener {
                 if (unitOfWork != null) {
                     this.session = this.sessionFactory.openSession();
                     try {
+                        // route the session's connections to replicas, if there are any
+                        this.previouslyReadOnly = ReadOnlyContext.setReadOnly(this.unitOfWork.readOnly());
                         configureSession();
                         ManagedSessionContext.bind(this.session);
                         beginTransaction();
                     } catch (Throwable th) {
-                        this.session.close();
-                        this.session = null;
-                        ManagedSessionContext.unbind(this.sessionFactory);
+                        closeSession();
                         throw th;
                     }
                 }
@@ -88,9 +90,7 @@ public class UnitOfWorkApplicationListener implements ApplicationEventListener {
                         throw new MappableException(e);
                     }
                     finally {
-                        this.session.close();
-                        this.session = null;
-                        ManagedSessionContext.unbind(this.sessionFactory);
+                        closeSession();
                     }
                 }
             }
@@ -100,14 +100,22 @@ public class UnitOfWorkApplicationListener implements ApplicationEventListener {
                         rollbackTransaction();
                     }
                     finally {
-                        this.session.close();
-                        this.session = null;
-                        ManagedSessionContext.unbind(this.sessionFactory);
+                        closeSession();
                     }
                 }
             }
         }
 
+        private void closeSession() {
+            try {
+                this.session.close();
+            } finally {
+                this.session = null;
+                ManagedSessionContext.unbind(this.sessionFactory);
+                ReadOnlyContext.setReadOnly(this.previouslyReadOnly);
+            }
+        }
+
         private void beginTransaction() {
             if (this.unitOfWork.transactional()) {
                 this.session.beginTransaction();
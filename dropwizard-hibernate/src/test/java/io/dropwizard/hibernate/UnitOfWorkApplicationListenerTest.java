@@ -1,5 +1,6 @@
 package io.dropwizard.hibernate;
 
+import io.dropwizard.db.ReadOnlyContext;
 import org.glassfish.jersey.server.ExtendedUriInfo;
 import org.glassfish.jersey.server.model.Resource;
 import org.glassfish.jersey.server.model.ResourceMethod;
@@ -99,6 +100,35 @@ public class UnitOfWorkApplicationListenerTest {
         verify(session).setDefaultReadOnly(true);
     }
 
+    @Test
+    public void marksReadOnlyUnitsOfWorkForTheDurationOfTheSession() throws Exception {
+        prepareAppEvent("methodWithReadOnlyAnnotation");
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                assertThat(ReadOnlyContext.isReadOnly()).isTrue();
+                return null;
+            }
+        }).when(session).beginTransaction();
+
+        execute();
+
+        assertThat(ReadOnlyContext.isReadOnly()).isFalse();
+    }
+
+    @Test
+    public void doesNotMarkOtherUnitsOfWorkAsReadOnly() throws Exception {
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                assertThat(ReadOnlyContext.isReadOnly()).isFalse();
+                return null;
+            }
+        }).when(session).beginTransaction();
+
+        execute();
+    }
+
     @Test
     public void configuresTheSessionsCacheMode() throws Exception {
         prepareAppEvent("methodWithCacheModeIgnoreAnnotation");
@@ -0,0 +1,401 @@
+package io.dropwizard.jdbi;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.lifecycle.Managed;
+import io.dropwizard.util.Duration;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.IDBI;
+import org.skife.jdbi.v2.PreparedBatch;
+import org.skife.jdbi.v2.TransactionCallback;
+import org.skife.jdbi.v2.TransactionStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * A {@link Managed} writer which buffers the rows of insert or update statements, and writes them
+ * with JDBC batches rather than one statement at a time.
+ * <p/>
+ * Rows are buffered per SQL statement. A statement's rows are written as soon as
+ * {@code batchSize} of them are buffered, and otherwise every {@code flushInterval}. Each batch
+ * is written in its own transaction; a batch which fails is logged, counted and dropped. At most
+ * {@code capacity} rows are buffered, after which writers block until rows have been written.
+ * Until the writer is started, writers write full batches, and make room in a full buffer, on
+ * their own threads. Stopping the writer writes all buffered rows, waiting for at most
+ * {@code drainTimeout}, and rejects any further ones; rows which are still buffered after that are
+ * logged, counted and abandoned.
+ * <pre>{@code
+ * final BatchWriter writer = new BatchWriter(dbi, environment.metrics(), "telemetry",
+ *                                            500, 10000, Duration.seconds(1));
+ * environment.lifecycle().manage(writer);
+ * ...
+ * writer.write("INSERT INTO readings (sensor, value) VALUES (:sensor, :value)",
+ *              ImmutableMap.of("sensor", sensor, "value", value));
+ * }</pre>
+ * <p/>
+ * <b>Metrics:</b> {@code batch-size} (a histogram of the rows per batch), {@code flush} (a timer
+ * of writing batches), {@code pending} (the number of buffered rows), {@code failed-rows} (the
+ * rows of batches which failed), {@code abandoned-rows} (the rows which weren't written in time
+ * when the writer stopped), and {@code throttled} (the writes which had to wait for room).
+ */
+public class BatchWriter implements Managed {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchWriter.class);
+    private static final Duration DEFAULT_DRAIN_TIMEOUT = Duration.seconds(30);
+    private static final long ROOM_POLL_MILLIS = 10;
+
+    private final IDBI dbi;
+    private final String name;
+    private final int batchSize;
+    private final int capacity;
+    private final Duration flushInterval;
+    private final Duration drainTimeout;
+    private final Semaphore room;
+    private final ConcurrentMap<String, PendingRows> statements = new ConcurrentHashMap<>();
+    private final ReadWriteLock lifecycle = new ReentrantReadWriteLock();
+    private final Histogram batchSizes;
+    private final Timer flushes;
+    private final Meter failedRows;
+    private final Meter abandonedRows;
+    private final Meter throttled;
+    private volatile ScheduledExecutorService flusher;
+    private volatile boolean stopped;
+    private volatile boolean abandoned;
+
+    /**
+     * Creates a new writer, which waits for at most 30 seconds for its buffered rows to be written
+     * when it is stopped.
+     *
+     * @param dbi            the database to write to
+     * @param metricRegistry the registry to register the metrics of the writer with
+     * @param name           the name of the writer
+     * @param batchSize      the number of rows of a statement to write in one batch
+     * @param capacity       the maximum number of rows to buffer
+     * @param flushInterval  how long rows are buffered at most
+     */
+    public BatchWriter(IDBI dbi, MetricRegistry metricRegistry, String name,
+                       int batchSize, int capacity, Duration flushInterval) {
+        this(dbi, metricRegistry, name, batchSize, capacity, flushInterval, DEFAULT_DRAIN_TIMEOUT);
+    }
+
+    /**
+     * Creates a new writer.
+     *
+     * @param dbi            the database to write to
+     * @param metricRegistry the registry to register the metrics of the writer with
+     * @param name           the name of the writer
+     * @param batchSize      the number of rows of a statement to write in one batch
+     * @param capacity       the maximum number of rows to buffer
+     * @param flushInterval  how long rows are buffered at most
+     * @param drainTimeout   how long to wait for the buffered rows to be written when stopping
+     */
+    public BatchWriter(IDBI dbi, MetricRegistry metricRegistry, String name,
+                       int batchSize, int capacity, Duration flushInterval, Duration drainTimeout) {
+        this.dbi = dbi;
+        this.name = name;
+        this.batchSize = batchSize;
+        this.capacity = capacity;
+        this.flushInterval = flushInterval;
+        this.drainTimeout = drainTimeout;
+        this.room = new Semaphore(capacity);
+        this.batchSizes = metricRegistry.histogram(name(getClass(), name, "batch-size"));
+        this.flushes = metricRegistry.timer(name(getClass(), name, "flush"));
+        this.failedRows = metricRegistry.meter(name(getClass(), name, "failed-rows"));
+        this.abandonedRows = metricRegistry.meter(name(getClass(), name, "abandoned-rows"));
+        this.throttled = metricRegistry.meter(name(getClass(), name, "throttled"));
+        metricRegistry.register(name(getClass(), name, "pending"), new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return getPending();
+            }
+        });
+    }
+
+    /**
+     * Buffers a row with named parameters.
+     *
+     * @param sql the SQL of the statement
+     * @param row the values of the named parameters of the statement
+     * @throws InterruptedException  if the thread was interrupted while waiting for room
+     * @throws IllegalStateException if the writer has been stopped
+     */
+    public void write(String sql, Map<String, ?> row) throws InterruptedException {
+        buffer(sql, row);
+    }
+
+    /**
+     * Buffers a row with positional parameters.
+     *
+     * @param sql the SQL of the statement
+     * @param row the values of the positional parameters of the statement
+     * @throws InterruptedException  if the thread was interrupted while waiting for room
+     * @throws IllegalStateException if the writer has been stopped
+     */
+    public void write(String sql, Object... row) throws InterruptedException {
+        buffer(sql, row);
+    }
+
+    private void buffer(String sql, Object row) throws InterruptedException {
+        acquireRoom();
+        final PendingRows statement;
+        lifecycle.readLock().lock();
+        try {
+            if (stopped) {
+                room.release();
+                throw new IllegalStateException(name + " has been stopped");
+            }
+            statement = statementOf(sql);
+            statement.rows.add(row);
+            if (statement.size.incrementAndGet() < batchSize || scheduleFlush(statement)) {
+                return;
+            }
+        } finally {
+            lifecycle.readLock().unlock();
+        }
+        // the writer hasn't been started, so write the batch on this thread
+        while (statement.size.get() >= batchSize) {
+            flush(statement);
+        }
+    }
+
+    private void acquireRoom() throws InterruptedException {
+        if (room.tryAcquire()) {
+            return;
+        }
+        throttled.mark();
+        while (flusher == null) {
+            // nothing else writes the buffered rows before the writer is started
+            flushAll();
+            if (room.tryAcquire(ROOM_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+        room.acquire();
+    }
+
+    private PendingRows statementOf(String sql) {
+        PendingRows statement = statements.get(sql);
+        if (statement == null) {
+            statement = new PendingRows(sql);
+            final PendingRows existing = statements.putIfAbsent(sql, statement);
+            if (existing != null) {
+                statement = existing;
+            }
+        }
+        return statement;
+    }
+
+    /**
+     * @return whether the statement's rows will be written by the flusher, which is only the case
+     * once the writer has been started
+     */
+    private boolean scheduleFlush(final PendingRows statement) {
+        final ScheduledExecutorService executor = flusher;
+        if (executor == null) {
+            return false;
+        }
+        if (statement.flushScheduled.compareAndSet(false, true)) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    statement.flushScheduled.set(false);
+                    while (!abandoned && statement.size.get() >= batchSize) {
+                        flush(statement);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of buffered rows
+     */
+    public int getPending() {
+        return capacity - room.availablePermits();
+    }
+
+    /**
+     * Writes all buffered rows, and waits until they have been written.
+     *
+     * @throws InterruptedException if the thread was interrupted while waiting
+     */
+    public void flush() throws InterruptedException {
+        final ScheduledExecutorService executor = flusher;
+        if (executor == null) {
+            flushAll();
+            return;
+        }
+        try {
+            executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    flushAll();
+                }
+            }).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Unable to flush " + name, e.getCause());
+        }
+    }
+
+    private void flushAll() {
+        for (PendingRows statement : statements.values()) {
+            while (!abandoned && flush(statement)) {
+                // until all of its rows have been written
+            }
+        }
+    }
+
+    /**
+     * Writes up to one batch of a statement's rows.
+     *
+     * @return whether there were any rows to write
+     */
+    private boolean flush(final PendingRows statement) {
+        final List<Object> batch = new ArrayList<>(batchSize);
+        Object row;
+        while (batch.size() < batchSize && (row = statement.rows.poll()) != null) {
+            batch.add(row);
+        }
+        if (batch.isEmpty()) {
+            return false;
+        }
+        statement.size.addAndGet(-batch.size());
+
+        final Timer.Context context = flushes.time();
+        try {
+            dbi.inTransaction(new TransactionCallback<Void>() {
+                @Override
+                public Void inTransaction(Handle handle, TransactionStatus status) throws Exception {
+                    final PreparedBatch prepared = handle.prepareBatch(statement.sql);
+                    for (Object values : batch) {
+                        add(prepared, values);
+                    }
+                    prepared.execute();
+                    return null;
+                }
+            });
+            batchSizes.update(batch.size());
+        } catch (RuntimeException e) {
+            failedRows.mark(batch.size());
+            LOGGER.error("Unable to write a batch of {} rows of {}", batch.size(), name, e);
+        } finally {
+            context.stop();
+            room.release(batch.size());
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void add(PreparedBatch batch, Object row) {
+        if (row instanceof Map) {
+            batch.add((Map<String, ?>) row);
+        } else {
+            batch.add((Object[]) row);
+        }
+    }
+
+    @Override
+    public void start() throws Exception {
+        flusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat(name + "-batch-writer-%d")
+                .setDaemon(true)
+                .build());
+        final long interval = flushInterval.toMilliseconds();
+        flusher.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                flushAll();
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() throws Exception {
+        lifecycle.writeLock().lock();
+        try {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+        } finally {
+            lifecycle.writeLock().unlock();
+        }
+
+        final ScheduledExecutorService executor = flusher;
+        if (executor == null) {
+            flushAll();
+            return;
+        }
+        // periodic flushes are cancelled on shutdown, but scheduled batches are still written
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                flushAll();
+            }
+        });
+        executor.shutdown();
+        if (!executor.awaitTermination(drainTimeout.getQuantity(), drainTimeout.getUnit())) {
+            abandoned = true;
+            executor.shutdownNow();
+            final int rows = abandon();
+            abandonedRows.mark(rows);
+            LOGGER.error("Unable to write the buffered rows of {} within {}, abandoned {} rows",
+                         name, drainTimeout, rows);
+        }
+    }
+
+    /**
+     * Discards all buffered rows, except for a batch which is being written.
+     *
+     * @return the number of discarded rows
+     */
+    private int abandon() {
+        int count = 0;
+        for (PendingRows statement : statements.values()) {
+            int discarded = 0;
+            while (statement.rows.poll() != null) {
+                discarded++;
+            }
+            statement.size.addAndGet(-discarded);
+            room.release(discarded);
+            count += discarded;
+        }
+        return count;
+    }
+
+    /**
+     * The buffered rows of a statement.
+     */
+    private static class PendingRows {
+        private final String sql;
+        private final ConcurrentLinkedQueue<Object> rows = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+        private PendingRows(String sql) {
+            this.sql = sql;
+        }
+    }
+}
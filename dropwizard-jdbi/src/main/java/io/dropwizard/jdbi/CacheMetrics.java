@@ -0,0 +1,42 @@
+package io.dropwizard.jdbi;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * The metrics of a cache: {@code hits}, {@code misses}, and the {@code hit-ratio} of all
+ * lookups so far.
+ */
+public class CacheMetrics {
+    private final Meter hits;
+    private final Meter misses;
+
+    /**
+     * Creates the metrics of a cache.
+     *
+     * @param metricRegistry the registry to register the metrics with
+     * @param prefix         the prefix of the names of the metrics
+     */
+    public CacheMetrics(MetricRegistry metricRegistry, String prefix) {
+        this.hits = metricRegistry.meter(name(prefix, "hits"));
+        this.misses = metricRegistry.meter(name(prefix, "misses"));
+        metricRegistry.register(name(prefix, "hit-ratio"), new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                final long hitCount = hits.getCount();
+                return Ratio.of(hitCount, hitCount + misses.getCount());
+            }
+        });
+    }
+
+    public Meter getHits() {
+        return hits;
+    }
+
+    public Meter getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,172 @@
+package io.dropwizard.jdbi;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import org.skife.jdbi.org.antlr.runtime.ANTLRStringStream;
+import org.skife.jdbi.org.antlr.runtime.Token;
+import org.skife.jdbi.rewriter.colon.ColonStatementLexer;
+import org.skife.jdbi.v2.Binding;
+import org.skife.jdbi.v2.ColonPrefixNamedParamStatementRewriter;
+import org.skife.jdbi.v2.StatementContext;
+import org.skife.jdbi.v2.exceptions.UnableToCreateStatementException;
+import org.skife.jdbi.v2.exceptions.UnableToExecuteStatementException;
+import org.skife.jdbi.v2.tweak.Argument;
+import org.skife.jdbi.v2.tweak.RewrittenStatement;
+import org.skife.jdbi.v2.tweak.StatementRewriter;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * A {@link StatementRewriter} which rewrites colon-prefixed named parameters, like
+ * {@link ColonPrefixNamedParamStatementRewriter}, but caches the parsed SQL and parameter names
+ * by the raw SQL, so hot statements are only parsed once.
+ * <p/>
+ * Only the parsed SQL is cached; every execution gets a {@link RewrittenStatement} of its own,
+ * bound to its own {@link StatementContext}.
+ */
+public class CachingStatementRewriter implements StatementRewriter {
+    private final Cache<String, ParsedStatement> cache;
+    private final CacheMetrics metrics;
+
+    /**
+     * Creates a new rewriter.
+     *
+     * @param maxSize the maximum number of statements to cache
+     * @param metrics the metrics of the cache
+     */
+    public CachingStatementRewriter(int maxSize, CacheMetrics metrics) {
+        this.cache = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+        this.metrics = metrics;
+    }
+
+    @Override
+    public RewrittenStatement rewrite(String sql, Binding params, StatementContext ctx) {
+        ParsedStatement parsed = cache.getIfPresent(sql);
+        if (parsed == null) {
+            metrics.getMisses().mark();
+            try {
+                parsed = parse(sql);
+            } catch (IllegalArgumentException e) {
+                throw new UnableToCreateStatementException("Exception parsing for named parameter replacement",
+                        e, ctx);
+            }
+            cache.put(sql, parsed);
+        } else {
+            metrics.getHits().mark();
+        }
+        return new CachedStatement(parsed, ctx);
+    }
+
+    private static ParsedStatement parse(String sql) {
+        final StringBuilder parsed = new StringBuilder(sql.length());
+        final ImmutableList.Builder<String> params = ImmutableList.builder();
+        boolean positionalOnly = true;
+        final ColonStatementLexer lexer = new ColonStatementLexer(new ANTLRStringStream(sql));
+        Token token = lexer.nextToken();
+        while (token.getType() != ColonStatementLexer.EOF) {
+            switch (token.getType()) {
+                case ColonStatementLexer.LITERAL:
+                case ColonStatementLexer.QUOTED_TEXT:
+                case ColonStatementLexer.DOUBLE_QUOTED_TEXT:
+                    parsed.append(token.getText());
+                    break;
+                case ColonStatementLexer.NAMED_PARAM:
+                    positionalOnly = false;
+                    params.add(token.getText().substring(1));
+                    parsed.append('?');
+                    break;
+                case ColonStatementLexer.POSITIONAL_PARAM:
+                    params.add("*");
+                    parsed.append('?');
+                    break;
+                case ColonStatementLexer.ESCAPED_TEXT:
+                    parsed.append(token.getText().substring(1));
+                    break;
+                default:
+                    break;
+            }
+            token = lexer.nextToken();
+        }
+        return new ParsedStatement(parsed.toString(), params.build(), positionalOnly);
+    }
+
+    private static class ParsedStatement {
+        private final String sql;
+        private final ImmutableList<String> params;
+        private final boolean positionalOnly;
+
+        private ParsedStatement(String sql, ImmutableList<String> params, boolean positionalOnly) {
+            this.sql = sql;
+            this.params = params;
+            this.positionalOnly = positionalOnly;
+        }
+    }
+
+    /**
+     * A parsed statement, bound to one execution. Binds its arguments the same way as the
+     * statements of {@link ColonPrefixNamedParamStatementRewriter}.
+     */
+    private static class CachedStatement implements RewrittenStatement {
+        private final ParsedStatement parsed;
+        private final StatementContext ctx;
+
+        private CachedStatement(ParsedStatement parsed, StatementContext ctx) {
+            this.parsed = parsed;
+            this.ctx = ctx;
+        }
+
+        @Override
+        public void bind(Binding params, PreparedStatement statement) throws SQLException {
+            if (parsed.positionalOnly) {
+                bindPositional(params, statement);
+            } else {
+                bindNamed(params, statement);
+            }
+        }
+
+        private void bindPositional(Binding params, PreparedStatement statement) {
+            Argument argument = params.forPosition(0);
+            for (int i = 0; argument != null; argument = params.forPosition(++i)) {
+                try {
+                    argument.apply(i + 1, statement, ctx);
+                } catch (SQLException e) {
+                    throw new UnableToExecuteStatementException(String.format(
+                            "Exception while binding positional param at (0 based) position %d", i), e, ctx);
+                }
+            }
+        }
+
+        private void bindNamed(Binding params, PreparedStatement statement) {
+            int i = 0;
+            for (String name : parsed.params) {
+                if ("*".equals(name)) {
+                    continue;
+                }
+                Argument argument = params.forName(name);
+                if (argument == null) {
+                    argument = params.forPosition(i);
+                }
+                if (argument == null) {
+                    throw new UnableToExecuteStatementException(String.format(
+                            "Unable to execute, no named parameter matches \"%s\" and no positional param " +
+                                    "for place %d (which is %d in the JDBC 'start at 1' scheme) has been set.",
+                            name, i, i + 1), ctx);
+                }
+                try {
+                    argument.apply(i + 1, statement, ctx);
+                } catch (SQLException e) {
+                    throw new UnableToExecuteStatementException(String.format(
+                            "Exception while binding '%s'", name), e, ctx);
+                }
+                i++;
+            }
+        }
+
+        @Override
+        public String getSql() {
+            return parsed.sql;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package io.dropwizard.jdbi;
 
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
+import com.codahale.metrics.health.HealthCheck;
 import com.codahale.metrics.jdbi.InstrumentedTimingCollector;
 import com.codahale.metrics.jdbi.strategies.DelegatingStatementNameStrategy;
 import com.codahale.metrics.jdbi.strategies.NameStrategies;
@@ -9,6 +10,7 @@ import com.codahale.metrics.jdbi.strategies.StatementNameStrategy;
 import com.google.common.base.Optional;
 import io.dropwizard.db.DataSourceFactory;
 import io.dropwizard.db.ManagedDataSource;
+import io.dropwizard.db.RoutingDataSource;
 import io.dropwizard.jdbi.args.JodaDateTimeArgumentFactory;
 import io.dropwizard.jdbi.args.JodaDateTimeMapper;
 import io.dropwizard.jdbi.args.OptionalArgumentFactory;
@@ -18,8 +20,10 @@ import io.dropwizard.util.Duration;
 import org.skife.jdbi.v2.ColonPrefixNamedParamStatementRewriter;
 import org.skife.jdbi.v2.DBI;
 import org.skife.jdbi.v2.StatementContext;
+import org.skife.jdbi.v2.tweak.StatementRewriter;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
 import java.util.TimeZone;
 
 import static com.codahale.metrics.MetricRegistry.name;
@@ -80,11 +84,27 @@ public class DBIFactory {
                 configuration.getValidationQueryTimeout().or(Duration.seconds(5)),
                 dbi,
                 validationQuery));
+        if (dataSource instanceof RoutingDataSource) {
+            for (Map.Entry<String, HealthCheck> healthCheck :
+                    ((RoutingDataSource) dataSource).getHealthChecks().entrySet()) {
+                environment.healthChecks().register(healthCheck.getKey(), healthCheck.getValue());
+            }
+        }
         dbi.setSQLLog(new LogbackLog(LOGGER, Level.TRACE));
         dbi.setTimingCollector(new InstrumentedTimingCollector(environment.metrics(),
                 new SanerNamingStrategy()));
+        StatementRewriter rewriter = new ColonPrefixNamedParamStatementRewriter();
+        if (configuration.getRewrittenSqlCacheSize() > 0) {
+            rewriter = new CachingStatementRewriter(configuration.getRewrittenSqlCacheSize(),
+                    new CacheMetrics(environment.metrics(), name(DBI.class, name, "rewritten-sql-cache")));
+        }
         if (configuration.isAutoCommentsEnabled()) {
-            dbi.setStatementRewriter(new NamePrependingStatementRewriter(new ColonPrefixNamedParamStatementRewriter()));
+            rewriter = new NamePrependingStatementRewriter(rewriter);
+        }
+        dbi.setStatementRewriter(rewriter);
+        if (configuration.getPreparedStatementCacheSize() > 0) {
+            dbi.setStatementBuilderFactory(new PreparedStatementCache(configuration.getPreparedStatementCacheSize(),
+                    new CacheMetrics(environment.metrics(), name(DBI.class, name, "prepared-statement-cache"))));
         }
         dbi.registerArgumentFactory(new OptionalArgumentFactory(configuration.getDriverClass()));
         dbi.registerContainerFactory(new ImmutableListContainerFactory());
@@ -0,0 +1,233 @@
+package io.dropwizard.jdbi;
+
+import com.google.common.collect.MapMaker;
+import org.skife.jdbi.v2.DefaultStatementBuilder;
+import org.skife.jdbi.v2.StatementContext;
+import org.skife.jdbi.v2.tweak.StatementBuilder;
+import org.skife.jdbi.v2.tweak.StatementBuilderFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link StatementBuilderFactory} which keeps prepared statements open after they have been
+ * used, so later handles which borrow the same pooled connection can execute them again without
+ * the database parsing and planning them again.
+ * <p/>
+ * Each physical connection caches up to {@code maxSize} statements, the least recently used of
+ * which are closed to make room. A statement which is still in use, e.g. by an outer query of the
+ * same SQL, isn't handed out twice; a new one is prepared instead. Statements which return
+ * generated keys, updatable statements and callable statements aren't cached. A statement is
+ * cleared of its parameters, batched rows and warnings before it is cached again, and a statement
+ * on which any call failed is closed rather than cached.
+ * <p/>
+ * Settings which statement customizers apply to a statement, like the fetch size, stay with it,
+ * so a SQL text must be executed with the same customizers wherever it is used.
+ * <p/>
+ * Statements are prepared through the pooled connection, so the pool's interceptors apply to
+ * them, but are cached by the physical connection, and outlive the pooled connection they were
+ * prepared through. Interceptors which close the statements of a connection when it is returned
+ * to the pool, like {@code StatementFinalizer}, leave nothing to reuse, and a cached statement's
+ * {@code getConnection()} may return a pooled connection which has since been closed.
+ */
+public class PreparedStatementCache implements StatementBuilderFactory {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreparedStatementCache.class);
+    private static final Class<?>[] INTERFACES = {PreparedStatement.class};
+
+    private final int maxSize;
+    private final CacheMetrics metrics;
+    private final ConcurrentMap<Connection, Statements> connections = new MapMaker().weakKeys().makeMap();
+    private final Map<Statement, TrackedStatement> inUse =
+            Collections.synchronizedMap(new IdentityHashMap<Statement, TrackedStatement>());
+    private final StatementBuilder builder = new CachingBuilder();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize the maximum number of statements to cache per connection
+     * @param metrics the metrics of the cache
+     */
+    public PreparedStatementCache(int maxSize, CacheMetrics metrics) {
+        this.maxSize = maxSize;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public StatementBuilder createStatementBuilder(Connection conn) {
+        return builder;
+    }
+
+    /**
+     * @return the number of statements cached for all connections
+     */
+    public int size() {
+        int size = 0;
+        for (Statements statements : connections.values()) {
+            size += statements.size();
+        }
+        return size;
+    }
+
+    private Statements statementsOf(Connection connection) {
+        Statements statements = connections.get(connection);
+        if (statements == null) {
+            // a new physical connection has most likely replaced one which has been closed
+            evictClosedConnections();
+            statements = new Statements();
+            final Statements existing = connections.putIfAbsent(connection, statements);
+            if (existing != null) {
+                statements = existing;
+            }
+        }
+        return statements;
+    }
+
+    private void evictClosedConnections() {
+        final Iterator<Map.Entry<Connection, Statements>> entries = connections.entrySet().iterator();
+        while (entries.hasNext()) {
+            final Map.Entry<Connection, Statements> entry = entries.next();
+            if (isClosed(entry.getKey())) {
+                entries.remove();
+                entry.getValue().closeAll();
+            }
+        }
+    }
+
+    private static boolean isClosed(Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            LOGGER.debug("Unable to close a cached statement", e);
+        }
+    }
+
+    private class CachingBuilder extends DefaultStatementBuilder {
+        @Override
+        public PreparedStatement create(Connection conn, String sql, StatementContext ctx) throws SQLException {
+            if (ctx.isReturningGeneratedKeys() || ctx.isConcurrentUpdatable()) {
+                return super.create(conn, sql, ctx);
+            }
+            // cache by the physical connection rather than the pool's handle on it, but prepare
+            // through the handle, so the pool's interceptors see the statement
+            final Statements statements = statementsOf(conn.unwrap(Connection.class));
+            PreparedStatement statement = statements.take(sql);
+            if (statement != null && !statement.isClosed()) {
+                metrics.getHits().mark();
+            } else {
+                metrics.getMisses().mark();
+                statement = conn.prepareStatement(sql);
+            }
+            final TrackedStatement tracked = new TrackedStatement(statement, statements);
+            final PreparedStatement proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(), INTERFACES, tracked);
+            inUse.put(proxy, tracked);
+            return proxy;
+        }
+
+        @Override
+        public void close(Connection conn, String sql, Statement stmt) throws SQLException {
+            if (stmt == null) {
+                return;
+            }
+            final TrackedStatement tracked = inUse.remove(stmt);
+            if (tracked == null) {
+                stmt.close();
+            } else if (tracked.failed || !tracked.statements.release(sql, tracked.statement)) {
+                tracked.statement.close();
+            }
+        }
+    }
+
+    /**
+     * Hands out a statement, and records whether any call on it failed, after which its state,
+     * like the rows of a half-built batch, can't be trusted.
+     */
+    private static class TrackedStatement implements InvocationHandler {
+        private final PreparedStatement statement;
+        private final Statements statements;
+        private volatile boolean failed;
+
+        private TrackedStatement(PreparedStatement statement, Statements statements) {
+            this.statement = statement;
+            this.statements = statements;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                failed = true;
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * The idle statements of a connection, from the least to the most recently used.
+     */
+    private class Statements {
+        private final LinkedHashMap<String, PreparedStatement> idle = new LinkedHashMap<>(16, 0.75f, true);
+
+        synchronized PreparedStatement take(String sql) {
+            return idle.remove(sql);
+        }
+
+        /**
+         * @return whether the statement was cached, rather than having to be closed
+         */
+        synchronized boolean release(String sql, PreparedStatement statement) throws SQLException {
+            if (idle.containsKey(sql) || statement.isClosed()) {
+                return false;
+            }
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.clearWarnings();
+            } catch (SQLException e) {
+                LOGGER.debug("Unable to clear a statement, closing it", e);
+                return false;
+            }
+            idle.put(sql, statement);
+            if (idle.size() > maxSize) {
+                final Iterator<PreparedStatement> eldest = idle.values().iterator();
+                closeQuietly(eldest.next());
+                eldest.remove();
+            }
+            return true;
+        }
+
+        synchronized int size() {
+            return idle.size();
+        }
+
+        synchronized void closeAll() {
+            for (PreparedStatement statement : idle.values()) {
+                closeQuietly(statement);
+            }
+            idle.clear();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.dropwizard.jdbi;
+
+import io.dropwizard.db.ReadOnlyContext;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.IDBI;
+import org.skife.jdbi.v2.exceptions.CallbackFailedException;
+import org.skife.jdbi.v2.tweak.HandleCallback;
+
+/**
+ * Opens read-only {@link Handle}s, whose connections come from the replicas of the database if
+ * it is configured with any.
+ *
+ * @see io.dropwizard.db.RoutingDataSource
+ */
+public final class ReadOnlyHandles {
+    private ReadOnlyHandles() { /* singleton */ }
+
+    /**
+     * Opens a read-only handle.
+     *
+     * @param dbi the {@link IDBI} to open the handle with
+     * @return a read-only handle, which must be closed
+     */
+    public static Handle open(IDBI dbi) {
+        final boolean previous = ReadOnlyContext.setReadOnly(true);
+        try {
+            return dbi.open();
+        } finally {
+            ReadOnlyContext.setReadOnly(previous);
+        }
+    }
+
+    /**
+     * Opens a SQL object which is attached to a read-only handle.
+     *
+     * @param dbi           the {@link IDBI} to open the handle with
+     * @param sqlObjectType the type of the SQL object
+     * @param <T>           the type of the SQL object
+     * @return a SQL object attached to a read-only handle, which must be closed
+     */
+    public static <T> T open(IDBI dbi, Class<T> sqlObjectType) {
+        final boolean previous = ReadOnlyContext.setReadOnly(true);
+        try {
+            return dbi.open(sqlObjectType);
+        } finally {
+            ReadOnlyContext.setReadOnly(previous);
+        }
+    }
+
+    /**
+     * Calls {@code callback} with a read-only handle, which is closed afterwards.
+     *
+     * @param dbi      the {@link IDBI} to open the handle with
+     * @param callback the callback
+     * @param <T>      the type of the result of the callback
+     * @return the result of the callback
+     */
+    public static <T> T withHandle(IDBI dbi, HandleCallback<T> callback) {
+        try (Handle handle = open(dbi)) {
+            return callback.withHandle(handle);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CallbackFailedException(e);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package io.dropwizard.jdbi;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Uninterruptibles;
+import io.dropwizard.util.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.skife.jdbi.v2.DBI;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.IDBI;
+import org.skife.jdbi.v2.TransactionCallback;
+import org.skife.jdbi.v2.util.IntegerMapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BatchWriterTest {
+    private static final String INSERT = "INSERT INTO readings (sensor, value) VALUES (:sensor, :value)";
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final DBI dbi = new DBI("jdbc:h2:mem:BatchWriter-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    private Handle handle;
+    private BatchWriter writer;
+
+    @Before
+    public void setUp() throws Exception {
+        handle = dbi.open();
+        handle.execute("CREATE TABLE readings (sensor varchar(20), value int)");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (writer != null) {
+            writer.stop();
+        }
+        executor.shutdownNow();
+        handle.close();
+    }
+
+    private BatchWriter writer(int batchSize, int capacity, Duration flushInterval) {
+        writer = new BatchWriter(dbi, metricRegistry, "test", batchSize, capacity, flushInterval);
+        return writer;
+    }
+
+    private int rows() {
+        return handle.createQuery("SELECT COUNT(*) FROM readings").map(IntegerMapper.FIRST).first();
+    }
+
+    private void awaitRows(int expected) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (rows() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(rows()).isEqualTo(expected);
+    }
+
+    private void write(int value) throws InterruptedException {
+        writer.write(INSERT, ImmutableMap.of("sensor", "a", "value", value));
+    }
+
+    @Test
+    public void writesFullBatches() throws Exception {
+        writer(2, 10, Duration.hours(1)).start();
+
+        write(1);
+        write(2);
+        write(3);
+
+        awaitRows(2);
+        writer.flush();
+
+        assertThat(rows()).isEqualTo(3);
+        final Histogram batchSizes = metricRegistry.histogram(MetricRegistry.name(BatchWriter.class, "test", "batch-size"));
+        assertThat(batchSizes.getCount()).isEqualTo(2);
+        assertThat(batchSizes.getSnapshot().getMax()).isEqualTo(2);
+    }
+
+    @Test
+    public void writesPartialBatchesEveryInterval() throws Exception {
+        writer(100, 1000, Duration.milliseconds(10)).start();
+
+        write(1);
+
+        awaitRows(1);
+        writer.flush();
+
+        assertThat(metricRegistry.timer(MetricRegistry.name(BatchWriter.class, "test", "flush"))
+                                 .getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void writesRowsWithPositionalParameters() throws Exception {
+        writer(100, 1000, Duration.hours(1)).start();
+
+        writer.write("INSERT INTO readings (sensor, value) VALUES (?, ?)", "b", 2);
+        writer.flush();
+
+        assertThat(rows()).isEqualTo(1);
+    }
+
+    @Test
+    public void writesAllRowsWhenStopped() throws Exception {
+        writer(100, 1000, Duration.hours(1)).start();
+        for (int i = 0; i < 5; i++) {
+            write(i);
+        }
+
+        writer.stop();
+
+        assertThat(rows()).isEqualTo(5);
+        try {
+            write(6);
+            failBecauseExceptionWasNotThrown(IllegalStateException.class);
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage()).isEqualTo("test has been stopped");
+        }
+    }
+
+    @Test
+    public void blocksWritersWhileTheBufferIsFull() throws Exception {
+        writer(100, 2, Duration.hours(1)).start();
+        write(1);
+        write(2);
+
+        final Future<Void> blocked = executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                write(3);
+                return null;
+            }
+        });
+        try {
+            blocked.get(100, TimeUnit.MILLISECONDS);
+            failBecauseExceptionWasNotThrown(TimeoutException.class);
+        } catch (TimeoutException e) {
+            // expected
+        }
+
+        writer.flush();
+        blocked.get(5, TimeUnit.SECONDS);
+        writer.flush();
+
+        assertThat(rows()).isEqualTo(3);
+        assertThat(metricRegistry.meter(MetricRegistry.name(BatchWriter.class, "test", "throttled"))
+                                 .getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void dropsBatchesWhichFail() throws Exception {
+        writer(100, 1000, Duration.hours(1)).start();
+
+        writer.write("INSERT INTO missing (value) VALUES (:value)", ImmutableMap.of("value", 1));
+        writer.write("INSERT INTO missing (value) VALUES (:value)", ImmutableMap.of("value", 2));
+        writer.flush();
+
+        assertThat(writer.getPending()).isEqualTo(0);
+        assertThat(metricRegistry.meter(MetricRegistry.name(BatchWriter.class, "test", "failed-rows"))
+                                 .getCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void writesFullBatchesOnTheWritingThreadBeforeItIsStarted() throws Exception {
+        writer(2, 10, Duration.hours(1));
+
+        write(1);
+        assertThat(rows()).isEqualTo(0);
+
+        write(2);
+        assertThat(rows()).isEqualTo(2);
+        assertThat(writer.getPending()).isEqualTo(0);
+    }
+
+    @Test
+    public void makesRoomOnTheWritingThreadBeforeItIsStarted() throws Exception {
+        writer(100, 2, Duration.hours(1));
+
+        write(1);
+        write(2);
+        write(3);
+
+        assertThat(rows()).isEqualTo(2);
+        assertThat(writer.getPending()).isEqualTo(1);
+        assertThat(metricRegistry.meter(MetricRegistry.name(BatchWriter.class, "test", "throttled"))
+                                 .getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void abandonsRowsWhichAreNotWrittenInTime() throws Exception {
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch hung = new CountDownLatch(1);
+        final IDBI hanging = mock(IDBI.class);
+        when(hanging.inTransaction(any(TransactionCallback.class))).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                writing.countDown();
+                Uninterruptibles.awaitUninterruptibly(hung);
+                return null;
+            }
+        });
+        writer = new BatchWriter(hanging, metricRegistry, "test", 1, 10, Duration.hours(1),
+                                 Duration.milliseconds(50));
+        writer.start();
+        try {
+            write(1);
+            assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+            write(2);
+            write(3);
+
+            writer.stop();
+
+            assertThat(metricRegistry.meter(MetricRegistry.name(BatchWriter.class, "test", "abandoned-rows"))
+                                     .getCount()).isEqualTo(2);
+        } finally {
+            hung.countDown();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package io.dropwizard.jdbi;
 
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.health.HealthCheckRegistry;
 import com.google.common.base.Optional;
@@ -115,6 +116,18 @@ public class JDBITest {
                 .containsOnly("Coda Hale", "Kris Gale");
     }
 
+    @Test
+    public void cachesTheRewrittenSqlOfStatements() throws Exception {
+        final PersonDAO dao = dbi.open(PersonDAO.class);
+        final Meter hits = metricRegistry.meter(MetricRegistry.name(DBI.class, "hsql", "rewritten-sql-cache", "hits"));
+
+        assertThat(dao.findByName(Optional.of("Coda Hale"))).isEqualTo("Coda Hale");
+        final long before = hits.getCount();
+        assertThat(dao.findByName(Optional.of("Kris Gale"))).isEqualTo("Kris Gale");
+
+        assertThat(hits.getCount()).isEqualTo(before + 1);
+    }
+
     @Test
     public void managesTheDatabaseWithTheEnvironment() throws Exception {
         verify(lifecycleEnvironment).manage(any(ManagedDataSource.class));
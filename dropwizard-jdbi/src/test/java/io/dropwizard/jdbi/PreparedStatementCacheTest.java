@@ -0,0 +1,128 @@
+package io.dropwizard.jdbi;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.db.DataSourceFactory;
+import io.dropwizard.db.ManagedDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.skife.jdbi.v2.DBI;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.ResultIterator;
+import org.skife.jdbi.v2.exceptions.DBIException;
+import org.skife.jdbi.v2.util.IntegerMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+
+public class PreparedStatementCacheTest {
+    private static final String SELECT = "SELECT id FROM numbers WHERE id > :id ORDER BY id";
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final CacheMetrics metrics = new CacheMetrics(metricRegistry, "cache");
+    private final PreparedStatementCache cache = new PreparedStatementCache(2, metrics);
+    private ManagedDataSource dataSource;
+    private DBI dbi;
+
+    @Before
+    public void setUp() throws Exception {
+        final DataSourceFactory factory = new DataSourceFactory();
+        factory.setUrl("jdbc:h2:mem:PreparedStatementCache-" + System.nanoTime());
+        factory.setUser("sa");
+        factory.setDriverClass("org.h2.Driver");
+        factory.setValidationQuery("SELECT 1");
+        factory.setInitialSize(1);
+        factory.setMinSize(1);
+        factory.setMaxSize(1);
+        dataSource = factory.build(metricRegistry, "test");
+        dataSource.start();
+
+        dbi = new DBI(dataSource);
+        try (Handle handle = dbi.open()) {
+            handle.execute("CREATE TABLE numbers (id int primary key)");
+            for (int i = 1; i <= 3; i++) {
+                handle.insert("INSERT INTO numbers VALUES (?)", i);
+            }
+        }
+        dbi.setStatementBuilderFactory(cache);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        dataSource.stop();
+    }
+
+    private int first(Handle handle, int id) {
+        return handle.createQuery(SELECT).bind("id", id).map(IntegerMapper.FIRST).first();
+    }
+
+    @Test
+    public void reusesStatementsAcrossHandlesOfTheSameConnection() throws Exception {
+        try (Handle handle = dbi.open()) {
+            assertThat(first(handle, 0)).isEqualTo(1);
+        }
+        try (Handle handle = dbi.open()) {
+            assertThat(first(handle, 1)).isEqualTo(2);
+        }
+
+        assertThat(metrics.getMisses().getCount()).isEqualTo(1);
+        assertThat(metrics.getHits().getCount()).isEqualTo(1);
+        assertThat(metricRegistry.getGauges().get("cache.hit-ratio").getValue()).isEqualTo(0.5);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void doesNotHandOutAStatementWhichIsInUse() throws Exception {
+        try (Handle handle = dbi.open()) {
+            final ResultIterator<Integer> outer = handle.createQuery(SELECT)
+                                                        .bind("id", 0)
+                                                        .map(IntegerMapper.FIRST)
+                                                        .iterator();
+            try {
+                assertThat(outer.next()).isEqualTo(1);
+                assertThat(first(handle, 2)).isEqualTo(3);
+                assertThat(outer.next()).isEqualTo(2);
+            } finally {
+                outer.close();
+            }
+        }
+
+        assertThat(metrics.getMisses().getCount()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void closesTheLeastRecentlyUsedStatements() throws Exception {
+        try (Handle handle = dbi.open()) {
+            for (int i = 0; i < 3; i++) {
+                handle.createQuery("SELECT id FROM numbers WHERE id = " + i).map(IntegerMapper.FIRST).first();
+            }
+            handle.createQuery("SELECT id FROM numbers WHERE id = 0").map(IntegerMapper.FIRST).first();
+        }
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(metrics.getHits().getCount()).isEqualTo(0);
+        assertThat(metrics.getMisses().getCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void closesStatementsWhichFailed() throws Exception {
+        final String insert = "INSERT INTO numbers VALUES (?)";
+        try (Handle handle = dbi.open()) {
+            try {
+                handle.prepareBatch(insert).add(4).add(1).execute();
+                failBecauseExceptionWasNotThrown(DBIException.class);
+            } catch (DBIException e) {
+                assertThat(cache.size()).isEqualTo(0);
+            }
+
+            handle.prepareBatch(insert).add(5).execute();
+            assertThat(handle.createQuery("SELECT COUNT(*) FROM numbers WHERE id = 5")
+                             .map(IntegerMapper.FIRST)
+                             .first()).isEqualTo(1);
+        }
+
+        // the second batch and the count
+        assertThat(cache.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,83 @@
+package io.dropwizard.jdbi;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableList;
+import io.dropwizard.db.DataSourceFactory;
+import io.dropwizard.db.ManagedDataSource;
+import io.dropwizard.db.ReadOnlyContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.skife.jdbi.v2.DBI;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.tweak.HandleCallback;
+import org.skife.jdbi.v2.util.StringMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadOnlyHandlesTest {
+    private final String prefix = "jdbc:h2:mem:ReadOnlyHandles-" + System.nanoTime() + "-";
+    private ManagedDataSource dataSource;
+    private DBI dbi;
+
+    @Before
+    public void setUp() throws Exception {
+        final DataSourceFactory factory = factory("primary");
+        factory.setReplicas(ImmutableList.of(factory("replica")));
+        dataSource = factory.build(new MetricRegistry(), "test");
+        dataSource.start();
+        dbi = new DBI(dataSource);
+
+        for (String name : ImmutableList.of("primary", "replica")) {
+            try (Handle handle = new DBI(prefix + name, "sa", "").open()) {
+                handle.execute("CREATE TABLE source (name varchar(20))");
+                handle.insert("INSERT INTO source VALUES (?)", name);
+            }
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        dataSource.stop();
+    }
+
+    private DataSourceFactory factory(String name) {
+        final DataSourceFactory factory = new DataSourceFactory();
+        factory.setUrl(prefix + name + ";DB_CLOSE_DELAY=-1");
+        factory.setUser("sa");
+        factory.setDriverClass("org.h2.Driver");
+        factory.setValidationQuery("SELECT 1");
+        return factory;
+    }
+
+    private static String source(Handle handle) {
+        return handle.createQuery("SELECT name FROM source").map(StringMapper.FIRST).first();
+    }
+
+    @Test
+    public void opensHandlesToAReplica() throws Exception {
+        try (Handle handle = ReadOnlyHandles.open(dbi)) {
+            assertThat(source(handle)).isEqualTo("replica");
+        }
+        assertThat(ReadOnlyContext.isReadOnly()).isFalse();
+    }
+
+    @Test
+    public void callsCallbacksWithHandlesToAReplica() throws Exception {
+        final String source = ReadOnlyHandles.withHandle(dbi, new HandleCallback<String>() {
+            @Override
+            public String withHandle(Handle handle) throws Exception {
+                return source(handle);
+            }
+        });
+
+        assertThat(source).isEqualTo("replica");
+    }
+
+    @Test
+    public void leavesOtherHandlesOnThePrimary() throws Exception {
+        try (Handle handle = dbi.open()) {
+            assertThat(source(handle)).isEqualTo("primary");
+        }
+    }
+}
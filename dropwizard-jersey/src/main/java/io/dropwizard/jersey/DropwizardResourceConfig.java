@@ -6,6 +6,8 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ComparisonChain;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import io.dropwizard.jersey.bulkhead.BulkheadInvocationHandlerProvider;
+import io.dropwizard.jersey.bulkhead.Bulkheads;
 import io.dropwizard.jersey.caching.CacheControlledResponseFeature;
 import io.dropwizard.jersey.guava.OptionalMessageBodyWriter;
 import io.dropwizard.jersey.guava.OptionalParamFeature;
@@ -36,6 +38,7 @@ public class DropwizardResourceConfig extends ResourceConfig {
     private static final String NEWLINE = String.format("%n");
 
     private String urlPattern = "/*";
+    private final Bulkheads bulkheads;
 
     public DropwizardResourceConfig(MetricRegistry metricRegistry) {
         this(false, metricRegistry);
@@ -63,6 +66,8 @@ public class DropwizardResourceConfig extends ResourceConfig {
         register(OptionalMessageBodyWriter.class);
         register(OptionalParamFeature.class);
         register(new SessionFactoryProvider.Binder());
+        bulkheads = new Bulkheads(metricRegistry);
+        register(new BulkheadInvocationHandlerProvider.Binder(bulkheads));
         register(ValidationFeature.class);
     }
 
@@ -80,6 +85,10 @@ public class DropwizardResourceConfig extends ResourceConfig {
         return urlPattern;
     }
 
+    public Bulkheads getBulkheads() {
+        return bulkheads;
+    }
+
     public void setUrlPattern(String urlPattern) {
         this.urlPattern = urlPattern;
     }
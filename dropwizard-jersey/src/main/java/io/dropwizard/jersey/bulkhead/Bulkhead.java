@@ -0,0 +1,27 @@
+package io.dropwizard.jersey.bulkhead;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An annotation which bounds the number of requests running the annotated resource method, or
+ * the resource methods of the annotated class, at the same time by the named bulkhead.
+ * <p/>
+ * Requests which don't get into the bulkhead are rejected with a {@code 503 Service Unavailable}
+ * response, so a slow dependency behind one resource can't tie up every request thread of the
+ * server.
+ *
+ * @see Bulkheads
+ */
+@Documented
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+    /**
+     * @return the name of the bulkhead, as registered with {@link Bulkheads#register}
+     */
+    String value();
+}
@@ -0,0 +1,139 @@
+package io.dropwizard.jersey.bulkhead;
+
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.glassfish.jersey.server.model.Invocable;
+import org.glassfish.jersey.server.spi.internal.ResourceMethodInvocationHandlerProvider;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.ServiceUnavailableException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.CompletionCallback;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Invokes resource methods annotated with {@link Bulkhead} once their request has got into the
+ * bulkhead.
+ * <p/>
+ * The resource method runs on the request thread. A request leaves the bulkhead when the method
+ * returns, unless the method takes a {@code @Suspended AsyncResponse}: then it leaves once the
+ * response has been sent.
+ */
+@Singleton
+public class BulkheadInvocationHandlerProvider implements ResourceMethodInvocationHandlerProvider {
+    private final Bulkheads bulkheads;
+
+    @Inject
+    public BulkheadInvocationHandlerProvider(Bulkheads bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public InvocationHandler create(Invocable invocable) {
+        Bulkhead annotation = invocable.getDefinitionMethod().getAnnotation(Bulkhead.class);
+        if (annotation == null) {
+            annotation = invocable.getHandlingMethod().getAnnotation(Bulkhead.class);
+        }
+        if (annotation == null) {
+            annotation = invocable.getHandler().getHandlerClass().getAnnotation(Bulkhead.class);
+        }
+        if (annotation == null) {
+            return null;
+        }
+        return new BulkheadInvocationHandler(bulkheads.get(annotation.value()));
+    }
+
+    private static class BulkheadInvocationHandler implements InvocationHandler {
+        private final Bulkheads.Compartment compartment;
+
+        private BulkheadInvocationHandler(Bulkheads.Compartment compartment) {
+            this.compartment = compartment;
+        }
+
+        @Override
+        public Object invoke(Object resource, Method method, Object[] args) throws Throwable {
+            enter();
+            final Exit exit = new Exit(compartment);
+            final AsyncResponse asyncResponse = findAsyncResponse(args);
+            // asynchronous requests stay in the bulkhead until their response has been sent
+            final boolean exitOnCompletion = asyncResponse != null && !asyncResponse.register(exit).isEmpty();
+            boolean returned = false;
+            try {
+                final Object result = method.invoke(resource, args);
+                returned = true;
+                return result;
+            } finally {
+                if (!returned || !exitOnCompletion) {
+                    exit.onComplete(null);
+                }
+            }
+        }
+
+        private void enter() throws InvocationTargetException {
+            boolean entered;
+            try {
+                entered = compartment.maxWaitNanos == 0 ?
+                        compartment.permits.tryAcquire() :
+                        compartment.permits.tryAcquire(compartment.maxWaitNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                entered = false;
+            }
+            if (!entered) {
+                compartment.rejections.mark();
+                // thrown as if by the resource method, so that Jersey maps it to its response
+                throw new InvocationTargetException(new ServiceUnavailableException());
+            }
+        }
+
+        private AsyncResponse findAsyncResponse(Object[] args) {
+            if (args != null) {
+                for (Object arg : args) {
+                    if (arg instanceof AsyncResponse) {
+                        return (AsyncResponse) arg;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Leaves the bulkhead once, when the resource method or its asynchronous response is done.
+     */
+    private static class Exit implements CompletionCallback {
+        private final Bulkheads.Compartment compartment;
+        private final AtomicBoolean left = new AtomicBoolean();
+
+        private Exit(Bulkheads.Compartment compartment) {
+            this.compartment = compartment;
+        }
+
+        @Override
+        public void onComplete(Throwable throwable) {
+            if (left.compareAndSet(false, true)) {
+                compartment.permits.release();
+            }
+        }
+    }
+
+    public static class Binder extends AbstractBinder {
+        private final Bulkheads bulkheads;
+
+        public Binder(Bulkheads bulkheads) {
+            this.bulkheads = bulkheads;
+        }
+
+        @Override
+        protected void configure() {
+            bind(bulkheads).to(Bulkheads.class);
+            bind(BulkheadInvocationHandlerProvider.class)
+                    .to(ResourceMethodInvocationHandlerProvider.class)
+                    .in(Singleton.class);
+        }
+    }
+}
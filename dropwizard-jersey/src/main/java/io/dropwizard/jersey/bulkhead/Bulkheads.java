@@ -0,0 +1,99 @@
+package io.dropwizard.jersey.bulkhead;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The {@link Bulkhead bulkheads} of an application.
+ * <p/>
+ * Each bulkhead bounds the number of requests which run its resource methods at the same time:
+ * <pre>{@code
+ * environment.jersey().registerBulkhead("payments", 8);
+ * }</pre>
+ * Resource methods run on the request thread, so request-scoped state such as the MDC, a
+ * {@code @UnitOfWork} session or other thread-locals is available as usual. Requests which don't
+ * get into the bulkhead within its maximum wait are rejected, and recorded in the
+ * {@code io.dropwizard.jersey.bulkhead.Bulkhead.<name>.rejections} meter. The number of requests
+ * in the bulkhead is reported by its {@code active} gauge.
+ */
+public class Bulkheads {
+    private final MetricRegistry metricRegistry;
+    private final ConcurrentMap<String, Compartment> compartments = new ConcurrentHashMap<>();
+
+    public Bulkheads(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
+    /**
+     * Registers a bulkhead which rejects requests right away once it's full.
+     *
+     * @param name                  the name of the bulkhead
+     * @param maxConcurrentRequests the maximum number of requests in the bulkhead at the same time
+     * @see #register(String, int, long, TimeUnit)
+     */
+    public void register(String name, int maxConcurrentRequests) {
+        register(name, maxConcurrentRequests, 0, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Registers a bulkhead whose requests wait up to the given time for a place in the bulkhead
+     * once it's full, and are then answered with a {@code 503 Service Unavailable} response.
+     * <p/>
+     * Requests whose resource method takes a {@code @Suspended AsyncResponse} stay in the bulkhead
+     * until the response has been sent.
+     *
+     * @param name                  the name of the bulkhead
+     * @param maxConcurrentRequests the maximum number of requests in the bulkhead at the same time
+     * @param maxWait               how long requests wait for a place in the bulkhead
+     * @param unit                  the unit of {@code maxWait}
+     */
+    public void register(String name, int maxConcurrentRequests, long maxWait, TimeUnit unit) {
+        checkNotNull(name);
+        checkArgument(maxConcurrentRequests > 0, "maxConcurrentRequests must be positive");
+        checkArgument(maxWait >= 0, "maxWait must not be negative");
+        final Compartment compartment = new Compartment(
+                new Semaphore(maxConcurrentRequests),
+                unit.toNanos(maxWait),
+                metricRegistry.meter(name(Bulkhead.class, name, "rejections")));
+        checkArgument(compartments.putIfAbsent(name, compartment) == null,
+                "A bulkhead named %s has already been registered", name);
+        metricRegistry.register(name(Bulkhead.class, name, "active"), new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return compartment.maxConcurrentRequests - compartment.permits.availablePermits();
+            }
+        });
+    }
+
+    Compartment get(String name) {
+        final Compartment compartment = compartments.get(name);
+        if (compartment == null) {
+            throw new IllegalStateException("No bulkhead named " + name + " has been registered");
+        }
+        return compartment;
+    }
+
+    static class Compartment {
+        final Semaphore permits;
+        final int maxConcurrentRequests;
+        final long maxWaitNanos;
+        final Meter rejections;
+
+        private Compartment(Semaphore permits, long maxWaitNanos, Meter rejections) {
+            this.permits = permits;
+            this.maxConcurrentRequests = permits.availablePermits();
+            this.maxWaitNanos = maxWaitNanos;
+            this.rejections = rejections;
+        }
+    }
+}
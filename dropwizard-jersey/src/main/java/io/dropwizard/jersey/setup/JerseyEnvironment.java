@@ -7,6 +7,7 @@ import org.glassfish.jersey.servlet.ServletContainer;
 import io.dropwizard.jersey.DropwizardResourceConfig;
 
 import javax.annotation.Nullable;
+import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -99,6 +100,34 @@ public class JerseyEnvironment {
         return (T) config.getProperties().get(name);
     }
 
+    /**
+     * Registers a {@link io.dropwizard.jersey.bulkhead.Bulkhead bulkhead} which lets the given
+     * number of requests run its resource methods at the same time, and rejects further requests
+     * right away.
+     *
+     * @param name                  the name of the bulkhead
+     * @param maxConcurrentRequests the maximum number of requests in the bulkhead at the same time
+     * @see io.dropwizard.jersey.bulkhead.Bulkheads#register(String, int)
+     */
+    public void registerBulkhead(String name, int maxConcurrentRequests) {
+        config.getBulkheads().register(name, maxConcurrentRequests);
+    }
+
+    /**
+     * Registers a {@link io.dropwizard.jersey.bulkhead.Bulkhead bulkhead} which lets the given
+     * number of requests run its resource methods at the same time, and rejects further requests
+     * which don't get in within the given time.
+     *
+     * @param name                  the name of the bulkhead
+     * @param maxConcurrentRequests the maximum number of requests in the bulkhead at the same time
+     * @param maxWait               how long requests wait for a place in the bulkhead
+     * @param unit                  the unit of {@code maxWait}
+     * @see io.dropwizard.jersey.bulkhead.Bulkheads#register(String, int, long, TimeUnit)
+     */
+    public void registerBulkhead(String name, int maxConcurrentRequests, long maxWait, TimeUnit unit) {
+        config.getBulkheads().register(name, maxConcurrentRequests, maxWait, unit);
+    }
+
     public String getUrlPattern() {
         return config.getUrlPattern();
     }
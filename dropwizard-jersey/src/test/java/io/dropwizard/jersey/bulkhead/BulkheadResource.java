@@ -0,0 +1,47 @@
+package io.dropwizard.jersey.bulkhead;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.MediaType;
+import java.util.concurrent.CountDownLatch;
+
+@Path("/bulkhead/")
+@Produces(MediaType.TEXT_PLAIN)
+public class BulkheadResource {
+    static final ThreadLocal<String> CONTEXT = new ThreadLocal<>();
+    static volatile CountDownLatch entered = new CountDownLatch(1);
+    static volatile CountDownLatch release = new CountDownLatch(0);
+
+    @GET
+    @Path("/context")
+    @Bulkhead("isolated")
+    public String showContext() {
+        return String.valueOf(CONTEXT.get());
+    }
+
+    @GET
+    @Path("/async")
+    @Bulkhead("isolated")
+    public void showAsynchronously(@Suspended AsyncResponse asyncResponse) {
+        asyncResponse.resume("async");
+    }
+
+    @GET
+    @Path("/blocking")
+    @Bulkhead("single")
+    public String block() throws InterruptedException {
+        entered.countDown();
+        release.await();
+        return "released";
+    }
+
+    @GET
+    @Path("/failing")
+    @Bulkhead("single")
+    public String fail() {
+        throw new IllegalStateException("failed");
+    }
+}
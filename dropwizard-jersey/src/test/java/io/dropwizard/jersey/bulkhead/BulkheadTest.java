@@ -0,0 +1,119 @@
+package io.dropwizard.jersey.bulkhead;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.jersey.DropwizardResourceConfig;
+import io.dropwizard.logging.LoggingFactory;
+import org.glassfish.jersey.test.JerseyTest;
+import org.glassfish.jersey.test.TestProperties;
+import org.junit.Test;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+
+public class BulkheadTest extends JerseyTest {
+    static {
+        LoggingFactory.bootstrap();
+    }
+
+    private MetricRegistry metricRegistry;
+
+    @Override
+    protected Application configure() {
+        forceSet(TestProperties.CONTAINER_PORT, "0");
+        metricRegistry = new MetricRegistry();
+        final DropwizardResourceConfig config = DropwizardResourceConfig.forTesting(metricRegistry);
+        config.getBulkheads().register("isolated", 4);
+        config.getBulkheads().register("single", 1);
+        config.register(new ContainerRequestFilter() {
+            @Override
+            public void filter(ContainerRequestContext requestContext) throws IOException {
+                BulkheadResource.CONTEXT.set("request");
+            }
+        });
+        return config.register(BulkheadResource.class);
+    }
+
+    @Test
+    public void runsResourceMethodsInABulkheadWithTheContextOfTheRequestThread() throws Exception {
+        assertThat(target("/bulkhead/context").request().get(String.class))
+                .isEqualTo("request");
+        assertThat(active("isolated")).isZero();
+    }
+
+    @Test
+    public void leavesTheBulkheadOnceAnAsynchronousResponseHasBeenSent() throws Exception {
+        assertThat(target("/bulkhead/async").request().get(String.class))
+                .isEqualTo("async");
+        // the response is completed once it has been written
+        awaitEmpty("isolated");
+    }
+
+    @Test
+    public void leavesTheBulkheadWhenTheResourceMethodFails() throws Exception {
+        assertThat(target("/bulkhead/failing").request().get().getStatus()).isEqualTo(500);
+        assertThat(active("single")).isZero();
+    }
+
+    @Test
+    public void rejectsRequestsWhichDoNotFitIntoTheBulkhead() throws Exception {
+        BulkheadResource.entered = new CountDownLatch(1);
+        BulkheadResource.release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Response> blocked = executor.submit(new Callable<Response>() {
+                @Override
+                public Response call() throws Exception {
+                    return target("/bulkhead/blocking").request().get();
+                }
+            });
+            assertThat(BulkheadResource.entered.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(active("single")).isEqualTo(1);
+
+            assertThat(target("/bulkhead/blocking").request().get().getStatus()).isEqualTo(503);
+            assertThat(metricRegistry.meter("io.dropwizard.jersey.bulkhead.Bulkhead.single.rejections").getCount())
+                    .isEqualTo(1);
+
+            BulkheadResource.release.countDown();
+            assertThat(blocked.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+            awaitEmpty("single");
+        } finally {
+            BulkheadResource.release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void requiresAPositiveNumberOfConcurrentRequests() throws Exception {
+        try {
+            new Bulkheads(new MetricRegistry()).register("closed", 0);
+            failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage()).isEqualTo("maxConcurrentRequests must be positive");
+        }
+    }
+
+    private void awaitEmpty(String bulkhead) throws InterruptedException {
+        for (int i = 0; i < 500 && active(bulkhead) > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(active(bulkhead)).isZero();
+    }
+
+    private int active(String bulkhead) {
+        return (Integer) metricRegistry.getGauges()
+                .get("io.dropwizard.jersey.bulkhead.Bulkhead." + bulkhead + ".active")
+                .getValue();
+    }
+}
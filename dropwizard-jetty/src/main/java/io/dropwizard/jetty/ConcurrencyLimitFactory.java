@@ -0,0 +1,193 @@
+package io.dropwizard.jetty;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MinDuration;
+import io.dropwizard.validation.ValidationMethod;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.concurrent.TimeUnit;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Builds a {@link ConcurrencyLimitHandler} which sheds load with {@code 503 Service Unavailable}
+ * responses once the latency of requests starts growing.
+ * <p/>
+ * <b>Configuration Parameters:</b>
+ * <table>
+ *     <tr>
+ *         <td>Name</td>
+ *         <td>Default</td>
+ *         <td>Description</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code enabled}</td>
+ *         <td>false</td>
+ *         <td>Whether the number of concurrent requests is limited.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code initialLimit}</td>
+ *         <td>20</td>
+ *         <td>The number of concurrent requests allowed on startup.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code minLimit}</td>
+ *         <td>4</td>
+ *         <td>The limit never drops below this number of concurrent requests.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code maxLimit}</td>
+ *         <td>1000</td>
+ *         <td>The limit never grows beyond this number of concurrent requests.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code tolerance}</td>
+ *         <td>1.5</td>
+ *         <td>
+ *             How many times the long-term average latency requests may take before the limit
+ *             is reduced.
+ *         </td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code smoothing}</td>
+ *         <td>0.2</td>
+ *         <td>How much of each adjustment is applied to the limit at once.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code window}</td>
+ *         <td>1 second</td>
+ *         <td>How often the limit is adjusted.</td>
+ *     </tr>
+ * </table>
+ */
+public class ConcurrencyLimitFactory {
+    private boolean enabled = false;
+
+    @Min(1)
+    private int initialLimit = 20;
+
+    @Min(1)
+    private int minLimit = 4;
+
+    @Min(1)
+    private int maxLimit = 1000;
+
+    @DecimalMin("1.0")
+    private double tolerance = 1.5;
+
+    @DecimalMin("0.01")
+    @DecimalMax("1.0")
+    private double smoothing = 0.2;
+
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration window = Duration.seconds(1);
+
+    @JsonIgnore
+    @ValidationMethod(message = "must have minLimit <= initialLimit <= maxLimit")
+    public boolean isLimitRangeValid() {
+        return minLimit <= initialLimit && initialLimit <= maxLimit;
+    }
+
+    @JsonProperty
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @JsonProperty
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @JsonProperty
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    @JsonProperty
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    @JsonProperty
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    @JsonProperty
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    @JsonProperty
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    @JsonProperty
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    @JsonProperty
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    @JsonProperty
+    public void setTolerance(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    @JsonProperty
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    @JsonProperty
+    public void setSmoothing(double smoothing) {
+        this.smoothing = smoothing;
+    }
+
+    @JsonProperty
+    public Duration getWindow() {
+        return window;
+    }
+
+    @JsonProperty
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    /**
+     * Builds a {@link ConcurrencyLimitHandler}, and registers the {@code limit}, {@code in-flight}
+     * and {@code rejections} metrics of the handler.
+     *
+     * @param metrics the registry to register the metrics with
+     * @return a new {@link ConcurrencyLimitHandler}
+     */
+    public ConcurrencyLimitHandler build(MetricRegistry metrics) {
+        final GradientConcurrencyLimit limit = new GradientConcurrencyLimit(initialLimit, minLimit, maxLimit,
+                smoothing, tolerance, window.getQuantity(), window.getUnit());
+        metrics.register(name(ConcurrencyLimitHandler.class, "limit"), new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return limit.getLimit();
+            }
+        });
+        metrics.register(name(ConcurrencyLimitHandler.class, "in-flight"), new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return limit.getInFlight();
+            }
+        });
+        return new ConcurrencyLimitHandler(limit, metrics.meter(name(ConcurrencyLimitHandler.class, "rejections")));
+    }
+}
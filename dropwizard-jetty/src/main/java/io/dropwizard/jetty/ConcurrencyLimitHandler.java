@@ -0,0 +1,110 @@
+package io.dropwizard.jetty;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Meter;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.HandlerWrapper;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A handler which rejects requests with a {@code 503 Service Unavailable} response while the
+ * number of requests in flight is at the {@link GradientConcurrencyLimit limit}.
+ * <p/>
+ * Asynchronous requests hold their permit until they complete.
+ */
+public class ConcurrencyLimitHandler extends HandlerWrapper {
+    private final GradientConcurrencyLimit limit;
+    private final Meter rejections;
+    private final Clock clock;
+
+    public ConcurrencyLimitHandler(GradientConcurrencyLimit limit, Meter rejections) {
+        this(limit, rejections, Clock.defaultClock());
+    }
+
+    public ConcurrencyLimitHandler(GradientConcurrencyLimit limit, Meter rejections, Clock clock) {
+        this.limit = limit;
+        this.rejections = rejections;
+        this.clock = clock;
+    }
+
+    public GradientConcurrencyLimit getLimit() {
+        return limit;
+    }
+
+    @Override
+    public void handle(String target,
+                       Request baseRequest,
+                       HttpServletRequest request,
+                       HttpServletResponse response) throws IOException, ServletException {
+        // asynchronous dispatches belong to requests which already hold a permit
+        if (baseRequest.getDispatcherType() != DispatcherType.REQUEST) {
+            super.handle(target, baseRequest, request, response);
+            return;
+        }
+
+        if (!limit.tryAcquire()) {
+            rejections.mark();
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            baseRequest.setHandled(true);
+            return;
+        }
+
+        final long start = clock.getTick();
+        boolean async = false;
+        try {
+            super.handle(target, baseRequest, request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(start));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                limit.release(clock.getTick() - start);
+            }
+        }
+    }
+
+    private class ReleasingListener implements AsyncListener {
+        private final long start;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleasingListener(long start) {
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) throws IOException {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) throws IOException {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) throws IOException {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) throws IOException {
+            // listeners are dropped when a request is put into asynchronous mode again
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                limit.release(clock.getTick() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package io.dropwizard.jetty;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.util.Duration;
+import io.dropwizard.util.Size;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.RequestLog;
+import org.eclipse.jetty.server.Response;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link RequestLog} which formats requests into a reusable, thread-local buffer and writes the
+ * encoded bytes straight into its outputs, without going through Logback.
+ * <p/>
+ * Writes are buffered per output, and the buffers are flushed when they are full and at a fixed
+ * interval by a background thread.
+ *
+ * @see NCSARequestLogFormatter
+ */
+public class DirectRequestLog extends AbstractLifeCycle implements RequestLog {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DirectRequestLog.class);
+    private static final byte[] LINE_SEPARATOR = System.getProperty("line.separator").getBytes(Charsets.US_ASCII);
+    private static final int INITIAL_LINE_CAPACITY = 256;
+    private static final int MAX_RETAINED_LINE_CAPACITY = 16 * 1024;
+
+    private final NCSARequestLogFormatter formatter;
+    private final List<OutputStream> outputs;
+    private final Duration flushInterval;
+    private final ThreadLocal<RequestLogBuffer> buffers = new ThreadLocal<RequestLogBuffer>() {
+        @Override
+        protected RequestLogBuffer initialValue() {
+            return new RequestLogBuffer(INITIAL_LINE_CAPACITY, MAX_RETAINED_LINE_CAPACITY);
+        }
+    };
+    private ScheduledExecutorService flusher;
+
+    /**
+     * Creates a new request log.
+     *
+     * @param formatter     the formatter of requests
+     * @param outputs       the streams to write to, which are closed when the request log stops
+     * @param bufferSize    the size of the buffer of each output
+     * @param flushInterval how often the buffers are flushed
+     */
+    public DirectRequestLog(NCSARequestLogFormatter formatter, List<OutputStream> outputs,
+                            Size bufferSize, Duration flushInterval) {
+        this.formatter = formatter;
+        this.flushInterval = flushInterval;
+        final ImmutableList.Builder<OutputStream> buffered = ImmutableList.builder();
+        for (OutputStream output : outputs) {
+            buffered.add(new BufferedOutputStream(output, (int) bufferSize.toBytes()));
+        }
+        this.outputs = buffered.build();
+    }
+
+    @Override
+    public void log(Request request, Response response) {
+        final RequestLogBuffer buffer = buffers.get();
+        buffer.reset();
+        formatter.format(request, response, System.currentTimeMillis(), buffer);
+        buffer.append(LINE_SEPARATOR);
+        for (OutputStream output : outputs) {
+            try {
+                buffer.writeTo(output);
+            } catch (IOException e) {
+                LOGGER.warn("Unable to write to the request log", e);
+            }
+        }
+    }
+
+    /**
+     * Writes the buffered requests to the outputs.
+     */
+    public void flush() {
+        for (OutputStream output : outputs) {
+            try {
+                output.flush();
+            } catch (IOException e) {
+                LOGGER.warn("Unable to flush the request log", e);
+            }
+        }
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        flusher = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("request-log-flusher-%d").setDaemon(true).build());
+        final long interval = flushInterval.toMilliseconds();
+        flusher.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                flush();
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        flusher.shutdown();
+        flusher.awaitTermination(flushInterval.getQuantity(), flushInterval.getUnit());
+        for (OutputStream output : outputs) {
+            try {
+                output.close();
+            } catch (IOException e) {
+                LOGGER.warn("Unable to close the request log", e);
+            }
+        }
+    }
+}
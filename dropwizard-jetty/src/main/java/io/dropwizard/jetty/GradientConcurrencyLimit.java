@@ -0,0 +1,152 @@
+package io.dropwizard.jetty;
+
+import com.codahale.metrics.Clock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A concurrency limit which adapts to the measured latency of requests.
+ * <p/>
+ * The latency of each window of requests is compared with a long-term average. While they are
+ * about the same, the limit grows by roughly the square root of the limit per window. Once
+ * requests start queueing up and the latency grows beyond {@code tolerance} times the long-term
+ * average, the limit shrinks in proportion, by at most half per window.
+ * <p/>
+ * Windows in which less than half of the limit was in use don't change the limit, so that it
+ * doesn't grow without bound while the server is idle.
+ */
+public class GradientConcurrencyLimit {
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final double LONG_RTT_SMOOTHING = 0.05;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final long windowNanos;
+    private final Clock clock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicLong rttSum = new AtomicLong();
+    private final AtomicInteger samples = new AtomicInteger();
+    private final AtomicBoolean updating = new AtomicBoolean();
+
+    private volatile long windowStart;
+    private volatile int limit;
+
+    // only accessed while updating
+    private double estimatedLimit;
+    private double longRtt;
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit,
+                                    double smoothing, double tolerance, long window, TimeUnit unit) {
+        this(initialLimit, minLimit, maxLimit, smoothing, tolerance, window, unit, Clock.defaultClock());
+    }
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit,
+                                    double smoothing, double tolerance, long window, TimeUnit unit,
+                                    Clock clock) {
+        checkArgument(minLimit > 0 && minLimit <= initialLimit && initialLimit <= maxLimit,
+                "expected 0 < minLimit <= initialLimit <= maxLimit");
+        checkArgument(smoothing > 0 && smoothing <= 1, "smoothing must be in (0, 1]");
+        checkArgument(tolerance >= 1, "tolerance must be at least 1");
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.windowNanos = unit.toNanos(window);
+        this.clock = clock;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+        this.windowStart = clock.getTick();
+    }
+
+    /**
+     * Acquires a permit if fewer requests than the current limit are in flight.
+     *
+     * @return {@code true} if a permit was acquired, and {@link #release(long)} must be called
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            final int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                updateMaxInFlight(current + 1);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a permit, and records the latency of the request which held it.
+     *
+     * @param rttNanos how long the request took, in nanoseconds
+     */
+    public void release(long rttNanos) {
+        inFlight.decrementAndGet();
+        rttSum.addAndGet(rttNanos);
+        final int count = samples.incrementAndGet();
+
+        final long now = clock.getTick();
+        if (count >= MIN_WINDOW_SAMPLES && now - windowStart >= windowNanos && updating.compareAndSet(false, true)) {
+            try {
+                final long sum = rttSum.getAndSet(0);
+                final int windowSamples = samples.getAndSet(0);
+                windowStart = now;
+                if (windowSamples > 0) {
+                    update((double) sum / windowSamples, maxInFlight.getAndSet(inFlight.get()));
+                }
+            } finally {
+                updating.set(false);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void updateMaxInFlight(int current) {
+        while (true) {
+            final int max = maxInFlight.get();
+            if (current <= max || maxInFlight.compareAndSet(max, current)) {
+                return;
+            }
+        }
+    }
+
+    private void update(double shortRtt, int windowMaxInFlight) {
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt = longRtt * (1 - LONG_RTT_SMOOTHING) + shortRtt * LONG_RTT_SMOOTHING;
+        }
+
+        // once the latency returns to normal after an overload, let the long-term average catch up quickly
+        if (longRtt > shortRtt * 2) {
+            longRtt *= 0.95;
+        }
+
+        if (windowMaxInFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        final double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        final double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                estimatedLimit * (1 - smoothing) + newLimit * smoothing));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,69 @@
+package io.dropwizard.jetty;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import io.dropwizard.logging.JsonLayout;
+
+import java.io.IOException;
+import java.util.TimeZone;
+
+/**
+ * A {@link JsonLayout} for request logs, which writes the fields of each {@link RequestLogEvent}
+ * instead of its formatted message:
+ * <pre>
+ * {"timestamp":"2012-11-16T05:00:48.123Z","remoteAddress":"10.0.0.1","method":"GET","uri":"/test",
+ *  "protocol":"HTTP/1.1","status":200,"bytes":8290,"latency":12,"userAgent":"curl/7.30.0"}
+ * </pre>
+ */
+public class JsonRequestLogLayout extends JsonLayout {
+    private static final SerializedString REMOTE_ADDRESS = new SerializedString("remoteAddress");
+    private static final SerializedString METHOD = new SerializedString("method");
+    private static final SerializedString URI = new SerializedString("uri");
+    private static final SerializedString PROTOCOL = new SerializedString("protocol");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString BYTES = new SerializedString("bytes");
+    private static final SerializedString LATENCY = new SerializedString("latency");
+    private static final SerializedString USER_AGENT = new SerializedString("userAgent");
+
+    public JsonRequestLogLayout(TimeZone timeZone) {
+        super(timeZone);
+    }
+
+    @Override
+    protected void writeFields(JsonGenerator generator, ILoggingEvent event) throws IOException {
+        if (!(event instanceof RequestLogEvent)) {
+            super.writeFields(generator, event);
+            return;
+        }
+
+        final RequestLogEvent request = (RequestLogEvent) event;
+        writeTimestamp(generator, request.getTimeStamp());
+        writeStringField(generator, REMOTE_ADDRESS, request.getRemoteAddress());
+        writeStringField(generator, METHOD, request.getMethod());
+        writeStringField(generator, URI, request.getUri());
+        writeStringField(generator, PROTOCOL, request.getProtocol());
+
+        generator.writeFieldName(STATUS);
+        generator.writeNumber(request.getStatus());
+
+        if (request.getContentLength() >= 0) {
+            generator.writeFieldName(BYTES);
+            generator.writeNumber(request.getContentLength());
+        }
+
+        generator.writeFieldName(LATENCY);
+        generator.writeNumber(request.getLatency());
+
+        writeStringField(generator, USER_AGENT, request.getUserAgent());
+        writeMdc(generator, request);
+    }
+
+    private static void writeStringField(JsonGenerator generator, SerializedString name, String value)
+            throws IOException {
+        if (value != null) {
+            generator.writeFieldName(name);
+            generator.writeString(value);
+        }
+    }
+}
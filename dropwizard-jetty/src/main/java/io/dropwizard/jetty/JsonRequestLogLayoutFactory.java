@@ -0,0 +1,38 @@
+package io.dropwizard.jetty;
+
+import ch.qos.logback.classic.LoggerContext;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.dropwizard.logging.AbstractJsonLayoutFactory;
+
+import java.util.TimeZone;
+
+/**
+ * A {@link RequestLogLayoutFactory} for layouts which write the fields of each request as a single
+ * line of JSON.
+ * <p/>
+ * <b>Configuration Parameters:</b>
+ * <table>
+ *     <tr>
+ *         <td>Name</td>
+ *         <td>Default</td>
+ *         <td>Description</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code type}</td>
+ *         <td>REQUIRED</td>
+ *         <td>The layout type. Must be {@code json}.</td>
+ *     </tr>
+ *     <tr>
+ *         <td colspan="3">See {@link AbstractJsonLayoutFactory} for more options.</td>
+ *     </tr>
+ * </table>
+ *
+ * @see JsonRequestLogLayout
+ */
+@JsonTypeName("json")
+public class JsonRequestLogLayoutFactory extends AbstractJsonLayoutFactory implements RequestLogLayoutFactory {
+    @Override
+    public JsonRequestLogLayout build(LoggerContext context, TimeZone timeZone) {
+        return build(new JsonRequestLogLayout(timeZone), context);
+    }
+}
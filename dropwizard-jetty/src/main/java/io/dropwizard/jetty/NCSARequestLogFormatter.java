@@ -0,0 +1,149 @@
+package io.dropwizard.jetty;
+
+import com.google.common.base.Charsets;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.server.Authentication;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Response;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Formats requests into a {@link RequestLogBuffer}, in the extended NCSA format with latency which
+ * {@link Slf4jRequestLog} uses:
+ * <pre>
+ * 10.0.0.1 - user [16/Nov/2012:05:00:48 +0000] "GET /test HTTP/1.1" 200 8290 "referer" "user-agent" 12
+ * </pre>
+ * The formatted timestamp is cached for the current second.
+ */
+public class NCSARequestLogFormatter {
+    private static final String X_FORWARDED_FOR = HttpHeader.X_FORWARDED_FOR.asString();
+    private static final String REFERER = HttpHeader.REFERER.asString();
+    private static final String USER_AGENT = HttpHeader.USER_AGENT.asString();
+    private static final String DATE_FORMAT = "dd/MMM/yyyy:HH:mm:ss Z";
+
+    private final SimpleDateFormat dateFormat;
+    private volatile CachedDate cachedDate = new CachedDate(Long.MIN_VALUE, new byte[0]);
+
+    public NCSARequestLogFormatter(TimeZone timeZone) {
+        this(timeZone, Locale.getDefault());
+    }
+
+    public NCSARequestLogFormatter(TimeZone timeZone, Locale locale) {
+        this.dateFormat = new SimpleDateFormat(DATE_FORMAT, locale);
+        dateFormat.setTimeZone(timeZone);
+    }
+
+    /**
+     * Formats a request, without a line separator.
+     *
+     * @param request  the request
+     * @param response the response to the request
+     * @param now      the current time, in milliseconds since the epoch
+     * @param buffer   the buffer to append to
+     */
+    public void format(Request request, Response response, long now, RequestLogBuffer buffer) {
+        String address = request.getHeader(X_FORWARDED_FOR);
+        if (address == null) {
+            address = request.getRemoteAddr();
+        }
+
+        final Authentication authentication = request.getAuthentication();
+        final String user = authentication instanceof Authentication.User ?
+                ((Authentication.User) authentication).getUserIdentity().getUserPrincipal().getName() : null;
+
+        format(buffer, address, user, request.getTimeStamp(), request.getMethod(),
+               request.getUri() == null ? null : request.getUri().toString(), request.getProtocol(),
+               response.getStatus(), response.getContentCount(),
+               request.getHeader(REFERER), request.getHeader(USER_AGENT), now - request.getTimeStamp());
+    }
+
+    /**
+     * Formats the fields of a request, without a line separator.
+     *
+     * @param buffer    the buffer to append to
+     * @param address   the address of the client
+     * @param user      the name of the authenticated user, if any
+     * @param timestamp when the request arrived, in milliseconds since the epoch
+     * @param method    the request method
+     * @param uri       the request URI
+     * @param protocol  the request protocol
+     * @param status    the response status
+     * @param length    the length of the response entity, or a negative number if unknown
+     * @param referer   the {@code Referer} header, if any
+     * @param userAgent the {@code User-Agent} header, if any
+     * @param latency   how long the request took, in milliseconds
+     */
+    public void format(RequestLogBuffer buffer, String address, String user, long timestamp,
+                       String method, String uri, String protocol, int status, long length,
+                       String referer, String userAgent, long latency) {
+        appendOrDash(buffer, address);
+        buffer.append(" - ");
+        appendOrDash(buffer, user);
+        buffer.append(" [").append(formatDate(timestamp)).append("] \"");
+        appendOrDash(buffer, method);
+        buffer.append((byte) ' ');
+        appendOrDash(buffer, uri);
+        buffer.append((byte) ' ');
+        appendOrDash(buffer, protocol);
+        buffer.append("\" ");
+
+        buffer.append(status <= 0 ? 404 : status);
+        if (length >= 0) {
+            buffer.append((byte) ' ').append(length).append((byte) ' ');
+        } else {
+            buffer.append(" - ");
+        }
+
+        appendQuoted(buffer, referer);
+        buffer.append((byte) ' ');
+        appendQuoted(buffer, userAgent);
+
+        buffer.append((byte) ' ').append(latency);
+    }
+
+    private byte[] formatDate(long timestamp) {
+        final long second = timestamp / 1000;
+        final CachedDate cached = cachedDate;
+        if (cached.second == second) {
+            return cached.bytes;
+        }
+        final byte[] bytes;
+        synchronized (dateFormat) {
+            bytes = dateFormat.format(new Date(timestamp)).getBytes(Charsets.UTF_8);
+        }
+        cachedDate = new CachedDate(second, bytes);
+        return bytes;
+    }
+
+    private static void appendOrDash(RequestLogBuffer buffer, String value) {
+        if (value == null || value.isEmpty()) {
+            buffer.append((byte) '-');
+        } else {
+            buffer.append(value);
+        }
+    }
+
+    private static void appendQuoted(RequestLogBuffer buffer, String value) {
+        buffer.append((byte) '"');
+        if (value == null) {
+            buffer.append((byte) '-');
+        } else {
+            buffer.append(value);
+        }
+        buffer.append((byte) '"');
+    }
+
+    private static class CachedDate {
+        private final long second;
+        private final byte[] bytes;
+
+        private CachedDate(long second, byte[] bytes) {
+            this.second = second;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package io.dropwizard.jetty;
+
+import com.google.common.base.Charsets;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * A growable buffer of UTF-8 encoded text, which is meant to be reused for one request log line
+ * after the other.
+ * <p/>
+ * Strings are encoded and numbers are formatted straight into the buffer, without allocating
+ * intermediate strings.
+ */
+public class RequestLogBuffer {
+    private static final byte[] DIGITS = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9'};
+
+    private final int initialCapacity;
+    private final int maxRetainedCapacity;
+    private byte[] bytes;
+    private int length;
+
+    /**
+     * Creates a new buffer.
+     *
+     * @param initialCapacity     the initial capacity, in bytes
+     * @param maxRetainedCapacity the capacity beyond which {@link #reset()} shrinks the buffer
+     *                            back to its initial capacity, so that one long line doesn't
+     *                            occupy memory for good
+     */
+    public RequestLogBuffer(int initialCapacity, int maxRetainedCapacity) {
+        this.initialCapacity = initialCapacity;
+        this.maxRetainedCapacity = maxRetainedCapacity;
+        this.bytes = new byte[initialCapacity];
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public void reset() {
+        if (bytes.length > maxRetainedCapacity) {
+            bytes = new byte[initialCapacity];
+        }
+        length = 0;
+    }
+
+    public RequestLogBuffer append(byte b) {
+        ensureCapacity(1);
+        bytes[length++] = b;
+        return this;
+    }
+
+    public RequestLogBuffer append(byte[] b) {
+        ensureCapacity(b.length);
+        System.arraycopy(b, 0, bytes, length, b.length);
+        length += b.length;
+        return this;
+    }
+
+    /**
+     * Appends the UTF-8 encoding of {@code s}.
+     */
+    public RequestLogBuffer append(CharSequence s) {
+        final int count = s.length();
+        // most of what ends up in request logs is ASCII
+        ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            final char c = s.charAt(i);
+            if (c < 0x80) {
+                bytes[length++] = (byte) c;
+            } else {
+                return appendNonAscii(s, i);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Appends the decimal representation of {@code value}.
+     */
+    public RequestLogBuffer append(long value) {
+        if (value == Long.MIN_VALUE) {
+            return append(Long.toString(value));
+        }
+        if (value < 0) {
+            append((byte) '-');
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        ensureCapacity(digits);
+        for (int i = length + digits - 1; i >= length; i--) {
+            bytes[i] = DIGITS[(int) (value % 10)];
+            value /= 10;
+        }
+        length += digits;
+        return this;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, length);
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, 0, length, Charsets.UTF_8);
+    }
+
+    private RequestLogBuffer appendNonAscii(CharSequence s, int start) {
+        final int count = s.length();
+        for (int i = start; i < count; i++) {
+            final char c = s.charAt(i);
+            ensureCapacity(4);
+            if (c < 0x80) {
+                bytes[length++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[length++] = (byte) (0xC0 | (c >> 6));
+                bytes[length++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < count && Character.isLowSurrogate(s.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                bytes[length++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[length++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // an unpaired surrogate can't be encoded
+                bytes[length++] = '?';
+            } else {
+                bytes[length++] = (byte) (0xE0 | (c >> 12));
+                bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return this;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (length + additional > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + additional));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package io.dropwizard.jetty;
+
+import ch.qos.logback.classic.spi.LoggingEvent;
+
+/**
+ * A logging event for a request, which carries the fields of the request alongside the formatted
+ * request log line, so that structured layouts don't have to parse the line.
+ *
+ * @see JsonRequestLogLayout
+ */
+public class RequestLogEvent extends LoggingEvent {
+    private String remoteAddress;
+    private String method;
+    private String uri;
+    private String protocol;
+    private int status;
+    private long contentLength = -1;
+    private long latency;
+    private String userAgent;
+
+    public String getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    public void setRemoteAddress(String remoteAddress) {
+        this.remoteAddress = remoteAddress;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public void setUri(String uri) {
+        this.uri = uri;
+    }
+
+    public String getProtocol() {
+        return protocol;
+    }
+
+    public void setProtocol(String protocol) {
+        this.protocol = protocol;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    /**
+     * @return the number of bytes of the response entity, or a negative number if unknown
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    public void setContentLength(long contentLength) {
+        this.contentLength = contentLength;
+    }
+
+    /**
+     * @return how long the request took, in milliseconds
+     */
+    public long getLatency() {
+        return latency;
+    }
+
+    public void setLatency(long latency) {
+        this.latency = latency;
+    }
+
+    public String getUserAgent() {
+        return userAgent;
+    }
+
+    public void setUserAgent(String userAgent) {
+        this.userAgent = userAgent;
+    }
+}
@@ -1,23 +1,45 @@
 package io.dropwizard.jetty;
 
+import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
 import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.Layout;
 import ch.qos.logback.core.LayoutBase;
 import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import io.dropwizard.logging.AbstractAppenderFactory;
 import io.dropwizard.logging.AppenderFactory;
 import io.dropwizard.logging.ConsoleAppenderFactory;
+import io.dropwizard.logging.FileAppenderFactory;
+import io.dropwizard.logging.RingBufferAsyncAppender;
+import io.dropwizard.logging.TcpSyslogAppender;
+import io.dropwizard.util.Duration;
+import io.dropwizard.util.Size;
+import io.dropwizard.validation.MinDuration;
+import io.dropwizard.validation.MinSize;
+import io.dropwizard.validation.ValidationMethod;
 import org.eclipse.jetty.server.RequestLog;
 import org.slf4j.LoggerFactory;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
 import java.util.TimeZone;
 
+import static com.google.common.base.Preconditions.checkState;
+
 /**
  * A factory for creating {@link RequestLog} instances.
  * <p/>
@@ -40,6 +62,42 @@ import java.util.TimeZone;
  *             The set of {@link AppenderFactory appenders} to which requests will be logged.
  *         </td>
  *     </tr>
+ *     <tr>
+ *         <td>{@code layout}</td>
+ *         <td>(none)</td>
+ *         <td>
+ *             The {@link RequestLogLayoutFactory layout} of requests. By default, requests are
+ *             logged in the extended NCSA format. A {@link JsonRequestLogLayoutFactory json} layout
+ *             writes the fields of each request with a {@link JsonRequestLogLayout}.
+ *         </td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code sampling}</td>
+ *         <td>(disabled)</td>
+ *         <td>
+ *             Which requests are logged, see {@link RequestLogSamplingFactory}. By default, all
+ *             requests are logged.
+ *         </td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code direct}</td>
+ *         <td>false</td>
+ *         <td>
+ *             Whether to write requests as bytes straight into the outputs of the appenders,
+ *             bypassing Logback. See {@link DirectRequestLog}. Only {@code console} appenders and
+ *             {@code file} appenders without archiving are supported.
+ *         </td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code bufferSize}</td>
+ *         <td>64 kilobytes</td>
+ *         <td>The size of the write buffer of each output, if {@code direct} is enabled.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code flushInterval}</td>
+ *         <td>1 second</td>
+ *         <td>How often the write buffers are flushed, if {@code direct} is enabled.</td>
+ *     </tr>
  * </table>
  */
 public class RequestLogFactory {
@@ -59,6 +117,23 @@ public class RequestLogFactory {
             new ConsoleAppenderFactory()
     );
 
+    @Valid
+    private RequestLogLayoutFactory layout;
+
+    @Valid
+    @NotNull
+    private RequestLogSamplingFactory sampling = new RequestLogSamplingFactory();
+
+    private boolean direct = false;
+
+    @NotNull
+    @MinSize(1)
+    private Size bufferSize = Size.kilobytes(64);
+
+    @NotNull
+    @MinDuration(1)
+    private Duration flushInterval = Duration.seconds(1);
+
     @JsonProperty
     public ImmutableList<AppenderFactory> getAppenders() {
         return appenders;
@@ -79,25 +154,214 @@ public class RequestLogFactory {
         this.timeZone = timeZone;
     }
 
+    @JsonProperty
+    public RequestLogLayoutFactory getLayout() {
+        return layout;
+    }
+
+    @JsonProperty
+    public void setLayout(RequestLogLayoutFactory layout) {
+        this.layout = layout;
+    }
+
+    @JsonProperty
+    public RequestLogSamplingFactory getSampling() {
+        return sampling;
+    }
+
+    @JsonProperty
+    public void setSampling(RequestLogSamplingFactory sampling) {
+        this.sampling = sampling;
+    }
+
+    @JsonProperty
+    public boolean isDirect() {
+        return direct;
+    }
+
+    @JsonProperty
+    public void setDirect(boolean direct) {
+        this.direct = direct;
+    }
+
+    @JsonProperty
+    public Size getBufferSize() {
+        return bufferSize;
+    }
+
+    @JsonProperty
+    public void setBufferSize(Size bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    @JsonProperty
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    @JsonProperty
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
     @JsonIgnore
     public boolean isEnabled() {
         return !appenders.isEmpty();
     }
 
+    @JsonIgnore
+    @ValidationMethod(message = "direct request logging only supports console appenders and file appenders " +
+            "without archiving, and no layout")
+    public boolean isDirectOutputSupported() {
+        if (!direct) {
+            return true;
+        }
+        if (layout != null) {
+            return false;
+        }
+        for (AppenderFactory appender : appenders) {
+            if (!(appender instanceof ConsoleAppenderFactory) &&
+                    !(appender instanceof FileAppenderFactory && !((FileAppenderFactory) appender).isArchive())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builds the request log without metrics.
+     *
+     * @param name the name of the application
+     * @return a new {@link RequestLog}
+     * @deprecated use {@link #build(String, MetricRegistry)}, which registers the metrics of the
+     * request log
+     */
+    @Deprecated
     public RequestLog build(String name) {
+        LoggerFactory.getLogger(RequestLogFactory.class)
+                     .warn("Building the request log of {} without a metric registry, its metrics are disabled", name);
+        return build(name, new MetricRegistry());
+    }
+
+    /**
+     * Builds the request log, and registers the metrics of its appenders and of its sampling with
+     * {@code metricRegistry}.
+     *
+     * @param name           the name of the application
+     * @param metricRegistry the registry of the application's metrics
+     * @return a new {@link RequestLog}
+     */
+    public RequestLog build(String name, MetricRegistry metricRegistry) {
+        final RequestLog requestLog = direct ? buildDirect() : buildAppenders(name, metricRegistry);
+        return sampling.build(requestLog, metricRegistry);
+    }
+
+    private RequestLog buildAppenders(String name, MetricRegistry metricRegistry) {
         final Logger logger = (Logger) LoggerFactory.getLogger("http.request");
         logger.setAdditive(false);
 
         final LoggerContext context = logger.getLoggerContext();
 
-        final RequestLogLayout layout = new RequestLogLayout();
-        layout.start();
+        final Layout<ILoggingEvent> layout = buildLayout(context);
 
         final AppenderAttachableImpl<ILoggingEvent> attachable = new AppenderAttachableImpl<>();
+        final List<Appender<ILoggingEvent>> builtAppenders = Lists.newArrayListWithCapacity(appenders.size());
         for (AppenderFactory output : this.appenders) {
-            attachable.addAppender(output.build(context, name, layout));
+            final Appender<ILoggingEvent> appender = output.build(context, name, layout);
+            attachable.addAppender(appender);
+            builtAppenders.add(appender);
         }
+        RingBufferAsyncAppender.registerMetrics(metricRegistry,
+                                                MetricRegistry.name(RingBufferAsyncAppender.class, "http.request"),
+                                                builtAppenders);
+        TcpSyslogAppender.registerMetrics(metricRegistry,
+                                          MetricRegistry.name(TcpSyslogAppender.class, "http.request"),
+                                          builtAppenders);
 
         return new Slf4jRequestLog(attachable, timeZone);
     }
+
+    private Layout<ILoggingEvent> buildLayout(LoggerContext context) {
+        if (layout == null) {
+            final RequestLogLayout requestLogLayout = new RequestLogLayout();
+            requestLogLayout.start();
+            return requestLogLayout;
+        }
+        return layout.build(context, timeZone);
+    }
+
+    private RequestLog buildDirect() {
+        checkState(isDirectOutputSupported(), "direct request logging only supports console appenders " +
+                "and file appenders without archiving, and no layout");
+        final List<OutputStream> outputs = Lists.newArrayListWithCapacity(appenders.size());
+        try {
+            for (AppenderFactory appender : appenders) {
+                final AbstractAppenderFactory factory = (AbstractAppenderFactory) appender;
+                // requests are logged at INFO
+                if (!Level.INFO.isGreaterOrEqual(factory.getThreshold())) {
+                    continue;
+                }
+                if (factory instanceof ConsoleAppenderFactory) {
+                    final ConsoleAppenderFactory.ConsoleStream target = ((ConsoleAppenderFactory) factory).getTarget();
+                    outputs.add(new UncloseableOutputStream(
+                            target == ConsoleAppenderFactory.ConsoleStream.STDERR ? System.err : System.out));
+                } else {
+                    final File file = new File(((FileAppenderFactory) factory).getCurrentLogFilename()).getAbsoluteFile();
+                    final File parent = file.getParentFile();
+                    if (!parent.isDirectory() && !parent.mkdirs()) {
+                        throw new IOException("Unable to create " + parent);
+                    }
+                    outputs.add(new FileOutputStream(file, true));
+                }
+            }
+        } catch (IOException e) {
+            closeAll(outputs, e);
+            throw new IllegalStateException("Unable to open the request log", e);
+        } catch (RuntimeException e) {
+            closeAll(outputs, e);
+            throw e;
+        }
+
+        final DirectRequestLog requestLog =
+                new DirectRequestLog(new NCSARequestLogFormatter(timeZone), outputs, bufferSize, flushInterval);
+        try {
+            requestLog.start();
+        } catch (Exception e) {
+            closeAll(outputs, e);
+            throw new IllegalStateException("Unable to start the request log", e);
+        }
+        return requestLog;
+    }
+
+    /**
+     * Closes the outputs of a request log which could not be built, so their files aren't leaked.
+     */
+    private static void closeAll(List<OutputStream> outputs, Exception cause) {
+        for (OutputStream output : outputs) {
+            try {
+                output.close();
+            } catch (IOException e) {
+                cause.addSuppressed(e);
+            }
+        }
+    }
+
+    /**
+     * Keeps the standard streams open when the request log stops.
+     */
+    private static class UncloseableOutputStream extends FilterOutputStream {
+        private UncloseableOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
 }
@@ -0,0 +1,36 @@
+package io.dropwizard.jetty;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Layout;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import io.dropwizard.jackson.Discoverable;
+
+import java.util.TimeZone;
+
+/**
+ * A service provider interface for creating the Logback {@link Layout} of the request log. The
+ * layout is given {@link RequestLogEvent}s, whose message is the request in the extended NCSA
+ * format.
+ * <p/>
+ * To create your own, just:
+ * <ol>
+ * <li>Create a class which implements {@link RequestLogLayoutFactory}.</li>
+ * <li>Annotate it with {@code @JsonTypeName} and give it a unique type name.</li>
+ * <li>add a {@code META-INF/services/io.dropwizard.jetty.RequestLogLayoutFactory} file with your
+ * implementation's full class name to the class path.</li>
+ * </ol>
+ *
+ * @see JsonRequestLogLayoutFactory
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+public interface RequestLogLayoutFactory extends Discoverable {
+    /**
+     * Given a Logback context and a time zone, build a new layout for requests.
+     *
+     * @param context  the Logback context
+     * @param timeZone the time zone to which request timestamps will be converted
+     * @return a new, started {@link Layout}
+     */
+    Layout<ILoggingEvent> build(LoggerContext context, TimeZone timeZone);
+}
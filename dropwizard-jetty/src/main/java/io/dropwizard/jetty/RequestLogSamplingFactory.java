@@ -0,0 +1,154 @@
+package io.dropwizard.jetty;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableMap;
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.ValidationMethod;
+import org.eclipse.jetty.server.RequestLog;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Builds a {@link SamplingRequestLog}, which logs only a sample of requests.
+ * <p/>
+ * <b>Configuration Parameters:</b>
+ * <table>
+ *     <tr>
+ *         <td>Name</td>
+ *         <td>Default</td>
+ *         <td>Description</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code enabled}</td>
+ *         <td>false</td>
+ *         <td>Whether requests are sampled. If disabled, all requests are logged.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code rate}</td>
+ *         <td>1.0</td>
+ *         <td>The probability with which a request is logged, between 0 and 1.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code errorStatus}</td>
+ *         <td>500</td>
+ *         <td>Requests with a response status of at least this are always logged.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code slowRequestThreshold}</td>
+ *         <td>1 second</td>
+ *         <td>Requests which take at least this long are always logged.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code pathRateLimits}</td>
+ *         <td>(none)</td>
+ *         <td>
+ *             The maximum number of requests logged per second, by path prefix. The longest
+ *             matching prefix applies.
+ *         </td>
+ *     </tr>
+ * </table>
+ */
+public class RequestLogSamplingFactory {
+    private boolean enabled = false;
+
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private double rate = 1.0;
+
+    @Min(100)
+    @Max(600)
+    private int errorStatus = 500;
+
+    @NotNull
+    private Duration slowRequestThreshold = Duration.seconds(1);
+
+    @NotNull
+    private ImmutableMap<String, Double> pathRateLimits = ImmutableMap.of();
+
+    @JsonIgnore
+    @ValidationMethod(message = "must have positive pathRateLimits")
+    public boolean isPathRateLimitsPositive() {
+        for (Double limit : pathRateLimits.values()) {
+            if (limit == null || limit <= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @JsonProperty
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @JsonProperty
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @JsonProperty
+    public double getRate() {
+        return rate;
+    }
+
+    @JsonProperty
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    @JsonProperty
+    public int getErrorStatus() {
+        return errorStatus;
+    }
+
+    @JsonProperty
+    public void setErrorStatus(int errorStatus) {
+        this.errorStatus = errorStatus;
+    }
+
+    @JsonProperty
+    public Duration getSlowRequestThreshold() {
+        return slowRequestThreshold;
+    }
+
+    @JsonProperty
+    public void setSlowRequestThreshold(Duration slowRequestThreshold) {
+        this.slowRequestThreshold = slowRequestThreshold;
+    }
+
+    @JsonProperty
+    public ImmutableMap<String, Double> getPathRateLimits() {
+        return pathRateLimits;
+    }
+
+    @JsonProperty
+    public void setPathRateLimits(ImmutableMap<String, Double> pathRateLimits) {
+        this.pathRateLimits = pathRateLimits;
+    }
+
+    /**
+     * Wraps {@code requestLog} in a {@link SamplingRequestLog} if sampling is enabled, and
+     * registers the {@code sampled-out} and {@code rate-limited} meters of the request log.
+     *
+     * @param requestLog the request log to which the sampled requests are passed
+     * @param metrics    the registry to register the metrics with
+     * @return a {@link SamplingRequestLog}, or {@code requestLog} if sampling is disabled
+     */
+    public RequestLog build(RequestLog requestLog, MetricRegistry metrics) {
+        if (!enabled) {
+            return requestLog;
+        }
+        return new SamplingRequestLog(requestLog, rate, errorStatus, slowRequestThreshold.toMilliseconds(),
+                                      pathRateLimits,
+                                      metrics.meter(name(SamplingRequestLog.class, "sampled-out")),
+                                      metrics.meter(name(SamplingRequestLog.class, "rate-limited")));
+    }
+}
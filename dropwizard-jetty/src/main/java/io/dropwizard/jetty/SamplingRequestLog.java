@@ -0,0 +1,116 @@
+package io.dropwizard.jetty;
+
+import com.codahale.metrics.Meter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Ordering;
+import com.google.common.util.concurrent.RateLimiter;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.RequestLog;
+import org.eclipse.jetty.server.Response;
+import org.eclipse.jetty.util.component.ContainerLifeCycle;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A {@link RequestLog} which passes only a sample of requests on to another request log.
+ * <p/>
+ * Requests which failed with a status of at least {@code errorStatus}, or which took at least
+ * {@code slowRequestThreshold}, are always logged. Other requests are logged with a probability
+ * of {@code rate}, and then only as long as the rate limit of the longest matching path prefix
+ * allows. Requests which are left out are marked on the {@code sampledOut} and
+ * {@code rateLimited} meters, so that the total volume can be reconstructed.
+ */
+public class SamplingRequestLog extends ContainerLifeCycle implements RequestLog {
+    private final RequestLog delegate;
+    private final double rate;
+    private final int errorStatus;
+    private final long slowRequestThresholdMillis;
+    private final List<PathRateLimit> pathRateLimits;
+    private final Meter sampledOut;
+    private final Meter rateLimited;
+
+    /**
+     * Creates a new request log.
+     *
+     * @param delegate                   the request log to which the sampled requests are passed
+     * @param rate                       the probability with which a request is logged, between 0 and 1
+     * @param errorStatus                the status from which requests are always logged
+     * @param slowRequestThresholdMillis the latency, in milliseconds, from which requests are always logged
+     * @param pathRateLimits             the maximum number of requests logged per second, by path prefix
+     * @param sampledOut                 marked for each request which isn't logged because of {@code rate}
+     * @param rateLimited                marked for each request which isn't logged because of a rate limit
+     */
+    public SamplingRequestLog(RequestLog delegate, double rate, int errorStatus, long slowRequestThresholdMillis,
+                              Map<String, Double> pathRateLimits, Meter sampledOut, Meter rateLimited) {
+        this.delegate = delegate;
+        this.rate = rate;
+        this.errorStatus = errorStatus;
+        this.slowRequestThresholdMillis = slowRequestThresholdMillis;
+        this.sampledOut = sampledOut;
+        this.rateLimited = rateLimited;
+
+        final ImmutableList.Builder<PathRateLimit> limits = ImmutableList.builder();
+        for (Map.Entry<String, Double> limit : pathRateLimits.entrySet()) {
+            limits.add(new PathRateLimit(limit.getKey(), RateLimiter.create(limit.getValue())));
+        }
+        // the longest, most specific prefixes come first
+        this.pathRateLimits = new Ordering<PathRateLimit>() {
+            @Override
+            public int compare(PathRateLimit left, PathRateLimit right) {
+                return Integer.compare(right.prefix.length(), left.prefix.length());
+            }
+        }.immutableSortedCopy(limits.build());
+
+        addBean(delegate, true);
+    }
+
+    @Override
+    public void log(Request request, Response response) {
+        if (isSampled(request, response)) {
+            delegate.log(request, response);
+        }
+    }
+
+    private boolean isSampled(Request request, Response response) {
+        if (response.getStatus() >= errorStatus ||
+                System.currentTimeMillis() - request.getTimeStamp() >= slowRequestThresholdMillis) {
+            return true;
+        }
+
+        if (rate < 1.0 && ThreadLocalRandom.current().nextDouble() >= rate) {
+            sampledOut.mark();
+            return false;
+        }
+
+        final RateLimiter limiter = findRateLimiter(request.getRequestURI());
+        if (limiter != null && !limiter.tryAcquire()) {
+            rateLimited.mark();
+            return false;
+        }
+        return true;
+    }
+
+    private RateLimiter findRateLimiter(String path) {
+        if (path == null) {
+            return null;
+        }
+        for (PathRateLimit limit : pathRateLimits) {
+            if (path.startsWith(limit.prefix)) {
+                return limit.limiter;
+            }
+        }
+        return null;
+    }
+
+    private static class PathRateLimit {
+        private final String prefix;
+        private final RateLimiter limiter;
+
+        private PathRateLimit(String prefix, RateLimiter limiter) {
+            this.prefix = prefix;
+            this.limiter = limiter;
+        }
+    }
+}
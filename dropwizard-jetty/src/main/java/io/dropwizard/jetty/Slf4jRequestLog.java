@@ -4,17 +4,28 @@ import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.classic.spi.LoggingEvent;
 import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.server.AbstractNCSARequestLog;
+import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.server.RequestLog;
+import org.eclipse.jetty.server.Response;
 
 import java.io.IOException;
 import java.util.TimeZone;
 
 /**
  * A SLF4J-backed {@link RequestLog} implementation of {@link AbstractNCSARequestLog}.
+ * <p/>
+ * Requests are logged as {@link RequestLogEvent}s, which carry the fields of the request for
+ * structured layouts.
  */
 public class Slf4jRequestLog extends AbstractNCSARequestLog {
+    private static final String X_FORWARDED_FOR = HttpHeader.X_FORWARDED_FOR.asString();
+    private static final String USER_AGENT = HttpHeader.USER_AGENT.asString();
+
     private final AppenderAttachableImpl<ILoggingEvent> appenders;
+    // the event of the request being logged by the current thread, completed by write()
+    private final ThreadLocal<RequestLogEvent> pendingEvent = new ThreadLocal<>();
 
     /**
      * Creates a new request log.
@@ -43,13 +54,44 @@ public class Slf4jRequestLog extends AbstractNCSARequestLog {
         return true;
     }
 
+    @Override
+    public void log(Request request, Response response) {
+        final long now = System.currentTimeMillis();
+        final RequestLogEvent event = new RequestLogEvent();
+        event.setTimeStamp(now);
+
+        String address = request.getHeader(X_FORWARDED_FOR);
+        if (address == null) {
+            address = request.getRemoteAddr();
+        }
+        event.setRemoteAddress(address);
+        event.setMethod(request.getMethod());
+        event.setUri(request.getUri() == null ? null : request.getUri().toString());
+        event.setProtocol(request.getProtocol());
+        final int status = response.getStatus();
+        event.setStatus(status <= 0 ? 404 : status);
+        event.setContentLength(response.getContentCount());
+        event.setLatency(now - request.getTimeStamp());
+        event.setUserAgent(request.getHeader(USER_AGENT));
+
+        pendingEvent.set(event);
+        try {
+            super.log(request, response);
+        } finally {
+            pendingEvent.remove();
+        }
+    }
+
     @Override
     public void write(String entry) throws IOException {
-        final LoggingEvent event = new LoggingEvent();
+        final RequestLogEvent pending = pendingEvent.get();
+        final LoggingEvent event = pending == null ? new LoggingEvent() : pending;
         event.setLevel(Level.INFO);
         event.setLoggerName("http.request");
         event.setMessage(entry);
-        event.setTimeStamp(System.currentTimeMillis());
+        if (pending == null) {
+            event.setTimeStamp(System.currentTimeMillis());
+        }
 
         appenders.appendLoopOnAppenders(event);
     }
@@ -0,0 +1,270 @@
+package io.dropwizard.jetty;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+import io.dropwizard.util.VirtualThreads;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * A {@link ThreadPool} which starts a new virtual thread for each job, so that requests which
+ * block on I/O don't tie up a platform thread.
+ * <p/>
+ * Threads aren't pooled; a semaphore limits the number of jobs which run at once to
+ * {@code maxThreads}, and further jobs wait in the queue until a running job finishes. The
+ * minimum number of threads and their idle timeout don't apply. The pool registers the same
+ * {@code utilization}, {@code utilization-max}, {@code size} and {@code jobs} metrics as an
+ * instrumented {@link QueuedThreadPool}, where the size is the number of running jobs.
+ *
+ * @see VirtualThreads
+ */
+public class VirtualThreadPool extends AbstractLifeCycle implements ThreadPool.SizedThreadPool {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadPool.class);
+
+    private final MetricRegistry metricRegistry;
+    private final BlockingQueue<Runnable> queue;
+    private final ThreadFactory threadFactory;
+    private final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+    private final Object joinLock = new Object();
+    private volatile Semaphore permits;
+    private int maxThreads;
+    private int minThreads;
+    private long stopTimeout = 5000;
+    private String name = "vtp" + hashCode();
+
+    public VirtualThreadPool(MetricRegistry metricRegistry, int maxThreads, BlockingQueue<Runnable> queue) {
+        this(metricRegistry, maxThreads, queue, VirtualThreads.threadFactory("virtual-"));
+    }
+
+    VirtualThreadPool(MetricRegistry metricRegistry, int maxThreads, BlockingQueue<Runnable> queue,
+                      ThreadFactory threadFactory) {
+        this.metricRegistry = metricRegistry;
+        this.maxThreads = maxThreads;
+        this.queue = queue;
+        this.threadFactory = threadFactory;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        if (isRunning()) {
+            throw new IllegalStateException("Can't rename a running pool");
+        }
+        this.name = name;
+    }
+
+    /**
+     * @return how long stopping the pool waits for running jobs, in milliseconds
+     */
+    public long getStopTimeout() {
+        return stopTimeout;
+    }
+
+    public void setStopTimeout(long stopTimeout) {
+        this.stopTimeout = stopTimeout;
+    }
+
+    @Override
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    @Override
+    public void setMaxThreads(int maxThreads) {
+        if (isRunning()) {
+            throw new IllegalStateException("Can't resize a running pool");
+        }
+        this.maxThreads = maxThreads;
+    }
+
+    /**
+     * Returns the minimum number of threads, which doesn't apply, since threads aren't pooled.
+     */
+    @Override
+    public int getMinThreads() {
+        return minThreads;
+    }
+
+    @Override
+    public void setMinThreads(int minThreads) {
+        this.minThreads = minThreads;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        permits = new Semaphore(maxThreads);
+        metricRegistry.register(name(QueuedThreadPool.class, name, "utilization"), new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                // every thread runs a job
+                return Ratio.of(getThreads(), getThreads());
+            }
+        });
+        metricRegistry.register(name(QueuedThreadPool.class, name, "utilization-max"), new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                return Ratio.of(getThreads(), getMaxThreads());
+            }
+        });
+        metricRegistry.register(name(QueuedThreadPool.class, name, "size"), new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return getThreads();
+            }
+        });
+        metricRegistry.register(name(QueuedThreadPool.class, name, "jobs"), new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return queue.size();
+            }
+        });
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(stopTimeout);
+        queue.clear();
+        // wait for half of the timeout for running jobs to finish, then interrupt them
+        if (!awaitJobs(stopTimeout / 2)) {
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+            if (!awaitJobs(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()))) {
+                LOGGER.warn("{} jobs of {} are still running after {}ms", getThreads(), name, stopTimeout);
+            }
+        }
+        metricRegistry.remove(name(QueuedThreadPool.class, name, "utilization"));
+        metricRegistry.remove(name(QueuedThreadPool.class, name, "utilization-max"));
+        metricRegistry.remove(name(QueuedThreadPool.class, name, "size"));
+        metricRegistry.remove(name(QueuedThreadPool.class, name, "jobs"));
+        synchronized (joinLock) {
+            joinLock.notifyAll();
+        }
+    }
+
+    private boolean awaitJobs(long timeoutMillis) throws InterruptedException {
+        if (permits.tryAcquire(maxThreads, Math.max(timeoutMillis, 0), TimeUnit.MILLISECONDS)) {
+            permits.release(maxThreads);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void execute(Runnable job) {
+        if (!isRunning()) {
+            throw new RejectedExecutionException(name + " is not running");
+        }
+        if (permits.tryAcquire()) {
+            start(job);
+            return;
+        }
+        if (!queue.offer(job)) {
+            throw new RejectedExecutionException(name + " is full");
+        }
+        // a job may have finished between the failed acquisition and the offer
+        startQueued();
+    }
+
+    /**
+     * Starts a thread for the given job, which holds a permit until it finishes.
+     */
+    private void start(Runnable job) {
+        try {
+            threadFactory.newThread(new Job(job)).start();
+        } catch (RuntimeException | Error e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void startQueued() {
+        while (!queue.isEmpty() && permits.tryAcquire()) {
+            final Runnable job = queue.poll();
+            if (job == null) {
+                permits.release();
+            } else {
+                start(job);
+            }
+        }
+    }
+
+    @Override
+    public void join() throws InterruptedException {
+        synchronized (joinLock) {
+            while (isRunning()) {
+                joinLock.wait();
+            }
+        }
+    }
+
+    /**
+     * @return the number of running jobs, each of which has a thread of its own
+     */
+    @Override
+    public int getThreads() {
+        final Semaphore semaphore = permits;
+        return semaphore == null ? 0 : maxThreads - semaphore.availablePermits();
+    }
+
+    /**
+     * @return {@code 0}, since threads end with their job
+     */
+    @Override
+    public int getIdleThreads() {
+        return 0;
+    }
+
+    @Override
+    public boolean isLowOnThreads() {
+        final Semaphore semaphore = permits;
+        return semaphore != null && semaphore.availablePermits() == 0 && !queue.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{%s,%d<=%d,q=%d}", name, getState(), getThreads(), getMaxThreads(), queue.size());
+    }
+
+    private class Job implements Runnable {
+        private final Runnable job;
+
+        private Job(Runnable job) {
+            this.job = job;
+        }
+
+        @Override
+        public void run() {
+            final Thread thread = Thread.currentThread();
+            threads.add(thread);
+            try {
+                job.run();
+            } catch (Throwable e) {
+                LOGGER.warn("Unexpected error in a job of {}", name, e);
+            } finally {
+                threads.remove(thread);
+                permits.release();
+                if (isRunning()) {
+                    startQueued();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.dropwizard.jetty;
+
+import com.codahale.metrics.Meter;
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.Request;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class ConcurrencyLimitHandlerTest {
+    private final Request baseRequest = mock(Request.class);
+    private final HttpServletRequest request = mock(HttpServletRequest.class);
+    private final HttpServletResponse response = mock(HttpServletResponse.class);
+    private final Handler wrapped = mock(Handler.class);
+
+    private final GradientConcurrencyLimit limit =
+            new GradientConcurrencyLimit(1, 1, 10, 0.2, 1.5, 1, TimeUnit.SECONDS);
+    private final Meter rejections = new Meter();
+    private final ConcurrencyLimitHandler handler = new ConcurrencyLimitHandler(limit, rejections);
+
+    @Before
+    public void setUp() throws Exception {
+        when(baseRequest.getDispatcherType()).thenReturn(DispatcherType.REQUEST);
+        handler.setHandler(wrapped);
+        handler.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        handler.stop();
+    }
+
+    @Test
+    public void passesRequestsWithinTheLimit() throws Exception {
+        handler.handle("/", baseRequest, request, response);
+
+        verify(wrapped).handle("/", baseRequest, request, response);
+        assertThat(limit.getInFlight()).isZero();
+        assertThat(rejections.getCount()).isZero();
+    }
+
+    @Test
+    public void rejectsRequestsBeyondTheLimit() throws Exception {
+        assertThat(limit.tryAcquire()).isTrue();
+
+        handler.handle("/", baseRequest, request, response);
+
+        verify(wrapped, never()).handle("/", baseRequest, request, response);
+        verify(response).setStatus(503);
+        verify(baseRequest).setHandled(true);
+        assertThat(rejections.getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void passesAsynchronousDispatchesRegardlessOfTheLimit() throws Exception {
+        assertThat(limit.tryAcquire()).isTrue();
+        when(baseRequest.getDispatcherType()).thenReturn(DispatcherType.ASYNC);
+
+        handler.handle("/", baseRequest, request, response);
+
+        verify(wrapped).handle("/", baseRequest, request, response);
+        assertThat(rejections.getCount()).isZero();
+    }
+}
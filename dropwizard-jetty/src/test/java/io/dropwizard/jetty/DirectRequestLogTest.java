@@ -0,0 +1,75 @@
+package io.dropwizard.jetty;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import io.dropwizard.util.Duration;
+import io.dropwizard.util.Size;
+import org.eclipse.jetty.http.HttpURI;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DirectRequestLogTest {
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private final DirectRequestLog requestLog = new DirectRequestLog(
+            new NCSARequestLogFormatter(TimeZone.getTimeZone("UTC"), Locale.US),
+            ImmutableList.<OutputStream>of(output), Size.kilobytes(64), Duration.minutes(1));
+
+    private final Request request = mock(Request.class);
+    private final Response response = mock(Response.class);
+
+    @Before
+    public void setUp() throws Exception {
+        when(request.getRemoteAddr()).thenReturn("10.0.0.1");
+        when(request.getTimeStamp()).thenReturn(TimeUnit.SECONDS.toMillis(1353042048));
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getUri()).thenReturn(new HttpURI("/test/things?yay"));
+        when(request.getProtocol()).thenReturn("HTTP/1.1");
+        when(response.getStatus()).thenReturn(200);
+        when(response.getContentCount()).thenReturn(8290L);
+
+        requestLog.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (requestLog.isStarted()) {
+            requestLog.stop();
+        }
+    }
+
+    @Test
+    public void buffersRequestsUntilFlushed() throws Exception {
+        requestLog.log(request, response);
+        requestLog.log(request, response);
+
+        assertThat(output.size()).isZero();
+
+        requestLog.flush();
+
+        final String[] lines = output.toString(Charsets.UTF_8.name()).split(System.getProperty("line.separator"));
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("10.0.0.1 - - [16/Nov/2012:05:00:48 +0000] \"GET /test/things?yay HTTP/1.1\" 200 8290");
+        assertThat(lines[1]).startsWith("10.0.0.1 - - [16/Nov/2012:05:00:48 +0000] \"GET /test/things?yay HTTP/1.1\" 200 8290");
+    }
+
+    @Test
+    public void flushesWhenStopped() throws Exception {
+        requestLog.log(request, response);
+        requestLog.stop();
+
+        assertThat(output.toString(Charsets.UTF_8.name())).startsWith("10.0.0.1 - - [16/Nov/2012");
+    }
+}
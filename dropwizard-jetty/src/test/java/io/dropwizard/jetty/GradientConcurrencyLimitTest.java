@@ -0,0 +1,87 @@
+package io.dropwizard.jetty;
+
+import com.codahale.metrics.Clock;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GradientConcurrencyLimitTest {
+    private final ManualClock clock = new ManualClock();
+    private final GradientConcurrencyLimit limit =
+            new GradientConcurrencyLimit(20, 4, 100, 0.5, 1.5, 1, TimeUnit.SECONDS, clock);
+
+    @Test
+    public void rejectsRequestsBeyondTheLimit() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+        }
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(20);
+
+        limit.release(TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    public void growsTheLimitWhileTheLatencyIsStable() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            runWindow(10);
+        }
+
+        assertThat(limit.getLimit()).isGreaterThan(20);
+    }
+
+    @Test
+    public void shrinksTheLimitWhenTheLatencyGrows() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            runWindow(10);
+        }
+        final int limitBeforeOverload = limit.getLimit();
+
+        for (int i = 0; i < 5; i++) {
+            runWindow(100);
+        }
+
+        assertThat(limit.getLimit()).isLessThan(limitBeforeOverload);
+    }
+
+    @Test
+    public void doesNotGrowTheLimitWhileMostOfItIsUnused() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            clock.advance(TimeUnit.SECONDS.toNanos(1));
+            for (int j = 0; j < 20; j++) {
+                assertThat(limit.tryAcquire()).isTrue();
+                limit.release(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(20);
+    }
+
+    private void runWindow(long rttMillis) {
+        clock.advance(TimeUnit.SECONDS.toNanos(1));
+        final int permits = limit.getLimit();
+        for (int i = 0; i < permits; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+        }
+        for (int i = 0; i < permits; i++) {
+            limit.release(TimeUnit.MILLISECONDS.toNanos(rttMillis));
+        }
+    }
+
+    private static class ManualClock extends Clock {
+        private long tick;
+
+        @Override
+        public long getTick() {
+            return tick;
+        }
+
+        private void advance(long nanos) {
+            tick += nanos;
+        }
+    }
+}
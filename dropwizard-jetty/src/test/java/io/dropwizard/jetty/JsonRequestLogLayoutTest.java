@@ -0,0 +1,77 @@
+package io.dropwizard.jetty;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.jackson.DiscoverableSubtypeResolver;
+import org.junit.Test;
+
+import java.util.TimeZone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsonRequestLogLayoutTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final JsonRequestLogLayout layout = new JsonRequestLogLayoutFactory()
+            .build(new LoggerContext(), TimeZone.getTimeZone("UTC"));
+
+    @Test
+    public void isDiscoverable() throws Exception {
+        assertThat(new DiscoverableSubtypeResolver().getDiscoveredSubtypes())
+                .contains(JsonRequestLogLayoutFactory.class);
+    }
+
+    @Test
+    public void writesTheFieldsOfRequests() throws Exception {
+        final RequestLogEvent event = new RequestLogEvent();
+        event.setTimeStamp(1353042048123L);
+        event.setLevel(Level.INFO);
+        event.setMessage("10.0.0.1 - - [16/Nov/2012:05:00:48 +0000] \"GET /test HTTP/1.1\" 200 8290 \"-\" \"-\" 12");
+        event.setRemoteAddress("10.0.0.1");
+        event.setMethod("GET");
+        event.setUri("/test?yay");
+        event.setProtocol("HTTP/1.1");
+        event.setStatus(200);
+        event.setContentLength(8290);
+        event.setLatency(12);
+
+        final JsonNode json = mapper.readTree(layout.doLayout(event));
+
+        assertThat(json.get("timestamp").asText()).isEqualTo("2012-11-16T05:00:48.123Z");
+        assertThat(json.get("remoteAddress").asText()).isEqualTo("10.0.0.1");
+        assertThat(json.get("method").asText()).isEqualTo("GET");
+        assertThat(json.get("uri").asText()).isEqualTo("/test?yay");
+        assertThat(json.get("protocol").asText()).isEqualTo("HTTP/1.1");
+        assertThat(json.get("status").asInt()).isEqualTo(200);
+        assertThat(json.get("bytes").asLong()).isEqualTo(8290);
+        assertThat(json.get("latency").asLong()).isEqualTo(12);
+        assertThat(json.has("userAgent")).isFalse();
+        assertThat(json.has("message")).isFalse();
+    }
+
+    @Test
+    public void omitsUnknownContentLengths() throws Exception {
+        final RequestLogEvent event = new RequestLogEvent();
+        event.setLevel(Level.INFO);
+        event.setStatus(304);
+
+        final JsonNode json = mapper.readTree(layout.doLayout(event));
+
+        assertThat(json.has("bytes")).isFalse();
+    }
+
+    @Test
+    public void writesOtherEventsLikeAJsonLayout() throws Exception {
+        final LoggingEvent event = new LoggingEvent();
+        event.setLevel(Level.INFO);
+        event.setLoggerName("http.request");
+        event.setMessage("hello");
+
+        final JsonNode json = mapper.readTree(layout.doLayout(event));
+
+        assertThat(json.get("logger").asText()).isEqualTo("http.request");
+        assertThat(json.get("message").asText()).isEqualTo("hello");
+    }
+}
@@ -0,0 +1,83 @@
+package io.dropwizard.jetty;
+
+import org.eclipse.jetty.http.HttpURI;
+import org.eclipse.jetty.server.Authentication;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Response;
+import org.eclipse.jetty.server.UserIdentity;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.security.Principal;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class NCSARequestLogFormatterTest {
+    private static final long TIMESTAMP = TimeUnit.SECONDS.toMillis(1353042048);
+
+    private final NCSARequestLogFormatter formatter =
+            new NCSARequestLogFormatter(TimeZone.getTimeZone("UTC"), Locale.US);
+    private final RequestLogBuffer buffer = new RequestLogBuffer(16, 1024);
+
+    private final Request request = mock(Request.class);
+    private final Response response = mock(Response.class);
+
+    @Before
+    public void setUp() throws Exception {
+        when(request.getRemoteAddr()).thenReturn("10.0.0.1");
+        when(request.getTimeStamp()).thenReturn(TIMESTAMP);
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getUri()).thenReturn(new HttpURI("/test/things?yay"));
+        when(request.getProtocol()).thenReturn("HTTP/1.1");
+
+        when(response.getStatus()).thenReturn(200);
+        when(response.getContentCount()).thenReturn(8290L);
+    }
+
+    @Test
+    public void formatsRequestsInTheExtendedNCSAFormat() throws Exception {
+        formatter.format(request, response, TIMESTAMP + 12, buffer);
+
+        assertThat(buffer.toString())
+                .isEqualTo("10.0.0.1 - - [16/Nov/2012:05:00:48 +0000] \"GET /test/things?yay HTTP/1.1\" 200 8290 " +
+                                   "\"-\" \"-\" 12");
+    }
+
+    @Test
+    public void includesTheProxiedAddressTheUserAndTheHeaders() throws Exception {
+        final Authentication.User authentication = mock(Authentication.User.class);
+        final UserIdentity identity = mock(UserIdentity.class);
+        final Principal principal = mock(Principal.class);
+        when(request.getAuthentication()).thenReturn(authentication);
+        when(authentication.getUserIdentity()).thenReturn(identity);
+        when(identity.getUserPrincipal()).thenReturn(principal);
+        when(principal.getName()).thenReturn("dingo");
+        when(request.getHeader("X-Forwarded-For")).thenReturn("192.168.1.1");
+        when(request.getHeader("Referer")).thenReturn("http://example.com/");
+        when(request.getHeader("User-Agent")).thenReturn("Zürich/1.0");
+        when(response.getContentCount()).thenReturn(-1L);
+
+        formatter.format(request, response, TIMESTAMP, buffer);
+
+        assertThat(buffer.toString())
+                .isEqualTo("192.168.1.1 - dingo [16/Nov/2012:05:00:48 +0000] \"GET /test/things?yay HTTP/1.1\" 200 - " +
+                                   "\"http://example.com/\" \"Zürich/1.0\" 0");
+    }
+
+    @Test
+    public void reusesTheBuffer() throws Exception {
+        formatter.format(request, response, TIMESTAMP, buffer);
+        buffer.reset();
+        when(response.getStatus()).thenReturn(503);
+        formatter.format(request, response, TIMESTAMP + 1500, buffer);
+
+        assertThat(buffer.toString())
+                .isEqualTo("10.0.0.1 - - [16/Nov/2012:05:00:48 +0000] \"GET /test/things?yay HTTP/1.1\" 503 8290 " +
+                                   "\"-\" \"-\" 1500");
+    }
+}
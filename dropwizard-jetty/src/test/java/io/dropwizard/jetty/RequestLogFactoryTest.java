@@ -1,12 +1,15 @@
 package io.dropwizard.jetty;
 
+import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.io.Resources;
 import io.dropwizard.configuration.ConfigurationFactory;
 import io.dropwizard.jackson.Jackson;
 import io.dropwizard.logging.ConsoleAppenderFactory;
 import io.dropwizard.logging.FileAppenderFactory;
 import io.dropwizard.logging.SyslogAppenderFactory;
+import org.eclipse.jetty.server.RequestLog;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -15,6 +18,7 @@ import java.io.File;
 import java.util.TimeZone;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 
 public class RequestLogFactoryTest {
     private RequestLogFactory requestLog;
@@ -37,4 +41,39 @@ public class RequestLogFactoryTest {
         assertThat(requestLog.getTimeZone())
             .isEqualTo(TimeZone.getTimeZone("UTC"));
     }
+
+    @Test
+    public void directOutputRequiresFilesWithoutArchiving() {
+        requestLog.setDirect(true);
+        assertThat(requestLog.isDirectOutputSupported()).isFalse();
+
+        ((FileAppenderFactory) requestLog.getAppenders().get(0)).setArchive(false);
+        assertThat(requestLog.isDirectOutputSupported()).isTrue();
+    }
+
+    @Test
+    public void directOutputDoesNotSupportLayouts() {
+        ((FileAppenderFactory) requestLog.getAppenders().get(0)).setArchive(false);
+        requestLog.setDirect(true);
+        requestLog.setLayout(new JsonRequestLogLayoutFactory());
+
+        assertThat(requestLog.isDirectOutputSupported()).isFalse();
+    }
+
+    @Test
+    public void hasSampling() {
+        final RequestLogSamplingFactory sampling = requestLog.getSampling();
+
+        assertThat(sampling.isEnabled()).isTrue();
+        assertThat(sampling.getRate()).isEqualTo(0.1);
+        assertThat(sampling.getErrorStatus()).isEqualTo(500);
+        assertThat(sampling.getPathRateLimits()).isEqualTo(ImmutableMap.of("/healthcheck", 1.0));
+    }
+
+    @Test
+    public void wrapsTheRequestLogWhenSampling() {
+        final RequestLog wrapped = requestLog.getSampling().build(mock(RequestLog.class), new MetricRegistry());
+
+        assertThat(wrapped).isInstanceOf(SamplingRequestLog.class);
+    }
 }
@@ -0,0 +1,94 @@
+package io.dropwizard.jetty;
+
+import com.codahale.metrics.Meter;
+import com.google.common.collect.ImmutableMap;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.RequestLog;
+import org.eclipse.jetty.server.Response;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class SamplingRequestLogTest {
+    private final RequestLog delegate = mock(RequestLog.class);
+    private final Request request = mock(Request.class);
+    private final Response response = mock(Response.class);
+    private final Meter sampledOut = new Meter();
+    private final Meter rateLimited = new Meter();
+
+    @Before
+    public void setUp() throws Exception {
+        when(request.getTimeStamp()).thenReturn(System.currentTimeMillis());
+        when(request.getRequestURI()).thenReturn("/things/1");
+        when(response.getStatus()).thenReturn(200);
+    }
+
+    @Test
+    public void logsAllRequestsAtAFullRate() throws Exception {
+        final SamplingRequestLog requestLog = requestLog(1.0, ImmutableMap.<String, Double>of());
+        for (int i = 0; i < 10; i++) {
+            requestLog.log(request, response);
+        }
+
+        verify(delegate, times(10)).log(request, response);
+        assertThat(sampledOut.getCount()).isZero();
+    }
+
+    @Test
+    public void countsRequestsWhichAreSampledOut() throws Exception {
+        final SamplingRequestLog requestLog = requestLog(0.0, ImmutableMap.<String, Double>of());
+        for (int i = 0; i < 10; i++) {
+            requestLog.log(request, response);
+        }
+
+        verify(delegate, never()).log(request, response);
+        assertThat(sampledOut.getCount()).isEqualTo(10);
+    }
+
+    @Test
+    public void alwaysLogsErrors() throws Exception {
+        when(response.getStatus()).thenReturn(503);
+        requestLog(0.0, ImmutableMap.<String, Double>of()).log(request, response);
+
+        verify(delegate).log(request, response);
+        assertThat(sampledOut.getCount()).isZero();
+    }
+
+    @Test
+    public void alwaysLogsSlowRequests() throws Exception {
+        when(request.getTimeStamp()).thenReturn(System.currentTimeMillis() - 2000);
+        requestLog(0.0, ImmutableMap.<String, Double>of()).log(request, response);
+
+        verify(delegate).log(request, response);
+    }
+
+    @Test
+    public void limitsTheRateOfTheLongestMatchingPath() throws Exception {
+        final SamplingRequestLog requestLog = requestLog(1.0, ImmutableMap.of("/", 1000.0, "/things", 0.001));
+        requestLog.log(request, response);
+        requestLog.log(request, response);
+        requestLog.log(request, response);
+
+        verify(delegate, times(1)).log(request, response);
+        assertThat(rateLimited.getCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void doesNotLimitOtherPaths() throws Exception {
+        when(request.getRequestURI()).thenReturn("/other");
+        final SamplingRequestLog requestLog = requestLog(1.0, ImmutableMap.of("/things", 0.001));
+        requestLog.log(request, response);
+        requestLog.log(request, response);
+
+        verify(delegate, times(2)).log(request, response);
+        assertThat(rateLimited.getCount()).isZero();
+    }
+
+    private SamplingRequestLog requestLog(double rate, Map<String, Double> pathRateLimits) {
+        return new SamplingRequestLog(delegate, rate, 500, 1000, pathRateLimits, sampledOut, rateLimited);
+    }
+}
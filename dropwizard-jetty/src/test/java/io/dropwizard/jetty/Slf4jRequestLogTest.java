@@ -67,6 +67,23 @@ public class Slf4jRequestLogTest {
                 .isEqualTo(Level.INFO);
     }
 
+    @Test
+    public void logsTheFieldsOfRequests() throws Exception {
+        final ILoggingEvent event = logAndCapture();
+
+        assertThat(event)
+                .isInstanceOf(RequestLogEvent.class);
+
+        final RequestLogEvent requestEvent = (RequestLogEvent) event;
+        assertThat(requestEvent.getRemoteAddress()).isEqualTo("10.0.0.1");
+        assertThat(requestEvent.getMethod()).isEqualTo("GET");
+        assertThat(requestEvent.getUri()).isEqualTo("/test/things?yay");
+        assertThat(requestEvent.getProtocol()).isEqualTo("HTTP/1.1");
+        assertThat(requestEvent.getStatus()).isEqualTo(200);
+        assertThat(requestEvent.getContentLength()).isEqualTo(8290);
+        assertThat(requestEvent.getLatency()).isGreaterThanOrEqualTo(0);
+    }
+
     private ILoggingEvent logAndCapture() {
         slf4jRequestLog.log(request, response);
 
@@ -0,0 +1,116 @@
+package io.dropwizard.jetty;
+
+import com.codahale.metrics.MetricRegistry;
+import org.eclipse.jetty.util.BlockingArrayQueue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+
+public class VirtualThreadPoolTest {
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final VirtualThreadPool pool = new VirtualThreadPool(metricRegistry, 2,
+            new BlockingArrayQueue<Runnable>(1, 1, 1), Executors.defaultThreadFactory());
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Before
+    public void setUp() throws Exception {
+        pool.setName("test");
+        pool.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        release.countDown();
+        pool.stop();
+    }
+
+    private Runnable blocking(final CountDownLatch started) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+
+    @Test
+    public void startsANewThreadForEachJob() throws Exception {
+        final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+        for (int i = 0; i < 10; i++) {
+            final CountDownLatch done = new CountDownLatch(1);
+            pool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    threads.add(Thread.currentThread());
+                    done.countDown();
+                }
+            });
+            // wait for each job, so none has to queue
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(threads).hasSize(10);
+    }
+
+    @Test
+    public void queuesJobsBeyondMaxThreads() throws Exception {
+        final CountDownLatch started = new CountDownLatch(3);
+        pool.execute(blocking(started));
+        pool.execute(blocking(started));
+        pool.execute(blocking(started));
+
+        assertThat(started.await(100, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(started.getCount()).isEqualTo(1);
+        assertThat(pool.getThreads()).isEqualTo(2);
+        assertThat(pool.isLowOnThreads()).isTrue();
+        assertThat(metricRegistry.getGauges().get("org.eclipse.jetty.util.thread.QueuedThreadPool.test.jobs")
+                                 .getValue()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void rejectsJobsWhenTheQueueIsFull() throws Exception {
+        final CountDownLatch started = new CountDownLatch(2);
+        pool.execute(blocking(started));
+        pool.execute(blocking(started));
+        pool.execute(blocking(started));
+
+        try {
+            pool.execute(blocking(started));
+            failBecauseExceptionWasNotThrown(RejectedExecutionException.class);
+        } catch (RejectedExecutionException e) {
+            assertThat(e.getMessage()).isEqualTo("test is full");
+        }
+    }
+
+    @Test
+    public void interruptsRunningJobsWhenStopping() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        pool.setStopTimeout(200);
+        pool.execute(blocking(started));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        pool.stop();
+
+        assertThat(pool.getThreads()).isZero();
+        assertThat(metricRegistry.getGauges()).isEmpty();
+    }
+}
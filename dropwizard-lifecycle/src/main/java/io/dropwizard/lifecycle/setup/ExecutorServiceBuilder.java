@@ -4,6 +4,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.dropwizard.lifecycle.ExecutorServiceManager;
 import io.dropwizard.util.Duration;
+import io.dropwizard.util.VirtualThreads;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,6 +22,7 @@ public class ExecutorServiceBuilder {
     private BlockingQueue<Runnable> workQueue;
     private ThreadFactory threadFactory;
     private RejectedExecutionHandler handler;
+    private boolean useVirtualThreads;
 
     public ExecutorServiceBuilder(LifecycleEnvironment environment, String nameFormat) {
         this.environment = environment;
@@ -32,6 +34,7 @@ public class ExecutorServiceBuilder {
         this.workQueue = new LinkedBlockingQueue<>();
         this.threadFactory = new ThreadFactoryBuilder().setNameFormat(nameFormat).build();
         this.handler = new ThreadPoolExecutor.AbortPolicy();
+        this.useVirtualThreads = false;
     }
 
     public ExecutorServiceBuilder minThreads(int threads) {
@@ -69,7 +72,34 @@ public class ExecutorServiceBuilder {
         return this;
     }
 
+    /**
+     * Sets whether to start a new virtual thread for each task, if the JVM supports virtual threads.
+     * Such an executor has no pool and no queue, so it doesn't limit the number of concurrent tasks,
+     * and only the shutdown time applies to it. Building it fails if the number of threads or the
+     * work queue has been bounded. Defaults to {@code false}.
+     *
+     * @param useVirtualThreads whether to use virtual threads
+     * @return this builder
+     */
+    public ExecutorServiceBuilder useVirtualThreads(boolean useVirtualThreads) {
+        this.useVirtualThreads = useVirtualThreads;
+        return this;
+    }
+
     public ExecutorService build() {
+        if (useVirtualThreads) {
+            if (maximumPoolSize != Integer.MAX_VALUE || isBoundedQueue()) {
+                throw new IllegalStateException("Virtual threads can't be bounded by 'maximumPoolSize' or " +
+                                                        "the work queue of '" + nameFormat + "'");
+            }
+            if (VirtualThreads.isSupported()) {
+                final ExecutorService executor =
+                        VirtualThreads.newThreadPerTaskExecutor(virtualThreadFactory(nameFormat));
+                environment.manage(new ExecutorServiceManager(executor, shutdownTime, nameFormat));
+                return executor;
+            }
+            log.warn("Virtual threads are not supported by this JVM, using a thread pool for '{}'", nameFormat);
+        }
         if (maximumPoolSize != Integer.MAX_VALUE && !isBoundedQueue()) {
             log.warn("Parameter 'maximumPoolSize' is conflicting with unbounded work queues");
         }
@@ -84,6 +114,16 @@ public class ExecutorServiceBuilder {
         return executor;
     }
 
+    /**
+     * Creates a factory for virtual threads, which names them like the threads of a thread pool.
+     */
+    static ThreadFactory virtualThreadFactory(String nameFormat) {
+        return new ThreadFactoryBuilder()
+                .setNameFormat(nameFormat)
+                .setThreadFactory(VirtualThreads.threadFactory(nameFormat))
+                .build();
+    }
+
     private boolean isBoundedQueue() {
         return workQueue.remainingCapacity() != Integer.MAX_VALUE;
     }
@@ -3,6 +3,9 @@ package io.dropwizard.lifecycle.setup;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.dropwizard.lifecycle.ExecutorServiceManager;
 import io.dropwizard.util.Duration;
+import io.dropwizard.util.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ScheduledExecutorService;
@@ -11,20 +14,26 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 
 public class ScheduledExecutorServiceBuilder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScheduledExecutorServiceBuilder.class);
+
     private final LifecycleEnvironment environment;
     private final String nameFormat;
+    private final boolean useDaemonThreads;
     private int poolSize;
     private ThreadFactory threadFactory;
     private Duration shutdownTime;
     private RejectedExecutionHandler handler;
+    private boolean useVirtualThreads;
 
     public ScheduledExecutorServiceBuilder(LifecycleEnvironment environment, String nameFormat, boolean useDaemonThreads) {
         this.environment = environment;
         this.nameFormat = nameFormat;
+        this.useDaemonThreads = useDaemonThreads;
         this.poolSize = 1;
         this.threadFactory = new ThreadFactoryBuilder().setNameFormat(nameFormat).setDaemon(useDaemonThreads).build();
         this.shutdownTime = Duration.seconds(5);
         this.handler = new ThreadPoolExecutor.AbortPolicy();
+        this.useVirtualThreads = false;
     }
 
     public ScheduledExecutorServiceBuilder threads(int threads) {
@@ -47,8 +56,34 @@ public class ScheduledExecutorServiceBuilder {
         return this;
     }
 
+    /**
+     * Sets whether the threads of the executor are virtual threads, if the JVM supports them. This
+     * replaces the thread factory, and virtual threads are always daemon threads, so a warning is
+     * logged if the builder was asked for non-daemon threads. Defaults to {@code false}.
+     *
+     * @param useVirtualThreads whether to use virtual threads
+     * @return this builder
+     */
+    public ScheduledExecutorServiceBuilder useVirtualThreads(boolean useVirtualThreads) {
+        this.useVirtualThreads = useVirtualThreads;
+        return this;
+    }
+
     public ScheduledExecutorService build() {
-        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(poolSize, threadFactory, handler);
+        ThreadFactory factory = threadFactory;
+        if (useVirtualThreads) {
+            if (VirtualThreads.isSupported()) {
+                if (!useDaemonThreads) {
+                    LOGGER.warn("Virtual threads are always daemon threads, ignoring 'useDaemonThreads' of '{}'",
+                                nameFormat);
+                }
+                factory = ExecutorServiceBuilder.virtualThreadFactory(nameFormat);
+            } else {
+                LOGGER.warn("Virtual threads are not supported by this JVM, using platform threads for '{}'",
+                            nameFormat);
+            }
+        }
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(poolSize, factory, handler);
         environment.manage(new ExecutorServiceManager(executor, shutdownTime, nameFormat));
         return executor;
     }
@@ -1,12 +1,18 @@
 package io.dropwizard.lifecycle.setup;
 
+import io.dropwizard.util.VirtualThreads;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 import org.slf4j.Logger;
 
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -43,4 +49,61 @@ public class ExecutorServiceBuilderTest {
 
         verify(log, never()).warn(WARNING);
     }
+
+    @Test
+    public void testUsesVirtualThreadsIfSupported() throws Exception {
+        final ExecutorService executor = new ExecutorServiceBuilder(new LifecycleEnvironment(), "test")
+                .useVirtualThreads(true)
+                .build();
+        try {
+            final String threadName = executor.submit(new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    return Thread.currentThread().getName();
+                }
+            }).get();
+
+            assertThat(threadName).isEqualTo("test");
+            if (VirtualThreads.isSupported()) {
+                assertThat(executor).isNotInstanceOf(ThreadPoolExecutor.class);
+                verify(log, never()).warn(WARNING);
+            } else {
+                assertThat(executor).isInstanceOf(ThreadPoolExecutor.class);
+                verify(log).warn("Virtual threads are not supported by this JVM, using a thread pool for '{}'", "test");
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testDoesNotUseVirtualThreadsByDefault() {
+        final ExecutorService executor = new ExecutorServiceBuilder(new LifecycleEnvironment(), "test").build();
+        executor.shutdown();
+
+        assertThat(executor).isInstanceOf(ThreadPoolExecutor.class);
+    }
+
+    @Test
+    public void testRejectsVirtualThreadsWithBoundedThreads() {
+        try {
+            executorServiceBuilder.useVirtualThreads(true).build();
+            failBecauseExceptionWasNotThrown(IllegalStateException.class);
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage()).contains("'test'");
+        }
+    }
+
+    @Test
+    public void testRejectsVirtualThreadsWithABoundedQueue() {
+        final ExecutorServiceBuilder builder = new ExecutorServiceBuilder(new LifecycleEnvironment(), "test")
+                .workQueue(new ArrayBlockingQueue<Runnable>(16))
+                .useVirtualThreads(true);
+        try {
+            builder.build();
+            failBecauseExceptionWasNotThrown(IllegalStateException.class);
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage()).contains("'test'");
+        }
+    }
 }
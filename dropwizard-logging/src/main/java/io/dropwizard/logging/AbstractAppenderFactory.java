@@ -8,10 +8,12 @@ import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.Appender;
 import ch.qos.logback.core.AsyncAppenderBase;
 import ch.qos.logback.core.Context;
+import ch.qos.logback.core.Layout;
 import ch.qos.logback.core.spi.FilterAttachable;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Strings;
 
+import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
@@ -38,9 +40,28 @@ import java.util.TimeZone;
  *         <td>An appender-specific log format.</td>
  *     </tr>
  *     <tr>
+ *         <td>{@code layout}</td>
+ *         <td>(none)</td>
+ *         <td>
+ *             The {@link LayoutFactory layout} of the appender, e.g. {@code json}. If set,
+ *             {@code logFormat} is ignored.
+ *         </td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code queueType}</td>
+ *         <td>{@code blocking}</td>
+ *         <td>
+ *             How events are handed to the background thread: {@code blocking} for logback's
+ *             {@link AsyncAppender}, or {@code ring-buffer} for a {@link RingBufferAsyncAppender}.
+ *         </td>
+ *     </tr>
+ *     <tr>
  *         <td>{@code queueSize}</td>
  *         <td>{@link AsyncAppenderBase}</td>
- *         <td>The maximum capacity of the blocking queue.</td>
+ *         <td>
+ *             The maximum capacity of the blocking queue. The size of a ring buffer is rounded
+ *             up to the next power of two.
+ *         </td>
  *     </tr>
  *     <tr>
  *         <td>{@code includeCallerData}</td>
@@ -51,6 +72,15 @@ import java.util.TimeZone;
  *         </td>
  *     </tr>
  *     <tr>
+ *         <td>{@code deferFormatting}</td>
+ *         <td>false</td>
+ *         <td>
+ *             Whether messages are formatted by the background thread instead of the logging
+ *             thread, which then only captures the raw arguments and a reference to its MDC.
+ *             Arguments which are changed after they are logged are formatted with their changes.
+ *         </td>
+ *     </tr>
+ *     <tr>
  *         <td>{@code discardingThreshold}</td>
  *         <td>{@link AsyncAppenderBase}</td>
  *         <td>
@@ -59,14 +89,35 @@ import java.util.TimeZone;
  *             events of level WARN and ERROR. To keep all events, set discardingThreshold to 0.
  *         </td>
  *     </tr>
+ *     <tr>
+ *         <td>{@code waitStrategy}</td>
+ *         <td>{@code blocking}</td>
+ *         <td>
+ *             How the background thread of a ring buffer waits for events. One of
+ *             {@code blocking}, {@code sleeping}, {@code yielding} or {@code busy-spin}; see
+ *             {@link RingBufferWaitStrategy}.
+ *         </td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code batchSize}</td>
+ *         <td>64</td>
+ *         <td>The maximum number of events the background thread takes from a ring buffer at once.</td>
+ *     </tr>
  * </table>
  */
 public abstract class AbstractAppenderFactory implements AppenderFactory {
+    public enum QueueType {
+        BLOCKING, RING_BUFFER
+    }
+
     @NotNull
     protected Level threshold = Level.ALL;
 
     protected String logFormat;
 
+    @Valid
+    private LayoutFactory layout;
+
     @Min(1)
     @Max(Integer.MAX_VALUE)
     private int queueSize = AsyncAppenderBase.DEFAULT_QUEUE_SIZE;
@@ -75,6 +126,17 @@ public abstract class AbstractAppenderFactory implements AppenderFactory {
 
     private boolean includeCallerData = false;
 
+    private boolean deferFormatting = false;
+
+    @NotNull
+    private QueueType queueType = QueueType.BLOCKING;
+
+    @NotNull
+    private RingBufferWaitStrategy waitStrategy = RingBufferWaitStrategy.BLOCKING;
+
+    @Min(1)
+    private int batchSize = RingBufferAsyncAppender.DEFAULT_BATCH_SIZE;
+
     @JsonProperty
     public int getQueueSize() {
         return queueSize;
@@ -115,6 +177,16 @@ public abstract class AbstractAppenderFactory implements AppenderFactory {
         this.logFormat = logFormat;
     }
 
+    @JsonProperty
+    public LayoutFactory getLayout() {
+        return layout;
+    }
+
+    @JsonProperty
+    public void setLayout(LayoutFactory layout) {
+        this.layout = layout;
+    }
+
     @JsonProperty
     public boolean isIncludeCallerData() {
         return includeCallerData;
@@ -125,15 +197,73 @@ public abstract class AbstractAppenderFactory implements AppenderFactory {
         this.includeCallerData = includeCallerData;
     }
 
+    @JsonProperty
+    public boolean isDeferFormatting() {
+        return deferFormatting;
+    }
+
+    @JsonProperty
+    public void setDeferFormatting(boolean deferFormatting) {
+        this.deferFormatting = deferFormatting;
+    }
+
+    @JsonProperty
+    public QueueType getQueueType() {
+        return queueType;
+    }
+
+    @JsonProperty
+    public void setQueueType(QueueType queueType) {
+        this.queueType = queueType;
+    }
+
+    @JsonProperty
+    public RingBufferWaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    @JsonProperty
+    public void setWaitStrategy(RingBufferWaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    @JsonProperty
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @JsonProperty
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
     protected Appender<ILoggingEvent> wrapAsync(Appender<ILoggingEvent> appender) {
         return wrapAsync(appender, appender.getContext());
     }
 
     protected Appender<ILoggingEvent> wrapAsync(Appender<ILoggingEvent> appender, Context context) {
-        final AsyncAppender asyncAppender = new AsyncAppender();
+        if (queueType == QueueType.RING_BUFFER) {
+            return wrapRingBuffer(appender, context);
+        }
+        final AsyncAppender asyncAppender = deferFormatting ? new DeferredFormattingAsyncAppender() : new AsyncAppender();
+        asyncAppender.setIncludeCallerData(includeCallerData);
+        asyncAppender.setQueueSize(queueSize);
+        asyncAppender.setDiscardingThreshold(discardingThreshold);
+        asyncAppender.setContext(context);
+        asyncAppender.setName("async-" + appender.getName());
+        asyncAppender.addAppender(appender);
+        asyncAppender.start();
+        return asyncAppender;
+    }
+
+    private Appender<ILoggingEvent> wrapRingBuffer(Appender<ILoggingEvent> appender, Context context) {
+        final RingBufferAsyncAppender asyncAppender = new RingBufferAsyncAppender();
         asyncAppender.setIncludeCallerData(includeCallerData);
         asyncAppender.setQueueSize(queueSize);
         asyncAppender.setDiscardingThreshold(discardingThreshold);
+        asyncAppender.setDeferFormatting(deferFormatting);
+        asyncAppender.setWaitStrategy(waitStrategy);
+        asyncAppender.setBatchSize(batchSize);
         asyncAppender.setContext(context);
         asyncAppender.setName("async-" + appender.getName());
         asyncAppender.addAppender(appender);
@@ -148,6 +278,17 @@ public abstract class AbstractAppenderFactory implements AppenderFactory {
         appender.addFilter(filter);
     }
 
+    /**
+     * Builds the layout of the appender: the one of the configured {@link LayoutFactory}, or else
+     * the {@link #buildLayout pattern layout}.
+     */
+    protected Layout<ILoggingEvent> buildConfiguredLayout(LoggerContext context, TimeZone timeZone) {
+        if (layout != null) {
+            return layout.build(context, timeZone);
+        }
+        return buildLayout(context, timeZone);
+    }
+
     protected DropwizardLayout buildLayout(LoggerContext context, TimeZone timeZone) {
         final DropwizardLayout formatter = new DropwizardLayout(context, timeZone);
         if (!Strings.isNullOrEmpty(logFormat)) {
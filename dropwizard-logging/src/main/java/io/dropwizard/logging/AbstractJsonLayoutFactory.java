@@ -0,0 +1,111 @@
+package io.dropwizard.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableMap;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * A base class for factories of {@link JsonLayout layouts} which write each event as a single
+ * line of JSON, such as {@link JsonLayoutFactory}.
+ * <p/>
+ * <b>Configuration Parameters:</b>
+ * <table>
+ *     <tr>
+ *         <td>Name</td>
+ *         <td>Default</td>
+ *         <td>Description</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code includeThreadName}</td>
+ *         <td>true</td>
+ *         <td>Whether to include the name of the thread which logged the event.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code includeMdc}</td>
+ *         <td>true</td>
+ *         <td>Whether to include the MDC of the event as a nested object.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code includeStackTrace}</td>
+ *         <td>true</td>
+ *         <td>Whether to include the stack trace of logged exceptions.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code additionalFields}</td>
+ *         <td>(none)</td>
+ *         <td>Constant string fields added to every event, e.g. the name of the service.</td>
+ *     </tr>
+ * </table>
+ *
+ * @see JsonLayout
+ */
+public abstract class AbstractJsonLayoutFactory {
+    private boolean includeThreadName = true;
+
+    private boolean includeMdc = true;
+
+    private boolean includeStackTrace = true;
+
+    @NotNull
+    private ImmutableMap<String, String> additionalFields = ImmutableMap.of();
+
+    @JsonProperty
+    public boolean isIncludeThreadName() {
+        return includeThreadName;
+    }
+
+    @JsonProperty
+    public void setIncludeThreadName(boolean includeThreadName) {
+        this.includeThreadName = includeThreadName;
+    }
+
+    @JsonProperty
+    public boolean isIncludeMdc() {
+        return includeMdc;
+    }
+
+    @JsonProperty
+    public void setIncludeMdc(boolean includeMdc) {
+        this.includeMdc = includeMdc;
+    }
+
+    @JsonProperty
+    public boolean isIncludeStackTrace() {
+        return includeStackTrace;
+    }
+
+    @JsonProperty
+    public void setIncludeStackTrace(boolean includeStackTrace) {
+        this.includeStackTrace = includeStackTrace;
+    }
+
+    @JsonProperty
+    public ImmutableMap<String, String> getAdditionalFields() {
+        return additionalFields;
+    }
+
+    @JsonProperty
+    public void setAdditionalFields(ImmutableMap<String, String> additionalFields) {
+        this.additionalFields = additionalFields;
+    }
+
+    /**
+     * Configures and starts a layout, which may be a subclass of {@link JsonLayout} writing
+     * fields of its own.
+     *
+     * @param layout  the layout
+     * @param context the Logback context
+     * @return {@code layout}, started
+     */
+    public <T extends JsonLayout> T build(T layout, LoggerContext context) {
+        layout.setContext(context);
+        layout.setIncludeThreadName(includeThreadName);
+        layout.setIncludeMdc(includeMdc);
+        layout.setIncludeStackTrace(includeStackTrace);
+        layout.setAdditionalFields(additionalFields);
+        layout.start();
+        return layout;
+    }
+}
@@ -0,0 +1,78 @@
+package io.dropwizard.logging;
+
+import ch.qos.logback.core.rolling.RolloverFailure;
+import ch.qos.logback.core.rolling.TimeBasedFileNamingAndTriggeringPolicy;
+import ch.qos.logback.core.rolling.TimeBasedRollingPolicy;
+import ch.qos.logback.core.rolling.helper.ArchiveRemover;
+import ch.qos.logback.core.rolling.helper.CompressionMode;
+import ch.qos.logback.core.rolling.helper.RenameUtil;
+
+import java.io.File;
+import java.util.Date;
+
+/**
+ * A {@link TimeBasedRollingPolicy} which compresses the rolled over file and prunes old archives
+ * on a {@link LogArchiver}, instead of on the Logback context's executor and on the logging
+ * thread respectively.
+ * <p/>
+ * On rollover, the active file is only renamed, so the appender can open a new file right away.
+ */
+public class AsyncArchivingRollingPolicy<E> extends TimeBasedRollingPolicy<E> {
+    private final LogArchiver archiver;
+    private final RenameUtil renameUtil = new RenameUtil();
+
+    public AsyncArchivingRollingPolicy(LogArchiver archiver) {
+        this.archiver = archiver;
+    }
+
+    @Override
+    public void start() {
+        renameUtil.setContext(getContext());
+        super.start();
+    }
+
+    @Override
+    public void rollover() throws RolloverFailure {
+        final String activeFileName = getParentsRawFileProperty();
+        if (activeFileName == null) {
+            // events were written straight into the archive
+            super.rollover();
+            return;
+        }
+
+        final TimeBasedFileNamingAndTriggeringPolicy<E> triggeringPolicy = getTimeBasedFileNamingAndTriggeringPolicy();
+        final String elapsedPeriodsFileName = triggeringPolicy.getElapsedPeriodsFileName();
+        if (elapsedPeriodsFileName == null) {
+            // rolled over by hand before a period has elapsed, so there's no archive to name; logback's
+            // own rollover would fail the same way, so the active file is simply reopened
+            addWarn("No period of " + activeFileName + " has elapsed yet, not archiving it");
+            return;
+        }
+        final Runnable cleanup = pruneArchives(triggeringPolicy.getArchiveRemover(),
+                                               new Date(triggeringPolicy.getCurrentTime()));
+
+        final CompressionMode compressionMode = getCompressionMode();
+        if (compressionMode == CompressionMode.NONE) {
+            renameUtil.rename(activeFileName, elapsedPeriodsFileName);
+            archiver.submit(cleanup);
+        } else {
+            final String temporaryFileName = elapsedPeriodsFileName + System.nanoTime() + ".tmp";
+            renameUtil.rename(activeFileName, temporaryFileName);
+            final String suffix = compressionMode == CompressionMode.ZIP ? ".zip" : ".gz";
+            archiver.compress(new File(temporaryFileName), new File(elapsedPeriodsFileName + suffix),
+                              compressionMode, cleanup);
+        }
+    }
+
+    private Runnable pruneArchives(final ArchiveRemover remover, final Date now) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                // without a maximum history, the remover would take the previous period as too old
+                if (remover != null && getMaxHistory() > 0) {
+                    remover.clean(now);
+                }
+            }
+        };
+    }
+}
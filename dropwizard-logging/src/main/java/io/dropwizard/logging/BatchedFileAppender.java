@@ -0,0 +1,42 @@
+package io.dropwizard.logging;
+
+import ch.qos.logback.core.FileAppender;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A {@link FileAppender} which writes through a {@link BatchedFileOutputStream}.
+ *
+ * @see BatchedRollingFileAppender
+ */
+public class BatchedFileAppender<E> extends FileAppender<E> {
+    private int bufferSize = BatchedFileAppenderFactory.DEFAULT_BUFFER_SIZE;
+    private long flushIntervalMillis = BatchedFileAppenderFactory.DEFAULT_FLUSH_INTERVAL_MILLIS;
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.NEVER;
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public void setFsyncPolicy(FsyncPolicy fsyncPolicy) {
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    @Override
+    public void openFile(String fileName) throws IOException {
+        lock.lock();
+        try {
+            final BatchedFileOutputStream output = new BatchedFileOutputStream(
+                    new File(fileName), isAppend(), bufferSize, flushIntervalMillis, fsyncPolicy);
+            output.setContext(context);
+            setOutputStream(output);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
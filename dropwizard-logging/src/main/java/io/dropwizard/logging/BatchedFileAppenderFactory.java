@@ -0,0 +1,137 @@
+package io.dropwizard.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.Layout;
+import ch.qos.logback.core.encoder.LayoutWrappingEncoder;
+import ch.qos.logback.core.rolling.RollingFileAppender;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.dropwizard.util.Duration;
+import io.dropwizard.util.Size;
+import io.dropwizard.util.SizeUnit;
+import io.dropwizard.validation.MaxSize;
+import io.dropwizard.validation.MinDuration;
+import io.dropwizard.validation.MinSize;
+
+import javax.validation.constraints.NotNull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link AppenderFactory} implementation which provides an appender that writes events to a file like
+ * {@link FileAppenderFactory}, but collects them in a large direct buffer and writes them out in batches, instead of
+ * writing and flushing each event on its own. See {@link BatchedFileOutputStream}.
+ * <p/>
+ * Archiving works as with {@link FileAppenderFactory}. Files can grow past {@code maxFileSize} by up to
+ * {@code bufferSize}.
+ * <p/>
+ * <b>Configuration Parameters:</b>
+ * <table>
+ *     <tr>
+ *         <td>Name</td>
+ *         <td>Default</td>
+ *         <td>Description</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code type}</td>
+ *         <td><b>REQUIRED</b></td>
+ *         <td>The appender type. Must be {@code batched-file}.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code bufferSize}</td>
+ *         <td>{@code 256KB}</td>
+ *         <td>The size of the buffer. A batch is written out once the buffer is full.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code flushInterval}</td>
+ *         <td>{@code 1 second}</td>
+ *         <td>How often the buffer is written out, even if it's not full.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code fsyncPolicy}</td>
+ *         <td>{@code never}</td>
+ *         <td>
+ *             When writes are forced to the storage device: {@code never}, {@code on-close} when the file is closed
+ *             or rolled over, or {@code on-flush} after each batch. See {@link FsyncPolicy}.
+ *         </td>
+ *     </tr>
+ * </table>
+ * <p/>
+ * The other parameters are the same as for {@link FileAppenderFactory}.
+ *
+ * @see FileAppenderFactory
+ */
+@JsonTypeName("batched-file")
+public class BatchedFileAppenderFactory extends FileAppenderFactory {
+    static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+    static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+
+    @NotNull
+    @MinSize(1)
+    @MaxSize(value = 1, unit = SizeUnit.GIGABYTES)
+    private Size bufferSize = Size.kilobytes(256);
+
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration flushInterval = Duration.seconds(1);
+
+    @NotNull
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.NEVER;
+
+    @JsonProperty
+    public Size getBufferSize() {
+        return bufferSize;
+    }
+
+    @JsonProperty
+    public void setBufferSize(Size bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    @JsonProperty
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    @JsonProperty
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    @JsonProperty
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    @JsonProperty
+    public void setFsyncPolicy(FsyncPolicy fsyncPolicy) {
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    @Override
+    protected LayoutWrappingEncoder<ILoggingEvent> buildEncoder(LoggerContext context, Layout<ILoggingEvent> layout) {
+        final LayoutWrappingEncoder<ILoggingEvent> encoder = super.buildEncoder(context, layout);
+        // the stream flushes on its own
+        encoder.setImmediateFlush(false);
+        return encoder;
+    }
+
+    @Override
+    protected RollingFileAppender<ILoggingEvent> newRollingFileAppender() {
+        final BatchedRollingFileAppender<ILoggingEvent> appender = new BatchedRollingFileAppender<>();
+        appender.setBufferSize((int) bufferSize.toBytes());
+        appender.setFlushIntervalMillis(flushInterval.toMilliseconds());
+        appender.setFsyncPolicy(fsyncPolicy);
+        return appender;
+    }
+
+    @Override
+    protected FileAppender<ILoggingEvent> newFileAppender() {
+        final BatchedFileAppender<ILoggingEvent> appender = new BatchedFileAppender<>();
+        appender.setBufferSize((int) bufferSize.toBytes());
+        appender.setFlushIntervalMillis(flushInterval.toMilliseconds());
+        appender.setFsyncPolicy(fsyncPolicy);
+        return appender;
+    }
+}
@@ -0,0 +1,231 @@
+package io.dropwizard.logging;
+
+import ch.qos.logback.core.Context;
+import ch.qos.logback.core.status.ErrorStatus;
+import ch.qos.logback.core.status.InfoStatus;
+import ch.qos.logback.core.status.Status;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link OutputStream} which collects writes in a large direct buffer, and writes the buffer
+ * into a {@link FileChannel} in one batch once it's full or once {@code flushInterval} has passed,
+ * whichever comes first.
+ * <p/>
+ * {@link #flush()} writes the buffer out, so the encoder of the appender must not flush after
+ * every event.
+ * <p/>
+ * Like logback's {@link ch.qos.logback.core.recovery.ResilientFileOutputStream}, the stream
+ * doesn't throw write failures at the appender, which would stop it for good. Instead, it reports
+ * the failure to the status of the Logback context, drops the buffer, and reopens the file with an
+ * increasing delay. Writes made until then are dropped as well.
+ */
+public class BatchedFileOutputStream extends OutputStream {
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("batched-file-flusher-%d").setDaemon(true).build());
+
+    private static final long MIN_RECOVERY_DELAY_MILLIS = 20;
+    private static final long MAX_RECOVERY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final File file;
+    private final ByteBuffer buffer;
+    private final FsyncPolicy fsyncPolicy;
+    private final ScheduledFuture<?> flushTask;
+    private FileChannel channel;
+    private Context context;
+    private boolean closed;
+
+    // set while the file is unusable after a failure
+    private long recoveryDelayMillis;
+    private long nextRecoveryAt;
+
+    /**
+     * Opens a file, creating its parent directories if necessary.
+     *
+     * @param file                the file
+     * @param append              whether to append to the file, instead of truncating it
+     * @param bufferSize          the size of the buffer, in bytes
+     * @param flushIntervalMillis how often the buffer is written out, in milliseconds
+     * @param fsyncPolicy         when writes are forced to the storage device
+     * @throws IOException if the file can't be opened
+     */
+    public BatchedFileOutputStream(File file, boolean append, int bufferSize, long flushIntervalMillis,
+                                   FsyncPolicy fsyncPolicy) throws IOException {
+        final File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Unable to create " + parent);
+        }
+        this.file = file;
+        this.channel = new FileOutputStream(file, append).getChannel();
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.fsyncPolicy = fsyncPolicy;
+        this.flushTask = FLUSHER.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                timedFlush();
+            }
+        }, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sets the Logback context to which failures and recoveries are reported.
+     */
+    public synchronized void setContext(Context context) {
+        this.context = context;
+    }
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+        if (!ensureUsable()) {
+            return;
+        }
+        try {
+            if (!buffer.hasRemaining()) {
+                writeBuffer();
+            }
+            buffer.put((byte) b);
+        } catch (IOException e) {
+            failed(e);
+        }
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) throws IOException {
+        if (!ensureUsable()) {
+            return;
+        }
+        try {
+            if (len > buffer.remaining()) {
+                writeBuffer();
+                if (len > buffer.capacity()) {
+                    writeFully(ByteBuffer.wrap(b, off, len));
+                    return;
+                }
+            }
+            buffer.put(b, off, len);
+        } catch (IOException e) {
+            failed(e);
+        }
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (!ensureUsable()) {
+            return;
+        }
+        try {
+            writeBuffer();
+        } catch (IOException e) {
+            failed(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        flushTask.cancel(false);
+        if (channel == null) {
+            // the file was lost and hasn't been reopened
+            return;
+        }
+        try {
+            writeBuffer();
+            if (fsyncPolicy != FsyncPolicy.NEVER) {
+                channel.force(false);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    private synchronized void timedFlush() {
+        if (closed || channel == null || buffer.position() == 0) {
+            return;
+        }
+        try {
+            writeBuffer();
+        } catch (IOException e) {
+            failed(e);
+        }
+    }
+
+    /**
+     * @return whether the file can be written to, after reopening it if it was lost
+     * @throws IOException if the stream has been closed
+     */
+    private boolean ensureUsable() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (channel != null) {
+            return true;
+        }
+        final long now = System.currentTimeMillis();
+        if (now < nextRecoveryAt) {
+            return false;
+        }
+        try {
+            channel = new FileOutputStream(file, true).getChannel();
+        } catch (IOException e) {
+            recoveryDelayMillis = Math.min(recoveryDelayMillis * 4, MAX_RECOVERY_DELAY_MILLIS);
+            nextRecoveryAt = now + recoveryDelayMillis;
+            return false;
+        }
+        addStatus(new InfoStatus("Recovered from IO failure on " + file, this));
+        return true;
+    }
+
+    private void failed(IOException e) {
+        addStatus(new ErrorStatus("IO failure while writing to " + file + ", dropping " + buffer.position() +
+                                          " buffered bytes until it has been reopened", this, e));
+        buffer.clear();
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // the channel is abandoned anyway
+        }
+        channel = null;
+        recoveryDelayMillis = MIN_RECOVERY_DELAY_MILLIS;
+        nextRecoveryAt = System.currentTimeMillis() + recoveryDelayMillis;
+    }
+
+    private void addStatus(Status status) {
+        if (context != null) {
+            context.getStatusManager().add(status);
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        try {
+            writeFully(buffer);
+        } finally {
+            buffer.clear();
+        }
+        if (fsyncPolicy == FsyncPolicy.ON_FLUSH) {
+            channel.force(false);
+        }
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+}
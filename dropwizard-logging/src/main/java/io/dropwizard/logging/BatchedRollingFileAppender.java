@@ -0,0 +1,46 @@
+package io.dropwizard.logging;
+
+import ch.qos.logback.core.rolling.RollingFileAppender;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A {@link RollingFileAppender} which writes through a {@link BatchedFileOutputStream}. The
+ * buffer is written out before each rollover, as the old file is closed.
+ * <p/>
+ * Size-based triggering policies see the size of the file without the buffered writes, so a file
+ * can grow past its maximum size by up to the size of the buffer.
+ *
+ * @see BatchedFileAppender
+ */
+public class BatchedRollingFileAppender<E> extends RollingFileAppender<E> {
+    private int bufferSize = BatchedFileAppenderFactory.DEFAULT_BUFFER_SIZE;
+    private long flushIntervalMillis = BatchedFileAppenderFactory.DEFAULT_FLUSH_INTERVAL_MILLIS;
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.NEVER;
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public void setFsyncPolicy(FsyncPolicy fsyncPolicy) {
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    @Override
+    public void openFile(String fileName) throws IOException {
+        lock.lock();
+        try {
+            final BatchedFileOutputStream output = new BatchedFileOutputStream(
+                    new File(fileName), isAppend(), bufferSize, flushIntervalMillis, fsyncPolicy);
+            output.setContext(context);
+            setOutputStream(output);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
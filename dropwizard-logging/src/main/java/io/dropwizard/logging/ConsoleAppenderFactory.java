@@ -110,7 +110,7 @@ public class ConsoleAppenderFactory extends AbstractAppenderFactory {
         appender.setTarget(target.get());
 
         LayoutWrappingEncoder<ILoggingEvent> layoutEncoder = new LayoutWrappingEncoder<>();
-        layoutEncoder.setLayout(layout == null ? buildLayout(context, timeZone) : layout);
+        layoutEncoder.setLayout(layout == null ? buildConfiguredLayout(context, timeZone) : layout);
         appender.setEncoder(layoutEncoder);
 
         addThresholdFilter(appender, threshold);
@@ -0,0 +1,31 @@
+package io.dropwizard.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * An {@link AsyncAppender} which leaves formatting the messages of events to its worker.
+ * <p/>
+ * The logging thread only captures its name and a reference to its MDC, which Logback copies on
+ * the next write, instead of formatting the message with its arguments. In exchange, arguments
+ * which are changed after they are logged are formatted with their changes.
+ */
+public class DeferredFormattingAsyncAppender extends AsyncAppender {
+    @Override
+    protected void preprocess(ILoggingEvent event) {
+        prepareWithoutFormatting(event);
+        if (isIncludeCallerData()) {
+            event.getCallerData();
+        }
+    }
+
+    /**
+     * Captures what an event needs from the logging thread, except for its formatted message.
+     *
+     * @param event the event
+     */
+    static void prepareWithoutFormatting(ILoggingEvent event) {
+        event.getThreadName();
+        event.getMDCPropertyMap();
+    }
+}
@@ -193,9 +193,7 @@ public class FileAppenderFactory extends AbstractAppenderFactory {
         appender.setAppend(true);
         appender.setContext(context);
 
-        LayoutWrappingEncoder<ILoggingEvent> layoutEncoder = new LayoutWrappingEncoder<>();
-        layoutEncoder.setLayout(layout == null ? buildLayout(context, timeZone) : layout);
-        appender.setEncoder(layoutEncoder);
+        appender.setEncoder(buildEncoder(context, layout));
 
         appender.setPrudent(false);
         addThresholdFilter(appender, threshold);
@@ -205,9 +203,15 @@ public class FileAppenderFactory extends AbstractAppenderFactory {
         return wrapAsync(appender);
     }
 
+    protected LayoutWrappingEncoder<ILoggingEvent> buildEncoder(LoggerContext context, Layout<ILoggingEvent> layout) {
+        final LayoutWrappingEncoder<ILoggingEvent> layoutEncoder = new LayoutWrappingEncoder<>();
+        layoutEncoder.setLayout(layout == null ? buildConfiguredLayout(context, timeZone) : layout);
+        return layoutEncoder;
+    }
+
     protected FileAppender<ILoggingEvent> buildAppender(LoggerContext context) {
         if (archive) {
-            final RollingFileAppender<ILoggingEvent> appender = new RollingFileAppender<>();
+            final RollingFileAppender<ILoggingEvent> appender = newRollingFileAppender();
             appender.setFile(currentLogFilename);
 
             final TimeBasedFileNamingAndTriggeringPolicy<ILoggingEvent> triggeringPolicy;
@@ -220,7 +224,8 @@ public class FileAppenderFactory extends AbstractAppenderFactory {
             }
             triggeringPolicy.setContext(context);
 
-            final TimeBasedRollingPolicy<ILoggingEvent> rollingPolicy = new TimeBasedRollingPolicy<>();
+            final TimeBasedRollingPolicy<ILoggingEvent> rollingPolicy =
+                    new AsyncArchivingRollingPolicy<>(LogArchiver.forContext(context));
             rollingPolicy.setContext(context);
             rollingPolicy.setFileNamePattern(archivedLogFilenamePattern);
             rollingPolicy.setTimeBasedFileNamingAndTriggeringPolicy(
@@ -236,8 +241,16 @@ public class FileAppenderFactory extends AbstractAppenderFactory {
             return appender;
         }
 
-        final FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        final FileAppender<ILoggingEvent> appender = newFileAppender();
         appender.setFile(currentLogFilename);
         return appender;
     }
+
+    protected RollingFileAppender<ILoggingEvent> newRollingFileAppender() {
+        return new RollingFileAppender<>();
+    }
+
+    protected FileAppender<ILoggingEvent> newFileAppender() {
+        return new FileAppender<>();
+    }
 }
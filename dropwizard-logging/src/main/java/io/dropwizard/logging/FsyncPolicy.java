@@ -0,0 +1,24 @@
+package io.dropwizard.logging;
+
+/**
+ * When a {@link BatchedFileOutputStream} forces its writes to the storage device, trading
+ * throughput for durability.
+ */
+public enum FsyncPolicy {
+    /**
+     * Never forces writes, and leaves it to the operating system to write them out. Events which
+     * were written to the file survive a crash of the JVM, but not of the machine.
+     */
+    NEVER,
+
+    /**
+     * Forces writes when the file is closed, e.g. when it's rolled over.
+     */
+    ON_CLOSE,
+
+    /**
+     * Forces writes after each batch is written to the file. Events are durable once their batch
+     * is flushed, at the cost of one {@code fsync} per batch.
+     */
+    ON_FLUSH
+}
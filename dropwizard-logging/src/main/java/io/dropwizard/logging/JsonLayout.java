@@ -0,0 +1,305 @@
+package io.dropwizard.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.LayoutBase;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.google.common.collect.ImmutableMap;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * A layout which writes each event as a single line of JSON:
+ * <pre>
+ * {"timestamp":"2012-11-16T05:00:48.123Z","level":"INFO","thread":"main","logger":"com.example.App","message":"Hello"}
+ * </pre>
+ * Events are streamed with a {@link JsonGenerator} into a reusable, thread-local buffer, field
+ * names are encoded once, and the formatted timestamp is cached for the current second.
+ * <p/>
+ * Subclasses can write fields of their own by overriding {@link #writeFields(JsonGenerator, ILoggingEvent)}.
+ */
+public class JsonLayout extends LayoutBase<ILoggingEvent> {
+    protected static final SerializedString TIMESTAMP = new SerializedString("timestamp");
+    protected static final SerializedString LEVEL = new SerializedString("level");
+    protected static final SerializedString THREAD = new SerializedString("thread");
+    protected static final SerializedString LOGGER = new SerializedString("logger");
+    protected static final SerializedString MESSAGE = new SerializedString("message");
+    protected static final SerializedString MDC = new SerializedString("mdc");
+    protected static final SerializedString EXCEPTION = new SerializedString("exception");
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int INITIAL_LINE_CAPACITY = 256;
+    private static final int MAX_RETAINED_LINE_CAPACITY = 16 * 1024;
+
+    private final SimpleDateFormat dateFormat;
+    private final SimpleDateFormat zoneFormat;
+    private volatile CachedDate cachedDate = new CachedDate(Long.MIN_VALUE, "", "");
+
+    private final ThreadLocal<Output> outputs = new ThreadLocal<Output>() {
+        @Override
+        protected Output initialValue() {
+            return new Output();
+        }
+    };
+
+    private boolean includeThreadName = true;
+    private boolean includeMdc = true;
+    private boolean includeStackTrace = true;
+    private Map<SerializableString, SerializableString> additionalFields = ImmutableMap.of();
+
+    public JsonLayout(TimeZone timeZone) {
+        this.dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.ROOT);
+        this.zoneFormat = new SimpleDateFormat("XXX", Locale.ROOT);
+        dateFormat.setTimeZone(timeZone);
+        zoneFormat.setTimeZone(timeZone);
+    }
+
+    public boolean isIncludeThreadName() {
+        return includeThreadName;
+    }
+
+    public void setIncludeThreadName(boolean includeThreadName) {
+        this.includeThreadName = includeThreadName;
+    }
+
+    public boolean isIncludeMdc() {
+        return includeMdc;
+    }
+
+    public void setIncludeMdc(boolean includeMdc) {
+        this.includeMdc = includeMdc;
+    }
+
+    public boolean isIncludeStackTrace() {
+        return includeStackTrace;
+    }
+
+    public void setIncludeStackTrace(boolean includeStackTrace) {
+        this.includeStackTrace = includeStackTrace;
+    }
+
+    /**
+     * Sets constant string fields which are added to every event.
+     */
+    public void setAdditionalFields(Map<String, String> additionalFields) {
+        final ImmutableMap.Builder<SerializableString, SerializableString> encoded = ImmutableMap.builder();
+        for (Map.Entry<String, String> field : additionalFields.entrySet()) {
+            encoded.put(new SerializedString(field.getKey()), new SerializedString(field.getValue()));
+        }
+        this.additionalFields = encoded.build();
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/json";
+    }
+
+    @Override
+    public String doLayout(ILoggingEvent event) {
+        final Output output = outputs.get();
+        boolean completed = false;
+        try {
+            output.writer.reset();
+            final JsonGenerator generator = output.generator;
+            generator.writeStartObject();
+            writeFields(generator, event);
+            for (Map.Entry<SerializableString, SerializableString> field : additionalFields.entrySet()) {
+                generator.writeFieldName(field.getKey());
+                generator.writeString(field.getValue());
+            }
+            generator.writeEndObject();
+            generator.flush();
+            output.writer.write(CoreConstants.LINE_SEPARATOR);
+            completed = true;
+            return output.writer.toString();
+        } catch (IOException e) {
+            // only thrown by the generator, as the writer is in memory
+            throw new IllegalStateException("Unable to write the event as JSON", e);
+        } finally {
+            if (!completed) {
+                // the generator is left in the middle of an object
+                outputs.remove();
+            }
+        }
+    }
+
+    /**
+     * Writes the fields of {@code event} into the current JSON object.
+     *
+     * @param generator the generator, positioned inside the object of the event
+     * @param event     the event
+     * @throws IOException if the generator fails
+     */
+    protected void writeFields(JsonGenerator generator, ILoggingEvent event) throws IOException {
+        writeTimestamp(generator, event.getTimeStamp());
+
+        generator.writeFieldName(LEVEL);
+        generator.writeString(event.getLevel().toString());
+
+        if (includeThreadName) {
+            generator.writeFieldName(THREAD);
+            generator.writeString(event.getThreadName());
+        }
+
+        generator.writeFieldName(LOGGER);
+        generator.writeString(event.getLoggerName());
+
+        generator.writeFieldName(MESSAGE);
+        generator.writeString(event.getFormattedMessage());
+
+        writeMdc(generator, event);
+        writeStackTrace(generator, event);
+    }
+
+    /**
+     * Writes the {@code timestamp} field, in ISO 8601 format with milliseconds and the offset of
+     * the time zone.
+     */
+    protected void writeTimestamp(JsonGenerator generator, long timestamp) throws IOException {
+        long second = timestamp / 1000;
+        int millis = (int) (timestamp % 1000);
+        if (millis < 0) {
+            second--;
+            millis += 1000;
+        }
+        final CachedDate date = formatDate(second);
+
+        final char[] chars = outputs.get().timestamp;
+        final int dateLength = date.dateTime.length();
+        date.dateTime.getChars(0, dateLength, chars, 0);
+        chars[dateLength] = '.';
+        chars[dateLength + 1] = (char) ('0' + millis / 100);
+        chars[dateLength + 2] = (char) ('0' + millis / 10 % 10);
+        chars[dateLength + 3] = (char) ('0' + millis % 10);
+        date.zone.getChars(0, date.zone.length(), chars, dateLength + 4);
+
+        generator.writeFieldName(TIMESTAMP);
+        generator.writeString(chars, 0, dateLength + 4 + date.zone.length());
+    }
+
+    /**
+     * Writes the MDC of {@code event} as a nested {@code mdc} object, if enabled and not empty.
+     */
+    protected void writeMdc(JsonGenerator generator, ILoggingEvent event) throws IOException {
+        if (!includeMdc) {
+            return;
+        }
+        final Map<String, String> mdc = event.getMDCPropertyMap();
+        if (mdc == null || mdc.isEmpty()) {
+            return;
+        }
+        generator.writeFieldName(MDC);
+        generator.writeStartObject();
+        for (Map.Entry<String, String> entry : mdc.entrySet()) {
+            generator.writeStringField(entry.getKey(), entry.getValue());
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the stack trace of the exception of {@code event} as the {@code exception} field, if
+     * enabled and there is one.
+     */
+    protected void writeStackTrace(JsonGenerator generator, ILoggingEvent event) throws IOException {
+        final IThrowableProxy throwable = event.getThrowableProxy();
+        if (!includeStackTrace || throwable == null) {
+            return;
+        }
+        generator.writeFieldName(EXCEPTION);
+        generator.writeString(ThrowableProxyUtil.asString(throwable));
+    }
+
+    private CachedDate formatDate(long second) {
+        final CachedDate cached = cachedDate;
+        if (cached.second == second) {
+            return cached;
+        }
+        final Date date = new Date(second * 1000);
+        final CachedDate formatted;
+        synchronized (dateFormat) {
+            formatted = new CachedDate(second, dateFormat.format(date), zoneFormat.format(date));
+        }
+        cachedDate = formatted;
+        return formatted;
+    }
+
+    private static class CachedDate {
+        private final long second;
+        private final String dateTime;
+        private final String zone;
+
+        private CachedDate(long second, String dateTime, String zone) {
+            this.second = second;
+            this.dateTime = dateTime;
+            this.zone = zone;
+        }
+    }
+
+    /**
+     * The buffers of one thread.
+     */
+    private static class Output {
+        private final LineWriter writer = new LineWriter();
+        private final char[] timestamp = new char[64];
+        private final JsonGenerator generator;
+
+        private Output() {
+            try {
+                this.generator = JSON_FACTORY.createGenerator(writer);
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to create a JSON generator", e);
+            }
+            // events are separated by line separators instead
+            generator.setRootValueSeparator(null);
+        }
+    }
+
+    /**
+     * A {@link Writer} into a reusable {@link StringBuilder}.
+     */
+    private static class LineWriter extends Writer {
+        private StringBuilder builder = new StringBuilder(INITIAL_LINE_CAPACITY);
+
+        private void reset() {
+            if (builder.capacity() > MAX_RETAINED_LINE_CAPACITY) {
+                builder = new StringBuilder(INITIAL_LINE_CAPACITY);
+            } else {
+                builder.setLength(0);
+            }
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            builder.append(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str) {
+            builder.append(str);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package io.dropwizard.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+
+import java.util.TimeZone;
+
+/**
+ * A {@link LayoutFactory} for layouts which write each event as a single line of JSON.
+ * <p/>
+ * <b>Configuration Parameters:</b>
+ * <table>
+ *     <tr>
+ *         <td>Name</td>
+ *         <td>Default</td>
+ *         <td>Description</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code type}</td>
+ *         <td>REQUIRED</td>
+ *         <td>The layout type. Must be {@code json}.</td>
+ *     </tr>
+ *     <tr>
+ *         <td colspan="3">See {@link AbstractJsonLayoutFactory} for more options.</td>
+ *     </tr>
+ * </table>
+ *
+ * @see JsonLayout
+ */
+@JsonTypeName("json")
+public class JsonLayoutFactory extends AbstractJsonLayoutFactory implements LayoutFactory {
+    @Override
+    public JsonLayout build(LoggerContext context, TimeZone timeZone) {
+        return build(new JsonLayout(timeZone), context);
+    }
+}
@@ -0,0 +1,35 @@
+package io.dropwizard.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Layout;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import io.dropwizard.jackson.Discoverable;
+
+import java.util.TimeZone;
+
+/**
+ * A service provider interface for creating Logback {@link Layout} instances, which appenders use
+ * instead of their text {@code logFormat}.
+ * <p/>
+ * To create your own, just:
+ * <ol>
+ * <li>Create a class which implements {@link LayoutFactory}.</li>
+ * <li>Annotate it with {@code @JsonTypeName} and give it a unique type name.</li>
+ * <li>add a {@code META-INF/services/io.dropwizard.logging.LayoutFactory} file with your
+ * implementation's full class name to the class path.</li>
+ * </ol>
+ *
+ * @see JsonLayoutFactory
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+public interface LayoutFactory extends Discoverable {
+    /**
+     * Given a Logback context and a time zone, build a new layout.
+     *
+     * @param context  the Logback context
+     * @param timeZone the time zone to which timestamps will be converted
+     * @return a new, started {@link Layout}
+     */
+    Layout<ILoggingEvent> build(LoggerContext context, TimeZone timeZone);
+}
@@ -0,0 +1,219 @@
+package io.dropwizard.logging;
+
+import ch.qos.logback.core.Context;
+import ch.qos.logback.core.rolling.helper.CompressionMode;
+import ch.qos.logback.core.spi.LifeCycle;
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.codahale.metrics.Timer;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Compresses and prunes archived log files on a dedicated background thread, so that rolling
+ * over doesn't hold up logging. There is one archiver per Logback context, which is stopped when
+ * the context is reset, e.g. because logging is reconfigured.
+ * <p/>
+ * Once it's stopped or its executor is shut down, the archiver runs its tasks on the calling
+ * thread instead.
+ * <p/>
+ * The archiver is a {@link MetricSet} of the time taken to compress files ({@code compression}),
+ * the number of tasks waiting or running ({@code backlog}), and the number of tasks which failed
+ * ({@code failures}).
+ *
+ * @see AsyncArchivingRollingPolicy
+ */
+public class LogArchiver implements MetricSet, LifeCycle {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogArchiver.class);
+    private static final String CONTEXT_KEY = LogArchiver.class.getName();
+
+    private final ExecutorService executor;
+    private final AtomicInteger backlog = new AtomicInteger();
+    private final Timer compression = new Timer();
+    private final Counter failures = new Counter();
+
+    public LogArchiver() {
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactoryBuilder().setNameFormat("log-archiver-%d").setDaemon(true).build());
+    }
+
+    /**
+     * Returns the archiver of {@code context}, creating it if necessary.
+     *
+     * @param context the Logback context
+     * @return the archiver of {@code context}
+     */
+    public static LogArchiver forContext(Context context) {
+        synchronized (context) {
+            LogArchiver archiver = (LogArchiver) context.getObject(CONTEXT_KEY);
+            if (archiver == null) {
+                archiver = new LogArchiver();
+                context.putObject(CONTEXT_KEY, archiver);
+                // resetting the context forgets the archiver, so it must not outlive the reset
+                context.register(archiver);
+            }
+            return archiver;
+        }
+    }
+
+    /**
+     * @return the executor of the archiver, to be shut down when the application stops
+     */
+    public ExecutorService getExecutorService() {
+        return executor;
+    }
+
+    /**
+     * Does nothing, the archiver is started when it's created.
+     */
+    @Override
+    public void start() {
+    }
+
+    /**
+     * Shuts down the executor of the archiver, which finishes the tasks already submitted.
+     */
+    @Override
+    public void stop() {
+        executor.shutdown();
+    }
+
+    @Override
+    public boolean isStarted() {
+        return !executor.isShutdown();
+    }
+
+    /**
+     * @return the number of tasks waiting or running
+     */
+    public int getBacklog() {
+        return backlog.get();
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        return ImmutableMap.<String, Metric>of(
+                "compression", compression,
+                "backlog", new Gauge<Integer>() {
+                    @Override
+                    public Integer getValue() {
+                        return getBacklog();
+                    }
+                },
+                "failures", failures);
+    }
+
+    /**
+     * Compresses {@code source} into {@code target} and deletes {@code source}, then runs
+     * {@code cleanup}, in the background. If compressing fails, {@code source} is renamed to the
+     * name of {@code target} without its {@code .gz} or {@code .zip} suffix instead, so a failed
+     * rollover leaves an uncompressed archive rather than a temporary file.
+     *
+     * @param source          the file to compress
+     * @param target          the compressed file
+     * @param compressionMode how to compress the file
+     * @param cleanup         what to do afterwards, e.g. pruning old archives
+     */
+    public void compress(final File source, final File target, final CompressionMode compressionMode,
+                         final Runnable cleanup) {
+        submit(new Runnable() {
+            @Override
+            public void run() {
+                final Timer.Context context = compression.time();
+                try {
+                    compress(source, target, compressionMode);
+                    if (!source.delete()) {
+                        LOGGER.warn("Unable to delete {}", source);
+                    }
+                } catch (IOException e) {
+                    failures.inc();
+                    LOGGER.error("Unable to compress {} into {}", source, target, e);
+                    keepUncompressed(source, target, compressionMode);
+                } finally {
+                    context.stop();
+                }
+                cleanup.run();
+            }
+        });
+    }
+
+    /**
+     * Runs {@code task} in the background.
+     */
+    public void submit(final Runnable task) {
+        backlog.incrementAndGet();
+        final Runnable tracked = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    failures.inc();
+                    LOGGER.error("Unable to archive logs", e);
+                } finally {
+                    backlog.decrementAndGet();
+                }
+            }
+        };
+        try {
+            executor.execute(tracked);
+        } catch (RejectedExecutionException e) {
+            // the application is shutting down
+            tracked.run();
+        }
+    }
+
+    private static void keepUncompressed(File source, File target, CompressionMode compressionMode) {
+        if (target.isFile() && !target.delete()) {
+            LOGGER.warn("Unable to delete {}", target);
+        }
+        final String suffix = compressionMode == CompressionMode.ZIP ? ".zip" : ".gz";
+        final File uncompressed = new File(target.getParentFile(), stripSuffix(target.getName(), suffix));
+        if (uncompressed.exists() || !source.renameTo(uncompressed)) {
+            LOGGER.error("Unable to rename {} to {}, leaving it in place", source, uncompressed);
+        }
+    }
+
+    private static void compress(File source, File target, CompressionMode compressionMode) throws IOException {
+        try (InputStream input = new FileInputStream(source);
+             OutputStream output = new FileOutputStream(target)) {
+            if (compressionMode == CompressionMode.ZIP) {
+                try (ZipOutputStream zip = new ZipOutputStream(output)) {
+                    zip.putNextEntry(new ZipEntry(stripSuffix(target.getName(), ".zip")));
+                    ByteStreams.copy(input, zip);
+                    zip.closeEntry();
+                }
+            } else {
+                try (GZIPOutputStream gzip = new GZIPOutputStream(output, 64 * 1024)) {
+                    ByteStreams.copy(input, gzip);
+                }
+            }
+        }
+    }
+
+    private static String stripSuffix(String name, String suffix) {
+        return name.endsWith(suffix) ? name.substring(0, name.length() - suffix.length()) : name;
+    }
+}
@@ -0,0 +1,139 @@
+package io.dropwizard.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.util.Duration;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Changes the levels of a number of loggers at once, optionally for a limited time, without
+ * resetting the Logback context. Appenders are left alone, so no events are lost or duplicated.
+ * <p/>
+ * Changes are applied one after the other under a lock, so concurrent changes never interleave.
+ * When a temporary change expires, each of its loggers which hasn't been changed again since gets
+ * back the level it had before its temporary changes began.
+ */
+public class LogLevelOverrides {
+    private static final ScheduledExecutorService REVERTER = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("log-level-reverter-%d").setDaemon(true).build());
+    private static final long ALL = -1;
+
+    private final LoggerContext context;
+    private final ScheduledExecutorService reverter;
+    private final Map<String, PendingRevert> reverts = new HashMap<>();
+    private long generation;
+
+    public LogLevelOverrides(LoggerContext context) {
+        this(context, REVERTER);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param context  the Logback context of the loggers
+     * @param reverter the executor which reverts temporary changes
+     */
+    public LogLevelOverrides(LoggerContext context, ScheduledExecutorService reverter) {
+        this.context = context;
+        this.reverter = reverter;
+    }
+
+    /**
+     * Sets the levels of a number of loggers.
+     *
+     * @param levels the new level of each logger, or {@code null} to inherit the level of its
+     *               parent
+     * @param ttl    how long the new levels last, or absent to keep them until they are changed
+     * @return the previous level of each logger
+     */
+    public Map<String, Level> apply(Map<String, Level> levels, Optional<Duration> ttl) {
+        final Map<String, Level> previous = new LinkedHashMap<>();
+        final long current;
+        synchronized (reverts) {
+            current = ++generation;
+            for (Map.Entry<String, Level> entry : levels.entrySet()) {
+                final Logger logger = context.getLogger(entry.getKey());
+                previous.put(logger.getName(), logger.getLevel());
+
+                final PendingRevert pending = reverts.remove(logger.getName());
+                if (ttl.isPresent()) {
+                    final Level original = pending == null ? logger.getLevel() : pending.original;
+                    reverts.put(logger.getName(), new PendingRevert(current, original, entry.getValue()));
+                }
+                logger.setLevel(entry.getValue());
+            }
+        }
+
+        if (ttl.isPresent()) {
+            reverter.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    revert(current);
+                }
+            }, ttl.get().toMilliseconds(), TimeUnit.MILLISECONDS);
+        }
+        return Collections.unmodifiableMap(previous);
+    }
+
+    /**
+     * Reverts all pending temporary changes at once.
+     */
+    public void revertAll() {
+        revert(ALL);
+    }
+
+    /**
+     * @return the level each logger with a pending temporary change will get back
+     */
+    public Map<String, Level> getPending() {
+        final Map<String, Level> pending = new HashMap<>();
+        synchronized (reverts) {
+            for (Map.Entry<String, PendingRevert> entry : reverts.entrySet()) {
+                pending.put(entry.getKey(), entry.getValue().original);
+            }
+        }
+        return Collections.unmodifiableMap(pending);
+    }
+
+    private void revert(long reverted) {
+        synchronized (reverts) {
+            final Iterator<Map.Entry<String, PendingRevert>> iterator = reverts.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<String, PendingRevert> entry = iterator.next();
+                final PendingRevert override = entry.getValue();
+                if (reverted != ALL && override.generation != reverted) {
+                    continue;
+                }
+                iterator.remove();
+                final Logger logger = context.getLogger(entry.getKey());
+                // don't undo changes made by anyone else in the meantime
+                if (logger.getLevel() == override.level) {
+                    logger.setLevel(override.original);
+                }
+            }
+        }
+    }
+
+    private static class PendingRevert {
+        private final long generation;
+        private final Level original;
+        private final Level level;
+
+        private PendingRevert(long generation, Level original, Level level) {
+            this.generation = generation;
+            this.original = original;
+            this.level = level;
+        }
+    }
+}
@@ -7,9 +7,12 @@ import ch.qos.logback.classic.filter.ThresholdFilter;
 import ch.qos.logback.classic.jmx.JMXConfigurator;
 import ch.qos.logback.classic.jul.LevelChangePropagator;
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
 import ch.qos.logback.core.ConsoleAppender;
 import ch.qos.logback.core.encoder.LayoutWrappingEncoder;
 import ch.qos.logback.core.util.StatusPrinter;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricFilter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.logback.InstrumentedAppender;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -17,6 +20,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 import io.dropwizard.util.Duration;
 import org.slf4j.ILoggerFactory;
 import org.slf4j.LoggerFactory;
@@ -178,9 +182,16 @@ public class LoggingFactory {
             CONFIGURE_LOGGING_LEVEL_LOCK.unlock();
         }
 
+        final List<Appender<ILoggingEvent>> builtAppenders = Lists.newArrayListWithCapacity(appenders.size());
         for (AppenderFactory output : appenders) {
-            root.addAppender(output.build(loggerContext, name, null));
+            final Appender<ILoggingEvent> appender = output.build(loggerContext, name, null);
+            root.addAppender(appender);
+            builtAppenders.add(appender);
         }
+        RingBufferAsyncAppender.registerMetrics(metricRegistry, MetricRegistry.name(RingBufferAsyncAppender.class),
+                                                builtAppenders);
+        TcpSyslogAppender.registerMetrics(metricRegistry, MetricRegistry.name(TcpSyslogAppender.class), builtAppenders);
+        registerArchiverMetrics(metricRegistry);
 
         StatusPrinter.setPrintStream(configurationErrorsStream);
         try {
@@ -213,6 +224,25 @@ public class LoggingFactory {
         loggerContext.stop();
     }
 
+    /**
+     * @return the archiver which compresses and prunes the archives of file appenders
+     */
+    @JsonIgnore
+    public LogArchiver getLogArchiver() {
+        return LogArchiver.forContext(loggerContext);
+    }
+
+    private void registerArchiverMetrics(MetricRegistry metricRegistry) {
+        final String prefix = MetricRegistry.name(LogArchiver.class) + '.';
+        metricRegistry.removeMatching(new MetricFilter() {
+            @Override
+            public boolean matches(String name, Metric metric) {
+                return name.startsWith(prefix);
+            }
+        });
+        metricRegistry.register(MetricRegistry.name(LogArchiver.class), getLogArchiver());
+    }
+
     private void configureInstrumentation(Logger root, MetricRegistry metricRegistry) {
         final InstrumentedAppender appender = new InstrumentedAppender(metricRegistry);
         appender.setContext(loggerContext);
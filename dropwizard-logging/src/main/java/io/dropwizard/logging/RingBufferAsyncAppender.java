@@ -0,0 +1,439 @@
+package io.dropwizard.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AsyncAppenderBase;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricFilter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.MetricSet;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An asynchronous appender like logback's {@link ch.qos.logback.classic.AsyncAppender}, which
+ * hands events to its worker through a preallocated, lock-free ring buffer instead of a
+ * {@link java.util.concurrent.BlockingQueue}.
+ * <p/>
+ * Any number of threads can log concurrently without contending on a lock. The worker drains the
+ * ring buffer in batches of up to {@code batchSize} events, and waits for new events according to
+ * its {@link RingBufferWaitStrategy}. As with logback's appender, events of level INFO and below
+ * are discarded once less than {@code discardingThreshold} slots are free, and other events wait
+ * for a free slot.
+ * <p/>
+ * The appender is a {@link MetricSet} of the number of events in the ring buffer
+ * ({@code queue-depth}) and of the number of discarded events ({@code discarded}).
+ */
+public class RingBufferAsyncAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent>, MetricSet {
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private static final int UNDEFINED = -1;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int MAX_FLUSH_TIME_MILLIS = 1000;
+    private static final long PRODUCER_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final AtomicLong tail = new AtomicLong();
+    private final Counter discarded = new Counter();
+    private int appenderCount = 0;
+
+    private int queueSize = AsyncAppenderBase.DEFAULT_QUEUE_SIZE;
+    private int discardingThreshold = UNDEFINED;
+    private boolean includeCallerData = false;
+    private boolean deferFormatting = false;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private RingBufferWaitStrategy waitStrategy = RingBufferWaitStrategy.BLOCKING;
+
+    // allocated when the appender starts
+    private ILoggingEvent[] events;
+    private AtomicLongArray sequences;
+    private int capacity;
+    private int mask;
+    private Worker worker;
+
+    // only written by the worker
+    private volatile long head;
+    private volatile boolean workerParked;
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * Sets the size of the ring buffer, which is rounded up to the next power of two.
+     */
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public int getDiscardingThreshold() {
+        return discardingThreshold;
+    }
+
+    public void setDiscardingThreshold(int discardingThreshold) {
+        this.discardingThreshold = discardingThreshold;
+    }
+
+    public boolean isIncludeCallerData() {
+        return includeCallerData;
+    }
+
+    public void setIncludeCallerData(boolean includeCallerData) {
+        this.includeCallerData = includeCallerData;
+    }
+
+    public boolean isDeferFormatting() {
+        return deferFormatting;
+    }
+
+    /**
+     * Sets whether the messages of events are formatted by the worker instead of the logging
+     * thread. See {@link DeferredFormattingAsyncAppender}.
+     */
+    public void setDeferFormatting(boolean deferFormatting) {
+        this.deferFormatting = deferFormatting;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public RingBufferWaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public void setWaitStrategy(RingBufferWaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * @return the number of events waiting for the worker
+     */
+    public int getQueueDepth() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    /**
+     * @return the number of events which were discarded since the appender was created
+     */
+    public long getDiscardedCount() {
+        return discarded.getCount();
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        return ImmutableMap.<String, Metric>of(
+                "queue-depth", new Gauge<Integer>() {
+                    @Override
+                    public Integer getValue() {
+                        return getQueueDepth();
+                    }
+                },
+                "discarded", discarded);
+    }
+
+    /**
+     * Registers the metrics of each {@link RingBufferAsyncAppender} among {@code appenders}, named
+     * after {@code prefix} and the name of the appender. Metrics registered by an earlier call are
+     * replaced.
+     *
+     * @param registry  the registry to register the metrics with
+     * @param prefix    the prefix of the metric names
+     * @param appenders the appenders, some of which may be ring buffer appenders
+     */
+    public static void registerMetrics(MetricRegistry registry, String prefix,
+                                       Iterable<? extends Appender<ILoggingEvent>> appenders) {
+        final List<RingBufferAsyncAppender> ringBuffers = Lists.newArrayList();
+        for (Appender<ILoggingEvent> appender : appenders) {
+            if (appender instanceof RingBufferAsyncAppender) {
+                ringBuffers.add((RingBufferAsyncAppender) appender);
+            }
+        }
+        registerMetricSets(registry, prefix, ringBuffers);
+    }
+
+    /**
+     * Registers the metrics of each of {@code appenders}, named after {@code prefix} and the name
+     * of the appender, replacing metrics registered by an earlier call.
+     */
+    static <T extends Appender<ILoggingEvent> & MetricSet> void registerMetricSets(MetricRegistry registry,
+                                                                                  String prefix,
+                                                                                  Iterable<T> appenders) {
+        final Set<String> names = Sets.newHashSet();
+        for (T appender : appenders) {
+            final String baseName = MetricRegistry.name(prefix, appender.getName());
+            String name = baseName;
+            for (int i = 2; !names.add(name); i++) {
+                name = baseName + '-' + i;
+            }
+            final String metricPrefix = name + '.';
+            registry.removeMatching(new MetricFilter() {
+                @Override
+                public boolean matches(String metricName, Metric metric) {
+                    return metricName.startsWith(metricPrefix);
+                }
+            });
+            registry.register(name, appender);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (appenderCount == 0) {
+            addError("No attached appenders found.");
+            return;
+        }
+        if (queueSize < 1) {
+            addError("Invalid queue size [" + queueSize + "]");
+            return;
+        }
+        if (batchSize < 1) {
+            addError("Invalid batch size [" + batchSize + "]");
+            return;
+        }
+
+        capacity = queueSize > MAX_CAPACITY ? MAX_CAPACITY : ceilingPowerOfTwo(queueSize);
+        mask = capacity - 1;
+        events = new ILoggingEvent[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        tail.set(0);
+        head = 0;
+
+        if (discardingThreshold == UNDEFINED) {
+            discardingThreshold = capacity / 5;
+        }
+        addInfo("Setting discardingThreshold to " + discardingThreshold);
+
+        worker = new Worker();
+        worker.setDaemon(true);
+        worker.setName("RingBufferAsyncAppender-Worker-" + getName());
+        super.start();
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+
+        // the worker drains the ring buffer once it notices that the appender has stopped
+        LockSupport.unpark(worker);
+        try {
+            worker.join(MAX_FLUSH_TIME_MILLIS);
+            if (worker.isAlive()) {
+                addWarn("Max queue flush timeout (" + MAX_FLUSH_TIME_MILLIS + " ms) exceeded. Approximately " +
+                                getQueueDepth() + " queued events were possibly discarded.");
+            } else {
+                addInfo("Queue flush finished successfully within timeout.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            addError("Failed to join worker thread. " + getQueueDepth() + " queued events may be discarded.", e);
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (discardingThreshold > 0 && isDiscardable(event) && capacity - getQueueDepth() < discardingThreshold) {
+            discarded.inc();
+            return;
+        }
+
+        if (deferFormatting) {
+            DeferredFormattingAsyncAppender.prepareWithoutFormatting(event);
+        } else {
+            event.prepareForDeferredProcessing();
+        }
+        if (includeCallerData) {
+            event.getCallerData();
+        }
+
+        while (!offer(event)) {
+            if (!isStarted()) {
+                discarded.inc();
+                return;
+            }
+            LockSupport.parkNanos(PRODUCER_BACKOFF_NANOS);
+        }
+
+        if (workerParked) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private static boolean isDiscardable(ILoggingEvent event) {
+        return event.getLevel().toInt() <= Level.INFO_INT;
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        return value == 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    /**
+     * Claims the next slot of the ring buffer and publishes the event in it.
+     *
+     * @return {@code false} if the ring buffer is full
+     */
+    private boolean offer(ILoggingEvent event) {
+        while (true) {
+            final long position = tail.get();
+            final int index = (int) position & mask;
+            final long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    events[index] = event;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                // the worker hasn't consumed the event a full lap ago yet
+                return false;
+            }
+            // another thread claimed the slot first
+        }
+    }
+
+    /**
+     * Moves the published events at the head of the ring buffer into {@code batch}, and frees
+     * their slots. Only called by the worker.
+     * <p/>
+     * The head advances before each slot is freed, so that producers never see more than
+     * {@code capacity} events in the ring buffer.
+     *
+     * @return the number of events in {@code batch}
+     */
+    private int drain(ILoggingEvent[] batch) {
+        long position = head;
+        int count = 0;
+        while (count < batch.length) {
+            final int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            batch[count++] = events[index];
+            events[index] = null;
+            head = position + 1;
+            sequences.lazySet(index, position + capacity);
+            position++;
+        }
+        return count;
+    }
+
+    /**
+     * Parks the worker until a logging thread publishes an event, or the appender stops.
+     */
+    void parkWorker() {
+        workerParked = true;
+        try {
+            // publishers read workerParked after claiming a slot, so either they see it or we see their slot
+            if (tail.get() == head && isStarted()) {
+                LockSupport.parkNanos(this, MAX_PARK_NANOS);
+            }
+        } finally {
+            workerParked = false;
+        }
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> newAppender) {
+        if (appenderCount == 0) {
+            appenderCount++;
+            addInfo("Attaching appender named [" + newAppender.getName() + "] to RingBufferAsyncAppender.");
+            appenders.addAppender(newAppender);
+        } else {
+            addWarn("One and only one appender may be attached to RingBufferAsyncAppender.");
+            addWarn("Ignoring additional appender named [" + newAppender.getName() + "]");
+        }
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+
+    private class Worker extends Thread {
+        @Override
+        public void run() {
+            final ILoggingEvent[] batch = new ILoggingEvent[batchSize];
+            int idleAttempts = 0;
+            while (isStarted()) {
+                final int count = drain(batch);
+                if (count == 0) {
+                    waitStrategy.idle(RingBufferAsyncAppender.this, idleAttempts++);
+                } else {
+                    idleAttempts = 0;
+                    appendBatch(batch, count);
+                }
+            }
+
+            addInfo("Worker thread will flush remaining events before exiting.");
+            int count;
+            while ((count = drain(batch)) > 0) {
+                appendBatch(batch, count);
+            }
+            appenders.detachAndStopAllAppenders();
+        }
+
+        private void appendBatch(ILoggingEvent[] batch, int count) {
+            for (int i = 0; i < count; i++) {
+                appenders.appendLoopOnAppenders(batch[i]);
+                batch[i] = null;
+            }
+        }
+    }
+}
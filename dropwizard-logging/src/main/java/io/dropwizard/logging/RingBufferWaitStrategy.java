@@ -0,0 +1,69 @@
+package io.dropwizard.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How the worker of a {@link RingBufferAsyncAppender} waits while its ring buffer is empty.
+ */
+public enum RingBufferWaitStrategy {
+    /**
+     * Parks the worker until an event arrives. Uses no CPU while idle, but logging threads have to
+     * wake the worker up.
+     */
+    BLOCKING {
+        @Override
+        void idle(RingBufferAsyncAppender appender, int attempt) {
+            appender.parkWorker();
+        }
+    },
+
+    /**
+     * Spins, then yields, then parks the worker for short periods. Logging threads never have to
+     * wake the worker up, at the cost of up to {@link #SLEEP_NANOS} of extra latency.
+     */
+    SLEEPING {
+        @Override
+        void idle(RingBufferAsyncAppender appender, int attempt) {
+            if (attempt >= SPIN_ATTEMPTS + YIELD_ATTEMPTS) {
+                LockSupport.parkNanos(SLEEP_NANOS);
+            } else if (attempt >= SPIN_ATTEMPTS) {
+                Thread.yield();
+            }
+        }
+    },
+
+    /**
+     * Spins, then yields. Low latency, but keeps a CPU core busy.
+     */
+    YIELDING {
+        @Override
+        void idle(RingBufferAsyncAppender appender, int attempt) {
+            if (attempt >= SPIN_ATTEMPTS) {
+                Thread.yield();
+            }
+        }
+    },
+
+    /**
+     * Spins. Lowest latency, but keeps a CPU core busy at all times.
+     */
+    BUSY_SPIN {
+        @Override
+        void idle(RingBufferAsyncAppender appender, int attempt) {
+            // keep polling
+        }
+    };
+
+    public static final long SLEEP_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final int SPIN_ATTEMPTS = 100;
+    private static final int YIELD_ATTEMPTS = 100;
+
+    /**
+     * Called by the worker each time it finds the ring buffer empty.
+     *
+     * @param appender the appender whose worker is waiting
+     * @param attempt  the number of times in a row the ring buffer was empty before
+     */
+    abstract void idle(RingBufferAsyncAppender appender, int attempt);
+}
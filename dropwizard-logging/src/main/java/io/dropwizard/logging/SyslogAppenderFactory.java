@@ -1,6 +1,7 @@
 package io.dropwizard.logging;
 
 import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.PatternLayout;
 import ch.qos.logback.classic.net.SyslogAppender;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.Appender;
@@ -8,12 +9,14 @@ import ch.qos.logback.core.Layout;
 import ch.qos.logback.core.net.SyslogConstants;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.dropwizard.util.Duration;
 
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import java.lang.management.ManagementFactory;
 import java.util.Locale;
+import java.util.TimeZone;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -50,6 +53,50 @@ import java.util.regex.Pattern;
  *         </td>
  *     </tr>
  *     <tr>
+ *         <td>{@code transport}</td>
+ *         <td>{@code udp}</td>
+ *         <td>
+ *             How events are sent. {@code udp} sends one datagram per event. {@code tcp} sends
+ *             RFC 5424 messages with octet-counting framing over a reused connection, in batches.
+ *         </td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code bufferSize}</td>
+ *         <td>10000</td>
+ *         <td>TCP only. The maximum number of messages waiting to be sent.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code sendBatchSize}</td>
+ *         <td>512</td>
+ *         <td>TCP only. The maximum number of messages written to the connection at once.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code dropPolicy}</td>
+ *         <td>{@code drop-newest}</td>
+ *         <td>
+ *             TCP only. Whether new messages ({@code drop-newest}) or the oldest waiting messages
+ *             ({@code drop-oldest}) are dropped while the buffer is full.
+ *         </td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code connectionTimeout}</td>
+ *         <td>5 seconds</td>
+ *         <td>TCP only. The timeout for connecting to the syslog server.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code initialReconnectDelay}</td>
+ *         <td>100 milliseconds</td>
+ *         <td>
+ *             TCP only. How long to wait before reconnecting after a failure. The delay doubles
+ *             with every consecutive failure.
+ *         </td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code maxReconnectDelay}</td>
+ *         <td>30 seconds</td>
+ *         <td>TCP only. The maximum delay between reconnection attempts.</td>
+ *     </tr>
+ *     <tr>
  *         <td>{@code threshold}</td>
  *         <td>{@code ALL}</td>
  *         <td>The lowest level of events to write to the file.</td>
@@ -92,18 +139,25 @@ public class SyslogAppenderFactory extends AbstractAppenderFactory {
         LOCAL7
     }
 
+    public enum Transport {
+        UDP,
+        TCP
+    }
+
     private static final String LOG_TOKEN_NAME = "%app";
     private static final String LOG_TOKEN_PID = "%pid";
 
     private static final Pattern PID_PATTERN = Pattern.compile("(\\d+)@");
     private static String PID = "";
+    private static String PROCESS_ID = null;
 
     // make an attempt to get the PID of the process
     // this will only work on UNIX platforms; for others, the PID will be "unknown"
     static {
         final Matcher matcher = PID_PATTERN.matcher(ManagementFactory.getRuntimeMXBean().getName());
         if (matcher.find()) {
-            PID = "[" + matcher.group(1) + "]";
+            PROCESS_ID = matcher.group(1);
+            PID = "[" + PROCESS_ID + "]";
         }
     }
 
@@ -128,6 +182,27 @@ public class SyslogAppenderFactory extends AbstractAppenderFactory {
 
     private boolean includeStackTrace = true;
 
+    @NotNull
+    private Transport transport = Transport.UDP;
+
+    @Min(1)
+    private int bufferSize = 10000;
+
+    @Min(1)
+    private int sendBatchSize = 512;
+
+    @NotNull
+    private TcpSyslogAppender.DropPolicy dropPolicy = TcpSyslogAppender.DropPolicy.DROP_NEWEST;
+
+    @NotNull
+    private Duration connectionTimeout = Duration.seconds(5);
+
+    @NotNull
+    private Duration initialReconnectDelay = Duration.milliseconds(100);
+
+    @NotNull
+    private Duration maxReconnectDelay = Duration.seconds(30);
+
     /**
      * Returns the Logback pattern with which events will be formatted.
      */
@@ -199,12 +274,85 @@ public class SyslogAppenderFactory extends AbstractAppenderFactory {
         this.stackTracePrefix = stackTracePrefix;
     }
 
+    @JsonProperty
+    public Transport getTransport() {
+        return transport;
+    }
+
+    @JsonProperty
+    public void setTransport(Transport transport) {
+        this.transport = transport;
+    }
+
+    @JsonProperty
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    @JsonProperty
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    @JsonProperty
+    public int getSendBatchSize() {
+        return sendBatchSize;
+    }
+
+    @JsonProperty
+    public void setSendBatchSize(int sendBatchSize) {
+        this.sendBatchSize = sendBatchSize;
+    }
+
+    @JsonProperty
+    public TcpSyslogAppender.DropPolicy getDropPolicy() {
+        return dropPolicy;
+    }
+
+    @JsonProperty
+    public void setDropPolicy(TcpSyslogAppender.DropPolicy dropPolicy) {
+        this.dropPolicy = dropPolicy;
+    }
+
+    @JsonProperty
+    public Duration getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    @JsonProperty
+    public void setConnectionTimeout(Duration connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    @JsonProperty
+    public Duration getInitialReconnectDelay() {
+        return initialReconnectDelay;
+    }
+
+    @JsonProperty
+    public void setInitialReconnectDelay(Duration initialReconnectDelay) {
+        this.initialReconnectDelay = initialReconnectDelay;
+    }
+
+    @JsonProperty
+    public Duration getMaxReconnectDelay() {
+        return maxReconnectDelay;
+    }
+
+    @JsonProperty
+    public void setMaxReconnectDelay(Duration maxReconnectDelay) {
+        this.maxReconnectDelay = maxReconnectDelay;
+    }
+
     @Override
     public Appender<ILoggingEvent> build(LoggerContext context, String applicationName, Layout<ILoggingEvent> layout) {
+        if (transport == Transport.TCP) {
+            return buildTcp(context, applicationName);
+        }
         final SyslogAppender appender = new SyslogAppender();
         appender.setName("syslog-appender");
         appender.setContext(context);
-        appender.setSuffixPattern(logFormat.replaceAll(LOG_TOKEN_PID, PID).replaceAll(LOG_TOKEN_NAME, Matcher.quoteReplacement(applicationName)));
+        appender.setSuffixPattern(buildPattern(applicationName));
         appender.setSyslogHost(host);
         appender.setPort(port);
         appender.setFacility(facility.toString().toLowerCase(Locale.ENGLISH));
@@ -214,4 +362,41 @@ public class SyslogAppenderFactory extends AbstractAppenderFactory {
         appender.start();
         return wrapAsync(appender);
     }
+
+    private Appender<ILoggingEvent> buildTcp(LoggerContext context, String applicationName) {
+        final TcpSyslogAppender appender = new TcpSyslogAppender();
+        appender.setName("syslog-appender");
+        appender.setContext(context);
+        appender.setHost(host);
+        appender.setPort(port);
+        appender.setFacility(facility.toString().toLowerCase(Locale.ENGLISH));
+        appender.setApplicationName(applicationName);
+        appender.setProcessId(PROCESS_ID);
+        appender.setLayout(buildTcpLayout(context, applicationName));
+        appender.setBufferSize(bufferSize);
+        appender.setBatchSize(sendBatchSize);
+        appender.setDropPolicy(dropPolicy);
+        appender.setConnectionTimeout(connectionTimeout);
+        appender.setInitialReconnectDelay(initialReconnectDelay);
+        appender.setMaxReconnectDelay(maxReconnectDelay);
+        addThresholdFilter(appender, threshold);
+        appender.start();
+        return wrapAsync(appender);
+    }
+
+    private Layout<ILoggingEvent> buildTcpLayout(LoggerContext context, String applicationName) {
+        if (getLayout() != null) {
+            return getLayout().build(context, TimeZone.getTimeZone("UTC"));
+        }
+        // octet counting allows stack traces to be sent with their messages
+        final PatternLayout layout = new PatternLayout();
+        layout.setContext(context);
+        layout.setPattern(buildPattern(applicationName) + (includeStackTrace ? "" : "%nopex"));
+        layout.start();
+        return layout;
+    }
+
+    private String buildPattern(String applicationName) {
+        return logFormat.replaceAll(LOG_TOKEN_PID, PID).replaceAll(LOG_TOKEN_NAME, Matcher.quoteReplacement(applicationName));
+    }
 }
@@ -0,0 +1,479 @@
+package io.dropwizard.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LevelToSyslogSeverity;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.Layout;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.net.SyslogAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.MetricSet;
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.util.Duration;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An appender which sends events to a syslog server over TCP, as RFC 5424 messages framed with
+ * octet counting (RFC 6587):
+ * <pre>
+ * 87 &lt;134&gt;1 2012-11-16T05:00:48.123Z host.example.com MyApplication 4711 - - [main] com.example.App Hello
+ * </pre>
+ * Messages are encoded on the logging thread and put into a bounded buffer. A background thread
+ * takes them out in batches and writes each batch to one long-lived connection at once. If the
+ * connection fails, the thread reconnects with an exponential backoff and sends the failed batch
+ * again, while new messages keep filling the buffer. Once it is full, messages are dropped
+ * according to the {@link DropPolicy}, and a warning is added to the status of the Logback context.
+ * <p/>
+ * The appender is a {@link MetricSet} of the number of {@code dropped} messages and the
+ * {@code backlog} of messages waiting to be sent; see {@link #registerMetrics}.
+ */
+public class TcpSyslogAppender extends UnsynchronizedAppenderBase<ILoggingEvent> implements MetricSet {
+    /**
+     * What to do with a message when the buffer is full.
+     */
+    public enum DropPolicy {
+        /**
+         * Drops the new message.
+         */
+        DROP_NEWEST,
+
+        /**
+         * Drops the oldest message in the buffer to make room for the new one.
+         */
+        DROP_OLDEST
+    }
+
+    private static final int SOCKET_BUFFER_SIZE = 64 * 1024;
+    private static final String NIL = "-";
+
+    private final Counter dropped = new Counter();
+    private final SimpleDateFormat timestampFormat;
+
+    private String host = "localhost";
+    private int port = 514;
+    private String facility = "local0";
+    private String applicationName;
+    private String processId;
+    private Layout<ILoggingEvent> layout;
+    private int bufferSize = 10000;
+    private int batchSize = 512;
+    private DropPolicy dropPolicy = DropPolicy.DROP_NEWEST;
+    private Duration connectionTimeout = Duration.seconds(5);
+    private Duration initialReconnectDelay = Duration.milliseconds(100);
+    private Duration maxReconnectDelay = Duration.seconds(30);
+
+    private int facilityCode;
+    private String hostname;
+    private BlockingQueue<byte[]> buffer;
+    private Thread sender;
+    private volatile boolean running;
+    private volatile boolean dropping;
+
+    public TcpSyslogAppender() {
+        this.timestampFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.ROOT);
+        timestampFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public String getFacility() {
+        return facility;
+    }
+
+    /**
+     * Sets the syslog facility, e.g. {@code local0}.
+     */
+    public void setFacility(String facility) {
+        this.facility = facility;
+    }
+
+    public String getApplicationName() {
+        return applicationName;
+    }
+
+    public void setApplicationName(String applicationName) {
+        this.applicationName = applicationName;
+    }
+
+    public String getProcessId() {
+        return processId;
+    }
+
+    public void setProcessId(String processId) {
+        this.processId = processId;
+    }
+
+    public Layout<ILoggingEvent> getLayout() {
+        return layout;
+    }
+
+    /**
+     * Sets the layout of the {@code MSG} part of each message.
+     */
+    public void setLayout(Layout<ILoggingEvent> layout) {
+        this.layout = layout;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Sets the maximum number of messages waiting to be sent.
+     */
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the maximum number of messages written to the connection at once.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public DropPolicy getDropPolicy() {
+        return dropPolicy;
+    }
+
+    public void setDropPolicy(DropPolicy dropPolicy) {
+        this.dropPolicy = dropPolicy;
+    }
+
+    public Duration getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    public void setConnectionTimeout(Duration connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public Duration getInitialReconnectDelay() {
+        return initialReconnectDelay;
+    }
+
+    public void setInitialReconnectDelay(Duration initialReconnectDelay) {
+        this.initialReconnectDelay = initialReconnectDelay;
+    }
+
+    public Duration getMaxReconnectDelay() {
+        return maxReconnectDelay;
+    }
+
+    public void setMaxReconnectDelay(Duration maxReconnectDelay) {
+        this.maxReconnectDelay = maxReconnectDelay;
+    }
+
+    /**
+     * @return the number of messages dropped because the buffer was full
+     */
+    public long getDroppedCount() {
+        return dropped.getCount();
+    }
+
+    /**
+     * @return the number of messages waiting to be sent
+     */
+    public int getBacklog() {
+        final BlockingQueue<byte[]> queue = buffer;
+        return queue == null ? 0 : queue.size();
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        return ImmutableMap.<String, Metric>of(
+                "dropped", dropped,
+                "backlog", new Gauge<Integer>() {
+                    @Override
+                    public Integer getValue() {
+                        return getBacklog();
+                    }
+                });
+    }
+
+    /**
+     * Registers the metrics of each {@link TcpSyslogAppender} among {@code appenders}, or attached
+     * to one of them (e.g. to an asynchronous wrapper), named after {@code prefix} and the name of
+     * the appender.
+     *
+     * @param registry  the registry
+     * @param prefix    the prefix of the metric names
+     * @param appenders the appenders, some of which may be {@link TcpSyslogAppender}s
+     */
+    public static void registerMetrics(MetricRegistry registry, String prefix,
+                                       Iterable<? extends Appender<ILoggingEvent>> appenders) {
+        final List<TcpSyslogAppender> syslogAppenders = Lists.newArrayList();
+        for (Appender<ILoggingEvent> appender : appenders) {
+            if (appender instanceof TcpSyslogAppender) {
+                syslogAppenders.add((TcpSyslogAppender) appender);
+            } else if (appender instanceof AppenderAttachable) {
+                @SuppressWarnings("unchecked")
+                final Iterator<Appender<ILoggingEvent>> attached =
+                        ((AppenderAttachable<ILoggingEvent>) appender).iteratorForAppenders();
+                while (attached.hasNext()) {
+                    final Appender<ILoggingEvent> nested = attached.next();
+                    if (nested instanceof TcpSyslogAppender) {
+                        syslogAppenders.add((TcpSyslogAppender) nested);
+                    }
+                }
+            }
+        }
+        RingBufferAsyncAppender.registerMetricSets(registry, prefix, syslogAppenders);
+    }
+
+    @Override
+    public void start() {
+        if (layout == null) {
+            addError("No layout set for the appender named [" + name + "].");
+            return;
+        }
+        if (bufferSize < 1 || batchSize < 1) {
+            addError("Invalid buffer size " + bufferSize + " or batch size " + batchSize);
+            return;
+        }
+        try {
+            facilityCode = SyslogAppenderBase.facilityStringToint(facility);
+        } catch (IllegalArgumentException e) {
+            addError("Invalid syslog facility " + facility, e);
+            return;
+        }
+        hostname = localHostname();
+        buffer = new ArrayBlockingQueue<>(bufferSize);
+        running = true;
+
+        final ThreadFactory threadFactory = new ThreadFactoryBuilder()
+                .setNameFormat("syslog-tcp-sender-%d")
+                .setDaemon(true)
+                .build();
+        sender = threadFactory.newThread(new Runnable() {
+            @Override
+            public void run() {
+                send();
+            }
+        });
+        sender.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        running = false;
+        try {
+            // give the sender a chance to send what's left
+            sender.join(connectionTimeout.toMilliseconds());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (sender.isAlive()) {
+            // the sender closes the connection on its way out
+            sender.interrupt();
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        final byte[] message = encode(event);
+        if (buffer.offer(message)) {
+            return;
+        }
+        if (dropPolicy == DropPolicy.DROP_OLDEST) {
+            while (!buffer.offer(message)) {
+                if (buffer.poll() != null) {
+                    drop();
+                }
+            }
+        } else {
+            drop();
+        }
+    }
+
+    private void drop() {
+        dropped.inc();
+        if (!dropping) {
+            // warn once until the sender catches up again
+            dropping = true;
+            addWarn("The buffer of " + bufferSize + " messages to syslog server " + host + ":" + port +
+                    " is full, dropping messages");
+        }
+    }
+
+    /**
+     * Encodes {@code event} as an RFC 5424 message, prefixed with its length in bytes.
+     */
+    protected byte[] encode(ILoggingEvent event) {
+        final int priority = facilityCode + LevelToSyslogSeverity.convert(event);
+        final String timestamp;
+        synchronized (timestampFormat) {
+            timestamp = timestampFormat.format(new Date(event.getTimeStamp()));
+        }
+
+        final StringBuilder message = new StringBuilder(256);
+        message.append('<').append(priority).append(">1 ")
+               .append(timestamp).append(' ')
+               .append(hostname).append(' ')
+               .append(headerField(applicationName, 48)).append(' ')
+               .append(headerField(processId, 128)).append(' ')
+               // no MSGID and no STRUCTURED-DATA
+               .append(NIL).append(' ').append(NIL).append(' ')
+               .append(trimLineSeparator(layout.doLayout(event)));
+
+        final byte[] bytes = message.toString().getBytes(Charsets.UTF_8);
+        final byte[] length = (Integer.toString(bytes.length) + ' ').getBytes(Charsets.US_ASCII);
+        final byte[] frame = new byte[length.length + bytes.length];
+        System.arraycopy(length, 0, frame, 0, length.length);
+        System.arraycopy(bytes, 0, frame, length.length, bytes.length);
+        return frame;
+    }
+
+    private void send() {
+        final List<byte[]> batch = new ArrayList<>(batchSize);
+        long reconnectDelay = initialReconnectDelay.toMilliseconds();
+        // only this thread touches the connection, and closes it once the buffer has been drained
+        Socket socket = null;
+        OutputStream output = null;
+        try {
+            while (running || !batch.isEmpty() || !buffer.isEmpty()) {
+                try {
+                    if (batch.isEmpty()) {
+                        final byte[] first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                        if (first == null) {
+                            continue;
+                        }
+                        batch.add(first);
+                        buffer.drainTo(batch, batchSize - 1);
+                    }
+
+                    if (socket == null) {
+                        socket = connect();
+                        output = new BufferedOutputStream(socket.getOutputStream(), SOCKET_BUFFER_SIZE);
+                    }
+                    for (byte[] message : batch) {
+                        output.write(message);
+                    }
+                    output.flush();
+                    batch.clear();
+                    reconnectDelay = initialReconnectDelay.toMilliseconds();
+                    if (dropping && buffer.isEmpty()) {
+                        dropping = false;
+                    }
+                } catch (IOException e) {
+                    addWarn("Unable to send to syslog server " + host + ":" + port + ", retrying in " +
+                            reconnectDelay + "ms", e);
+                    closeQuietly(socket);
+                    socket = null;
+                    output = null;
+                    if (!running) {
+                        // don't hold up shutdown to retry
+                        break;
+                    }
+                    Thread.sleep(reconnectDelay);
+                    reconnectDelay = Math.min(reconnectDelay * 2, maxReconnectDelay.toMilliseconds());
+                }
+            }
+        } catch (InterruptedException ignored) {
+            // stopped while waiting
+        } finally {
+            closeQuietly(socket);
+        }
+    }
+
+    private Socket connect() throws IOException {
+        final Socket connection = new Socket();
+        try {
+            connection.setKeepAlive(true);
+            connection.setTcpNoDelay(true);
+            connection.connect(new InetSocketAddress(host, port), (int) connectionTimeout.toMilliseconds());
+            return connection;
+        } catch (IOException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    private static void closeQuietly(Socket connection) {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (IOException ignored) {
+                // the connection is abandoned anyway
+            }
+        }
+    }
+
+    private static String headerField(String value, int maxLength) {
+        if (value == null || value.isEmpty()) {
+            return NIL;
+        }
+        // header fields are printable US-ASCII without spaces
+        final StringBuilder field = new StringBuilder(Math.min(value.length(), maxLength));
+        for (int i = 0; i < value.length() && field.length() < maxLength; i++) {
+            final char c = value.charAt(i);
+            field.append(c > 32 && c < 127 ? c : '_');
+        }
+        return field.toString();
+    }
+
+    private static String trimLineSeparator(String message) {
+        int end = message.length();
+        while (end > 0 && (message.charAt(end - 1) == '\n' || message.charAt(end - 1) == '\r')) {
+            end--;
+        }
+        return message.substring(0, end);
+    }
+
+    private static String localHostname() {
+        try {
+            return headerField(InetAddress.getLocalHost().getHostName(), 255);
+        } catch (UnknownHostException e) {
+            return NIL;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package io.dropwizard.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.PatternLayout;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.LayoutWrappingEncoder;
+import ch.qos.logback.core.rolling.RollingFileAppender;
+import com.google.common.base.Charsets;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilenameFilter;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AsyncArchivingRollingPolicyTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final LoggerContext context = new LoggerContext();
+    private final FileAppenderFactory factory = new FileAppenderFactory() {
+        @Override
+        public FileAppender<ILoggingEvent> buildAppender(LoggerContext context) {
+            return super.buildAppender(context);
+        }
+    };
+
+    @After
+    public void tearDown() throws Exception {
+        LogArchiver.forContext(context).getExecutorService().shutdownNow();
+    }
+
+    @Test
+    public void isUsedByFileAppenders() throws Exception {
+        factory.setCurrentLogFilename(new File(folder.getRoot(), "app.log").getPath());
+        factory.setArchivedLogFilenamePattern(new File(folder.getRoot(), "app-%d.log.gz").getPath());
+        final RollingFileAppender<ILoggingEvent> appender =
+                (RollingFileAppender<ILoggingEvent>) factory.buildAppender(context);
+
+        assertThat(appender.getRollingPolicy()).isInstanceOf(AsyncArchivingRollingPolicy.class);
+    }
+
+    @Test
+    public void compressesTheRolledOverFileInTheBackground() throws Exception {
+        final File active = new File(folder.getRoot(), "app.log");
+        factory.setCurrentLogFilename(active.getPath());
+        factory.setArchivedLogFilenamePattern(new File(folder.getRoot(), "app-%d.log.gz").getPath());
+        final RollingFileAppender<ILoggingEvent> appender =
+                (RollingFileAppender<ILoggingEvent>) factory.buildAppender(context);
+        appender.setContext(context);
+        appender.setEncoder(encoder("%m%n"));
+        appender.start();
+
+        appender.doAppend(event("before"));
+        // like logback's own rolling tests, move the clock of the triggering policy to the next
+        // period, so that the next event rolls the file over
+        final AsyncArchivingRollingPolicy<ILoggingEvent> policy =
+                (AsyncArchivingRollingPolicy<ILoggingEvent>) appender.getRollingPolicy();
+        policy.getTimeBasedFileNamingAndTriggeringPolicy()
+              .setCurrentTime(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+        appender.doAppend(event("after"));
+
+        final LogArchiver archiver = LogArchiver.forContext(context);
+        for (int i = 0; i < 500 && archiver.getBacklog() > 0; i++) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        appender.stop();
+
+        final File[] archives = folder.getRoot().listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.startsWith("app-");
+            }
+        });
+        assertThat(archives).hasSize(1);
+        assertThat(archives[0].getName()).endsWith(".log.gz");
+        try (GZIPInputStream input = new GZIPInputStream(new FileInputStream(archives[0]))) {
+            assertThat(new String(ByteStreams.toByteArray(input), Charsets.UTF_8)).isEqualTo("before\n");
+        }
+        assertThat(Files.toString(active, Charsets.UTF_8)).isEqualTo("after\n");
+    }
+
+    @Test
+    public void doesNotArchiveBeforeAPeriodHasElapsed() throws Exception {
+        final File active = new File(folder.getRoot(), "app.log");
+        factory.setCurrentLogFilename(active.getPath());
+        factory.setArchivedLogFilenamePattern(new File(folder.getRoot(), "app-%d.log.gz").getPath());
+        final RollingFileAppender<ILoggingEvent> appender =
+                (RollingFileAppender<ILoggingEvent>) factory.buildAppender(context);
+        appender.setContext(context);
+        appender.setEncoder(encoder("%m%n"));
+        appender.start();
+
+        appender.doAppend(event("before"));
+        appender.rollover();
+        appender.doAppend(event("after"));
+        appender.stop();
+
+        assertThat(folder.getRoot().list()).containsOnly("app.log");
+        assertThat(new File("null.gz")).doesNotExist();
+        assertThat(Files.toString(active, Charsets.UTF_8)).isEqualTo("before\nafter\n");
+    }
+
+    private LayoutWrappingEncoder<ILoggingEvent> encoder(String pattern) {
+        final PatternLayout layout = new PatternLayout();
+        layout.setContext(context);
+        layout.setPattern(pattern);
+        layout.start();
+
+        final LayoutWrappingEncoder<ILoggingEvent> encoder = new LayoutWrappingEncoder<>();
+        encoder.setContext(context);
+        encoder.setLayout(layout);
+        return encoder;
+    }
+
+    private static LoggingEvent event(String message) {
+        final LoggingEvent event = new LoggingEvent();
+        event.setLevel(Level.INFO);
+        event.setMessage(message);
+        return event;
+    }
+}
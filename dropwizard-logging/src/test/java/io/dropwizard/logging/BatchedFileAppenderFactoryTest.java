@@ -0,0 +1,91 @@
+package io.dropwizard.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.PatternLayout;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.FileAppender;
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import io.dropwizard.jackson.DiscoverableSubtypeResolver;
+import io.dropwizard.util.Duration;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BatchedFileAppenderFactoryTest {
+    static {
+        LoggingFactory.bootstrap();
+    }
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final BatchedFileAppenderFactory factory = new BatchedFileAppenderFactory() {
+        @Override
+        public FileAppender<ILoggingEvent> buildAppender(LoggerContext context) {
+            return super.buildAppender(context);
+        }
+    };
+
+    @Test
+    public void isDiscoverable() throws Exception {
+        assertThat(new DiscoverableSubtypeResolver().getDiscoveredSubtypes())
+                .contains(BatchedFileAppenderFactory.class);
+    }
+
+    @Test
+    public void buildsABatchedRollingAppender() throws Exception {
+        factory.setCurrentLogFilename(new File(folder.getRoot(), "app.log").getPath());
+        factory.setArchivedLogFilenamePattern(new File(folder.getRoot(), "app-%d.log.gz").getPath());
+
+        assertThat(factory.buildAppender(new LoggerContext()))
+                .isInstanceOf(BatchedRollingFileAppender.class);
+    }
+
+    @Test
+    public void buildsABatchedAppenderWithoutArchiving() throws Exception {
+        factory.setCurrentLogFilename(new File(folder.getRoot(), "app.log").getPath());
+        factory.setArchive(false);
+
+        assertThat(factory.buildAppender(new LoggerContext()))
+                .isInstanceOf(BatchedFileAppender.class);
+    }
+
+    @Test
+    public void writesEventsInBatches() throws Exception {
+        final File file = new File(folder.getRoot(), "app.log");
+        factory.setCurrentLogFilename(file.getPath());
+        factory.setArchivedLogFilenamePattern(new File(folder.getRoot(), "app-%d.log.gz").getPath());
+        factory.setFlushInterval(Duration.minutes(1));
+
+        final LoggerContext context = new LoggerContext();
+        final PatternLayout layout = new PatternLayout();
+        layout.setContext(context);
+        layout.setPattern("%m%n");
+        layout.start();
+
+        final FileAppender<ILoggingEvent> appender = factory.buildAppender(context);
+        appender.setEncoder(factory.buildEncoder(context, layout));
+        appender.start();
+        for (int i = 0; i < 3; i++) {
+            final LoggingEvent event = new LoggingEvent();
+            event.setLevel(Level.INFO);
+            event.setMessage("event " + i);
+            appender.doAppend(event);
+        }
+
+        // the batch is still buffered
+        assertThat(file.length()).isZero();
+
+        appender.stop();
+
+        assertThat(Files.readLines(file, Charsets.UTF_8))
+                .containsExactly("event 0", "event 1", "event 2");
+    }
+}
@@ -0,0 +1,91 @@
+package io.dropwizard.logging;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+
+public class BatchedFileOutputStreamTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void buffersWritesUntilFlushed() throws Exception {
+        final File file = new File(folder.getRoot(), "logs/app.log");
+        final BatchedFileOutputStream output = new BatchedFileOutputStream(file, true, 1024, 60000, FsyncPolicy.NEVER);
+        try {
+            output.write("one\n".getBytes(Charsets.UTF_8));
+            assertThat(file.length()).isZero();
+
+            output.flush();
+            assertThat(Files.toString(file, Charsets.UTF_8)).isEqualTo("one\n");
+        } finally {
+            output.close();
+        }
+    }
+
+    @Test
+    public void writesTheBufferOnceItIsFull() throws Exception {
+        final File file = folder.newFile("app.log");
+        final BatchedFileOutputStream output = new BatchedFileOutputStream(file, true, 4, 60000, FsyncPolicy.ON_FLUSH);
+        try {
+            output.write("abc".getBytes(Charsets.UTF_8));
+            output.write("def".getBytes(Charsets.UTF_8));
+            assertThat(Files.toString(file, Charsets.UTF_8)).isEqualTo("abc");
+
+            output.write("longer than the buffer".getBytes(Charsets.UTF_8));
+            assertThat(Files.toString(file, Charsets.UTF_8)).isEqualTo("abcdeflonger than the buffer");
+        } finally {
+            output.close();
+        }
+    }
+
+    @Test
+    public void flushesPeriodically() throws Exception {
+        final File file = folder.newFile("app.log");
+        final BatchedFileOutputStream output = new BatchedFileOutputStream(file, true, 1024, 10, FsyncPolicy.NEVER);
+        try {
+            output.write('x');
+            for (int i = 0; i < 500 && file.length() == 0; i++) {
+                Thread.sleep(10);
+            }
+            assertThat(Files.toString(file, Charsets.UTF_8)).isEqualTo("x");
+        } finally {
+            output.close();
+        }
+    }
+
+    @Test
+    public void writesTheBufferWhenClosed() throws Exception {
+        final File file = folder.newFile("app.log");
+        Files.write("old\n", file, Charsets.UTF_8);
+
+        final BatchedFileOutputStream output = new BatchedFileOutputStream(file, true, 1024, 60000, FsyncPolicy.ON_CLOSE);
+        output.write("new\n".getBytes(Charsets.UTF_8));
+        output.close();
+        output.close();
+
+        assertThat(Files.toString(file, Charsets.UTF_8)).isEqualTo("old\nnew\n");
+    }
+
+    @Test
+    public void rejectsWritesOnceClosed() throws Exception {
+        final BatchedFileOutputStream output =
+                new BatchedFileOutputStream(folder.newFile("app.log"), false, 1024, 60000, FsyncPolicy.NEVER);
+        output.close();
+
+        try {
+            output.write('x');
+            failBecauseExceptionWasNotThrown(IOException.class);
+        } catch (IOException e) {
+            assertThat(e.getMessage()).isEqualTo("Stream closed");
+        }
+    }
+}
@@ -50,4 +50,45 @@ public class ConsoleAppenderFactoryTest {
 
         assertThat(appender.getName()).isEqualTo("async-console-appender");
     }
+
+    @Test
+    public void wrapsTheAppenderInARingBuffer() throws Exception {
+        final ConsoleAppenderFactory appenderFactory = new ConsoleAppenderFactory();
+        appenderFactory.setQueueType(AbstractAppenderFactory.QueueType.RING_BUFFER);
+        appenderFactory.setWaitStrategy(RingBufferWaitStrategy.YIELDING);
+        appenderFactory.setIncludeCallerData(true);
+
+        final Appender<ILoggingEvent> appender = appenderFactory.build(new LoggerContext(), "test", null);
+        try {
+            assertThat(appender).isInstanceOf(RingBufferAsyncAppender.class);
+            final RingBufferAsyncAppender ringBuffer = (RingBufferAsyncAppender) appender;
+            assertThat(ringBuffer.getName()).isEqualTo("async-console-appender");
+            assertThat(ringBuffer.getWaitStrategy()).isEqualTo(RingBufferWaitStrategy.YIELDING);
+            assertThat(ringBuffer.isIncludeCallerData()).isTrue();
+            assertThat(ringBuffer.isStarted()).isTrue();
+        } finally {
+            appender.stop();
+        }
+    }
+
+    @Test
+    public void defersFormattingWhenEnabled() throws Exception {
+        final ConsoleAppenderFactory appenderFactory = new ConsoleAppenderFactory();
+        appenderFactory.setDeferFormatting(true);
+
+        final Appender<ILoggingEvent> appender = appenderFactory.build(new LoggerContext(), "test", null);
+        try {
+            assertThat(appender).isInstanceOf(DeferredFormattingAsyncAppender.class);
+        } finally {
+            appender.stop();
+        }
+
+        appenderFactory.setQueueType(AbstractAppenderFactory.QueueType.RING_BUFFER);
+        final Appender<ILoggingEvent> ringBuffer = appenderFactory.build(new LoggerContext(), "test", null);
+        try {
+            assertThat(((RingBufferAsyncAppender) ringBuffer).isDeferFormatting()).isTrue();
+        } finally {
+            ringBuffer.stop();
+        }
+    }
 }
@@ -0,0 +1,93 @@
+package io.dropwizard.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.MDC;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DeferredFormattingAsyncAppenderTest {
+    private final LoggerContext context = new LoggerContext();
+    private final Logger logger = context.getLogger("test");
+    private final DeferredFormattingAsyncAppender appender = new DeferredFormattingAsyncAppender();
+    private final FormattingAppender delegate = new FormattingAppender();
+
+    @Before
+    public void setUp() throws Exception {
+        delegate.setContext(context);
+        delegate.start();
+
+        appender.setContext(context);
+        appender.setDiscardingThreshold(0);
+        appender.addAppender(delegate);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        appender.stop();
+        MDC.clear();
+    }
+
+    @Test
+    public void formatsMessagesOnTheWorker() throws Exception {
+        final ThreadRecordingArgument argument = new ThreadRecordingArgument();
+        logger.info("Hello, {}", argument);
+
+        assertThat(delegate.await()).isTrue();
+        assertThat(delegate.messages).containsExactly("Hello, world");
+        assertThat(argument.formattedOn).isNotNull().isNotEqualTo(Thread.currentThread().getName());
+    }
+
+    @Test
+    public void capturesTheThreadNameAndMdcOfTheLoggingThread() throws Exception {
+        MDC.put("requestId", "abc");
+        logger.info("Hello");
+        MDC.put("requestId", "def");
+
+        assertThat(delegate.await()).isTrue();
+        assertThat(delegate.threadNames).containsExactly(Thread.currentThread().getName());
+        assertThat(delegate.mdcs.get(0)).containsEntry("requestId", "abc");
+    }
+
+    private static class ThreadRecordingArgument {
+        private volatile String formattedOn;
+
+        @Override
+        public String toString() {
+            formattedOn = Thread.currentThread().getName();
+            return "world";
+        }
+    }
+
+    private static class FormattingAppender extends AppenderBase<ILoggingEvent> {
+        private final CountDownLatch appended = new CountDownLatch(1);
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+        private final List<String> threadNames = new CopyOnWriteArrayList<>();
+        private final List<Map<String, String>> mdcs = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            messages.add(event.getFormattedMessage());
+            threadNames.add(event.getThreadName());
+            mdcs.add(event.getMDCPropertyMap());
+            appended.countDown();
+        }
+
+        private boolean await() throws InterruptedException {
+            return appended.await(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.dropwizard.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.spi.ThrowableProxy;
+import ch.qos.logback.core.CoreConstants;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+import io.dropwizard.jackson.DiscoverableSubtypeResolver;
+import org.junit.Test;
+
+import java.util.TimeZone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsonLayoutTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final JsonLayoutFactory factory = new JsonLayoutFactory();
+    private final LoggingEvent event = event("Hello, {}");
+
+    private static LoggingEvent event(String message) {
+        // the message of an event can only be set once
+        final LoggingEvent event = new LoggingEvent();
+        event.setTimeStamp(1353042048123L);
+        event.setLevel(Level.WARN);
+        event.setThreadName("main");
+        event.setLoggerName("com.example.App");
+        event.setMessage(message);
+        event.setArgumentArray(new Object[]{"world"});
+        event.setMDCPropertyMap(ImmutableMap.of("requestId", "abc"));
+        return event;
+    }
+
+    @Test
+    public void isDiscoverable() throws Exception {
+        assertThat(new DiscoverableSubtypeResolver().getDiscoveredSubtypes())
+                .contains(JsonLayoutFactory.class);
+    }
+
+    @Test
+    public void writesTheEventAsOneLineOfJson() throws Exception {
+        final String line = layout(TimeZone.getTimeZone("UTC")).doLayout(event);
+
+        assertThat(line)
+                .endsWith(CoreConstants.LINE_SEPARATOR)
+                .doesNotContain("\n{");
+
+        final JsonNode json = mapper.readTree(line);
+        assertThat(json.get("timestamp").asText()).isEqualTo("2012-11-16T05:00:48.123Z");
+        assertThat(json.get("level").asText()).isEqualTo("WARN");
+        assertThat(json.get("thread").asText()).isEqualTo("main");
+        assertThat(json.get("logger").asText()).isEqualTo("com.example.App");
+        assertThat(json.get("message").asText()).isEqualTo("Hello, world");
+        assertThat(json.get("mdc").get("requestId").asText()).isEqualTo("abc");
+        assertThat(json.has("exception")).isFalse();
+    }
+
+    @Test
+    public void convertsTimestampsToTheTimeZone() throws Exception {
+        event.setTimeStamp(1353042048007L);
+        final JsonNode json = mapper.readTree(layout(TimeZone.getTimeZone("GMT+05:30")).doLayout(event));
+
+        assertThat(json.get("timestamp").asText()).isEqualTo("2012-11-16T10:30:48.007+05:30");
+    }
+
+    @Test
+    public void reusesItsBuffersForConsecutiveEvents() throws Exception {
+        final JsonLayout layout = layout(TimeZone.getTimeZone("UTC"));
+        final String first = layout.doLayout(event);
+
+        layout.doLayout(event(Strings.repeat("long ", 10000)));
+
+        assertThat(layout.doLayout(event("Hello, {}"))).isEqualTo(first);
+    }
+
+    @Test
+    public void writesStackTraces() throws Exception {
+        event.setThrowableProxy(new ThrowableProxy(new IllegalStateException("oh noes")));
+        final JsonNode json = mapper.readTree(layout(TimeZone.getTimeZone("UTC")).doLayout(event));
+
+        assertThat(json.get("exception").asText())
+                .startsWith("java.lang.IllegalStateException: oh noes");
+    }
+
+    @Test
+    public void omitsDisabledFields() throws Exception {
+        factory.setIncludeThreadName(false);
+        factory.setIncludeMdc(false);
+        factory.setIncludeStackTrace(false);
+        event.setThrowableProxy(new ThrowableProxy(new IllegalStateException("oh noes")));
+        final JsonNode json = mapper.readTree(layout(TimeZone.getTimeZone("UTC")).doLayout(event));
+
+        assertThat(json.has("thread")).isFalse();
+        assertThat(json.has("mdc")).isFalse();
+        assertThat(json.has("exception")).isFalse();
+    }
+
+    @Test
+    public void writesAdditionalFields() throws Exception {
+        factory.setAdditionalFields(ImmutableMap.of("service", "example"));
+        final JsonNode json = mapper.readTree(layout(TimeZone.getTimeZone("UTC")).doLayout(event));
+
+        assertThat(json.get("service").asText()).isEqualTo("example");
+    }
+
+    private JsonLayout layout(TimeZone timeZone) {
+        return factory.build(new LoggerContext(), timeZone);
+    }
+}
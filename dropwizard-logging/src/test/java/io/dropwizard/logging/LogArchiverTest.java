@@ -0,0 +1,171 @@
+package io.dropwizard.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.rolling.helper.CompressionMode;
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
+import com.google.common.base.Charsets;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LogArchiverTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final LogArchiver archiver = new LogArchiver();
+
+    @After
+    public void tearDown() throws Exception {
+        archiver.getExecutorService().shutdownNow();
+    }
+
+    @Test
+    public void hasOneArchiverPerContext() throws Exception {
+        final LoggerContext context = new LoggerContext();
+
+        assertThat(LogArchiver.forContext(context))
+                .isSameAs(LogArchiver.forContext(context))
+                .isNotSameAs(LogArchiver.forContext(new LoggerContext()));
+    }
+
+    @Test
+    public void isStoppedWhenItsContextIsReset() throws Exception {
+        final LoggerContext context = new LoggerContext();
+        final LogArchiver first = LogArchiver.forContext(context);
+
+        context.reset();
+
+        assertThat(first.isStarted()).isFalse();
+        assertThat(first.getExecutorService().isShutdown()).isTrue();
+        final LogArchiver second = LogArchiver.forContext(context);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.isStarted()).isTrue();
+        second.stop();
+    }
+
+    @Test
+    public void gzipsFilesInTheBackground() throws Exception {
+        final File source = folder.newFile("app.log.tmp");
+        Files.write("hello\n", source, Charsets.UTF_8);
+        final File target = new File(folder.getRoot(), "app-2015-06-01.log.gz");
+        final AtomicBoolean cleanedUp = new AtomicBoolean();
+
+        archiver.compress(source, target, CompressionMode.GZ, new Runnable() {
+            @Override
+            public void run() {
+                cleanedUp.set(true);
+            }
+        });
+        awaitBacklog();
+
+        try (GZIPInputStream input = new GZIPInputStream(new FileInputStream(target))) {
+            assertThat(new String(ByteStreams.toByteArray(input), Charsets.UTF_8)).isEqualTo("hello\n");
+        }
+        assertThat(source).doesNotExist();
+        assertThat(cleanedUp.get()).isTrue();
+        assertThat(((Timer) archiver.getMetrics().get("compression")).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void zipsFilesInTheBackground() throws Exception {
+        final File source = folder.newFile("app.log.tmp");
+        Files.write("hello\n", source, Charsets.UTF_8);
+        final File target = new File(folder.getRoot(), "app-2015-06-01.log.zip");
+
+        archiver.compress(source, target, CompressionMode.ZIP, new Runnable() {
+            @Override
+            public void run() {
+            }
+        });
+        awaitBacklog();
+
+        try (ZipInputStream input = new ZipInputStream(new FileInputStream(target))) {
+            final ZipEntry entry = input.getNextEntry();
+            assertThat(entry.getName()).isEqualTo("app-2015-06-01.log");
+            assertThat(new String(ByteStreams.toByteArray(input), Charsets.UTF_8)).isEqualTo("hello\n");
+        }
+    }
+
+    @Test
+    public void keepsFilesWhichCannotBeCompressedUncompressed() throws Exception {
+        final File source = folder.newFile("app-2015-06-01.log12345.tmp");
+        Files.write("hello\n", source, Charsets.UTF_8);
+        // a directory can't be written to as a file
+        final File target = folder.newFolder("app-2015-06-01.log.gz");
+        final AtomicBoolean cleanedUp = new AtomicBoolean();
+
+        archiver.compress(source, target, CompressionMode.GZ, new Runnable() {
+            @Override
+            public void run() {
+                cleanedUp.set(true);
+            }
+        });
+        awaitBacklog();
+
+        assertThat(source).doesNotExist();
+        assertThat(target).isDirectory();
+        assertThat(Files.toString(new File(folder.getRoot(), "app-2015-06-01.log"), Charsets.UTF_8))
+                .isEqualTo("hello\n");
+        assertThat(cleanedUp.get()).isTrue();
+        assertThat(((Counter) archiver.getMetrics().get("failures")).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void tracksTheBacklog() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        archiver.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        assertThat(archiver.getBacklog()).isEqualTo(1);
+
+        latch.countDown();
+        awaitBacklog();
+        assertThat(archiver.getBacklog()).isZero();
+    }
+
+    @Test
+    public void runsTasksOnTheCallingThreadOnceShutDown() throws Exception {
+        archiver.getExecutorService().shutdown();
+        final AtomicBoolean ran = new AtomicBoolean();
+
+        archiver.submit(new Runnable() {
+            @Override
+            public void run() {
+                ran.set(true);
+            }
+        });
+
+        assertThat(ran.get()).isTrue();
+        assertThat(archiver.getBacklog()).isZero();
+    }
+
+    private void awaitBacklog() throws InterruptedException {
+        for (int i = 0; i < 500 && archiver.getBacklog() > 0; i++) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertThat(archiver.getBacklog()).isZero();
+    }
+}
@@ -0,0 +1,120 @@
+package io.dropwizard.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+import io.dropwizard.util.Duration;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class LogLevelOverridesTest {
+    private final LoggerContext context = new LoggerContext();
+    private final Logger one = context.getLogger("logger.one");
+    private final Logger two = context.getLogger("logger.two");
+    private final ScheduledExecutorService reverter = mock(ScheduledExecutorService.class);
+    private final LogLevelOverrides overrides = new LogLevelOverrides(context, reverter);
+
+    @Before
+    public void setUp() throws Exception {
+        one.setLevel(Level.INFO);
+        two.setLevel(Level.WARN);
+    }
+
+    @Test
+    public void setsTheLevelsOfAllLoggers() throws Exception {
+        final Map<String, Level> previous = overrides.apply(
+                ImmutableMap.of("logger.one", Level.DEBUG, "logger.two", Level.ERROR),
+                Optional.<Duration>absent());
+
+        assertThat(one.getLevel()).isEqualTo(Level.DEBUG);
+        assertThat(two.getLevel()).isEqualTo(Level.ERROR);
+        assertThat(previous).containsExactly(entry("logger.one", Level.INFO), entry("logger.two", Level.WARN));
+        assertThat(overrides.getPending()).isEmpty();
+    }
+
+    @Test
+    public void inheritsTheLevelOfTheParentWithoutALevel() throws Exception {
+        overrides.apply(Collections.<String, Level>singletonMap("logger.one", null), Optional.<Duration>absent());
+
+        assertThat(one.getLevel()).isNull();
+    }
+
+    @Test
+    public void revertsTemporaryChangesOnceTheyExpire() throws Exception {
+        overrides.apply(ImmutableMap.of("logger.one", Level.DEBUG), Optional.of(Duration.minutes(1)));
+
+        assertThat(one.getLevel()).isEqualTo(Level.DEBUG);
+        assertThat(overrides.getPending()).containsEntry("logger.one", Level.INFO);
+
+        expire(1, 60000);
+        assertThat(one.getLevel()).isEqualTo(Level.INFO);
+        assertThat(overrides.getPending()).isEmpty();
+    }
+
+    @Test
+    public void revertsToTheLevelBeforeTheFirstOfOverlappingChanges() throws Exception {
+        overrides.apply(ImmutableMap.of("logger.one", Level.DEBUG), Optional.of(Duration.minutes(1)));
+        overrides.apply(ImmutableMap.of("logger.one", Level.TRACE), Optional.of(Duration.minutes(5)));
+
+        final ArgumentCaptor<Runnable> reverts = ArgumentCaptor.forClass(Runnable.class);
+        verify(reverter, times(2)).schedule(reverts.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+
+        // the first change has been superseded
+        reverts.getAllValues().get(0).run();
+        assertThat(one.getLevel()).isEqualTo(Level.TRACE);
+
+        reverts.getAllValues().get(1).run();
+        assertThat(one.getLevel()).isEqualTo(Level.INFO);
+    }
+
+    @Test
+    public void doesNotUndoLaterChanges() throws Exception {
+        overrides.apply(ImmutableMap.of("logger.one", Level.DEBUG), Optional.of(Duration.minutes(1)));
+        one.setLevel(Level.ERROR);
+
+        expire(1, 60000);
+        assertThat(one.getLevel()).isEqualTo(Level.ERROR);
+    }
+
+    @Test
+    public void permanentChangesCancelPendingReverts() throws Exception {
+        overrides.apply(ImmutableMap.of("logger.one", Level.DEBUG), Optional.of(Duration.minutes(1)));
+        overrides.apply(ImmutableMap.of("logger.one", Level.DEBUG), Optional.<Duration>absent());
+
+        expire(1, 60000);
+        assertThat(one.getLevel()).isEqualTo(Level.DEBUG);
+    }
+
+    @Test
+    public void revertsAllPendingChangesAtOnce() throws Exception {
+        overrides.apply(ImmutableMap.of("logger.one", Level.DEBUG), Optional.of(Duration.minutes(1)));
+        overrides.apply(ImmutableMap.of("logger.two", Level.DEBUG), Optional.of(Duration.minutes(5)));
+
+        overrides.revertAll();
+
+        assertThat(one.getLevel()).isEqualTo(Level.INFO);
+        assertThat(two.getLevel()).isEqualTo(Level.WARN);
+    }
+
+    private void expire(int scheduled, long delay) {
+        final ArgumentCaptor<Runnable> revert = ArgumentCaptor.forClass(Runnable.class);
+        verify(reverter, times(scheduled)).schedule(revert.capture(), eq(delay), eq(TimeUnit.MILLISECONDS));
+        revert.getValue().run();
+    }
+}
@@ -26,7 +26,8 @@ public class LoggingFactoryTest {
     public void setUp() throws Exception {
         objectMapper.getSubtypeResolver().registerSubtypes(ConsoleAppenderFactory.class,
                                                            FileAppenderFactory.class,
-                                                           SyslogAppenderFactory.class);
+                                                           SyslogAppenderFactory.class,
+                                                           JsonLayoutFactory.class);
 
         this.config = factory.build(new File(Resources.getResource("yaml/logging.yml").toURI()));
     }
@@ -42,4 +43,28 @@ public class LoggingFactoryTest {
         assertThat(config.getLoggers())
                 .isEqualTo(ImmutableMap.of("com.example.app", Level.DEBUG));
     }
+
+    @Test
+    public void hasAppendersWithARingBuffer() throws Exception {
+        final AbstractAppenderFactory console = (AbstractAppenderFactory) config.getAppenders().get(0);
+
+        assertThat(console.getQueueType())
+                .isEqualTo(AbstractAppenderFactory.QueueType.RING_BUFFER);
+        assertThat(console.getWaitStrategy())
+                .isEqualTo(RingBufferWaitStrategy.SLEEPING);
+    }
+
+    @Test
+    public void hasAppendersWithAJsonLayout() throws Exception {
+        final AbstractAppenderFactory file = (AbstractAppenderFactory) config.getAppenders().get(1);
+
+        assertThat(file.getLayout())
+                .isInstanceOf(JsonLayoutFactory.class);
+
+        final JsonLayoutFactory layout = (JsonLayoutFactory) file.getLayout();
+        assertThat(layout.isIncludeThreadName())
+                .isFalse();
+        assertThat(layout.getAdditionalFields())
+                .isEqualTo(ImmutableMap.of("service", "example"));
+    }
 }
@@ -0,0 +1,180 @@
+package io.dropwizard.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RingBufferAsyncAppenderTest {
+    private final LoggerContext context = new LoggerContext();
+    private final Logger logger = context.getLogger("test");
+    private final RingBufferAsyncAppender appender = new RingBufferAsyncAppender();
+
+    @Before
+    public void setUp() throws Exception {
+        appender.setContext(context);
+        appender.setName("async-test");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        appender.stop();
+    }
+
+    @Test
+    public void roundsTheQueueSizeUpToAPowerOfTwo() throws Exception {
+        final ListAppender<ILoggingEvent> delegate = startedListAppender();
+        appender.setQueueSize(100);
+        appender.addAppender(delegate);
+        appender.start();
+
+        // 128 slots, so the default threshold keeps 25 of them free for WARN and ERROR events
+        assertThat(appender.getDiscardingThreshold()).isEqualTo(25);
+    }
+
+    @Test
+    public void deliversAllEventsFromConcurrentThreads() throws Exception {
+        final ListAppender<ILoggingEvent> delegate = startedListAppender();
+        appender.setQueueSize(16);
+        appender.setDiscardingThreshold(0);
+        appender.setBatchSize(4);
+        appender.addAppender(delegate);
+        appender.start();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int thread = 0; thread < 4; thread++) {
+                executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int i = 0; i < 1000; i++) {
+                            appender.doAppend(event(Level.INFO, "message " + i));
+                        }
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        appender.stop();
+
+        assertThat(delegate.list).hasSize(4000);
+        assertThat(appender.getQueueDepth()).isZero();
+        assertThat(appender.getDiscardedCount()).isZero();
+        assertThat(delegate.isStarted()).isFalse();
+    }
+
+    @Test
+    public void discardsInfoEventsOnceTheThresholdIsReached() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final BlockingAppender delegate = new BlockingAppender(release);
+        delegate.setContext(context);
+        delegate.start();
+
+        appender.setQueueSize(4);
+        appender.setDiscardingThreshold(3);
+        appender.addAppender(delegate);
+        appender.start();
+
+        // the first event blocks the worker, and the next two leave less than three slots free
+        appender.doAppend(event(Level.INFO, "blocking"));
+        assertThat(delegate.blocked.await(5, TimeUnit.SECONDS)).isTrue();
+        appender.doAppend(event(Level.INFO, "first"));
+        appender.doAppend(event(Level.INFO, "second"));
+        appender.doAppend(event(Level.INFO, "discarded"));
+        appender.doAppend(event(Level.WARN, "kept"));
+
+        assertThat(appender.getQueueDepth()).isEqualTo(3);
+        assertThat(appender.getDiscardedCount()).isEqualTo(1);
+
+        release.countDown();
+        appender.stop();
+
+        assertThat(delegate.messages).containsExactly("blocking", "first", "second", "kept");
+    }
+
+    @Test
+    public void registersItsMetrics() throws Exception {
+        appender.addAppender(startedListAppender());
+        appender.start();
+        final RingBufferAsyncAppender other = new RingBufferAsyncAppender();
+        other.setName("async-test");
+
+        final MetricRegistry registry = new MetricRegistry();
+        final ImmutableList<Appender<ILoggingEvent>> appenders =
+                ImmutableList.<Appender<ILoggingEvent>>of(appender, other, startedListAppender());
+        RingBufferAsyncAppender.registerMetrics(registry, "logging", appenders);
+        // registering again replaces the metrics
+        RingBufferAsyncAppender.registerMetrics(registry, "logging", appenders);
+
+        assertThat(registry.getNames()).containsOnly(
+                "logging.async-test.queue-depth", "logging.async-test.discarded",
+                "logging.async-test-2.queue-depth", "logging.async-test-2.discarded");
+        assertThat(registry.getGauges().get("logging.async-test.queue-depth"))
+                .isInstanceOf(Gauge.class);
+        assertThat(registry.getCounters().get("logging.async-test.discarded"))
+                .isInstanceOf(Counter.class);
+    }
+
+    @Test
+    public void doesNotStartWithoutAnAppender() throws Exception {
+        appender.start();
+
+        assertThat(appender.isStarted()).isFalse();
+    }
+
+    private ListAppender<ILoggingEvent> startedListAppender() {
+        final ListAppender<ILoggingEvent> delegate = new ListAppender<>();
+        delegate.setContext(context);
+        delegate.setName("list");
+        delegate.start();
+        return delegate;
+    }
+
+    private LoggingEvent event(Level level, String message) {
+        return new LoggingEvent(RingBufferAsyncAppenderTest.class.getName(), logger, level, message, null, null);
+    }
+
+    private static class BlockingAppender extends AppenderBase<ILoggingEvent> {
+        private final CountDownLatch release;
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+
+        private BlockingAppender(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            messages.add(event.getMessage());
+            blocked.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
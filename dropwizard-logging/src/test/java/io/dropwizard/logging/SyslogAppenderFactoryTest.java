@@ -75,4 +75,23 @@ public class SyslogAppenderFactoryTest {
 
         assertThat(appender.getName()).isEqualTo("async-syslog-appender");
     }
+
+    @Test
+    public void buildsATcpAppender() throws Exception {
+        final SyslogAppenderFactory appenderFactory = new SyslogAppenderFactory();
+        appenderFactory.setTransport(SyslogAppenderFactory.Transport.TCP);
+        appenderFactory.setSendBatchSize(64);
+        appenderFactory.setDropPolicy(TcpSyslogAppender.DropPolicy.DROP_OLDEST);
+
+        final AsyncAppender wrapper = (AsyncAppender) appenderFactory.build(new LoggerContext(), "MyApplication", null);
+        try {
+            final TcpSyslogAppender appender = (TcpSyslogAppender) wrapper.getAppender("syslog-appender");
+            assertThat(appender.getApplicationName()).isEqualTo("MyApplication");
+            assertThat(appender.getBatchSize()).isEqualTo(64);
+            assertThat(appender.getDropPolicy()).isEqualTo(TcpSyslogAppender.DropPolicy.DROP_OLDEST);
+            assertThat(appender.isStarted()).isTrue();
+        } finally {
+            wrapper.stop();
+        }
+    }
 }
@@ -0,0 +1,190 @@
+package io.dropwizard.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.PatternLayout;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.status.Status;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import io.dropwizard.util.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TcpSyslogAppenderTest {
+    private final LoggerContext context = new LoggerContext();
+    private final TcpSyslogAppender appender = new TcpSyslogAppender();
+
+    @Before
+    public void setUp() throws Exception {
+        final PatternLayout layout = new PatternLayout();
+        layout.setContext(context);
+        layout.setPattern("%msg%n");
+        layout.start();
+
+        appender.setContext(context);
+        appender.setName("syslog-appender");
+        appender.setHost("localhost");
+        appender.setFacility("local0");
+        appender.setApplicationName("My Application");
+        appender.setProcessId("4711");
+        appender.setLayout(layout);
+        appender.setInitialReconnectDelay(Duration.milliseconds(10));
+        appender.setConnectionTimeout(Duration.seconds(1));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        appender.stop();
+    }
+
+    @Test
+    public void sendsOctetCountedMessagesOverOneConnection() throws Exception {
+        try (ServerSocket server = new ServerSocket(0)) {
+            server.setSoTimeout(5000);
+            appender.setPort(server.getLocalPort());
+            appender.start();
+
+            appender.doAppend(event(Level.INFO, "first"));
+            appender.doAppend(event(Level.ERROR, "second\nline"));
+
+            try (Socket client = server.accept()) {
+                client.setSoTimeout(5000);
+                final DataInputStream input = new DataInputStream(client.getInputStream());
+
+                assertThat(readFrame(input))
+                        .startsWith("<134>1 2012-11-16T05:00:48.123Z ")
+                        .endsWith(" My_Application 4711 - - first");
+                assertThat(readFrame(input))
+                        .startsWith("<131>1 ")
+                        .endsWith(" - - second\nline");
+            }
+        }
+    }
+
+    @Test
+    public void reconnectsUntilTheServerIsAvailable() throws Exception {
+        final int port;
+        try (ServerSocket unavailable = new ServerSocket(0)) {
+            port = unavailable.getLocalPort();
+        }
+        appender.setPort(port);
+        appender.start();
+        appender.doAppend(event(Level.INFO, "eventually"));
+
+        // let a few connection attempts fail
+        Thread.sleep(50);
+
+        try (ServerSocket server = new ServerSocket(port)) {
+            server.setSoTimeout(5000);
+            try (Socket client = server.accept()) {
+                client.setSoTimeout(5000);
+                assertThat(readFrame(new DataInputStream(client.getInputStream()))).endsWith(" eventually");
+            }
+        }
+    }
+
+    @Test
+    public void dropsNewMessagesWhileTheBufferIsFull() throws Exception {
+        startWithoutServer(TcpSyslogAppender.DropPolicy.DROP_NEWEST);
+        for (int i = 0; i < 10; i++) {
+            appender.doAppend(event(Level.INFO, "message " + i));
+        }
+
+        assertThat(appender.getDroppedCount()).isEqualTo(8);
+        assertThat(appender.getBacklog()).isEqualTo(2);
+    }
+
+    @Test
+    public void dropsOldMessagesWhileTheBufferIsFull() throws Exception {
+        startWithoutServer(TcpSyslogAppender.DropPolicy.DROP_OLDEST);
+        for (int i = 0; i < 10; i++) {
+            appender.doAppend(event(Level.INFO, "message " + i));
+        }
+
+        assertThat(appender.getDroppedCount()).isEqualTo(8);
+        assertThat(appender.getBacklog()).isEqualTo(2);
+    }
+
+    @Test
+    public void warnsOnceWhileDropping() throws Exception {
+        startWithoutServer(TcpSyslogAppender.DropPolicy.DROP_NEWEST);
+        for (int i = 0; i < 10; i++) {
+            appender.doAppend(event(Level.INFO, "message " + i));
+        }
+
+        int warnings = 0;
+        for (Status status : context.getStatusManager().getCopyOfStatusList()) {
+            if (status.getLevel() == Status.WARN && status.getMessage().contains("is full")) {
+                warnings++;
+            }
+        }
+        assertThat(warnings).isEqualTo(1);
+    }
+
+    @Test
+    public void registersMetricsOfWrappedAppenders() throws Exception {
+        startWithoutServer(TcpSyslogAppender.DropPolicy.DROP_NEWEST);
+        for (int i = 0; i < 10; i++) {
+            appender.doAppend(event(Level.INFO, "message " + i));
+        }
+        final AsyncAppender async = new AsyncAppender();
+        async.setName("async-syslog-appender");
+        async.addAppender(appender);
+
+        final MetricRegistry registry = new MetricRegistry();
+        TcpSyslogAppender.registerMetrics(registry, "syslog", ImmutableList.<Appender<ILoggingEvent>>of(async));
+
+        assertThat(registry.counter("syslog.syslog-appender.dropped").getCount()).isEqualTo(8);
+        assertThat(registry.getGauges().get("syslog.syslog-appender.backlog").getValue()).isEqualTo(2);
+    }
+
+    private void startWithoutServer(TcpSyslogAppender.DropPolicy dropPolicy) throws Exception {
+        try (ServerSocket unavailable = new ServerSocket(0)) {
+            appender.setPort(unavailable.getLocalPort());
+        }
+        appender.setBufferSize(2);
+        appender.setDropPolicy(dropPolicy);
+        appender.setInitialReconnectDelay(Duration.minutes(1));
+        appender.start();
+
+        // the sender takes the first message, fails to connect and backs off
+        appender.doAppend(event(Level.INFO, "first"));
+        while (appender.getBacklog() > 0) {
+            Thread.sleep(1);
+        }
+        Thread.sleep(50);
+    }
+
+    private LoggingEvent event(Level level, String message) {
+        final LoggingEvent event = new LoggingEvent();
+        event.setTimeStamp(1353042048123L);
+        event.setLevel(level);
+        event.setLoggerName("com.example.App");
+        event.setMessage(message);
+        return event;
+    }
+
+    private static String readFrame(DataInputStream input) throws IOException {
+        final StringBuilder length = new StringBuilder();
+        for (int b = input.read(); b != ' '; b = input.read()) {
+            assertThat(b).isBetween((int) '0', (int) '9');
+            length.append((char) b);
+        }
+        final byte[] message = new byte[Integer.parseInt(length.toString())];
+        input.readFully(message);
+        return new String(message, Charsets.UTF_8);
+    }
+}
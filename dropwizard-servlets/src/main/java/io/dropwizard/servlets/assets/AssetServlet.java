@@ -1,42 +1,120 @@
 package io.dropwizard.servlets.assets;
 
 import com.google.common.base.CharMatcher;
+import com.google.common.base.Optional;
 import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheBuilderSpec;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
 import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
 import com.google.common.io.Resources;
 import com.google.common.net.HttpHeaders;
 import com.google.common.net.MediaType;
+
 import javax.servlet.ServletException;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.EOFException;
+import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import static com.google.common.base.Preconditions.checkArgument;
 
 public class AssetServlet extends HttpServlet {
     private static final long serialVersionUID = 6393345594784987908L;
     private static final CharMatcher SLASHES = CharMatcher.is('/');
 
+    /**
+     * The default cache specification: up to 16 MiB of assets are kept in memory, least recently
+     * used first out.
+     */
+    public static final CacheBuilderSpec DEFAULT_CACHE_SPEC = CacheBuilderSpec.parse("maximumWeight=16777216");
+
+    /**
+     * How often a cached asset is checked against the last modified time of its resource at most,
+     * since looking it up opens a connection to the resource.
+     */
+    private static final long REVALIDATION_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private static final int CHUNK_SIZE = 8192;
+
+    /**
+     * Files smaller than this are copied into the in-memory cache rather than mapped, since
+     * mapping them costs more than copying them.
+     */
+    static final int MAPPING_THRESHOLD = 64 * 1024;
+
+    /**
+     * The methods of output streams which write a buffer without copying it, like Jetty's
+     * {@code HttpOutput.write(ByteBuffer)}, by the output stream's class. They are looked up
+     * reflectively, so the servlet runs on containers which don't have one.
+     */
+    private static final ConcurrentMap<Class<?>, Optional<Method>> BUFFER_WRITERS = new ConcurrentHashMap<>();
+    private static final String GZIP = "gzip";
+    private static final String GZIP_SUFFIX = ".gz";
+
     private static class CachedAsset {
-        private final byte[] resource;
+        private final ByteBuffer resource;
+        private final File file;
+        private final long length;
         private final String eTag;
         private final long lastModifiedTime;
+        private final URL sourceURL;
+        private final long sourceLastModifiedTime;
+        private final CachedAsset gzipped;
+        private volatile long nextRevalidation;
 
-        private CachedAsset(byte[] resource, long lastModifiedTime) {
+        private CachedAsset(ByteBuffer resource, File file, long length, String eTag, long lastModifiedTime,
+                            URL sourceURL, long sourceLastModifiedTime, CachedAsset gzipped) {
             this.resource = resource;
-            this.eTag = '"' + Hashing.murmur3_128().hashBytes(resource).toString() + '"';
+            this.file = file;
+            this.length = length;
+            this.eTag = '"' + eTag + '"';
             this.lastModifiedTime = lastModifiedTime;
+            this.sourceURL = sourceURL;
+            this.sourceLastModifiedTime = sourceLastModifiedTime;
+            this.gzipped = gzipped;
+            this.nextRevalidation = System.nanoTime() + REVALIDATION_INTERVAL;
+        }
+
+        /**
+         * Returns a view of the asset's contents, or {@code null} if the asset is a file which is
+         * read for each response. The view has its own position and limit, so callers are free to
+         * move them, but must not modify the contents.
+         */
+        public ByteBuffer getResource() {
+            return resource == null ? null : resource.duplicate();
         }
 
-        public byte[] getResource() {
-            return resource;
+        /**
+         * Returns the file to read the asset from for each response, or {@code null} if the
+         * asset's contents are cached.
+         */
+        public File getFile() {
+            return file;
+        }
+
+        public long getLength() {
+            return length;
         }
 
         public String getETag() {
@@ -46,6 +124,59 @@ public class AssetServlet extends HttpServlet {
         public long getLastModifiedTime() {
             return lastModifiedTime;
         }
+
+        public URL getSourceURL() {
+            return sourceURL;
+        }
+
+        public long getSourceLastModifiedTime() {
+            return sourceLastModifiedTime;
+        }
+
+        /**
+         * Returns the precompressed gzip variant of this asset, or {@code null} if there is none.
+         */
+        public CachedAsset getGzipped() {
+            return gzipped;
+        }
+
+        /**
+         * Returns true if the asset is due to be checked for modifications, and defers the next
+         * check. Concurrent hits may both check it, which is harmless.
+         */
+        public boolean isDueForRevalidation() {
+            final long now = System.nanoTime();
+            if (now - nextRevalidation < 0) {
+                return false;
+            }
+            nextRevalidation = now + REVALIDATION_INTERVAL;
+            return true;
+        }
+
+        /**
+         * Returns true if the asset is a file which has been changed since it was loaded. This
+         * only looks at the file's metadata, so it is cheap enough to check on every hit.
+         */
+        public boolean isFileChanged() {
+            return file != null &&
+                    (file.length() != length || file.lastModified() != sourceLastModifiedTime);
+        }
+
+        /**
+         * Returns the number of bytes the asset occupies in memory; files which are read for each
+         * response only cache their metadata, which weighs one byte, so they are bounded too.
+         */
+        public int getWeight() {
+            final int weight = resource == null ? 1 : resource.remaining();
+            return gzipped == null ? weight : weight + gzipped.getWeight();
+        }
+    }
+
+    private static class AssetWeigher implements Weigher<String, CachedAsset> {
+        @Override
+        public int weigh(String key, CachedAsset value) {
+            return value.getWeight();
+        }
     }
 
     private static final MediaType DEFAULT_MEDIA_TYPE = MediaType.HTML_UTF_8;
@@ -54,6 +185,9 @@ public class AssetServlet extends HttpServlet {
     private final String uriPath;
     private final String indexFile;
     private final Charset defaultCharset;
+    private final boolean revalidate;
+    private final boolean mapFiles;
+    private final transient Cache<String, CachedAsset> cache;
 
     /**
      * Creates a new {@code AssetServlet} that serves static assets loaded from {@code resourceURL}
@@ -75,12 +209,89 @@ public class AssetServlet extends HttpServlet {
                         String uriPath,
                         String indexFile,
                         Charset defaultCharset) {
+        this(resourcePath, uriPath, indexFile, defaultCharset, DEFAULT_CACHE_SPEC, true);
+    }
+
+    /**
+     * Creates a new {@code AssetServlet} which keeps loaded assets in an in-memory cache built from
+     * {@code cacheSpec}. Entries are evicted least recently used first. If the specification sets a
+     * {@code maximumWeight}, it is interpreted as the total number of bytes the cached assets may
+     * occupy. If {@code revalidate} is true, cache hits are checked against the last modified time
+     * of the underlying resource, at most once a second per asset, and reloaded if it has changed.
+     *
+     * @param resourcePath   the base URL from which assets are loaded
+     * @param uriPath        the URI path fragment in which all requests are rooted
+     * @param indexFile      the filename to use when directories are requested, or null to serve no
+     *                       indexes
+     * @param defaultCharset the default character set
+     * @param cacheSpec      a {@link CacheBuilderSpec} for the asset cache
+     * @param revalidate     whether cached assets should be checked for modifications
+     */
+    public AssetServlet(String resourcePath,
+                        String uriPath,
+                        String indexFile,
+                        Charset defaultCharset,
+                        CacheBuilderSpec cacheSpec,
+                        boolean revalidate) {
+        this(resourcePath, uriPath, indexFile, defaultCharset, cacheSpec, revalidate, false);
+    }
+
+    /**
+     * Creates a new {@code AssetServlet} which, if {@code mapFiles} is true, serves assets of 64 KiB
+     * or more loaded from file: URLs from the filesystem for each response instead of copying them
+     * onto the heap. Only their metadata is cached, and it is reloaded as soon as the file's size or
+     * last modified time changes. If the container's output stream can write buffers without
+     * copying them, like Jetty's {@code HttpOutput} when no filter wraps it, such assets, and byte
+     * ranges of them, are memory-mapped and handed to it; otherwise they are streamed. Files too
+     * large to map (2 GiB or more) are always streamed, without support for byte ranges. Smaller
+     * assets are cached in memory like any other.
+     *
+     * @param resourcePath   the base URL from which assets are loaded
+     * @param uriPath        the URI path fragment in which all requests are rooted
+     * @param indexFile      the filename to use when directories are requested, or null to serve no
+     *                       indexes
+     * @param defaultCharset the default character set
+     * @param cacheSpec      a {@link CacheBuilderSpec} for the asset cache
+     * @param revalidate     whether cached assets should be checked for modifications
+     * @param mapFiles       whether assets on the filesystem should be memory-mapped
+     */
+    public AssetServlet(String resourcePath,
+                        String uriPath,
+                        String indexFile,
+                        Charset defaultCharset,
+                        CacheBuilderSpec cacheSpec,
+                        boolean revalidate,
+                        boolean mapFiles) {
         final String trimmedPath = SLASHES.trimFrom(resourcePath);
         this.resourcePath = trimmedPath.isEmpty() ? trimmedPath : trimmedPath + '/';
         final String trimmedUri = SLASHES.trimTrailingFrom(uriPath);
         this.uriPath = trimmedUri.isEmpty() ? "/" : trimmedUri;
         this.indexFile = indexFile;
         this.defaultCharset = defaultCharset;
+        this.revalidate = revalidate;
+        this.mapFiles = mapFiles;
+        this.cache = buildCache(cacheSpec);
+    }
+
+    private static Cache<String, CachedAsset> buildCache(CacheBuilderSpec cacheSpec) {
+        final CacheBuilder<Object, Object> builder = CacheBuilder.from(cacheSpec).recordStats();
+        if (isWeighed(cacheSpec)) {
+            return builder.weigher(new AssetWeigher()).build();
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns true if the specification sets a {@code maximumWeight}. Guava doesn't expose the
+     * parsed settings, so this parses the keys of the specification's canonical form.
+     */
+    private static boolean isWeighed(CacheBuilderSpec cacheSpec) {
+        for (String option : Splitter.on(',').trimResults().omitEmptyStrings().split(cacheSpec.toParsableString())) {
+            if ("maximumWeight".equals(Splitter.on('=').trimResults().split(option).iterator().next())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public URL getResourceURL() {
@@ -95,6 +306,31 @@ public class AssetServlet extends HttpServlet {
         return indexFile;
     }
 
+    /**
+     * Returns a set of statistics about the asset cache contents and usage.
+     *
+     * @return a set of statistics about the asset cache contents and usage
+     */
+    public CacheStats getCacheStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Returns the number of cached assets.
+     *
+     * @return the number of cached assets
+     */
+    public long getCacheSize() {
+        return cache.size();
+    }
+
+    /**
+     * Discards all cached assets.
+     */
+    public void invalidateCache() {
+        cache.invalidateAll();
+    }
+
     @Override
     protected void doGet(HttpServletRequest req,
                          HttpServletResponse resp) throws ServletException, IOException {
@@ -103,12 +339,23 @@ public class AssetServlet extends HttpServlet {
             if (req.getPathInfo() != null) {
                 builder.append(req.getPathInfo());
             }
-            final CachedAsset cachedAsset = loadAsset(builder.toString());
-            if (cachedAsset == null) {
+            final CachedAsset asset = loadAsset(builder.toString());
+            if (asset == null) {
                 resp.sendError(HttpServletResponse.SC_NOT_FOUND);
                 return;
             }
 
+            // Serve the precompressed variant, if there is one and the client accepts it. Each
+            // variant has its own ETag, so conditional and range requests work against the
+            // representation which is actually sent.
+            final CachedAsset cachedAsset;
+            if (asset.getGzipped() != null) {
+                resp.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                cachedAsset = acceptsGzip(req.getHeader(HttpHeaders.ACCEPT_ENCODING)) ? asset.getGzipped() : asset;
+            } else {
+                cachedAsset = asset;
+            }
+
             if (isCachedClientSide(req, cachedAsset)) {
                 resp.sendError(HttpServletResponse.SC_NOT_MODIFIED);
                 return;
@@ -116,20 +363,21 @@ public class AssetServlet extends HttpServlet {
 
             final String rangeHeader = req.getHeader(HttpHeaders.RANGE);
 
-            final int resourceLength = cachedAsset.getResource().length;
+            final long resourceLength = cachedAsset.getLength();
             ImmutableList<ByteRange> ranges = ImmutableList.of();
 
             boolean usingRanges = false;
             // Support for HTTP Byte Ranges
             // http://www.w3.org/Protocols/rfc2616/rfc2616-sec14.html
-            if (rangeHeader != null) {
+            // Byte ranges are limited to int offsets, so larger files are always sent in full.
+            if (rangeHeader != null && resourceLength <= Integer.MAX_VALUE) {
 
                 final String ifRange = req.getHeader(HttpHeaders.IF_RANGE);
 
                 if (ifRange == null || cachedAsset.getETag().equals(ifRange)) {
 
                     try {
-                        ranges = parseRangeHeader(rangeHeader, resourceLength);
+                        ranges = parseRangeHeader(rangeHeader, (int) resourceLength);
                     } catch (NumberFormatException e) {
                         resp.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
                         return;
@@ -150,6 +398,10 @@ public class AssetServlet extends HttpServlet {
 
             resp.setDateHeader(HttpHeaders.LAST_MODIFIED, cachedAsset.getLastModifiedTime());
             resp.setHeader(HttpHeaders.ETAG, cachedAsset.getETag());
+            if (cachedAsset != asset) {
+                // an encoded response is left alone by the gzip filter
+                resp.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+            }
 
             final String mimeTypeOfExtension = req.getServletContext()
                                                   .getMimeType(req.getRequestURI());
@@ -164,8 +416,9 @@ public class AssetServlet extends HttpServlet {
                 } catch (IllegalArgumentException ignore) {}
             }
 
-            if (mediaType.is(MediaType.ANY_VIDEO_TYPE)
-                    || mediaType.is(MediaType.ANY_AUDIO_TYPE) || usingRanges) {
+            if ((mediaType.is(MediaType.ANY_VIDEO_TYPE)
+                    || mediaType.is(MediaType.ANY_AUDIO_TYPE) || usingRanges)
+                    && resourceLength <= Integer.MAX_VALUE) {
                 resp.addHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
             }
 
@@ -175,16 +428,14 @@ public class AssetServlet extends HttpServlet {
                 resp.setCharacterEncoding(mediaType.charset().get().toString());
             }
 
+            long contentLength = 0;
+            for (ByteRange range : ranges) {
+                contentLength += range.getEnd() + 1 - range.getStart();
+            }
+            resp.setContentLengthLong(ranges.isEmpty() ? resourceLength : contentLength);
+
             try (ServletOutputStream output = resp.getOutputStream()) {
-                 if (usingRanges) {
-                    for (final ByteRange range : ranges) {
-                        output.write(cachedAsset.getResource(), range.getStart(),
-                                range.getEnd() - range.getStart() + 1);
-                    }
-                }
-                else {
-                    output.write(cachedAsset.getResource());
-                }
+                write(output, cachedAsset, ranges);
             }
         } catch (RuntimeException | URISyntaxException ignored) {
             resp.sendError(HttpServletResponse.SC_NOT_FOUND);
@@ -193,6 +444,29 @@ public class AssetServlet extends HttpServlet {
 
     private CachedAsset loadAsset(String key) throws URISyntaxException, IOException {
         checkArgument(key.startsWith(uriPath));
+        final CachedAsset cachedAsset = cache.getIfPresent(key);
+        if (cachedAsset != null && !isStale(cachedAsset)) {
+            return cachedAsset;
+        }
+
+        final CachedAsset asset = readAsset(key);
+        if (asset != null) {
+            cache.put(key, asset);
+        }
+        return asset;
+    }
+
+    private boolean isStale(CachedAsset cachedAsset) {
+        if (cachedAsset.isFileChanged() ||
+                (cachedAsset.getGzipped() != null && cachedAsset.getGzipped().isFileChanged())) {
+            // the cached ETag and length of a file which is read for each response must match it
+            return true;
+        }
+        return revalidate && cachedAsset.isDueForRevalidation() &&
+                ResourceURL.getLastModified(cachedAsset.getSourceURL()) != cachedAsset.getSourceLastModifiedTime();
+    }
+
+    private CachedAsset readAsset(String key) throws URISyntaxException, IOException {
         final String requestedResourcePath = SLASHES.trimFrom(key.substring(uriPath.length()));
         final String absoluteRequestedResourcePath = SLASHES.trimFrom(this.resourcePath + requestedResourcePath);
 
@@ -206,7 +480,8 @@ public class AssetServlet extends HttpServlet {
             }
         }
 
-        long lastModified = ResourceURL.getLastModified(requestedResourceURL);
+        final long sourceLastModified = ResourceURL.getLastModified(requestedResourceURL);
+        long lastModified = sourceLastModified;
         if (lastModified < 1) {
             // Something went wrong trying to get the last modified time: just use the current time
             lastModified = System.currentTimeMillis();
@@ -214,7 +489,195 @@ public class AssetServlet extends HttpServlet {
 
         // zero out the millis since the date we get back from If-Modified-Since will not have them
         lastModified = (lastModified / 1000) * 1000;
-        return new CachedAsset(Resources.toByteArray(requestedResourceURL), lastModified);
+        return readResource(requestedResourceURL, lastModified, sourceLastModified,
+                readGzipped(requestedResourceURL, lastModified));
+    }
+
+    /**
+     * Reads the {@code .gz} sidecar of the given resource, if one exists next to it.
+     */
+    private CachedAsset readGzipped(URL resourceURL, long lastModified) throws URISyntaxException, IOException {
+        final URL gzippedURL = new URL(resourceURL.toExternalForm() + GZIP_SUFFIX);
+        if (!exists(gzippedURL)) {
+            return null;
+        }
+        return readResource(gzippedURL, lastModified, ResourceURL.getLastModified(gzippedURL), null);
+    }
+
+    private static boolean exists(URL resourceURL) {
+        try {
+            if ("file".equals(resourceURL.getProtocol())) {
+                return new File(resourceURL.toURI()).isFile();
+            }
+            return !ResourceURL.isDirectory(resourceURL);
+        } catch (URISyntaxException | RuntimeException ignored) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns true if the given {@code Accept-Encoding} header allows a gzip-encoded response.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        for (String coding : Splitter.on(',').trimResults().omitEmptyStrings().split(acceptEncoding)) {
+            final List<String> parts = Splitter.on(';').trimResults().splitToList(coding);
+            final String name = parts.get(0);
+            if (GZIP.equalsIgnoreCase(name) || "*".equals(name)) {
+                for (String parameter : parts.subList(1, parts.size())) {
+                    if (parameter.startsWith("q=") && isZero(parameter.substring(2))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZero(String qvalue) {
+        try {
+            return Double.parseDouble(qvalue) == 0;
+        } catch (NumberFormatException ignored) {
+            return false;
+        }
+    }
+
+    private CachedAsset readResource(URL resourceURL, long lastModified, long sourceLastModified,
+                                     CachedAsset gzipped) throws URISyntaxException, IOException {
+        if (mapFiles && "file".equals(resourceURL.getProtocol())
+                && new File(resourceURL.toURI()).length() >= MAPPING_THRESHOLD) {
+            final File file = new File(resourceURL.toURI());
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                return new CachedAsset(null, file, channel.size(), hash(channel), lastModified,
+                        resourceURL, file.lastModified(), gzipped);
+            }
+        }
+        final byte[] resource = Resources.toByteArray(resourceURL);
+        return new CachedAsset(ByteBuffer.wrap(resource), null, resource.length,
+                Hashing.murmur3_128().hashBytes(resource).toString(), lastModified,
+                resourceURL, sourceLastModified, gzipped);
+    }
+
+    /**
+     * Hashes a file in chunks, rather than copying it onto the heap.
+     */
+    private static String hash(FileChannel channel) throws IOException {
+        final Hasher hasher = Hashing.murmur3_128().newHasher();
+        final ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+        while (channel.read(chunk) >= 0) {
+            hasher.putBytes(chunk.array(), 0, chunk.position());
+            chunk.clear();
+        }
+        return hasher.hash().toString();
+    }
+
+    private static void write(ServletOutputStream output, CachedAsset asset,
+                              List<ByteRange> ranges) throws IOException {
+        final File file = asset.getFile();
+        if (file == null) {
+            if (ranges.isEmpty()) {
+                write(output, asset.getResource());
+            }
+            for (ByteRange range : ranges) {
+                final ByteBuffer slice = asset.getResource();
+                slice.position(range.getStart());
+                slice.limit(range.getEnd() + 1);
+                write(output, slice);
+            }
+            return;
+        }
+
+        // Files are opened, and mapped, for this response only, so a mapping never outlives the
+        // response it was made for, and a file which changes is reloaded by the next one.
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() != asset.getLength()) {
+                throw new IOException("Asset " + file + " has been changed while being served");
+            }
+            if (ranges.isEmpty()) {
+                write(output, channel, 0, asset.getLength());
+            }
+            for (ByteRange range : ranges) {
+                write(output, channel, range.getStart(), range.getEnd() + 1 - range.getStart());
+            }
+        }
+    }
+
+    private static void write(ServletOutputStream output, FileChannel channel,
+                              long position, long count) throws IOException {
+        final Method writer = bufferWriter(output);
+        if (writer != null && count <= Integer.MAX_VALUE) {
+            write(output, writer, channel.map(FileChannel.MapMode.READ_ONLY, position, count));
+            return;
+        }
+
+        // the output would copy a mapping anyway, and a mapping can't span 2 GiB or more, so
+        // stream the file instead
+        final ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+        final long end = position + count;
+        long offset = position;
+        while (offset < end) {
+            chunk.clear();
+            chunk.limit((int) Math.min(CHUNK_SIZE, end - offset));
+            final int read = channel.read(chunk, offset);
+            if (read < 0) {
+                throw new EOFException("Asset has been truncated while being served");
+            }
+            output.write(chunk.array(), 0, read);
+            offset += read;
+        }
+    }
+
+    private static void write(ServletOutputStream output, ByteBuffer content) throws IOException {
+        final Method writer = bufferWriter(output);
+        if (writer != null) {
+            write(output, writer, content);
+        } else {
+            output.write(content.array(), content.arrayOffset() + content.position(), content.remaining());
+        }
+    }
+
+    private static void write(ServletOutputStream output, Method writer, ByteBuffer content) throws IOException {
+        try {
+            writer.invoke(output, content);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Returns the public {@code write(ByteBuffer)} method of the given output stream, or
+     * {@code null} if it has none.
+     */
+    private static Method bufferWriter(ServletOutputStream output) {
+        final Class<?> type = output.getClass();
+        Optional<Method> writer = BUFFER_WRITERS.get(type);
+        if (writer == null) {
+            writer = Optional.absent();
+            try {
+                final Method method = type.getMethod("write", ByteBuffer.class);
+                if (Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                    writer = Optional.of(method);
+                }
+            } catch (NoSuchMethodException ignored) {
+                // the container copies all content
+            }
+            // racing lookups find the same method
+            BUFFER_WRITERS.put(type, writer);
+        }
+        return writer.orNull();
     }
 
     private boolean isCachedClientSide(HttpServletRequest req, CachedAsset cachedAsset) {
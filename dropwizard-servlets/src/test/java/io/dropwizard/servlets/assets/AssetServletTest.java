@@ -1,19 +1,28 @@
 package io.dropwizard.servlets.assets;
 
 import com.google.common.base.Charsets;
+import com.google.common.base.Strings;
+import com.google.common.cache.CacheBuilderSpec;
+import com.google.common.io.Files;
+import com.google.common.io.Resources;
 import com.google.common.net.HttpHeaders;
 import org.eclipse.jetty.http.*;
+import org.eclipse.jetty.servlet.ServletHolder;
 import org.eclipse.jetty.servlet.ServletTester;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.File;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class AssetServletTest {
     private static final String DUMMY_SERVLET = "/dummy_servlet/";
     private static final String NOINDEX_SERVLET = "/noindex_servlet/";
     private static final String NOCHARSET_SERVLET = "/nocharset_servlet/";
+    private static final String MAPPED_SERVLET = "/mapped_servlet/";
+    private static final String WEIGHED_SERVLET = "/weighed_servlet/";
     private static final String ROOT_SERVLET = "/";
     private static final String RESOURCE_PATH = "/assets";
 
@@ -51,15 +60,36 @@ public class AssetServletTest {
         }
     }
 
+    public static class MappedAssetServlet extends AssetServlet {
+        private static final long serialVersionUID = 1L;
+
+        public MappedAssetServlet() {
+            super(RESOURCE_PATH, MAPPED_SERVLET, null, Charsets.UTF_8, DEFAULT_CACHE_SPEC, true, true);
+        }
+    }
+
+    public static class WeighedAssetServlet extends AssetServlet {
+        private static final long serialVersionUID = 1L;
+
+        public WeighedAssetServlet() {
+            super(RESOURCE_PATH, WEIGHED_SERVLET, null, Charsets.UTF_8,
+                  CacheBuilderSpec.parse("maximumWeight=5"), true);
+        }
+    }
+
     private final ServletTester servletTester = new ServletTester();
     private final HttpTester.Request request = HttpTester.newRequest();
     private HttpTester.Response response;
+    private ServletHolder dummyServletHolder;
+    private ServletHolder weighedServletHolder;
 
     @Before
     public void setup() throws Exception {
-        servletTester.addServlet(DummyAssetServlet.class, DUMMY_SERVLET + '*');
+        dummyServletHolder = servletTester.addServlet(DummyAssetServlet.class, DUMMY_SERVLET + '*');
         servletTester.addServlet(NoIndexAssetServlet.class, NOINDEX_SERVLET + '*');
         servletTester.addServlet(NoCharsetAssetServlet.class, NOCHARSET_SERVLET + '*');
+        servletTester.addServlet(MappedAssetServlet.class, MAPPED_SERVLET + '*');
+        weighedServletHolder = servletTester.addServlet(WeighedAssetServlet.class, WEIGHED_SERVLET + '*');
         servletTester.addServlet(RootAssetServlet.class, ROOT_SERVLET + '*');
         servletTester.start();
 
@@ -159,6 +189,126 @@ public class AssetServletTest {
                 .isEqualTo("\"378521448e0a3893a209edcc686d91ce\"");
     }
 
+    @Test
+    public void cachesLoadedAssets() throws Exception {
+        final AssetServlet servlet = (AssetServlet) dummyServletHolder.getServlet();
+
+        response = HttpTester.parseResponse(servletTester.getResponses(request.generate()));
+        assertThat(response.getContent())
+                .isEqualTo("HELLO THERE");
+
+        response = HttpTester.parseResponse(servletTester.getResponses(request.generate()));
+        assertThat(response.getContent())
+                .isEqualTo("HELLO THERE");
+
+        assertThat(servlet.getCacheSize())
+                .isEqualTo(1);
+        assertThat(servlet.getCacheStats().missCount())
+                .isEqualTo(1);
+        assertThat(servlet.getCacheStats().hitCount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void weighsCachedAssetsByTheirSize() throws Exception {
+        request.setURI(WEIGHED_SERVLET + "example.txt");
+        response = HttpTester.parseResponse(servletTester.getResponses(request.generate()));
+        assertThat(response.getContent())
+                .isEqualTo("HELLO THERE");
+
+        assertThat(((AssetServlet) weighedServletHolder.getServlet()).getCacheSize())
+                .isEqualTo(0);
+    }
+
+    @Test
+    public void servesMappedFiles() throws Exception {
+        request.setURI(MAPPED_SERVLET + "example.txt");
+        response = HttpTester.parseResponse(servletTester.getResponses(request.generate()));
+        assertThat(response.getStatus())
+                .isEqualTo(200);
+        assertThat(response.getContent())
+                .isEqualTo("HELLO THERE");
+        assertThat(response.get(HttpHeaders.ETAG))
+                .isEqualTo("\"174a6dd7325e64c609eab14ab1d30b86\"");
+    }
+
+    @Test
+    public void mapsLargeFiles() throws Exception {
+        final String content = Strings.repeat("0123456789", AssetServlet.MAPPING_THRESHOLD / 10 + 1);
+        final File file = new File(new File(Resources.getResource("assets").toURI()), "large.txt");
+        Files.write(content, file, Charsets.UTF_8);
+        try {
+            request.setURI(MAPPED_SERVLET + "large.txt");
+            response = HttpTester.parseResponse(servletTester.getResponses(request.generate()));
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(response.getContent()).isEqualTo(content);
+            assertThat(response.get(HttpHeaders.CONTENT_LENGTH)).isEqualTo(String.valueOf(content.length()));
+
+            request.setHeader(HttpHeaders.RANGE, "bytes=1-2,-1");
+            response = HttpTester.parseResponse(servletTester.getResponses(request.generate()));
+            assertThat(response.getStatus()).isEqualTo(206);
+            assertThat(response.getContent()).isEqualTo("129");
+            assertThat(response.get(HttpHeaders.CONTENT_LENGTH)).isEqualTo("3");
+        } finally {
+            assertThat(file.delete()).isTrue();
+        }
+    }
+
+    @Test
+    public void supportsMultipleByteRangesOfMappedFiles() throws Exception {
+        request.setURI(MAPPED_SERVLET + "example.txt");
+        request.setHeader(HttpHeaders.RANGE, "bytes=0-0,-1");
+        response = HttpTester.parseResponse(servletTester.getResponses(request.generate()));
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContent()).isEqualTo("HE");
+        assertThat(response.get(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 0-0,10-10/11");
+    }
+
+    @Test
+    public void servesPrecompressedVariantsToClientsWhichAcceptThem() throws Exception {
+        request.setURI(DUMMY_SERVLET + "precompressed.txt");
+        response = HttpTester.parseResponse(servletTester.getResponses(request.generate()));
+        assertThat(response.getStatus())
+                .isEqualTo(200);
+        assertThat(response.getContent())
+                .isEqualTo("HELLO COMPRESSED");
+        assertThat(response.get(HttpHeaders.CONTENT_ENCODING))
+                .isNull();
+        assertThat(response.get(HttpHeaders.VARY))
+                .isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        final String identityEtag = response.get(HttpHeaders.ETAG);
+
+        request.setHeader(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip");
+        response = HttpTester.parseResponse(servletTester.getResponses(request.generate()));
+        assertThat(response.getStatus())
+                .isEqualTo(200);
+        assertThat(response.get(HttpHeaders.CONTENT_ENCODING))
+                .isEqualTo("gzip");
+        assertThat(response.get(HttpHeaders.VARY))
+                .isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.get(HttpHeaders.ETAG))
+                .isNotEqualTo(identityEtag);
+
+        request.setHeader(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0");
+        response = HttpTester.parseResponse(servletTester.getResponses(request.generate()));
+        assertThat(response.get(HttpHeaders.CONTENT_ENCODING))
+                .isNull();
+        assertThat(response.get(HttpHeaders.ETAG))
+                .isEqualTo(identityEtag);
+    }
+
+    @Test
+    public void doesNotVaryAssetsWithoutPrecompressedVariants() throws Exception {
+        request.setHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        response = HttpTester.parseResponse(servletTester.getResponses(request.generate()));
+        assertThat(response.getContent())
+                .isEqualTo("HELLO THERE");
+        assertThat(response.get(HttpHeaders.CONTENT_ENCODING))
+                .isNull();
+        assertThat(response.get(HttpHeaders.VARY))
+                .isNull();
+    }
+
     @Test
     public void supportsIfNoneMatchRequests() throws Exception {
         response = HttpTester.parseResponse(servletTester.getResponses(request.generate()));
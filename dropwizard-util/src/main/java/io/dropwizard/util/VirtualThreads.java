@@ -0,0 +1,94 @@
+package io.dropwizard.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to the virtual threads of Java 21 and later, for code which is compiled for older versions.
+ * <p/>
+ * Virtual threads are always daemon threads, and their priority can't be changed.
+ */
+public final class VirtualThreads {
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_FACTORY;
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderFactory = null;
+        Method newThreadPerTaskExecutor = null;
+        try {
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            builderName = builderClass.getMethod("name", String.class, long.class);
+            builderFactory = builderClass.getMethod("factory");
+            newThreadPerTaskExecutor = Class.forName("java.util.concurrent.Executors")
+                                            .getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (ClassNotFoundException | NoSuchMethodException ignored) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_FACTORY = builderFactory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+    }
+
+    private VirtualThreads() { /* singleton */ }
+
+    /**
+     * @return {@code true} if the running JVM supports virtual threads
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates a factory for virtual threads, named {@code prefix} followed by a sequence number.
+     *
+     * @param prefix the prefix of the thread names
+     * @return a factory for virtual threads
+     * @throws UnsupportedOperationException if the running JVM doesn't support virtual threads
+     */
+    public static ThreadFactory threadFactory(String prefix) {
+        checkSupported();
+        final Object builder = invoke(OF_VIRTUAL, null);
+        return (ThreadFactory) invoke(BUILDER_FACTORY, invoke(BUILDER_NAME, builder, prefix, 0L));
+    }
+
+    /**
+     * Creates an executor which starts a new thread for each task.
+     *
+     * @param threadFactory the factory of the threads
+     * @return an executor which starts a new thread for each task
+     * @throws UnsupportedOperationException if the running JVM doesn't support virtual threads
+     */
+    public static ExecutorService newThreadPerTaskExecutor(ThreadFactory threadFactory) {
+        checkSupported();
+        return (ExecutorService) invoke(NEW_THREAD_PER_TASK_EXECUTOR, null, threadFactory);
+    }
+
+    private static void checkSupported() {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or later, running on " +
+                                                            System.getProperty("java.version"));
+        }
+    }
+
+    private static Object invoke(Method method, Object target, Object... args) {
+        try {
+            return method.invoke(target, args);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package io.dropwizard.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+public class VirtualThreadsTest {
+    private final Runnable task = new Runnable() {
+        @Override
+        public void run() {
+        }
+    };
+
+    @Test
+    public void createsNamedDaemonThreads() throws Exception {
+        assumeTrue(VirtualThreads.isSupported());
+
+        final ThreadFactory factory = VirtualThreads.threadFactory("test-");
+        final Thread first = factory.newThread(task);
+        final Thread second = factory.newThread(task);
+
+        assertThat(first.getName()).isEqualTo("test-0");
+        assertThat(second.getName()).isEqualTo("test-1");
+        assertThat(first.isDaemon()).isTrue();
+    }
+
+    @Test
+    public void createsThreadPerTaskExecutors() throws Exception {
+        assumeTrue(VirtualThreads.isSupported());
+
+        final ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor(VirtualThreads.threadFactory("test-"));
+        try {
+            executor.submit(task).get();
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(executor.isShutdown()).isTrue();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void refusesToCreateThreadsOnOlderJvms() throws Exception {
+        assumeFalse(VirtualThreads.isSupported());
+
+        VirtualThreads.threadFactory("test-");
+    }
+}